@@ -4,7 +4,8 @@ import static com.codeforcommunity.rest.ApiRouter.end;
 
 import com.codeforcommunity.logger.SLogger;
 import com.codeforcommunity.rest.ApiRouter;
-import io.vertx.core.Vertx;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
 import io.vertx.ext.web.Route;
@@ -12,8 +13,12 @@ import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.CorsHandler;
 
-/** The main point for the API. */
-public class ApiMain {
+/**
+ * The main point for the API. This is deployed as a verticle so that several instances, each on its
+ * own event loop, can serve requests on the same port. Every instance shares the same ApiRouter and
+ * therefore the same processors.
+ */
+public class ApiMain extends AbstractVerticle {
   private final SLogger logger = new SLogger(ApiMain.class);
   private final ApiRouter apiRouter;
 
@@ -22,7 +27,8 @@ public class ApiMain {
   }
 
   /** Start the API to start listening on a port. */
-  public void startApi(Vertx vertx) {
+  @Override
+  public void start(Promise<Void> startPromise) {
     HttpServer server = vertx.createHttpServer();
 
     CorsHandler corsHandler =
@@ -51,7 +57,17 @@ public class ApiMain {
     router.mountSubRouter("/api/v1", apiRouter.initializeRouter(vertx));
 
     logger.info("Starting server on port 8081", true);
-    server.requestHandler(router).listen(8081);
+    server
+        .requestHandler(router)
+        .listen(
+            8081,
+            result -> {
+              if (result.succeeded()) {
+                startPromise.complete();
+              } else {
+                startPromise.fail(result.cause());
+              }
+            });
   }
 
   /**
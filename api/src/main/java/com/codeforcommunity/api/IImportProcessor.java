@@ -20,4 +20,17 @@ public interface IImportProcessor {
   void importTreeSpecies(JWTData userData, ImportTreeSpeciesRequest importTreeSpeciesRequest);
 
   void importTreeBenefits(JWTData userData, ImportTreeBenefitsRequest importTreeBenefitsRequest);
+
+  /**
+   * Set the on private street flag of every site that doesn't have one yet, such as sites added
+   * before the flag existed. Only needs to be run once after upgrading.
+   */
+  void backfillPrivateStreetFlags(JWTData userData);
+
+  /**
+   * Store the simplified geometry of every block and neighborhood that doesn't have it yet, such as
+   * those imported before simplified geometry was stored. Only needs to be run once after
+   * upgrading.
+   */
+  void backfillSimplifiedGeometry(JWTData userData);
 }
@@ -1,8 +1,18 @@
 package com.codeforcommunity.api;
 
 import com.codeforcommunity.dto.map.BlockGeoResponse;
+import com.codeforcommunity.dto.map.BoundingBox;
+import com.codeforcommunity.dto.map.MapLayerPayload;
 import com.codeforcommunity.dto.map.NeighborhoodGeoResponse;
+import com.codeforcommunity.dto.map.PrivateStreetResponse;
+import com.codeforcommunity.dto.map.SiteBoxResponse;
+import com.codeforcommunity.dto.map.SiteChangesResponse;
+import com.codeforcommunity.dto.map.SiteClusterResponse;
 import com.codeforcommunity.dto.map.SiteGeoResponse;
+import com.codeforcommunity.enums.GeometryDetail;
+import io.vertx.core.buffer.Buffer;
+import java.sql.Timestamp;
+import java.util.Iterator;
 
 public interface IMapProcessor {
 
@@ -10,5 +20,91 @@ public interface IMapProcessor {
 
   NeighborhoodGeoResponse getNeighborhoodGeoJson();
 
+  /** Returns the block GeoJSON with geometry simplified to the given level of detail. */
+  BlockGeoResponse getBlockGeoJson(GeometryDetail detail);
+
+  /** Returns the neighborhood GeoJSON with geometry simplified to the given level of detail. */
+  NeighborhoodGeoResponse getNeighborhoodGeoJson(GeometryDetail detail);
+
   SiteGeoResponse getSiteGeoJson();
+
+  /**
+   * Returns the site GeoJSON in chunks, each encoded from the in-memory site map only when it is
+   * asked for, rather than building the whole response in memory.
+   */
+  Iterator<Buffer> getSiteGeoJsonChunks();
+
+  /**
+   * Returns the GeoJSON of only the sites inside the given bounding box.
+   *
+   * @param bbox the area of the map being viewed
+   * @param zoom the zoom level of the map, used to leave out sites too close together to be told
+   *     apart, or null to return every site in the box
+   * @return the sites, along with whether any were left out because of the zoom level
+   */
+  SiteBoxResponse getSiteGeoJson(BoundingBox bbox, Integer zoom);
+
+  /**
+   * Returns the sites clustered for the given zoom level, with how many sites, adopted sites and
+   * sites with a tree present make up each cluster.
+   *
+   * @param zoom the zoom level of the map
+   * @param bbox the area of the map being viewed, or null for the whole map
+   */
+  SiteClusterResponse getSiteClusters(int zoom, BoundingBox bbox);
+
+  /**
+   * Returns the sites that have been added, changed or deleted since the given version of the site
+   * change log.
+   *
+   * @param sinceVersion the version returned by the previous request for changes, or 0 for every
+   *     change ever made
+   */
+  SiteChangesResponse getSiteChanges(long sinceVersion);
+
+  /**
+   * Returns the sites that have been added, changed or deleted since the given time. This is only
+   * meant for a client's first sync, since a change that was still being written at the given time
+   * can be missed, and every later sync must ask for changes since the returned version.
+   */
+  SiteChangesResponse getSiteChanges(Timestamp sinceTime);
+
+  /**
+   * Returns the block GeoJSON at the given level of detail, pre-encoded for the current version of
+   * the blocks.
+   */
+  MapLayerPayload getBlockPayload(GeometryDetail detail);
+
+  /**
+   * Returns the neighborhood GeoJSON at the given level of detail, pre-encoded for the current
+   * version of the neighborhoods.
+   */
+  MapLayerPayload getNeighborhoodPayload(GeometryDetail detail);
+
+  /** Returns the site GeoJSON, pre-encoded for the current version of the site map. */
+  MapLayerPayload getSitePayload();
+
+  /**
+   * Returns the site layer in the compact columnar application/x-sftt-sites format, pre-encoded for
+   * the current version of the site map.
+   */
+  MapLayerPayload getSiteColumnarPayload();
+
+  /**
+   * Returns whether the given point is on a private street, and if so which one.
+   *
+   * @param lat the latitude of the point
+   * @param lng the longitude of the point
+   */
+  PrivateStreetResponse getPrivateStreet(double lat, double lng);
+
+  /**
+   * Returns a Mapbox Vector Tile of one of the map layers.
+   *
+   * @param layer the layer of the tile, one of "sites", "blocks" or "neighborhoods"
+   * @param z the zoom level of the tile
+   * @param x the column of the tile
+   * @param y the row of the tile
+   */
+  MapLayerPayload getTile(String layer, int z, int x, int y);
 }
@@ -0,0 +1,14 @@
+package com.codeforcommunity.api;
+
+import com.codeforcommunity.auth.JWTData;
+import com.codeforcommunity.dto.admin.CacheMetrics;
+import com.codeforcommunity.dto.admin.DatabasePoolMetrics;
+import java.util.List;
+
+public interface IProtectedAdminProcessor {
+  /** Returns the current state of the database connection pool. */
+  DatabasePoolMetrics getDatabasePoolMetrics(JWTData userData);
+
+  /** Returns the hit rates and sizes of the in-memory response caches. */
+  List<CacheMetrics> getCacheMetrics(JWTData userData);
+}
@@ -1,8 +1,11 @@
 package com.codeforcommunity.api;
 
+import com.codeforcommunity.dto.map.SiteGeoResponse;
 import com.codeforcommunity.dto.site.GetSiteResponse;
 import com.codeforcommunity.dto.site.StewardshipActivitiesResponse;
 import com.codeforcommunity.dto.site.TreeBenefitsResponse;
+import com.codeforcommunity.dto.site.TreeBenefitsTotalsResponse;
+import io.vertx.core.buffer.Buffer;
 import java.util.List;
 
 public interface ISiteProcessor {
@@ -10,6 +13,22 @@ public interface ISiteProcessor {
   /** Returns all the info about a specific site, including all site entries */
   GetSiteResponse getSite(int siteId);
 
+  /**
+   * Returns the same info as {@link #getSite(int)}, already encoded as a JSON response body. The
+   * body is cached until the site changes, so it must not be modified.
+   */
+  Buffer getEncodedSite(int siteId);
+
+  /**
+   * Returns the active sites closest to the given point, nearest first.
+   *
+   * @param lat the latitude of the point
+   * @param lng the longitude of the point
+   * @param limit the most sites to return
+   * @param radiusMeters the furthest a site may be from the point, or null for no limit
+   */
+  SiteGeoResponse getNearbySites(double lat, double lng, int limit, Double radiusMeters);
+
   /** Returns all stewardship activities for the given site */
   StewardshipActivitiesResponse getStewardshipActivities(int siteId);
 
@@ -23,4 +42,11 @@ public interface ISiteProcessor {
    * money saved for each category.
    */
   TreeBenefitsResponse calculateBenefits(int siteId);
+
+  /**
+   * Returns the total environmental impacts of the trees in the neighborhood with the given id, or
+   * of every tree in the city if no neighborhood is given. Each site's tree is counted by its
+   * latest site entry.
+   */
+  TreeBenefitsTotalsResponse getBenefitTotals(Integer neighborhoodId);
 }
@@ -0,0 +1,45 @@
+package com.codeforcommunity.dto.admin;
+
+public class CacheMetrics {
+  private final String name;
+  private final Integer entries;
+  private final Long bytes;
+  private final Long hits;
+  private final Long misses;
+  private final Long evictions;
+
+  public CacheMetrics(
+      String name, Integer entries, Long bytes, Long hits, Long misses, Long evictions) {
+    this.name = name;
+    this.entries = entries;
+    this.bytes = bytes;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Integer getEntries() {
+    return entries;
+  }
+
+  /** Returns the total size of the cached entries, or null if the cache doesn't track it. */
+  public Long getBytes() {
+    return bytes;
+  }
+
+  public Long getHits() {
+    return hits;
+  }
+
+  public Long getMisses() {
+    return misses;
+  }
+
+  public Long getEvictions() {
+    return evictions;
+  }
+}
@@ -0,0 +1,49 @@
+package com.codeforcommunity.dto.admin;
+
+public class DatabasePoolMetrics {
+  private final String name;
+  private final Integer maxPoolSize;
+  private final Integer activeConnections;
+  private final Integer idleConnections;
+  private final Integer totalConnections;
+  private final Integer threadsAwaitingConnection;
+
+  public DatabasePoolMetrics(
+      String name,
+      Integer maxPoolSize,
+      Integer activeConnections,
+      Integer idleConnections,
+      Integer totalConnections,
+      Integer threadsAwaitingConnection) {
+    this.name = name;
+    this.maxPoolSize = maxPoolSize;
+    this.activeConnections = activeConnections;
+    this.idleConnections = idleConnections;
+    this.totalConnections = totalConnections;
+    this.threadsAwaitingConnection = threadsAwaitingConnection;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Integer getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  public Integer getActiveConnections() {
+    return activeConnections;
+  }
+
+  public Integer getIdleConnections() {
+    return idleConnections;
+  }
+
+  public Integer getTotalConnections() {
+    return totalConnections;
+  }
+
+  public Integer getThreadsAwaitingConnection() {
+    return threadsAwaitingConnection;
+  }
+}
@@ -0,0 +1,63 @@
+package com.codeforcommunity.dto.admin;
+
+public class WorkerPoolMetrics {
+  private final String name;
+  private final Integer poolSize;
+  private final Integer maxQueueDepth;
+  private final Integer queued;
+  private final Integer active;
+  private final Long completed;
+  private final Long failed;
+  private final Long rejected;
+
+  public WorkerPoolMetrics(
+      String name,
+      Integer poolSize,
+      Integer maxQueueDepth,
+      Integer queued,
+      Integer active,
+      Long completed,
+      Long failed,
+      Long rejected) {
+    this.name = name;
+    this.poolSize = poolSize;
+    this.maxQueueDepth = maxQueueDepth;
+    this.queued = queued;
+    this.active = active;
+    this.completed = completed;
+    this.failed = failed;
+    this.rejected = rejected;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Integer getPoolSize() {
+    return poolSize;
+  }
+
+  public Integer getMaxQueueDepth() {
+    return maxQueueDepth;
+  }
+
+  public Integer getQueued() {
+    return queued;
+  }
+
+  public Integer getActive() {
+    return active;
+  }
+
+  public Long getCompleted() {
+    return completed;
+  }
+
+  public Long getFailed() {
+    return failed;
+  }
+
+  public Long getRejected() {
+    return rejected;
+  }
+}
@@ -0,0 +1,37 @@
+package com.codeforcommunity.dto.map;
+
+/** A rectangular area of the map, in degrees of longitude and latitude. */
+public class BoundingBox {
+  private final double minLng;
+  private final double minLat;
+  private final double maxLng;
+  private final double maxLat;
+
+  public BoundingBox(double minLng, double minLat, double maxLng, double maxLat) {
+    this.minLng = minLng;
+    this.minLat = minLat;
+    this.maxLng = maxLng;
+    this.maxLat = maxLat;
+  }
+
+  public double getMinLng() {
+    return minLng;
+  }
+
+  public double getMinLat() {
+    return minLat;
+  }
+
+  public double getMaxLng() {
+    return maxLng;
+  }
+
+  public double getMaxLat() {
+    return maxLat;
+  }
+
+  /** Whether the given point is inside of or on the edge of this box. */
+  public boolean contains(double lat, double lng) {
+    return lng >= minLng && lng <= maxLng && lat >= minLat && lat <= maxLat;
+  }
+}
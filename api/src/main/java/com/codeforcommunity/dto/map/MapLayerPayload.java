@@ -0,0 +1,47 @@
+package com.codeforcommunity.dto.map;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * A map layer already encoded as a JSON response body, along with a gzipped copy of the same body.
+ * Payloads are built once per version of their layer and are never modified, so the same buffers
+ * can be written to any number of responses.
+ *
+ * <p>Each body has its own strong ETag, derived from a hash of the encoded layer so that it stays
+ * the same across restarts and across servers as long as the layer itself is unchanged.
+ */
+public class MapLayerPayload {
+  private final long version;
+  private final Buffer body;
+  private final Buffer gzipBody;
+  private final String etag;
+  private final String gzipEtag;
+
+  public MapLayerPayload(long version, Buffer body, Buffer gzipBody, String etag, String gzipEtag) {
+    this.version = version;
+    this.body = body;
+    this.gzipBody = gzipBody;
+    this.etag = etag;
+    this.gzipEtag = gzipEtag;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public Buffer getBody() {
+    return body;
+  }
+
+  public Buffer getGzipBody() {
+    return gzipBody;
+  }
+
+  public String getEtag() {
+    return etag;
+  }
+
+  public String getGzipEtag() {
+    return gzipEtag;
+  }
+}
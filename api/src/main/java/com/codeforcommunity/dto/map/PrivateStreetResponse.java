@@ -0,0 +1,34 @@
+package com.codeforcommunity.dto.map;
+
+public class PrivateStreetResponse {
+  private final boolean onPrivateStreet;
+  private final String streetName;
+  private final String neighborhood;
+  private final Double distanceMeters;
+
+  public PrivateStreetResponse(
+      boolean onPrivateStreet, String streetName, String neighborhood, Double distanceMeters) {
+    this.onPrivateStreet = onPrivateStreet;
+    this.streetName = streetName;
+    this.neighborhood = neighborhood;
+    this.distanceMeters = distanceMeters;
+  }
+
+  public boolean getOnPrivateStreet() {
+    return onPrivateStreet;
+  }
+
+  /** The name of the private street the point is on, or null if it isn't on one. */
+  public String getStreetName() {
+    return streetName;
+  }
+
+  public String getNeighborhood() {
+    return neighborhood;
+  }
+
+  /** How far the point is from the center line of the street, or null if it isn't on one. */
+  public Double getDistanceMeters() {
+    return distanceMeters;
+  }
+}
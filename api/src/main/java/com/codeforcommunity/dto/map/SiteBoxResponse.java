@@ -0,0 +1,27 @@
+package com.codeforcommunity.dto.map;
+
+import java.util.List;
+
+/**
+ * The GeoJSON of the sites inside a bounding box. Below a zoom level of {@code fullDetailZoom},
+ * sites too close together to be told apart on the map are left out, in which case {@code thinned}
+ * is true and a client wanting every site must zoom in further (or ask without a zoom).
+ */
+public class SiteBoxResponse extends SiteGeoResponse {
+  private final boolean thinned;
+  private final int fullDetailZoom;
+
+  public SiteBoxResponse(List<SiteFeature> features, boolean thinned, int fullDetailZoom) {
+    super(features);
+    this.thinned = thinned;
+    this.fullDetailZoom = fullDetailZoom;
+  }
+
+  public boolean getThinned() {
+    return thinned;
+  }
+
+  public int getFullDetailZoom() {
+    return fullDetailZoom;
+  }
+}
@@ -0,0 +1,31 @@
+package com.codeforcommunity.dto.map;
+
+import java.util.List;
+
+public class SiteChangesResponse {
+  private final long version;
+  private final List<SiteFeature> features;
+  private final List<Integer> deletedSiteIds;
+
+  public SiteChangesResponse(
+      long version, List<SiteFeature> features, List<Integer> deletedSiteIds) {
+    this.version = version;
+    this.features = features;
+    this.deletedSiteIds = deletedSiteIds;
+  }
+
+  /** The version to ask for changes since on the next request. */
+  public long getVersion() {
+    return version;
+  }
+
+  /** The current features of the sites that were added or changed. */
+  public List<SiteFeature> getFeatures() {
+    return features;
+  }
+
+  /** The ids of the sites that were deleted and should be removed from the map. */
+  public List<Integer> getDeletedSiteIds() {
+    return deletedSiteIds;
+  }
+}
@@ -0,0 +1,25 @@
+package com.codeforcommunity.dto.map;
+
+public class SiteClusterFeature {
+  private final String type;
+  private final SiteClusterProperties properties;
+  private final GeometryPoint geometry;
+
+  public SiteClusterFeature(SiteClusterProperties properties, GeometryPoint geometry) {
+    this.type = "Feature";
+    this.properties = properties;
+    this.geometry = geometry;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public SiteClusterProperties getProperties() {
+    return properties;
+  }
+
+  public GeometryPoint getGeometry() {
+    return geometry;
+  }
+}
@@ -0,0 +1,37 @@
+package com.codeforcommunity.dto.map;
+
+public class SiteClusterProperties {
+  private final int count;
+  private final int adoptedCount;
+  private final int treePresentCount;
+  private final Integer siteId;
+
+  /**
+   * @param count the number of sites in the cluster
+   * @param adoptedCount the number of those sites that are adopted
+   * @param treePresentCount the number of those sites with a tree present
+   * @param siteId the id of the site if the cluster is a single site, otherwise null
+   */
+  public SiteClusterProperties(int count, int adoptedCount, int treePresentCount, Integer siteId) {
+    this.count = count;
+    this.adoptedCount = adoptedCount;
+    this.treePresentCount = treePresentCount;
+    this.siteId = siteId;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public int getAdoptedCount() {
+    return adoptedCount;
+  }
+
+  public int getTreePresentCount() {
+    return treePresentCount;
+  }
+
+  public Integer getSiteId() {
+    return siteId;
+  }
+}
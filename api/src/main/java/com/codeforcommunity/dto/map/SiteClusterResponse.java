@@ -0,0 +1,33 @@
+package com.codeforcommunity.dto.map;
+
+import java.util.List;
+
+public class SiteClusterResponse {
+  private final String type;
+  private final String name;
+  private final int zoom;
+  private final List<SiteClusterFeature> features;
+
+  public SiteClusterResponse(int zoom, List<SiteClusterFeature> features) {
+    this.type = "FeatureCollection";
+    this.name = "site_clusters";
+    this.zoom = zoom;
+    this.features = features;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getZoom() {
+    return zoom;
+  }
+
+  public List<SiteClusterFeature> getFeatures() {
+    return features;
+  }
+}
@@ -14,6 +14,7 @@ public class GetSiteResponse {
   private final String address;
   private final Integer neighborhoodId;
   private final SiteOwner owner;
+  private final Boolean onPrivateStreet;
   private final List<SiteEntry> entries;
 
   public GetSiteResponse(
@@ -26,6 +27,7 @@ public class GetSiteResponse {
       String address,
       Integer neighborhoodId,
       SiteOwner owner,
+      Boolean onPrivateStreet,
       List<SiteEntry> entries) {
     this.siteId = siteId;
     this.blockId = blockId;
@@ -36,6 +38,7 @@ public class GetSiteResponse {
     this.address = address;
     this.neighborhoodId = neighborhoodId;
     this.owner = owner;
+    this.onPrivateStreet = onPrivateStreet;
     this.entries = entries;
   }
 
@@ -75,6 +78,10 @@ public class GetSiteResponse {
     return owner;
   }
 
+  public Boolean getOnPrivateStreet() {
+    return onPrivateStreet;
+  }
+
   public List<SiteEntry> getEntries() {
     return entries;
   }
@@ -0,0 +1,28 @@
+package com.codeforcommunity.dto.site;
+
+public class TreeBenefitsTotalsResponse {
+  private final Integer neighborhoodId;
+  private final int treeCount;
+  private final TreeBenefitsResponse benefits;
+
+  public TreeBenefitsTotalsResponse(
+      Integer neighborhoodId, int treeCount, TreeBenefitsResponse benefits) {
+    this.neighborhoodId = neighborhoodId;
+    this.treeCount = treeCount;
+    this.benefits = benefits;
+  }
+
+  /** Returns the id of the neighborhood the totals are of, or null if they are city-wide. */
+  public Integer getNeighborhoodId() {
+    return neighborhoodId;
+  }
+
+  /** Returns the number of trees whose benefits are included in the totals. */
+  public int getTreeCount() {
+    return treeCount;
+  }
+
+  public TreeBenefitsResponse getBenefits() {
+    return benefits;
+  }
+}
@@ -4,6 +4,7 @@ import com.codeforcommunity.api.IAuthProcessor;
 import com.codeforcommunity.api.IImportProcessor;
 import com.codeforcommunity.api.ILeaderboardProcessor;
 import com.codeforcommunity.api.IMapProcessor;
+import com.codeforcommunity.api.IProtectedAdminProcessor;
 import com.codeforcommunity.api.IProtectedEmailerProcessor;
 import com.codeforcommunity.api.IProtectedNeighborhoodsProcessor;
 import com.codeforcommunity.api.IProtectedReportProcessor;
@@ -19,6 +20,7 @@ import com.codeforcommunity.rest.subrouter.CommonRouter;
 import com.codeforcommunity.rest.subrouter.ImportRouter;
 import com.codeforcommunity.rest.subrouter.LeaderboardRouter;
 import com.codeforcommunity.rest.subrouter.MapRouter;
+import com.codeforcommunity.rest.subrouter.ProtectedAdminRouter;
 import com.codeforcommunity.rest.subrouter.ProtectedEmailerRouter;
 import com.codeforcommunity.rest.subrouter.ProtectedNeighborhoodsRouter;
 import com.codeforcommunity.rest.subrouter.ProtectedReportRouter;
@@ -29,6 +31,7 @@ import com.codeforcommunity.rest.subrouter.ReservationRouter;
 import com.codeforcommunity.rest.subrouter.SiteRouter;
 import com.codeforcommunity.rest.subrouter.TeamsRouter;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.Router;
 
@@ -47,7 +50,9 @@ public class ApiRouter implements IRouter {
   private final ReportRouter reportRouter;
   private final ProtectedNeighborhoodsRouter protectedNeighborhoodsRouter;
   private final ProtectedEmailerRouter protectedEmailerRouter;
+  private final ProtectedAdminRouter protectedAdminRouter;
   private final IpThrottlingFilter filter;
+  private final WorkerPools workerPools;
 
   public ApiRouter(
       IAuthProcessor authProcessor,
@@ -63,8 +68,10 @@ public class ApiRouter implements IRouter {
       IReportProcessor reportProcessor,
       IProtectedNeighborhoodsProcessor protectedNeighborhoodsProcessor,
       IProtectedEmailerProcessor emailerProcessor,
+      IProtectedAdminProcessor adminProcessor,
       JWTAuthorizer jwtAuthorizer,
-      IpThrottlingFilter filter) {
+      IpThrottlingFilter filter,
+      WorkerPools workerPools) {
     this.commonRouter = new CommonRouter(jwtAuthorizer);
     this.authRouter = new AuthRouter(authProcessor);
     this.protectedUserRouter = new ProtectedUserRouter(protectedUserProcessor);
@@ -80,20 +87,24 @@ public class ApiRouter implements IRouter {
     this.protectedNeighborhoodsRouter =
         new ProtectedNeighborhoodsRouter(protectedNeighborhoodsProcessor);
     this.protectedEmailerRouter = new ProtectedEmailerRouter(emailerProcessor);
+    this.protectedAdminRouter = new ProtectedAdminRouter(adminProcessor, workerPools);
     this.filter = filter;
+    this.workerPools = workerPools;
   }
 
   /** Initialize a router and register all route handlers on it. */
   public Router initializeRouter(Vertx vertx) {
     Router router = commonRouter.initializeRouter(vertx);
     router.route().handler(this.filter);
+    workerPools.initialize(vertx);
 
-    router.mountSubRouter("/user", authRouter.initializeRouter(vertx));
+    WorkerPool publicPool = workerPools.getPublicPool();
+    mountOnPool(router, "/user", publicPool, authRouter.initializeRouter(vertx));
     router.mountSubRouter("/protected", defineProtectedRoutes(vertx));
-    router.mountSubRouter("/leaderboard", leaderboardRouter.initializeRouter(vertx));
-    router.mountSubRouter("/map", mapRouter.initializeRouter(vertx));
-    router.mountSubRouter("/sites", siteRouter.initializeRouter(vertx));
-    router.mountSubRouter("/report", reportRouter.initializeRouter(vertx));
+    mountOnPool(router, "/leaderboard", publicPool, leaderboardRouter.initializeRouter(vertx));
+    mountOnPool(router, "/map", publicPool, mapRouter.initializeRouter(vertx));
+    mountOnPool(router, "/sites", publicPool, siteRouter.initializeRouter(vertx));
+    mountOnPool(router, "/report", publicPool, reportRouter.initializeRouter(vertx));
 
     return router;
   }
@@ -106,18 +117,38 @@ public class ApiRouter implements IRouter {
     Router router = Router.router(vertx);
     router.route().handler(this.filter);
 
-    router.mountSubRouter("/user", protectedUserRouter.initializeRouter(vertx));
-    router.mountSubRouter("/import", importRouter.initializeRouter(vertx));
-    router.mountSubRouter("/reservations", reservationRouter.initializeRouter(vertx));
-    router.mountSubRouter("/teams", teamsRouter.initializeRouter(vertx));
-    router.mountSubRouter("/sites", protectedSiteRouter.initializeRouter(vertx));
-    router.mountSubRouter("/report", protectedReportRouter.initializeRouter(vertx));
-    router.mountSubRouter("/neighborhoods", protectedNeighborhoodsRouter.initializeRouter(vertx));
-    router.mountSubRouter("/emailer", protectedEmailerRouter.initializeRouter(vertx));
+    WorkerPool protectedPool = workerPools.getProtectedPool();
+    mountOnPool(router, "/user", protectedPool, protectedUserRouter.initializeRouter(vertx));
+    mountOnPool(
+        router, "/import", workerPools.getImportPool(), importRouter.initializeRouter(vertx));
+    mountOnPool(router, "/reservations", protectedPool, reservationRouter.initializeRouter(vertx));
+    mountOnPool(router, "/teams", protectedPool, teamsRouter.initializeRouter(vertx));
+    mountOnPool(router, "/sites", protectedPool, protectedSiteRouter.initializeRouter(vertx));
+    mountOnPool(
+        router,
+        "/report",
+        workerPools.getReportPool(),
+        protectedReportRouter.initializeRouter(vertx));
+    mountOnPool(
+        router,
+        "/neighborhoods",
+        protectedPool,
+        protectedNeighborhoodsRouter.initializeRouter(vertx));
+    mountOnPool(router, "/emailer", protectedPool, protectedEmailerRouter.initializeRouter(vertx));
+    router.mountSubRouter("/admin", protectedAdminRouter.initializeRouter(vertx));
 
     return router;
   }
 
+  /**
+   * Mounts the given subrouter at the given path so that all of its handlers wrapped with {@link
+   * WorkerPool#blocking} run on the given worker pool rather than on the event loop.
+   */
+  private void mountOnPool(Router router, String path, WorkerPool pool, Router subRouter) {
+    router.route(path + "/*").handler(pool);
+    router.mountSubRouter(path, subRouter);
+  }
+
   public static void end(HttpServerResponse response, int statusCode) {
     end(response, statusCode, null);
   }
@@ -128,6 +159,25 @@ public class ApiRouter implements IRouter {
 
   public static void end(
       HttpServerResponse response, int statusCode, String jsonBody, String contentType) {
+    putCommonHeaders(response, statusCode, contentType);
+    if (jsonBody == null || jsonBody.equals("")) {
+      response.end();
+    } else {
+      response.end(jsonBody);
+    }
+  }
+
+  /**
+   * Ends the response with an already encoded body. The buffer is not copied or modified, so the
+   * same buffer can be used to end many responses.
+   */
+  public static void end(
+      HttpServerResponse response, int statusCode, Buffer body, String contentType) {
+    putCommonHeaders(response, statusCode, contentType);
+    response.end(body);
+  }
+
+  static void putCommonHeaders(HttpServerResponse response, int statusCode, String contentType) {
     response
         .setStatusCode(statusCode)
         .putHeader("Content-Type", contentType)
@@ -136,10 +186,5 @@ public class ApiRouter implements IRouter {
         .putHeader(
             "Access-Control-Allow-Headers",
             "Content-Type, Access-Control-Allow-Headers, Authorization, X-Requested-With");
-    if (jsonBody == null || jsonBody.equals("")) {
-      response.end();
-    } else {
-      response.end(jsonBody);
-    }
   }
 }
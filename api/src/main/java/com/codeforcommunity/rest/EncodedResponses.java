@@ -0,0 +1,129 @@
+package com.codeforcommunity.rest;
+
+import static com.codeforcommunity.rest.ApiRouter.end;
+
+import com.codeforcommunity.dto.map.MapLayerPayload;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+
+/** Functions for ending responses with pre-encoded payloads. */
+public class EncodedResponses {
+
+  /**
+   * Ends the response with the given payload. The gzipped body is sent if the client accepts gzip.
+   * A 304 with no body is sent if the client already has this version of the payload, which it
+   * shows by sending one of the payload's ETags in If-None-Match.
+   *
+   * @param ctx the routing context of the request
+   * @param payload the payload to respond with
+   * @param contentType the content type of the payload's uncompressed body
+   */
+  public static void endWithPayload(
+      RoutingContext ctx, MapLayerPayload payload, String contentType) {
+    endWithPayload(ctx, payload, contentType, "Accept-Encoding");
+  }
+
+  /**
+   * Ends the response with the given payload, for routes that also pick the payload based on other
+   * request headers.
+   *
+   * @param vary the request headers that the payload was picked by, including Accept-Encoding
+   * @see #endWithPayload(RoutingContext, MapLayerPayload, String)
+   */
+  public static void endWithPayload(
+      RoutingContext ctx, MapLayerPayload payload, String contentType, String vary) {
+    HttpServerRequest request = ctx.request();
+    HttpServerResponse response = ctx.response();
+    boolean gzip = acceptsGzip(request.getHeader("Accept-Encoding"));
+
+    response
+        .putHeader("ETag", gzip ? payload.getGzipEtag() : payload.getEtag())
+        .putHeader("Vary", vary)
+        // Caches may store the payload but must check that it's still current before using it
+        .putHeader("Cache-Control", "no-cache");
+
+    if (matchesIfNoneMatch(request.getHeader("If-None-Match"), payload)) {
+      end(response, 304);
+      return;
+    }
+
+    if (gzip) {
+      response.putHeader("Content-Encoding", "gzip");
+      end(response, 200, payload.getGzipBody(), contentType);
+    } else {
+      end(response, 200, payload.getBody(), contentType);
+    }
+  }
+
+  /**
+   * Returns whether the given Accept-Encoding header allows a gzipped response. Gzip is accepted if
+   * it is listed (or, when it isn't listed, covered by "*") without a quality value of 0.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+
+    Boolean gzip = null;
+    Boolean wildcard = null;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      String name = parts[0].trim();
+      if (name.equalsIgnoreCase("gzip")) {
+        gzip = hasNonZeroQuality(parts);
+      } else if (name.equals("*")) {
+        wildcard = hasNonZeroQuality(parts);
+      }
+    }
+
+    // An explicit gzip entry takes precedence over "*"
+    if (gzip != null) {
+      return gzip;
+    }
+    return wildcard != null && wildcard;
+  }
+
+  /**
+   * Returns whether the parameters of an Accept-Encoding entry leave its quality above 0. A missing
+   * quality is 1, and a malformed one is treated as 0.
+   */
+  private static boolean hasNonZeroQuality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String param = parts[i].trim();
+      if (param.startsWith("q=")) {
+        try {
+          return Double.parseDouble(param.substring(2)) > 0;
+        } catch (NumberFormatException e) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the given If-None-Match header matches either of the payload's ETags. Both
+   * encodings of a payload hold the same layer, so a client holding either one is up to date.
+   */
+  static boolean matchesIfNoneMatch(String ifNoneMatch, MapLayerPayload payload) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+
+    for (String tag : ifNoneMatch.split(",")) {
+      String trimmed = tag.trim();
+      if (trimmed.equals("*")) {
+        return true;
+      }
+      // If-None-Match uses weak comparison, so a weak version of our tag also matches
+      if (trimmed.startsWith("W/")) {
+        trimmed = trimmed.substring(2);
+      }
+      if (trimmed.equals(payload.getEtag()) || trimmed.equals(payload.getGzipEtag())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
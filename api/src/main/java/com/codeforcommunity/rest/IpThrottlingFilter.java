@@ -6,27 +6,25 @@ import io.github.bucket4j.Bucket;
 import io.github.bucket4j.BucketConfiguration;
 import io.vertx.core.Handler;
 import io.vertx.ext.web.RoutingContext;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class IpThrottlingFilter implements Handler<RoutingContext> {
   private final BucketConfiguration config;
-  private Map<String, Bucket> buckets;
+  // Shared by every API verticle instance, so requests from different event loops can race here
+  private final Map<String, Bucket> buckets;
 
   public IpThrottlingFilter(BucketConfiguration config) {
     this.config = config;
-    this.buckets = new HashMap<>();
+    this.buckets = new ConcurrentHashMap<>();
   }
 
   @Override
   public void handle(RoutingContext ctx) {
     String ip = ctx.request().remoteAddress().toString();
-    Bucket bucket = this.buckets.get(ip);
-
-    if (bucket == null) {
-      bucket = Bucket.builder().addLimit(this.config.getBandwidths()[0]).build();
-      this.buckets.put(ip, bucket);
-    }
+    Bucket bucket =
+        this.buckets.computeIfAbsent(
+            ip, key -> Bucket.builder().addLimit(this.config.getBandwidths()[0]).build());
 
     if (bucket.tryConsume(1)) {
       ctx.next();
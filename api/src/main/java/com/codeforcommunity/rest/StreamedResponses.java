@@ -0,0 +1,119 @@
+package com.codeforcommunity.rest;
+
+import static com.codeforcommunity.rest.ApiRouter.putCommonHeaders;
+import static com.codeforcommunity.rest.WorkerPool.continueBlocking;
+
+import com.codeforcommunity.logger.SLogger;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/** Functions for streaming a response body in chunks. */
+public class StreamedResponses {
+  // How long to wait for a client that has stopped reading before giving up on it
+  private static final long STALL_TIMEOUT_MILLIS = 30 * 1000;
+
+  private static final SLogger logger = new SLogger(StreamedResponses.class);
+
+  /**
+   * Stream a chunked 200 response, taking each chunk from the given iterator only once the client
+   * has read enough of the ones before it. While the client catches up, nothing waits on it: the
+   * rest of the stream continues on the request's worker pool once the client has drained what was
+   * written, so a slow client never holds up a worker thread. A client that stops reading for
+   * longer than the stall timeout is disconnected.
+   *
+   * <p>Once the status has been sent, a failure can no longer be reported with one, so if the
+   * iterator throws partway through, the connection is closed and the client sees an incomplete
+   * response rather than a truncated body that looks complete.
+   *
+   * @param ctx the context of the request to respond to
+   * @param contentType the content type of the body
+   * @param chunks produces each chunk of the body in order, never by more than one thread at a time
+   */
+  public static void streamChunked(
+      RoutingContext ctx, String contentType, Iterator<Buffer> chunks) {
+    HttpServerResponse response = ctx.response();
+    putCommonHeaders(response, 200, contentType);
+    response.setChunked(true);
+
+    ChunkPump pump = new ChunkPump(ctx, chunks);
+    response.closeHandler(v -> pump.stop());
+    response.drainHandler(v -> pump.resume());
+    pump.run();
+  }
+
+  /**
+   * Writes chunks until the client's write queue is full, and then waits for it to drain. Only one
+   * thread is ever running the pump, which is the thread that claimed it through {@link #running}.
+   */
+  private static class ChunkPump {
+    private final RoutingContext ctx;
+    private final HttpServerResponse response;
+    private final Iterator<Buffer> chunks;
+
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private volatile boolean stopped = false;
+    private volatile long stallTimer = -1;
+
+    private ChunkPump(RoutingContext ctx, Iterator<Buffer> chunks) {
+      this.ctx = ctx;
+      this.response = ctx.response();
+      this.chunks = chunks;
+    }
+
+    /** Continue the stream on the request's worker pool, unless it is already running. */
+    private void resume() {
+      if (!stopped && running.compareAndSet(false, true)) {
+        continueBlocking(ctx, this::run);
+      }
+    }
+
+    private void stop() {
+      stopped = true;
+      ctx.vertx().cancelTimer(stallTimer);
+    }
+
+    /**
+     * Write chunks until the stream ends or the client falls behind. Must hold {@link #running}.
+     */
+    private void run() {
+      ctx.vertx().cancelTimer(stallTimer);
+      try {
+        while (!stopped) {
+          if (response.writeQueueFull()) {
+            stallTimer = ctx.vertx().setTimer(STALL_TIMEOUT_MILLIS, id -> abort());
+            running.set(false);
+            // The queue may have drained before the pump stopped running, in which case there is
+            // nothing left to resume it
+            if (response.writeQueueFull() || !running.compareAndSet(false, true)) {
+              return;
+            }
+            ctx.vertx().cancelTimer(stallTimer);
+            continue;
+          }
+
+          if (!chunks.hasNext()) {
+            stopped = true;
+            response.end();
+            return;
+          }
+          response.write(chunks.next());
+        }
+      } catch (RuntimeException e) {
+        // Writing fails once the client has gone away, which isn't worth reporting
+        if (!stopped) {
+          logger.error("Failed partway through streaming a response", e);
+          abort();
+        }
+      }
+    }
+
+    /** Close the connection, so the client can't mistake what was written for the whole body. */
+    private void abort() {
+      stop();
+      ctx.request().connection().close();
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package com.codeforcommunity.rest;
+
+import static com.codeforcommunity.rest.ApiRouter.end;
+
+import com.codeforcommunity.dto.admin.WorkerPoolMetrics;
+import com.codeforcommunity.logger.SLogger;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.ext.web.RoutingContext;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named, size-bounded pool of worker threads for a group of routes. Mounting this handler in
+ * front of a subrouter marks every request to it as belonging to this pool, and the subrouter's
+ * handlers, wrapped with {@link #blocking(Handler)}, then run on this pool's threads. Only the
+ * route handlers themselves (and therefore every blocking processor call) leave the Vert.x event
+ * loop; routing, failure handling and anything else in the handler chain stays on it.
+ *
+ * <p>At most {@code maxQueueDepth} requests may be waiting for a free worker at a time. Any
+ * requests beyond that are rejected with a 503 instead of piling up behind slow queries.
+ */
+public class WorkerPool implements Handler<RoutingContext> {
+  // The routing context key the pool a request was routed through is stored under
+  private static final String CONTEXT_KEY = "worker_pool";
+
+  private static final SLogger logger = new SLogger(WorkerPool.class);
+
+  private final String name;
+  private final int poolSize;
+  private final int maxQueueDepth;
+
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+
+  private WorkerExecutor executor;
+
+  public WorkerPool(String name, int poolSize, int maxQueueDepth) {
+    this.name = name;
+    this.poolSize = poolSize;
+    this.maxQueueDepth = maxQueueDepth;
+  }
+
+  /**
+   * Create the underlying worker executor. Executors are shared by name, so calling this more than
+   * once (or from more than one Vert.x context) always resolves to the same threads.
+   */
+  public synchronized void initialize(Vertx vertx) {
+    if (this.executor == null) {
+      this.executor = vertx.createSharedWorkerExecutor(this.name, this.poolSize);
+    }
+  }
+
+  @Override
+  public void handle(RoutingContext ctx) {
+    ctx.put(CONTEXT_KEY, this);
+    ctx.next();
+  }
+
+  /**
+   * Wraps a route handler so that it runs on the worker pool its request was routed through. The
+   * handler must end the response or throw; if it throws, the request is failed back on the event
+   * loop. Requests that weren't routed through a pool are handled in place.
+   *
+   * @param handler the route handler to wrap
+   * @return a handler that runs the given handler on the request's worker pool
+   */
+  public static Handler<RoutingContext> blocking(Handler<RoutingContext> handler) {
+    return ctx -> {
+      WorkerPool pool = ctx.get(CONTEXT_KEY);
+      if (pool == null) {
+        handler.handle(ctx);
+      } else {
+        pool.execute(ctx, handler);
+      }
+    };
+  }
+
+  /**
+   * Continues an already admitted request on the worker pool it was routed through, such as to
+   * write the next part of a streamed response once the client has caught up. Continuations aren't
+   * counted as requests of their own and never wait behind the queue limit. Requests that weren't
+   * routed through a pool are continued in place.
+   *
+   * @param ctx the context of the request to continue
+   * @param task the work to continue it with, which must handle its own failures
+   */
+  public static void continueBlocking(RoutingContext ctx, Runnable task) {
+    WorkerPool pool = ctx.get(CONTEXT_KEY);
+    if (pool == null) {
+      task.run();
+      return;
+    }
+
+    pool.executor.<Void>executeBlocking(
+        promise -> {
+          task.run();
+          promise.complete();
+        },
+        false,
+        result -> {
+          if (result.failed()) {
+            logger.error("Failed to continue a request on " + pool.name, result.cause());
+          }
+        });
+  }
+
+  private void execute(RoutingContext ctx, Handler<RoutingContext> handler) {
+    if (this.queued.incrementAndGet() > this.maxQueueDepth) {
+      this.queued.decrementAndGet();
+      this.rejected.incrementAndGet();
+      end(ctx.response(), 503, "Server is busy, please try again later", "text/plain");
+      return;
+    }
+
+    this.executor.<Void>executeBlocking(
+        promise -> {
+          this.queued.decrementAndGet();
+          this.active.incrementAndGet();
+          try {
+            handler.handle(ctx);
+            promise.complete();
+          } finally {
+            this.active.decrementAndGet();
+          }
+        },
+        false,
+        // Called back on the event loop that the request came in on
+        result -> {
+          if (result.succeeded()) {
+            this.completed.incrementAndGet();
+          } else {
+            this.failed.incrementAndGet();
+            if (!ctx.response().ended()) {
+              ctx.fail(result.cause());
+            }
+          }
+        });
+  }
+
+  /** Returns a point-in-time snapshot of this pool's counters. */
+  public WorkerPoolMetrics getMetrics() {
+    return new WorkerPoolMetrics(
+        this.name,
+        this.poolSize,
+        this.maxQueueDepth,
+        this.queued.get(),
+        this.active.get(),
+        this.completed.get(),
+        this.failed.get(),
+        this.rejected.get());
+  }
+}
@@ -0,0 +1,59 @@
+package com.codeforcommunity.rest;
+
+import com.codeforcommunity.dto.admin.WorkerPoolMetrics;
+import io.vertx.core.Vertx;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** The worker pools that each group of routes runs its processor calls on. */
+public class WorkerPools {
+  // Public, unauthenticated routes: the map layers, site lookups, leaderboards and login
+  private final WorkerPool publicPool;
+  // Authenticated routes, most of which write to the database
+  private final WorkerPool protectedPool;
+  // Admin reports, which run long aggregate queries
+  private final WorkerPool reportPool;
+  // Bulk data imports
+  private final WorkerPool importPool;
+
+  public WorkerPools(
+      WorkerPool publicPool,
+      WorkerPool protectedPool,
+      WorkerPool reportPool,
+      WorkerPool importPool) {
+    this.publicPool = publicPool;
+    this.protectedPool = protectedPool;
+    this.reportPool = reportPool;
+    this.importPool = importPool;
+  }
+
+  /** Create the worker executors for every pool. */
+  public void initialize(Vertx vertx) {
+    getAll().forEach(pool -> pool.initialize(vertx));
+  }
+
+  public WorkerPool getPublicPool() {
+    return publicPool;
+  }
+
+  public WorkerPool getProtectedPool() {
+    return protectedPool;
+  }
+
+  public WorkerPool getReportPool() {
+    return reportPool;
+  }
+
+  public WorkerPool getImportPool() {
+    return importPool;
+  }
+
+  public List<WorkerPool> getAll() {
+    return Arrays.asList(publicPool, protectedPool, reportPool, importPool);
+  }
+
+  public List<WorkerPoolMetrics> getMetrics() {
+    return getAll().stream().map(WorkerPool::getMetrics).collect(Collectors.toList());
+  }
+}
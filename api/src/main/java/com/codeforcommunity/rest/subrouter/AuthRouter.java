@@ -1,6 +1,7 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.IAuthProcessor;
 import com.codeforcommunity.dto.auth.ForgotPasswordRequest;
@@ -42,38 +43,38 @@ public class AuthRouter implements IRouter {
 
   private void registerLoginUser(Router router) {
     Route loginUserRoute = router.post("/login");
-    loginUserRoute.handler(this::handlePostUserLoginRoute);
+    loginUserRoute.handler(blocking(this::handlePostUserLoginRoute));
   }
 
   private void registerRefreshUser(Router router) {
     Route refreshUserRoute = router.post("/login/refresh");
-    refreshUserRoute.handler(this::handlePostRefreshUser);
+    refreshUserRoute.handler(blocking(this::handlePostRefreshUser));
   }
 
   private void registerNewUser(Router router) {
     Route newUserRoute = router.post("/signup");
-    newUserRoute.handler(this::handlePostNewUser);
+    newUserRoute.handler(blocking(this::handlePostNewUser));
   }
 
   private void registerLogoutUser(Router router) {
     Route logoutUserRoute = router.delete("/login");
-    logoutUserRoute.handler(this::handleDeleteLogoutUser);
+    logoutUserRoute.handler(blocking(this::handleDeleteLogoutUser));
   }
 
   private void registerRequestForgotPassword(Router router) {
     Route forgotPasswordRequestRoute = router.post("/forgot_password/request");
-    forgotPasswordRequestRoute.handler(this::handleForgotPasswordRequest);
+    forgotPasswordRequestRoute.handler(blocking(this::handleForgotPasswordRequest));
   }
 
   private void registerResetPassword(Router router) {
     Route resetPasswordRoute = router.post("/forgot_password/reset");
-    resetPasswordRoute.handler(this::handleResetPassword);
+    resetPasswordRoute.handler(blocking(this::handleResetPassword));
   }
 
   /** This route is for validating a secret key that has been sent to a user's email. */
   private void registerVerifySecretKey(Router router) {
     Route verifySecretKeyRoute = router.get("/verify/:secret_key");
-    verifySecretKeyRoute.handler(this::handleVerifySecretKey);
+    verifySecretKeyRoute.handler(blocking(this::handleVerifySecretKey));
   }
 
   private void handlePostUserLoginRoute(RoutingContext ctx) {
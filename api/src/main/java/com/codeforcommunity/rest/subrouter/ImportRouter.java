@@ -1,6 +1,7 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.IImportProcessor;
 import com.codeforcommunity.auth.JWTData;
@@ -35,38 +36,50 @@ public class ImportRouter implements IRouter {
     registerImportSites(router);
     registerImportTreeSpecies(router);
     registerImportTreeBenefits(router);
+    registerBackfillPrivateStreetFlags(router);
+    registerBackfillSimplifiedGeometry(router);
 
     return router;
   }
 
   private void registerImportBlocks(Router router) {
     Route importBlocksRoute = router.post("/blocks");
-    importBlocksRoute.handler(this::handleImportBlocksRoute);
+    importBlocksRoute.handler(blocking(this::handleImportBlocksRoute));
   }
 
   private void registerImportNeighborhoods(Router router) {
     Route importNeighborhoodsRoute = router.post("/neighborhoods");
-    importNeighborhoodsRoute.handler(this::handleImportNeighborhoodsRoute);
+    importNeighborhoodsRoute.handler(blocking(this::handleImportNeighborhoodsRoute));
   }
 
   private void registerImportReservations(Router router) {
     Route importReservationsRoute = router.post("/reservations");
-    importReservationsRoute.handler(this::handleImportReservationsRoute);
+    importReservationsRoute.handler(blocking(this::handleImportReservationsRoute));
   }
 
   private void registerImportSites(Router router) {
     Route importSitesRoute = router.post("/sites");
-    importSitesRoute.handler(this::handleImportSitesRoute);
+    importSitesRoute.handler(blocking(this::handleImportSitesRoute));
   }
 
   private void registerImportTreeSpecies(Router router) {
     Route importTreeSpeciesRoute = router.post("/tree_species");
-    importTreeSpeciesRoute.handler(this::handleImportTreeSpeciesRoute);
+    importTreeSpeciesRoute.handler(blocking(this::handleImportTreeSpeciesRoute));
   }
 
   private void registerImportTreeBenefits(Router router) {
     Route importTreeBenefitsRoute = router.post("/tree_benefits");
-    importTreeBenefitsRoute.handler(this::handleImportTreeBenefitsRoute);
+    importTreeBenefitsRoute.handler(blocking(this::handleImportTreeBenefitsRoute));
+  }
+
+  private void registerBackfillPrivateStreetFlags(Router router) {
+    Route backfillPrivateStreetFlagsRoute = router.post("/private_street_flags");
+    backfillPrivateStreetFlagsRoute.handler(blocking(this::handleBackfillPrivateStreetFlagsRoute));
+  }
+
+  private void registerBackfillSimplifiedGeometry(Router router) {
+    Route backfillSimplifiedGeometryRoute = router.post("/simplified_geometry");
+    backfillSimplifiedGeometryRoute.handler(blocking(this::handleBackfillSimplifiedGeometryRoute));
   }
 
   private void handleImportBlocksRoute(RoutingContext ctx) {
@@ -128,4 +141,20 @@ public class ImportRouter implements IRouter {
 
     end(ctx.response(), 200);
   }
+
+  private void handleBackfillPrivateStreetFlagsRoute(RoutingContext ctx) {
+    JWTData userData = ctx.get("jwt_data");
+
+    processor.backfillPrivateStreetFlags(userData);
+
+    end(ctx.response(), 200);
+  }
+
+  private void handleBackfillSimplifiedGeometryRoute(RoutingContext ctx) {
+    JWTData userData = ctx.get("jwt_data");
+
+    processor.backfillSimplifiedGeometry(userData);
+
+    end(ctx.response(), 200);
+  }
 }
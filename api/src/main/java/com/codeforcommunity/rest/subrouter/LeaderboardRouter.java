@@ -1,6 +1,7 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.ILeaderboardProcessor;
 import com.codeforcommunity.dto.leaderboard.GetLeaderboardRequest;
@@ -36,12 +37,12 @@ public class LeaderboardRouter implements IRouter {
 
   private void registerGetUsersLeaderboard(Router router) {
     Route getUsersLeaderboard = router.get("/users");
-    getUsersLeaderboard.handler(this::handleGetUsersLeaderboardRoute);
+    getUsersLeaderboard.handler(blocking(this::handleGetUsersLeaderboardRoute));
   }
 
   private void registerGetTeamsLeaderboard(Router router) {
     Route getTeamsLeaderboard = router.get("/teams");
-    getTeamsLeaderboard.handler(this::handleGetTeamsLeaderboardRoute);
+    getTeamsLeaderboard.handler(blocking(this::handleGetTeamsLeaderboardRoute));
   }
 
   private void handleGetUsersLeaderboardRoute(RoutingContext ctx) {
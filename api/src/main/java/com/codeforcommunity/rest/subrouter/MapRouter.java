@@ -1,19 +1,37 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.EncodedResponses.endWithPayload;
+import static com.codeforcommunity.rest.RestFunctions.getOptionalQueryParam;
+import static com.codeforcommunity.rest.RestFunctions.getPathParamAsInt;
+import static com.codeforcommunity.rest.RestFunctions.getRequestParameterAsBoolean;
+import static com.codeforcommunity.rest.RestFunctions.getRequestParameterAsString;
+import static com.codeforcommunity.rest.StreamedResponses.streamChunked;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.IMapProcessor;
-import com.codeforcommunity.dto.map.BlockGeoResponse;
-import com.codeforcommunity.dto.map.NeighborhoodGeoResponse;
-import com.codeforcommunity.dto.map.SiteGeoResponse;
+import com.codeforcommunity.dto.map.BoundingBox;
+import com.codeforcommunity.dto.map.MapLayerPayload;
+import com.codeforcommunity.dto.map.PrivateStreetResponse;
+import com.codeforcommunity.dto.map.SiteBoxResponse;
+import com.codeforcommunity.dto.map.SiteChangesResponse;
+import com.codeforcommunity.dto.map.SiteClusterResponse;
+import com.codeforcommunity.enums.GeometryDetail;
+import com.codeforcommunity.exceptions.MalformedParameterException;
+import com.codeforcommunity.exceptions.MissingParameterException;
 import com.codeforcommunity.rest.IRouter;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Route;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
 
 public class MapRouter implements IRouter {
+  private static final String SITES_COLUMNAR_CONTENT_TYPE = "application/x-sftt-sites";
 
   private final IMapProcessor processor;
 
@@ -28,40 +46,203 @@ public class MapRouter implements IRouter {
     registerGetBlocks(router);
     registerGetNeighborhoods(router);
     registerGetSites(router);
+    registerGetSiteChanges(router);
+    registerGetSiteClusters(router);
+    registerGetTile(router);
+    registerGetPrivateStreet(router);
 
     return router;
   }
 
   private void registerGetBlocks(Router router) {
     Route getBlocksRoute = router.get("/blocks");
-    getBlocksRoute.handler(this::handleGetBlocks);
+    getBlocksRoute.handler(blocking(this::handleGetBlocks));
   }
 
   private void registerGetNeighborhoods(Router router) {
     Route getNeighborhoodsRoute = router.get("/neighborhoods");
-    getNeighborhoodsRoute.handler(this::handleGetNeighborhoods);
+    getNeighborhoodsRoute.handler(blocking(this::handleGetNeighborhoods));
   }
 
   private void registerGetSites(Router router) {
     Route getSitesRoute = router.get("/sites");
-    getSitesRoute.handler(this::handleGetSites);
+    getSitesRoute.handler(blocking(this::handleGetSites));
+  }
+
+  private void registerGetSiteChanges(Router router) {
+    Route getSiteChangesRoute = router.get("/sites/changes");
+    getSiteChangesRoute.handler(blocking(this::handleGetSiteChanges));
+  }
+
+  private void registerGetSiteClusters(Router router) {
+    Route getSiteClustersRoute = router.get("/sites/clusters");
+    getSiteClustersRoute.handler(blocking(this::handleGetSiteClusters));
+  }
+
+  private void registerGetTile(Router router) {
+    Route getTileRoute = router.get("/tiles/:layer/:z/:x/:y.mvt");
+    getTileRoute.handler(blocking(this::handleGetTile));
+  }
+
+  private void registerGetPrivateStreet(Router router) {
+    Route getPrivateStreetRoute = router.get("/private-streets");
+    getPrivateStreetRoute.handler(blocking(this::handleGetPrivateStreet));
   }
 
   private void handleGetBlocks(RoutingContext ctx) {
-    BlockGeoResponse response = processor.getBlockGeoJson();
+    MapLayerPayload payload = processor.getBlockPayload(getGeometryDetail(ctx));
 
-    end(ctx.response(), 200, JsonObject.mapFrom(response).toString());
+    endWithPayload(ctx, payload, "application/json");
   }
 
   private void handleGetNeighborhoods(RoutingContext ctx) {
-    NeighborhoodGeoResponse response = processor.getNeighborhoodGeoJson();
+    MapLayerPayload payload = processor.getNeighborhoodPayload(getGeometryDetail(ctx));
 
-    end(ctx.response(), 200, JsonObject.mapFrom(response).toString());
+    endWithPayload(ctx, payload, "application/json");
   }
 
   private void handleGetSites(RoutingContext ctx) {
-    SiteGeoResponse response = processor.getSiteGeoJson();
+    if (getRequestParameterAsBoolean(ctx.request(), "stream")) {
+      streamChunked(ctx, "application/json", processor.getSiteGeoJsonChunks());
+      return;
+    }
+
+    Optional<BoundingBox> bbox = getOptionalQueryParam(ctx, "bbox", MapRouter::parseBoundingBox);
+    if (bbox.isPresent()) {
+      Optional<Integer> zoom = getOptionalQueryParam(ctx, "zoom", MapRouter::parseZoom);
+      SiteBoxResponse response = processor.getSiteGeoJson(bbox.get(), zoom.orElse(null));
+
+      end(ctx.response(), 200, JsonObject.mapFrom(response).toString());
+      return;
+    }
+
+    // Clients that understand the columnar format ask for it by listing it in Accept
+    String accept = ctx.request().getHeader("Accept");
+    if (accept != null && accept.contains(SITES_COLUMNAR_CONTENT_TYPE)) {
+      MapLayerPayload payload = processor.getSiteColumnarPayload();
+      endWithPayload(ctx, payload, SITES_COLUMNAR_CONTENT_TYPE, "Accept, Accept-Encoding");
+      return;
+    }
+
+    MapLayerPayload payload = processor.getSitePayload();
+
+    endWithPayload(ctx, payload, "application/json", "Accept, Accept-Encoding");
+  }
+
+  private void handleGetSiteChanges(RoutingContext ctx) {
+    String since = getRequestParameterAsString(ctx.request(), "since");
+
+    // The changes are asked for either since a version returned by a previous request, or since
+    // an ISO-8601 instant for clients that haven't synced with this endpoint before. Changes are
+    // timed by when their transaction started, so an instant can miss a change that was still
+    // being written, and clients must switch to the returned version after their first sync
+    SiteChangesResponse response;
+    try {
+      if (since.chars().allMatch(Character::isDigit)) {
+        response = processor.getSiteChanges(Long.parseLong(since));
+      } else {
+        response = processor.getSiteChanges(Timestamp.from(Instant.parse(since)));
+      }
+    } catch (NumberFormatException | DateTimeParseException e) {
+      throw new MalformedParameterException("since");
+    }
+
+    end(ctx.response(), 200, JsonObject.mapFrom(response).toString());
+  }
+
+  private void handleGetSiteClusters(RoutingContext ctx) {
+    int zoom =
+        getOptionalQueryParam(ctx, "zoom", MapRouter::parseZoom)
+            .orElseThrow(() -> new MissingParameterException("zoom"));
+    BoundingBox bbox = getOptionalQueryParam(ctx, "bbox", MapRouter::parseBoundingBox).orElse(null);
+
+    SiteClusterResponse response = processor.getSiteClusters(zoom, bbox);
 
     end(ctx.response(), 200, JsonObject.mapFrom(response).toString());
   }
+
+  private void handleGetTile(RoutingContext ctx) {
+    String layer = ctx.pathParam("layer");
+    int z = getPathParamAsInt(ctx, "z");
+    int x = getPathParamAsInt(ctx, "x");
+    int y = getPathParamAsInt(ctx, "y");
+
+    MapLayerPayload tile = processor.getTile(layer, z, x, y);
+
+    endWithPayload(ctx, tile, "application/vnd.mapbox-vector-tile");
+  }
+
+  private void handleGetPrivateStreet(RoutingContext ctx) {
+    double lat =
+        getOptionalQueryParam(ctx, "lat", Double::parseDouble)
+            .orElseThrow(() -> new MissingParameterException("lat"));
+    double lng =
+        getOptionalQueryParam(ctx, "lng", Double::parseDouble)
+            .orElseThrow(() -> new MissingParameterException("lng"));
+
+    PrivateStreetResponse response = processor.getPrivateStreet(lat, lng);
+
+    end(ctx.response(), 200, JsonObject.mapFrom(response).toString());
+  }
+
+  /**
+   * Returns the level of detail asked for by the optional tolerance or zoom query parameters. A
+   * tolerance takes precedence over a zoom, and full detail is returned when neither is given.
+   */
+  private GeometryDetail getGeometryDetail(RoutingContext ctx) {
+    Optional<GeometryDetail> byTolerance =
+        getOptionalQueryParam(
+            ctx,
+            "tolerance",
+            tolerance -> GeometryDetail.forTolerance(Double.parseDouble(tolerance)));
+    if (byTolerance.isPresent()) {
+      return byTolerance.get();
+    }
+
+    return getOptionalQueryParam(
+            ctx, "zoom", zoom -> GeometryDetail.forZoom(Integer.parseInt(zoom)))
+        .orElse(GeometryDetail.FULL);
+  }
+
+  /** Parses a zoom level, which must not be negative. */
+  static int parseZoom(String zoom) {
+    int level = Integer.parseInt(zoom);
+    if (level < 0) {
+      throw new IllegalArgumentException("A zoom level must not be negative");
+    }
+    return level;
+  }
+
+  /**
+   * Parses a bounding box given as "minLng,minLat,maxLng,maxLat".
+   *
+   * @throws IllegalArgumentException if the string is not four numbers, any coordinate is outside
+   *     the range of longitudes or latitudes, or the minimums are greater than the maximums
+   */
+  static BoundingBox parseBoundingBox(String bbox) {
+    String[] parts = bbox.split(",");
+    if (parts.length != 4) {
+      throw new IllegalArgumentException("A bounding box must have four coordinates");
+    }
+
+    double minLng = parseCoordinate(parts[0], 180);
+    double minLat = parseCoordinate(parts[1], 90);
+    double maxLng = parseCoordinate(parts[2], 180);
+    double maxLat = parseCoordinate(parts[3], 90);
+    if (minLng > maxLng || minLat > maxLat) {
+      throw new IllegalArgumentException("A bounding box's minimums must not exceed its maximums");
+    }
+
+    return new BoundingBox(minLng, minLat, maxLng, maxLat);
+  }
+
+  /** Parses a coordinate in degrees, which must be between -limit and limit (so not NaN). */
+  private static double parseCoordinate(String coordinate, int limit) {
+    double degrees = Double.parseDouble(coordinate.trim());
+    if (!(degrees >= -limit && degrees <= limit)) {
+      throw new IllegalArgumentException(
+          "A coordinate must be between -" + limit + " and " + limit);
+    }
+    return degrees;
+  }
 }
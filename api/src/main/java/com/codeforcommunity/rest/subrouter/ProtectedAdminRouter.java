@@ -0,0 +1,97 @@
+package com.codeforcommunity.rest.subrouter;
+
+import static com.codeforcommunity.rest.ApiRouter.end;
+
+import com.codeforcommunity.api.IProtectedAdminProcessor;
+import com.codeforcommunity.auth.JWTData;
+import com.codeforcommunity.dto.admin.CacheMetrics;
+import com.codeforcommunity.dto.admin.DatabasePoolMetrics;
+import com.codeforcommunity.enums.PrivilegeLevel;
+import com.codeforcommunity.exceptions.AuthException;
+import com.codeforcommunity.rest.IRouter;
+import com.codeforcommunity.rest.WorkerPools;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import java.util.Collections;
+import java.util.List;
+
+public class ProtectedAdminRouter implements IRouter {
+
+  private final IProtectedAdminProcessor processor;
+  private final WorkerPools workerPools;
+
+  public ProtectedAdminRouter(IProtectedAdminProcessor processor, WorkerPools workerPools) {
+    this.processor = processor;
+    this.workerPools = workerPools;
+  }
+
+  @Override
+  public Router initializeRouter(Vertx vertx) {
+    Router router = Router.router(vertx);
+
+    registerGetWorkerPoolMetrics(router);
+    registerGetDatabasePoolMetrics(router);
+    registerGetCacheMetrics(router);
+
+    return router;
+  }
+
+  /**
+   * Throws an exception if the user is not an admin or super admin.
+   *
+   * @param userData the data of the user calling the route
+   */
+  private void assertAdminOrSuperAdmin(JWTData userData) {
+    PrivilegeLevel level = userData.getPrivilegeLevel();
+    if (!(level.equals(PrivilegeLevel.ADMIN) || level.equals(PrivilegeLevel.SUPER_ADMIN))) {
+      throw new AuthException("User does not have the required privilege level.");
+    }
+  }
+
+  private void registerGetWorkerPoolMetrics(Router router) {
+    Route getWorkerPoolMetricsRoute = router.get("/metrics/workers");
+    getWorkerPoolMetricsRoute.handler(this::handleGetWorkerPoolMetrics);
+  }
+
+  private void handleGetWorkerPoolMetrics(RoutingContext ctx) {
+    JWTData userData = ctx.get("jwt_data");
+    assertAdminOrSuperAdmin(userData);
+
+    end(
+        ctx.response(),
+        200,
+        JsonObject.mapFrom(Collections.singletonMap("pools", workerPools.getMetrics())).toString());
+  }
+
+  private void registerGetDatabasePoolMetrics(Router router) {
+    Route getDatabasePoolMetricsRoute = router.get("/metrics/database");
+    getDatabasePoolMetricsRoute.handler(this::handleGetDatabasePoolMetrics);
+  }
+
+  private void handleGetDatabasePoolMetrics(RoutingContext ctx) {
+    JWTData userData = ctx.get("jwt_data");
+
+    DatabasePoolMetrics metrics = processor.getDatabasePoolMetrics(userData);
+
+    end(ctx.response(), 200, JsonObject.mapFrom(metrics).toString());
+  }
+
+  private void registerGetCacheMetrics(Router router) {
+    Route getCacheMetricsRoute = router.get("/metrics/caches");
+    getCacheMetricsRoute.handler(this::handleGetCacheMetrics);
+  }
+
+  private void handleGetCacheMetrics(RoutingContext ctx) {
+    JWTData userData = ctx.get("jwt_data");
+
+    List<CacheMetrics> metrics = processor.getCacheMetrics(userData);
+
+    end(
+        ctx.response(),
+        200,
+        JsonObject.mapFrom(Collections.singletonMap("caches", metrics)).toString());
+  }
+}
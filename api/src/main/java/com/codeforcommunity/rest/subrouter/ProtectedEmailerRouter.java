@@ -1,6 +1,7 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.IProtectedEmailerProcessor;
 import com.codeforcommunity.auth.JWTData;
@@ -38,7 +39,7 @@ public class ProtectedEmailerRouter implements IRouter {
 
   private void registerAddTemplate(Router router) {
     Route addTemplate = router.post("/add_template");
-    addTemplate.handler(this::handleAddTemplate);
+    addTemplate.handler(blocking(this::handleAddTemplate));
   }
 
   private void handleAddTemplate(RoutingContext ctx) {
@@ -53,7 +54,7 @@ public class ProtectedEmailerRouter implements IRouter {
 
   private void registerLoadTemplate(Router router) {
     Route loadTemplate = router.get("/load_template/:template_name");
-    loadTemplate.handler(this::handleLoadTemplate);
+    loadTemplate.handler(blocking(this::handleLoadTemplate));
   }
 
   private void handleLoadTemplate(RoutingContext ctx) {
@@ -67,7 +68,7 @@ public class ProtectedEmailerRouter implements IRouter {
 
   private void registerDeleteTemplate(Router router) {
     Route deleteTemplate = router.delete("/delete_template/:template_name");
-    deleteTemplate.handler(this::handleDeleteTemplate);
+    deleteTemplate.handler(blocking(this::handleDeleteTemplate));
   }
 
   private void handleDeleteTemplate(RoutingContext ctx) {
@@ -81,7 +82,7 @@ public class ProtectedEmailerRouter implements IRouter {
 
   private void registerLoadTemplateNames(Router router) {
     Route loadTemplateNames = router.get("/template_names");
-    loadTemplateNames.handler(this::handleLoadTemplateNames);
+    loadTemplateNames.handler(blocking(this::handleLoadTemplateNames));
   }
 
   private void handleLoadTemplateNames(RoutingContext ctx) {
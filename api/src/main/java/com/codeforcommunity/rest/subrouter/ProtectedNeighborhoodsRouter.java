@@ -1,6 +1,7 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.IProtectedNeighborhoodsProcessor;
 import com.codeforcommunity.auth.JWTData;
@@ -33,7 +34,7 @@ public class ProtectedNeighborhoodsRouter implements IRouter {
 
   private void registerSendEmail(Router router) {
     Route adoptSiteRoute = router.post("/send_email");
-    adoptSiteRoute.handler(this::handleSendEmail);
+    adoptSiteRoute.handler(blocking(this::handleSendEmail));
   }
 
   private void handleSendEmail(RoutingContext ctx) {
@@ -48,7 +49,7 @@ public class ProtectedNeighborhoodsRouter implements IRouter {
 
   private void registerEditCanopyCoverage(Router router) {
     Route editCanopyCoverageRoute = router.post("/:neighborhood_id/edit_canopy");
-    editCanopyCoverageRoute.handler(this::handleEditCanopyCoverage);
+    editCanopyCoverageRoute.handler(blocking(this::handleEditCanopyCoverage));
   }
 
   private void handleEditCanopyCoverage(RoutingContext ctx) {
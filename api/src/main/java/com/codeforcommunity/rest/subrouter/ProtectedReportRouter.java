@@ -1,6 +1,7 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.IProtectedReportProcessor;
 import com.codeforcommunity.auth.JWTData;
@@ -43,7 +44,7 @@ public class ProtectedReportRouter implements IRouter {
 
   private void registerGetAdoptionReport(Router router) {
     Route getAdoptionReportRoute = router.get("/adoption");
-    getAdoptionReportRoute.handler(this::handleGetAdoptionReportRoute);
+    getAdoptionReportRoute.handler(blocking(this::handleGetAdoptionReportRoute));
   }
 
   private void handleGetAdoptionReportRoute(RoutingContext ctx) {
@@ -56,7 +57,7 @@ public class ProtectedReportRouter implements IRouter {
 
   private void registerGetAdoptionReportCSV(Router router) {
     Route getAdoptionReportCSVRoute = router.get("/csv/adoption");
-    getAdoptionReportCSVRoute.handler(this::handleGetAdoptionReportCSVRoute);
+    getAdoptionReportCSVRoute.handler(blocking(this::handleGetAdoptionReportCSVRoute));
   }
 
   private void handleGetAdoptionReportCSVRoute(RoutingContext ctx) {
@@ -76,7 +77,7 @@ public class ProtectedReportRouter implements IRouter {
 
   private void registerGetStewardshipReport(Router router) {
     Route getStewardshipReportRoute = router.get("/stewardship");
-    getStewardshipReportRoute.handler(this::handleGetStewardshipReportRoute);
+    getStewardshipReportRoute.handler(blocking(this::handleGetStewardshipReportRoute));
   }
 
   private void handleGetStewardshipReportRoute(RoutingContext ctx) {
@@ -90,7 +91,7 @@ public class ProtectedReportRouter implements IRouter {
 
   private void registerGetStewardshipReportCSV(Router router) {
     Route getStewardshipReportCSVRoute = router.get("/csv/stewardship");
-    getStewardshipReportCSVRoute.handler(this::handleGetStewardshipReportCSVRoute);
+    getStewardshipReportCSVRoute.handler(blocking(this::handleGetStewardshipReportCSVRoute));
   }
 
   private void handleGetStewardshipReportCSVRoute(RoutingContext ctx) {
@@ -110,7 +111,7 @@ public class ProtectedReportRouter implements IRouter {
 
   private void registerGetSiteActivityReportCSV(Router router) {
     Route getSiteActivityReportCSVRoute = router.get("/csv/site-activity");
-    getSiteActivityReportCSVRoute.handler(this::handleGetSiteActivityReportCSVRoute);
+    getSiteActivityReportCSVRoute.handler(blocking(this::handleGetSiteActivityReportCSVRoute));
   }
 
   private void handleGetSiteActivityReportCSVRoute(RoutingContext ctx) {
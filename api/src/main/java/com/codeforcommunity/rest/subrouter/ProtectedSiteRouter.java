@@ -1,6 +1,7 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.IProtectedSiteProcessor;
 import com.codeforcommunity.auth.JWTData;
@@ -83,7 +84,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerAdoptSite(Router router) {
     Route adoptSiteRoute = router.post("/:site_id/adopt");
-    adoptSiteRoute.handler(this::handleAdoptSiteRoute);
+    adoptSiteRoute.handler(blocking(this::handleAdoptSiteRoute));
   }
 
   private void handleAdoptSiteRoute(RoutingContext ctx) {
@@ -97,7 +98,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerParentAdoptSite(Router router) {
     Route parentAdoptSiteRoute = router.post("/:site_id/parent_adopt");
-    parentAdoptSiteRoute.handler(this::handleParentAdoptSiteRoute);
+    parentAdoptSiteRoute.handler(blocking(this::handleParentAdoptSiteRoute));
   }
 
   private void handleParentAdoptSiteRoute(RoutingContext ctx) {
@@ -115,7 +116,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerUnadoptSite(Router router) {
     Route unadoptSiteRoute = router.post("/:site_id/unadopt");
-    unadoptSiteRoute.handler(this::handleUnadoptSiteRoute);
+    unadoptSiteRoute.handler(blocking(this::handleUnadoptSiteRoute));
   }
 
   private void handleUnadoptSiteRoute(RoutingContext ctx) {
@@ -129,7 +130,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerForceUnadoptSite(Router router) {
     Route forceUnadoptSiteRoute = router.post("/:site_id/force_unadopt");
-    forceUnadoptSiteRoute.handler(this::handleForceUnadoptSiteRoute);
+    forceUnadoptSiteRoute.handler(blocking(this::handleForceUnadoptSiteRoute));
   }
 
   private void handleForceUnadoptSiteRoute(RoutingContext ctx) {
@@ -143,7 +144,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerGetAdoptedSitesRoute(Router router) {
     Route getAdoptedSitesRoute = router.get("/adopted_sites");
-    getAdoptedSitesRoute.handler(this::handleGetAdoptedSitesRoute);
+    getAdoptedSitesRoute.handler(blocking(this::handleGetAdoptedSitesRoute));
   }
 
   private void handleGetAdoptedSitesRoute(RoutingContext ctx) {
@@ -156,7 +157,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerRecordStewardship(Router router) {
     Route recordStewardshipRoute = router.post("/:site_id/record_stewardship");
-    recordStewardshipRoute.handler(this::handleRecordStewardshipRoute);
+    recordStewardshipRoute.handler(blocking(this::handleRecordStewardshipRoute));
   }
 
   private void handleRecordStewardshipRoute(RoutingContext ctx) {
@@ -173,7 +174,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerParentRecordStewardship(Router router) {
     Route recordParentStewardshipRoute = router.post("/:site_id/parent_record_stewardship");
-    recordParentStewardshipRoute.handler(this::handleParentRecordStewardshipRoute);
+    recordParentStewardshipRoute.handler(blocking(this::handleParentRecordStewardshipRoute));
   }
 
   private void handleParentRecordStewardshipRoute(RoutingContext ctx) {
@@ -190,7 +191,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerUpdateSite(Router router) {
     Route updateSiteRoute = router.post("/:site_id/update");
-    updateSiteRoute.handler(this::handleUpdateSiteRoute);
+    updateSiteRoute.handler(blocking(this::handleUpdateSiteRoute));
   }
 
   private void handleUpdateSiteRoute(RoutingContext ctx) {
@@ -207,7 +208,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerDeleteStewardship(Router router) {
     Route deleteStewardshipRoute = router.post("/delete_stewardship/:activity_id");
-    deleteStewardshipRoute.handler(this::handleDeleteStewardshipRoute);
+    deleteStewardshipRoute.handler(blocking(this::handleDeleteStewardshipRoute));
   }
 
   private void handleDeleteStewardshipRoute(RoutingContext ctx) {
@@ -221,7 +222,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerEditStewardship(Router router) {
     Route editStewardshipRoute = router.post("/edit_stewardship/:activity_id");
-    editStewardshipRoute.handler(this::handleEditStewardshipRoute);
+    editStewardshipRoute.handler(blocking(this::handleEditStewardshipRoute));
   }
 
   private void handleEditStewardshipRoute(RoutingContext ctx) {
@@ -237,7 +238,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerAddSite(Router router) {
     Route addSiteRoute = router.post("/add");
-    addSiteRoute.handler(this::handleAddSiteRoute);
+    addSiteRoute.handler(blocking(this::handleAddSiteRoute));
   }
 
   private void handleAddSiteRoute(RoutingContext ctx) {
@@ -252,7 +253,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerAddSites(Router router) {
     Route addSiteRoute = router.post("/add_sites");
-    addSiteRoute.handler(this::handleAddSitesRoute);
+    addSiteRoute.handler(blocking(this::handleAddSitesRoute));
   }
 
   private void handleAddSitesRoute(RoutingContext ctx) {
@@ -267,7 +268,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerDeleteSite(Router router) {
     Route deleteSiteRoute = router.post("/:site_id/delete");
-    deleteSiteRoute.handler(this::handleDeleteSiteRoute);
+    deleteSiteRoute.handler(blocking(this::handleDeleteSiteRoute));
   }
 
   private void handleDeleteSiteRoute(RoutingContext ctx) {
@@ -281,7 +282,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerEditSite(Router router) {
     Route editSiteRoute = router.post("/:site_id/edit");
-    editSiteRoute.handler(this::handleEditSiteRoute);
+    editSiteRoute.handler(blocking(this::handleEditSiteRoute));
   }
 
   private void handleEditSiteRoute(RoutingContext ctx) {
@@ -297,7 +298,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerNameSiteEntry(Router router) {
     Route nameSiteEntry = router.post("/:site_id/name_entry");
-    nameSiteEntry.handler(this::handleNameSiteEntry);
+    nameSiteEntry.handler(blocking(this::handleNameSiteEntry));
   }
 
   private void handleNameSiteEntry(RoutingContext ctx) {
@@ -314,7 +315,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerUploadSiteImage(Router router) {
     Route uploadImage = router.post("/site_image/:site_entry_id");
-    uploadImage.handler(this::handleUploadSiteImage);
+    uploadImage.handler(blocking(this::handleUploadSiteImage));
   }
 
   private void handleUploadSiteImage(RoutingContext ctx) {
@@ -331,7 +332,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerDeleteSiteImage(Router router) {
     Route deleteImage = router.delete("/site_image/:image_id");
-    deleteImage.handler(this::handleDeleteSiteImage);
+    deleteImage.handler(blocking(this::handleDeleteSiteImage));
   }
 
   private void handleDeleteSiteImage(RoutingContext ctx) {
@@ -345,7 +346,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerFilterSites(Router router) {
     Route filterSites = router.get("/filter_sites");
-    filterSites.handler(this::handleFilterSites);
+    filterSites.handler(blocking(this::handleFilterSites));
   }
 
   private void handleFilterSites(RoutingContext ctx) {
@@ -396,7 +397,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerEditSiteEntry(Router router) {
     Route editSiteEntry = router.post("/edit_entry/:entry_id");
-    editSiteEntry.handler(this::handleEditSiteEntry);
+    editSiteEntry.handler(blocking(this::handleEditSiteEntry));
   }
 
   private void handleEditSiteEntry(RoutingContext ctx) {
@@ -413,7 +414,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerRejectSiteImage(Router router) {
     Route rejectImage = router.delete("/reject_image/:image_id");
-    rejectImage.handler(this::handleRejectSiteImage);
+    rejectImage.handler(blocking(this::handleRejectSiteImage));
   }
 
   private void handleRejectSiteImage(RoutingContext ctx) {
@@ -430,7 +431,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerApproveSiteImage(Router router) {
     Route approveSiteImage = router.put("/approve_image/:image_id");
-    approveSiteImage.handler(this::handleApproveSiteImage);
+    approveSiteImage.handler(blocking(this::handleApproveSiteImage));
   }
 
   private void handleApproveSiteImage(RoutingContext ctx) {
@@ -444,7 +445,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerGetUnapprovedImages(Router router) {
     Route unapprovedSiteImages = router.get("/unapproved_images");
-    unapprovedSiteImages.handler(this::handleFilterUnapprovedSiteImages);
+    unapprovedSiteImages.handler(blocking(this::handleFilterUnapprovedSiteImages));
   }
 
   private void handleFilterUnapprovedSiteImages(RoutingContext ctx) {
@@ -489,7 +490,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerReportSiteIssue(Router router) {
     Route reportSiteIssues = router.post("/:site_id/report");
-    reportSiteIssues.handler(this::handleReportSiteIssue);
+    reportSiteIssues.handler(blocking(this::handleReportSiteIssue));
   }
 
   private void handleReportSiteIssue(RoutingContext ctx) {
@@ -506,7 +507,7 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerDeleteSiteEntry(Router router) {
     Route deleteSiteEntry = router.delete("/delete_entry/:entry_id");
-    deleteSiteEntry.handler(this::handleDeleteSiteEntry);
+    deleteSiteEntry.handler(blocking(this::handleDeleteSiteEntry));
   }
 
   private void handleDeleteSiteEntry(RoutingContext ctx) {
@@ -520,12 +521,12 @@ public class ProtectedSiteRouter implements IRouter {
 
   private void registerEditManySites(Router router) {
     Route editManySites = router.put("/edit_many");
-    editManySites.handler(this::handleEditManySites);
+    editManySites.handler(blocking(this::handleEditManySites));
   }
 
   private void registerAddManySiteEntries(Router router) {
     Route addManySiteEntries = router.post("/add_many");
-    addManySiteEntries.handler(this::handleAddManySiteEntries);
+    addManySiteEntries.handler(blocking(this::handleAddManySiteEntries));
   }
 
   private void handleEditManySites(RoutingContext ctx) {
@@ -1,6 +1,7 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.IProtectedUserProcessor;
 import com.codeforcommunity.auth.JWTData;
@@ -48,37 +49,37 @@ public class ProtectedUserRouter implements IRouter {
 
   private void registerDeleteUser(Router router) {
     Route deleteUserRoute = router.post("/delete");
-    deleteUserRoute.handler(this::handleDeleteUserRoute);
+    deleteUserRoute.handler(blocking(this::handleDeleteUserRoute));
   }
 
   private void registerChangePassword(Router router) {
     Route changePasswordRoute = router.post("/change_password");
-    changePasswordRoute.handler(this::handleChangePasswordRoute);
+    changePasswordRoute.handler(blocking(this::handleChangePasswordRoute));
   }
 
   private void registerGetUserData(Router router) {
     Route getUserDataRoute = router.get("/data");
-    getUserDataRoute.handler(this::handleGetUserDataRoute);
+    getUserDataRoute.handler(blocking(this::handleGetUserDataRoute));
   }
 
   private void registerGetUserTeams(Router router) {
     Route getUserTeamsRoute = router.get("/teams");
-    getUserTeamsRoute.handler(this::handleGetUserTeamsRoute);
+    getUserTeamsRoute.handler(blocking(this::handleGetUserTeamsRoute));
   }
 
   private void registerChangeEmail(Router router) {
     Route changePasswordRoute = router.post("/change_email");
-    changePasswordRoute.handler(this::handleChangeEmailRoute);
+    changePasswordRoute.handler(blocking(this::handleChangeEmailRoute));
   }
 
   private void registerChangeUsername(Router router) {
     Route changeUsernameRoute = router.post("/change_username");
-    changeUsernameRoute.handler(this::handleChangeUsernameRoute);
+    changeUsernameRoute.handler(blocking(this::handleChangeUsernameRoute));
   }
 
   private void registerChangePrivilegeLevel(Router router) {
     Route changePrivilegeLevelRoute = router.post("/change_privilege");
-    changePrivilegeLevelRoute.handler(this::handleChangePrivilegeLevelRoute);
+    changePrivilegeLevelRoute.handler(blocking(this::handleChangePrivilegeLevelRoute));
   }
 
   private void handleDeleteUserRoute(RoutingContext ctx) {
@@ -150,7 +151,7 @@ public class ProtectedUserRouter implements IRouter {
 
   private void registerCreateChildUser(Router router) {
     Route createChildUser = router.post("/create_child");
-    createChildUser.handler(this::handleCreateChildUser);
+    createChildUser.handler(blocking(this::handleCreateChildUser));
   }
 
   private void handleCreateChildUser(RoutingContext ctx) {
@@ -164,7 +165,7 @@ public class ProtectedUserRouter implements IRouter {
 
   private void registerGetChildUser(Router router) {
     Route getChildUser = router.get("/child_data");
-    getChildUser.handler(this::handleGetChildUser);
+    getChildUser.handler(blocking(this::handleGetChildUser));
   }
 
   private void handleGetChildUser(RoutingContext ctx) {
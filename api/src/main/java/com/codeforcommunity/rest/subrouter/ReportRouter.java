@@ -1,6 +1,7 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.IReportProcessor;
 import com.codeforcommunity.dto.report.GetCommunityStatsResponse;
@@ -30,7 +31,7 @@ public class ReportRouter implements IRouter {
 
   private void registerGetCommunityStats(Router router) {
     Route getCommunityStatsRoute = router.get("/stats");
-    getCommunityStatsRoute.handler(this::handleGetCommunityStatsRoute);
+    getCommunityStatsRoute.handler(blocking(this::handleGetCommunityStatsRoute));
   }
 
   private void handleGetCommunityStatsRoute(RoutingContext ctx) {
@@ -1,6 +1,7 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.IReservationProcessor;
 import com.codeforcommunity.auth.JWTData;
@@ -39,37 +40,37 @@ public class ReservationRouter implements IRouter {
 
   private void registerMakeReservation(Router router) {
     Route makeReservationRoute = router.post("/reserve");
-    makeReservationRoute.handler(this::handleMakeReservationRoute);
+    makeReservationRoute.handler(blocking(this::handleMakeReservationRoute));
   }
 
   private void registerCompleteReservation(Router router) {
     Route completeReservationRoute = router.post("/complete");
-    completeReservationRoute.handler(this::handleCompleteReservationRoute);
+    completeReservationRoute.handler(blocking(this::handleCompleteReservationRoute));
   }
 
   private void registerReleaseReservation(Router router) {
     Route releaseReservationRoute = router.post("/release");
-    releaseReservationRoute.handler(this::handleReleaseReservationRoute);
+    releaseReservationRoute.handler(blocking(this::handleReleaseReservationRoute));
   }
 
   private void registerUncompleteReservation(Router router) {
     Route uncompleteReservationRoute = router.post("/uncomplete");
-    uncompleteReservationRoute.handler(this::handleUncompleteReservationRoute);
+    uncompleteReservationRoute.handler(blocking(this::handleUncompleteReservationRoute));
   }
 
   private void registerMarkForQA(Router router) {
     Route markForQARoute = router.post("/qa");
-    markForQARoute.handler(this::handleMarkForQARoute);
+    markForQARoute.handler(blocking(this::handleMarkForQARoute));
   }
 
   private void registerPassQA(Router router) {
     Route passQARoute = router.post("/pass_qa");
-    passQARoute.handler(this::handlePassQARoute);
+    passQARoute.handler(blocking(this::handlePassQARoute));
   }
 
   private void registerFailQA(Router router) {
     Route failQARoute = router.post("/fail_qa");
-    failQARoute.handler(this::handleFailQARoute);
+    failQARoute.handler(blocking(this::handleFailQARoute));
   }
 
   private void handleMakeReservationRoute(RoutingContext ctx) {
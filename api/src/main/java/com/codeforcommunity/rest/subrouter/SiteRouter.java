@@ -1,15 +1,20 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.RestFunctions.getOptionalQueryParam;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.ISiteProcessor;
-import com.codeforcommunity.dto.site.GetSiteResponse;
+import com.codeforcommunity.dto.map.SiteGeoResponse;
 import com.codeforcommunity.dto.site.StewardshipActivitiesResponse;
 import com.codeforcommunity.dto.site.TreeBenefitsResponse;
+import com.codeforcommunity.dto.site.TreeBenefitsTotalsResponse;
+import com.codeforcommunity.exceptions.MissingParameterException;
 import com.codeforcommunity.logger.SLogger;
 import com.codeforcommunity.rest.IRouter;
 import com.codeforcommunity.rest.RestFunctions;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Route;
 import io.vertx.ext.web.Router;
@@ -19,6 +24,9 @@ import java.util.List;
 
 public class SiteRouter implements IRouter {
 
+  private static final int DEFAULT_NEARBY_LIMIT = 20;
+  private static final int MAX_NEARBY_LIMIT = 100;
+
   private final SLogger logger = new SLogger(SiteRouter.class);
 
   private final ISiteProcessor processor;
@@ -31,6 +39,9 @@ public class SiteRouter implements IRouter {
   public Router initializeRouter(Vertx vertx) {
     Router router = Router.router(vertx);
 
+    // Registered before the site routes so that "nearby" and "benefits" aren't taken for site ids
+    registerGetNearbySites(router);
+    registerGetBenefitTotals(router);
     registerGetSite(router);
     registerGetStewardshipActivities(router);
     registerGetAllCommonNames(router);
@@ -39,22 +50,74 @@ public class SiteRouter implements IRouter {
     return router;
   }
 
+  private void registerGetNearbySites(Router router) {
+    Route getNearbySitesRoute = router.get("/nearby");
+    getNearbySitesRoute.handler(blocking(this::handleGetNearbySites));
+  }
+
+  private void handleGetNearbySites(RoutingContext ctx) {
+    double lat =
+        getOptionalQueryParam(ctx, "lat", Double::parseDouble)
+            .orElseThrow(() -> new MissingParameterException("lat"));
+    double lng =
+        getOptionalQueryParam(ctx, "lng", Double::parseDouble)
+            .orElseThrow(() -> new MissingParameterException("lng"));
+    int k = getOptionalQueryParam(ctx, "k", this::parseNearbyLimit).orElse(DEFAULT_NEARBY_LIMIT);
+    Double radius = getOptionalQueryParam(ctx, "radius", this::parseRadius).orElse(null);
+
+    SiteGeoResponse response = processor.getNearbySites(lat, lng, k, radius);
+
+    end(ctx.response(), 200, JsonObject.mapFrom(response).toString());
+  }
+
+  private void registerGetBenefitTotals(Router router) {
+    Route getBenefitTotalsRoute = router.get("/benefits");
+    getBenefitTotalsRoute.handler(blocking(this::handleGetBenefitTotals));
+  }
+
+  private void handleGetBenefitTotals(RoutingContext ctx) {
+    Integer neighborhoodId =
+        getOptionalQueryParam(ctx, "neighborhood", Integer::parseInt).orElse(null);
+
+    TreeBenefitsTotalsResponse response = processor.getBenefitTotals(neighborhoodId);
+
+    end(ctx.response(), 200, JsonObject.mapFrom(response).toString());
+  }
+
+  /** Parses the number of nearby sites asked for, which must be between 1 and the maximum. */
+  private int parseNearbyLimit(String k) {
+    int limit = Integer.parseInt(k);
+    if (limit < 1 || limit > MAX_NEARBY_LIMIT) {
+      throw new IllegalArgumentException("k must be between 1 and " + MAX_NEARBY_LIMIT);
+    }
+    return limit;
+  }
+
+  /** Parses a radius in meters, which must be positive. */
+  private double parseRadius(String radius) {
+    double meters = Double.parseDouble(radius);
+    if (!(meters > 0)) {
+      throw new IllegalArgumentException("radius must be positive");
+    }
+    return meters;
+  }
+
   private void registerGetSite(Router router) {
     Route getSiteRoute = router.get("/:site_id");
-    getSiteRoute.handler(this::handleGetSiteRoute);
+    getSiteRoute.handler(blocking(this::handleGetSiteRoute));
   }
 
   private void handleGetSiteRoute(RoutingContext ctx) {
     int siteId = RestFunctions.getRequestParameterAsInt(ctx.request(), "site_id");
 
-    GetSiteResponse getSiteResponse = processor.getSite(siteId);
+    Buffer getSiteResponse = processor.getEncodedSite(siteId);
 
-    end(ctx.response(), 200, JsonObject.mapFrom(getSiteResponse).toString());
+    end(ctx.response(), 200, getSiteResponse, "application/json");
   }
 
   private void registerGetStewardshipActivities(Router router) {
     Route getStewardshipActivities = router.get("/:site_id/stewardship_activities");
-    getStewardshipActivities.handler(this::handleGetStewardshipActivities);
+    getStewardshipActivities.handler(blocking(this::handleGetStewardshipActivities));
   }
 
   private void handleGetStewardshipActivities(RoutingContext ctx) {
@@ -75,7 +138,7 @@ public class SiteRouter implements IRouter {
 
   private void registerGetAllCommonNames(Router router) {
     Route getAllCommonNames = router.get("/info/common_names");
-    getAllCommonNames.handler(this::handleGetAllCommonNames);
+    getAllCommonNames.handler(blocking(this::handleGetAllCommonNames));
   }
 
   private void handleGetAllCommonNames(RoutingContext ctx) {
@@ -88,7 +151,7 @@ public class SiteRouter implements IRouter {
 
   private void registerCalculateBenefits(Router router) {
     Route calculateBenefits = router.get("/:site_id/calculate_benefits");
-    calculateBenefits.handler(this::handleCalculateBenefits);
+    calculateBenefits.handler(blocking(this::handleCalculateBenefits));
   }
 
   private void handleCalculateBenefits(RoutingContext ctx) {
@@ -1,6 +1,7 @@
 package com.codeforcommunity.rest.subrouter;
 
 import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
 
 import com.codeforcommunity.api.ITeamsProcessor;
 import com.codeforcommunity.auth.JWTData;
@@ -52,7 +53,7 @@ public class TeamsRouter implements IRouter {
   // Create a Team
   private void registerCreateTeam(Router router) {
     Route createTeamRoute = router.post("/create");
-    createTeamRoute.handler(this::handleCreateTeamRoute);
+    createTeamRoute.handler(blocking(this::handleCreateTeamRoute));
   }
 
   private void handleCreateTeamRoute(RoutingContext ctx) {
@@ -66,7 +67,7 @@ public class TeamsRouter implements IRouter {
   // Get a Team
   private void registerGetTeam(Router router) {
     Route getTeamRoute = router.get("/:team_id");
-    getTeamRoute.handler(this::handleGetTeamRoute);
+    getTeamRoute.handler(blocking(this::handleGetTeamRoute));
   }
 
   private void handleGetTeamRoute(RoutingContext ctx) {
@@ -79,7 +80,7 @@ public class TeamsRouter implements IRouter {
   // Add a Goal
   private void registerAddGoal(Router router) {
     Route addGoalRoute = router.post("/:team_id/add_goal");
-    addGoalRoute.handler(this::handleAddGoal);
+    addGoalRoute.handler(blocking(this::handleAddGoal));
   }
 
   private void handleAddGoal(RoutingContext ctx) {
@@ -93,7 +94,7 @@ public class TeamsRouter implements IRouter {
   // Delete a Goal
   private void registerDeleteGoal(Router router) {
     Route deleteGoalRoute = router.post("/:team_id/delete_goal/:goal_id");
-    deleteGoalRoute.handler(this::handleDeleteGoal);
+    deleteGoalRoute.handler(blocking(this::handleDeleteGoal));
   }
 
   private void handleDeleteGoal(RoutingContext ctx) {
@@ -106,7 +107,7 @@ public class TeamsRouter implements IRouter {
 
   private void registerInviteUser(Router router) {
     Route inviteUserRoute = router.post("/:team_id/invite");
-    inviteUserRoute.handler(this::handleInviteUser);
+    inviteUserRoute.handler(blocking(this::handleInviteUser));
   }
 
   private void handleInviteUser(RoutingContext ctx) {
@@ -120,7 +121,7 @@ public class TeamsRouter implements IRouter {
 
   private void registerGetApplicants(Router router) {
     Route getApplicantsRoute = router.get("/:team_id/applicants");
-    getApplicantsRoute.handler(this::handleGetApplicantsRoute);
+    getApplicantsRoute.handler(blocking(this::handleGetApplicantsRoute));
   }
 
   private void handleGetApplicantsRoute(RoutingContext ctx) {
@@ -132,7 +133,7 @@ public class TeamsRouter implements IRouter {
 
   private void registerApplyToTeam(Router router) {
     Route applyToTeamRoute = router.post("/:team_id/apply");
-    applyToTeamRoute.handler(this::handleApplyToTeamRoute);
+    applyToTeamRoute.handler(blocking(this::handleApplyToTeamRoute));
   }
 
   private void handleApplyToTeamRoute(RoutingContext ctx) {
@@ -144,7 +145,7 @@ public class TeamsRouter implements IRouter {
 
   private void registerApproveUser(Router router) {
     Route approveUserRoute = router.post("/:team_id/applicants/:user_id/approve");
-    approveUserRoute.handler(this::handleApproveUserRoute);
+    approveUserRoute.handler(blocking(this::handleApproveUserRoute));
   }
 
   private void handleApproveUserRoute(RoutingContext ctx) {
@@ -157,7 +158,7 @@ public class TeamsRouter implements IRouter {
 
   private void registerRejectUserRoute(Router router) {
     Route rejectUserRoute = router.post("/:team_id/applicants/:user_id/reject");
-    rejectUserRoute.handler(this::handleRejectUserRoute);
+    rejectUserRoute.handler(blocking(this::handleRejectUserRoute));
   }
 
   private void handleRejectUserRoute(RoutingContext ctx) {
@@ -170,7 +171,7 @@ public class TeamsRouter implements IRouter {
 
   private void registerDisbandTeam(Router router) {
     Route disbandTeamRoute = router.post("/:team_id/disband");
-    disbandTeamRoute.handler(this::handleDisbandTeamRoute);
+    disbandTeamRoute.handler(blocking(this::handleDisbandTeamRoute));
   }
 
   private void handleDisbandTeamRoute(RoutingContext ctx) {
@@ -182,7 +183,7 @@ public class TeamsRouter implements IRouter {
 
   private void registerGetMembersRoute(Router router) {
     Route getMembersRoute = router.get("/:team_id/members");
-    getMembersRoute.handler(this::handleGetMembersRoute);
+    getMembersRoute.handler(blocking(this::handleGetMembersRoute));
   }
 
   private void handleGetMembersRoute(RoutingContext ctx) {
@@ -193,7 +194,7 @@ public class TeamsRouter implements IRouter {
 
   private void registerKickUserRoute(Router router) {
     Route kickUserRoute = router.post("/:team_id/members/:member_id/kick");
-    kickUserRoute.handler(this::handleKickUserRoute);
+    kickUserRoute.handler(blocking(this::handleKickUserRoute));
   }
 
   private void handleKickUserRoute(RoutingContext ctx) {
@@ -206,7 +207,7 @@ public class TeamsRouter implements IRouter {
 
   private void registerLeaveTeamRoute(Router router) {
     Route leaveTeamRoute = router.post("/:team_id/leave");
-    leaveTeamRoute.handler(this::handleLeaveTeamRoute);
+    leaveTeamRoute.handler(blocking(this::handleLeaveTeamRoute));
   }
 
   private void handleLeaveTeamRoute(RoutingContext ctx) {
@@ -218,7 +219,7 @@ public class TeamsRouter implements IRouter {
 
   private void registerTransferTeamOwnership(Router router) {
     Route transferOwnershipRoute = router.post("/:team_id/transfer_ownership");
-    transferOwnershipRoute.handler(this::handleTransferOwnershipRoute);
+    transferOwnershipRoute.handler(blocking(this::handleTransferOwnershipRoute));
   }
 
   private void handleTransferOwnershipRoute(RoutingContext ctx) {
@@ -232,7 +233,7 @@ public class TeamsRouter implements IRouter {
 
   private void registerGetTeamsRoute(Router router) {
     Route getTeamsRoute = router.get("/");
-    getTeamsRoute.handler(this::handleGetTeamsRoute);
+    getTeamsRoute.handler(blocking(this::handleGetTeamsRoute));
   }
 
   private void handleGetTeamsRoute(RoutingContext ctx) {
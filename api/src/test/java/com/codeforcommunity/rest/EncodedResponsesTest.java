@@ -0,0 +1,77 @@
+package com.codeforcommunity.rest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codeforcommunity.dto.map.MapLayerPayload;
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.Test;
+
+public class EncodedResponsesTest {
+  private static final MapLayerPayload PAYLOAD =
+      new MapLayerPayload(1, Buffer.buffer(), Buffer.buffer(), "\"1\"", "\"1-gzip\"");
+
+  @Test
+  public void testAcceptsGzipListed() {
+    assertTrue(EncodedResponses.acceptsGzip("gzip"));
+    assertTrue(EncodedResponses.acceptsGzip("deflate, GZIP"));
+    assertTrue(EncodedResponses.acceptsGzip("br;q=1.0, gzip;q=0.5"));
+  }
+
+  @Test
+  public void testAcceptsGzipMissing() {
+    assertFalse(EncodedResponses.acceptsGzip(null));
+    assertFalse(EncodedResponses.acceptsGzip(""));
+    assertFalse(EncodedResponses.acceptsGzip("deflate, br"));
+    assertFalse(EncodedResponses.acceptsGzip("identity"));
+  }
+
+  @Test
+  public void testAcceptsGzipQualityZero() {
+    assertFalse(EncodedResponses.acceptsGzip("gzip;q=0"));
+    assertFalse(EncodedResponses.acceptsGzip("gzip; q=0.0, deflate"));
+    // A malformed quality is treated as 0
+    assertFalse(EncodedResponses.acceptsGzip("gzip;q=high"));
+  }
+
+  @Test
+  public void testAcceptsGzipWildcard() {
+    assertTrue(EncodedResponses.acceptsGzip("*"));
+    assertTrue(EncodedResponses.acceptsGzip("br, *;q=0.1"));
+    assertFalse(EncodedResponses.acceptsGzip("*;q=0"));
+    // An explicit entry for gzip takes precedence over the wildcard, in either order
+    assertFalse(EncodedResponses.acceptsGzip("gzip;q=0, *"));
+    assertFalse(EncodedResponses.acceptsGzip("*, gzip;q=0"));
+    assertTrue(EncodedResponses.acceptsGzip("*;q=0, gzip"));
+  }
+
+  @Test
+  public void testMatchesIfNoneMatchEitherEtag() {
+    assertTrue(EncodedResponses.matchesIfNoneMatch("\"1\"", PAYLOAD));
+    assertTrue(EncodedResponses.matchesIfNoneMatch("\"1-gzip\"", PAYLOAD));
+    assertFalse(EncodedResponses.matchesIfNoneMatch(null, PAYLOAD));
+    assertFalse(EncodedResponses.matchesIfNoneMatch("\"2\"", PAYLOAD));
+    // ETags are compared with their quotes
+    assertFalse(EncodedResponses.matchesIfNoneMatch("1", PAYLOAD));
+  }
+
+  @Test
+  public void testMatchesIfNoneMatchWeak() {
+    assertTrue(EncodedResponses.matchesIfNoneMatch("W/\"1\"", PAYLOAD));
+    assertTrue(EncodedResponses.matchesIfNoneMatch("W/\"1-gzip\"", PAYLOAD));
+    assertFalse(EncodedResponses.matchesIfNoneMatch("W/\"2\"", PAYLOAD));
+  }
+
+  @Test
+  public void testMatchesIfNoneMatchList() {
+    assertTrue(EncodedResponses.matchesIfNoneMatch("\"0\", \"1\"", PAYLOAD));
+    assertTrue(EncodedResponses.matchesIfNoneMatch("\"0\",W/\"1-gzip\"", PAYLOAD));
+    assertFalse(EncodedResponses.matchesIfNoneMatch("\"0\", \"2\"", PAYLOAD));
+  }
+
+  @Test
+  public void testMatchesIfNoneMatchWildcard() {
+    assertTrue(EncodedResponses.matchesIfNoneMatch("*", PAYLOAD));
+    assertTrue(EncodedResponses.matchesIfNoneMatch("\"0\", *", PAYLOAD));
+  }
+}
@@ -0,0 +1,139 @@
+package com.codeforcommunity.rest;
+
+import static com.codeforcommunity.rest.StreamedResponses.streamChunked;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StreamedResponsesTest {
+  private static final long TIMEOUT_SECONDS = 10;
+  // Enough chunks to fill the write queue many times over
+  private static final int CHUNK_COUNT = 256;
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  Vertx vertx;
+  HttpServer server;
+  HttpClient client;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    vertx = Vertx.vertx();
+    client = vertx.createHttpClient();
+
+    WorkerPool pool = new WorkerPool("test-stream", 2, 10);
+    pool.initialize(vertx);
+
+    Router subRouter = Router.router(vertx);
+    subRouter
+        .get("/chunks")
+        .handler(blocking(ctx -> streamChunked(ctx, "text/plain", new Chunks(CHUNK_COUNT, -1))));
+    subRouter
+        .get("/fails")
+        .handler(blocking(ctx -> streamChunked(ctx, "text/plain", new Chunks(CHUNK_COUNT, 8))));
+
+    Router router = Router.router(vertx);
+    router.route("/pool/*").handler(pool);
+    router.mountSubRouter("/pool", subRouter);
+    router
+        .get("/direct")
+        .handler(ctx -> streamChunked(ctx, "text/plain", new Chunks(CHUNK_COUNT, -1)));
+
+    CompletableFuture<HttpServer> listening = new CompletableFuture<>();
+    vertx
+        .createHttpServer()
+        .requestHandler(router)
+        .listen(
+            0,
+            result -> {
+              if (result.succeeded()) {
+                listening.complete(result.result());
+              } else {
+                listening.completeExceptionally(result.cause());
+              }
+            });
+    server = listening.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  @AfterEach
+  public void teardown() throws Exception {
+    CompletableFuture<Void> closed = new CompletableFuture<>();
+    vertx.close(result -> closed.complete(null));
+    closed.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /** Produces the given number of chunks of a repeated byte, throwing at the given chunk index. */
+  private static class Chunks implements Iterator<Buffer> {
+    private final int count;
+    private final int failAt;
+    private int next = 0;
+
+    private Chunks(int count, int failAt) {
+      this.count = count;
+      this.failAt = failAt;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < count;
+    }
+
+    @Override
+    public Buffer next() {
+      if (next == failAt) {
+        throw new IllegalStateException("failed");
+      }
+      next++;
+      return Buffer.buffer(new byte[CHUNK_SIZE]);
+    }
+  }
+
+  /** Returns the length of the body at the given path, failing if the body is cut short. */
+  private long bodyLength(String path) throws Exception {
+    CompletableFuture<Long> length = new CompletableFuture<>();
+    client
+        .get(
+            server.actualPort(),
+            "localhost",
+            path,
+            response -> {
+              long[] received = {0};
+              response.handler(chunk -> received[0] += chunk.length());
+              response.exceptionHandler(length::completeExceptionally);
+              response.endHandler(v -> length.complete(received[0]));
+            })
+        .exceptionHandler(length::completeExceptionally)
+        .end();
+    return length.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testStreamsEveryChunkOnPool() throws Exception {
+    assertEquals((long) CHUNK_COUNT * CHUNK_SIZE, bodyLength("/pool/chunks"));
+  }
+
+  @Test
+  public void testStreamsEveryChunkInPlace() throws Exception {
+    assertEquals((long) CHUNK_COUNT * CHUNK_SIZE, bodyLength("/direct"));
+  }
+
+  @Test
+  public void testFailureClosesConnection() {
+    ExecutionException failure =
+        assertThrows(ExecutionException.class, () -> bodyLength("/pool/fails"));
+    assertTrue(failure.getCause().getMessage().contains("closed"));
+  }
+}
@@ -0,0 +1,176 @@
+package com.codeforcommunity.rest;
+
+import static com.codeforcommunity.rest.ApiRouter.end;
+import static com.codeforcommunity.rest.WorkerPool.blocking;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codeforcommunity.dto.admin.WorkerPoolMetrics;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WorkerPoolTest {
+  private static final long TIMEOUT_SECONDS = 10;
+
+  Vertx vertx;
+  HttpServer server;
+  HttpClient client;
+
+  // Whether each handler ran on a worker thread, recorded by the handlers themselves
+  volatile boolean handledOnWorker;
+  volatile boolean failedOnWorker;
+
+  @BeforeEach
+  public void setup() {
+    vertx = Vertx.vertx();
+    client = vertx.createHttpClient();
+  }
+
+  @AfterEach
+  public void teardown() throws Exception {
+    CompletableFuture<Void> closed = new CompletableFuture<>();
+    vertx.close(result -> closed.complete(null));
+    closed.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Start a server with the given pool in front of a subrouter of an ok and a throwing route, and
+   * with an ok route that isn't behind any pool.
+   */
+  private void startServer(WorkerPool pool) throws Exception {
+    pool.initialize(vertx);
+
+    Router subRouter = Router.router(vertx);
+    subRouter
+        .get("/ok")
+        .handler(
+            blocking(
+                ctx -> {
+                  handledOnWorker = Context.isOnWorkerThread();
+                  end(ctx.response(), 200);
+                }));
+    subRouter
+        .get("/throws")
+        .handler(
+            blocking(
+                ctx -> {
+                  throw new IllegalStateException("failed");
+                }));
+
+    Router router = Router.router(vertx);
+    router
+        .route()
+        .failureHandler(
+            ctx -> {
+              failedOnWorker = Context.isOnWorkerThread();
+              end(ctx.response(), 500);
+            });
+    router.route("/pool/*").handler(pool);
+    router.mountSubRouter("/pool", subRouter);
+    router
+        .get("/direct")
+        .handler(
+            blocking(
+                ctx -> {
+                  handledOnWorker = Context.isOnWorkerThread();
+                  end(ctx.response(), 200);
+                }));
+
+    CompletableFuture<HttpServer> listening = new CompletableFuture<>();
+    vertx
+        .createHttpServer()
+        .requestHandler(router)
+        .listen(
+            0,
+            result -> {
+              if (result.succeeded()) {
+                listening.complete(result.result());
+              } else {
+                listening.completeExceptionally(result.cause());
+              }
+            });
+    server = listening.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  private int get(String path) throws Exception {
+    CompletableFuture<Integer> status = new CompletableFuture<>();
+    client
+        .get(
+            server.actualPort(),
+            "localhost",
+            path,
+            response -> status.complete(response.statusCode()))
+        .exceptionHandler(status::completeExceptionally)
+        .end();
+    return status.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /** Wait for the counters, which are updated after the response is sent, to settle. */
+  private WorkerPoolMetrics settledMetrics(WorkerPool pool, long expectedFinished)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+    WorkerPoolMetrics metrics = pool.getMetrics();
+    while (metrics.getCompleted() + metrics.getFailed() < expectedFinished
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+      metrics = pool.getMetrics();
+    }
+    return metrics;
+  }
+
+  @Test
+  public void testHandlerRunsOnWorker() throws Exception {
+    WorkerPool pool = new WorkerPool("test-ok", 2, 10);
+    startServer(pool);
+
+    assertEquals(200, get("/pool/ok"));
+    assertTrue(handledOnWorker);
+
+    WorkerPoolMetrics metrics = settledMetrics(pool, 1);
+    assertEquals(1, metrics.getCompleted());
+    assertEquals(0, metrics.getFailed());
+    assertEquals(0, metrics.getQueued());
+  }
+
+  @Test
+  public void testFailureHandledOnEventLoop() throws Exception {
+    WorkerPool pool = new WorkerPool("test-throws", 2, 10);
+    startServer(pool);
+
+    assertEquals(500, get("/pool/throws"));
+    assertFalse(failedOnWorker);
+
+    WorkerPoolMetrics metrics = settledMetrics(pool, 1);
+    assertEquals(0, metrics.getCompleted());
+    assertEquals(1, metrics.getFailed());
+  }
+
+  @Test
+  public void testRejectsBeyondQueueDepth() throws Exception {
+    WorkerPool pool = new WorkerPool("test-full", 1, 0);
+    startServer(pool);
+
+    assertEquals(503, get("/pool/ok"));
+    assertEquals(1, pool.getMetrics().getRejected());
+    assertEquals(0, pool.getMetrics().getQueued());
+  }
+
+  @Test
+  public void testUnpooledHandlerRunsInPlace() throws Exception {
+    WorkerPool pool = new WorkerPool("test-unpooled", 2, 10);
+    startServer(pool);
+
+    assertEquals(200, get("/direct"));
+    assertFalse(handledOnWorker);
+    assertEquals(0, pool.getMetrics().getCompleted());
+  }
+}
@@ -0,0 +1,64 @@
+package com.codeforcommunity.rest.subrouter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.codeforcommunity.dto.map.BoundingBox;
+import org.junit.jupiter.api.Test;
+
+public class MapRouterTest {
+
+  private void assertRejected(String bbox) {
+    assertThrows(IllegalArgumentException.class, () -> MapRouter.parseBoundingBox(bbox));
+  }
+
+  @Test
+  public void testParseBoundingBox() {
+    BoundingBox bbox = MapRouter.parseBoundingBox("-71.1, 42.3,-71.0,42.4");
+    assertEquals(-71.1, bbox.getMinLng());
+    assertEquals(42.3, bbox.getMinLat());
+    assertEquals(-71.0, bbox.getMaxLng());
+    assertEquals(42.4, bbox.getMaxLat());
+  }
+
+  @Test
+  public void testParseBoundingBoxWholeWorld() {
+    BoundingBox bbox = MapRouter.parseBoundingBox("-180,-90,180,90");
+    assertEquals(-180, bbox.getMinLng());
+    assertEquals(90, bbox.getMaxLat());
+  }
+
+  @Test
+  public void testParseBoundingBoxMalformed() {
+    assertRejected("-71.1,42.3,-71.0");
+    assertRejected("-71.1,42.3,-71.0,42.4,1");
+    assertRejected("-71.1,42.3,east,42.4");
+    // Minimums greater than maximums
+    assertRejected("-71.0,42.3,-71.1,42.4");
+    assertRejected("-71.1,42.4,-71.0,42.3");
+  }
+
+  @Test
+  public void testParseBoundingBoxNonFinite() {
+    assertRejected("NaN,42.3,-71.0,42.4");
+    assertRejected("-71.1,42.3,-71.0,NaN");
+    assertRejected("-Infinity,42.3,-71.0,42.4");
+    assertRejected("-71.1,42.3,Infinity,42.4");
+  }
+
+  @Test
+  public void testParseBoundingBoxOutOfRange() {
+    assertRejected("-1e20,0,1e20,1");
+    assertRejected("-180.1,0,0,1");
+    assertRejected("0,0,180.1,1");
+    assertRejected("0,-90.1,1,0");
+    assertRejected("0,0,1,1e300");
+  }
+
+  @Test
+  public void testParseZoom() {
+    assertEquals(0, MapRouter.parseZoom("0"));
+    assertEquals(16, MapRouter.parseZoom("16"));
+    assertThrows(IllegalArgumentException.class, () -> MapRouter.parseZoom("-1"));
+  }
+}
@@ -0,0 +1,54 @@
+package com.codeforcommunity.enums;
+
+/**
+ * The levels of detail that block and neighborhood geometry is stored at. Each level other than
+ * FULL is simplified with the given tolerance, in degrees, and is detailed enough to draw the map
+ * at or above its minimum zoom level without visible difference.
+ */
+public enum GeometryDetail {
+  FULL(0, 17),
+  FINE(0.00001, 15),
+  MEDIUM(0.00005, 13),
+  COARSE(0.0002, 0);
+
+  private final double tolerance;
+  private final int minZoom;
+
+  GeometryDetail(double tolerance, int minZoom) {
+    this.tolerance = tolerance;
+    this.minZoom = minZoom;
+  }
+
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  public int getMinZoom() {
+    return minZoom;
+  }
+
+  /** Returns the least detailed level that can be drawn at the given zoom level. */
+  public static GeometryDetail forZoom(int zoom) {
+    for (GeometryDetail detail : GeometryDetail.values()) {
+      if (zoom >= detail.minZoom) {
+        return detail;
+      }
+    }
+    return COARSE;
+  }
+
+  /** Returns the least detailed level that was simplified by at most the given tolerance. */
+  public static GeometryDetail forTolerance(double tolerance) {
+    if (tolerance < 0) {
+      throw new IllegalArgumentException("A tolerance must not be negative");
+    }
+
+    GeometryDetail match = FULL;
+    for (GeometryDetail detail : GeometryDetail.values()) {
+      if (detail.tolerance <= tolerance) {
+        match = detail;
+      }
+    }
+    return match;
+  }
+}
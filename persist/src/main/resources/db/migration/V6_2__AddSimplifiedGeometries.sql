@@ -0,0 +1,7 @@
+ALTER TABLE blocks ADD COLUMN geometry_fine TEXT DEFAULT NULL;
+ALTER TABLE blocks ADD COLUMN geometry_medium TEXT DEFAULT NULL;
+ALTER TABLE blocks ADD COLUMN geometry_coarse TEXT DEFAULT NULL;
+
+ALTER TABLE neighborhoods ADD COLUMN geometry_fine TEXT DEFAULT NULL;
+ALTER TABLE neighborhoods ADD COLUMN geometry_medium TEXT DEFAULT NULL;
+ALTER TABLE neighborhoods ADD COLUMN geometry_coarse TEXT DEFAULT NULL;
@@ -0,0 +1,13 @@
+-- Changes are read up to the oldest transaction that is still running, so each change stores the id
+-- of the transaction that logged it
+CREATE TABLE IF NOT EXISTS site_changes
+(
+    id          SERIAL                      NOT NULL PRIMARY KEY,
+    site_id     INT                         NOT NULL,
+    tx_id       BIGINT                      NOT NULL,
+    changed_at  TIMESTAMP WITH TIME ZONE    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS site_changes_changed_at_idx ON site_changes (changed_at);
+CREATE INDEX IF NOT EXISTS site_changes_tx_id_idx ON site_changes (tx_id);
+CREATE INDEX IF NOT EXISTS site_changes_site_id_idx ON site_changes (site_id);
@@ -0,0 +1 @@
+ALTER TABLE sites ADD COLUMN on_private_street BOOLEAN DEFAULT NULL;
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS site_current_entry
+(
+    site_id     INT     NOT NULL PRIMARY KEY,
+    entry_id    INT     NOT NULL,
+    CONSTRAINT site_current_entry_site_id_fk FOREIGN KEY (site_id) REFERENCES sites (id),
+    CONSTRAINT site_current_entry_entry_id_fk FOREIGN KEY (entry_id) REFERENCES site_entries (id)
+);
+
+-- Each site's current entry is its most recently created entry that hasn't been deleted, with
+-- entries without a time last and the highest id breaking ties
+INSERT INTO site_current_entry (site_id, entry_id)
+SELECT current_entries.site_id, current_entries.id
+FROM (SELECT DISTINCT ON (site_id) site_id, id, created_at
+      FROM site_entries
+      WHERE deleted_at IS NULL
+      ORDER BY site_id, created_at DESC NULLS LAST, id DESC) AS current_entries;
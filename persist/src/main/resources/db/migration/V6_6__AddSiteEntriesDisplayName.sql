@@ -0,0 +1,15 @@
+ALTER TABLE site_entries ADD COLUMN display_name TEXT;
+
+-- The name a site's tree is shown with on the map, falling back from the common name to the genus
+-- and species
+UPDATE site_entries SET display_name =
+    CASE
+        WHEN common_name = '' THEN
+            CASE
+                WHEN genus = '' AND species = '' THEN 'Unknown Species'
+                WHEN genus = '' THEN species
+                WHEN species = '' THEN genus
+                ELSE genus || ' ' || species
+            END
+        ELSE common_name
+    END;
@@ -0,0 +1,14 @@
+-- New sites, site entries and site images used to be given the id after the largest one in use
+-- rather than the next value of their table's id sequence, which left the sequences behind. Move
+-- each sequence past every id in use, since new rows are now given ids by the sequences
+/* [jooq ignore start] */
+SELECT setval('sites_id_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM sites),
+                       (SELECT last_value FROM sites_id_seq)));
+SELECT setval('site_entries_id_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM site_entries),
+                       (SELECT last_value FROM site_entries_id_seq)));
+SELECT setval('site_images_id_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM site_images),
+                       (SELECT last_value FROM site_images_id_seq)));
+/* [jooq ignore stop] */
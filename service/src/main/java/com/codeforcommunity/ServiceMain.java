@@ -4,6 +4,7 @@ import com.codeforcommunity.api.IAuthProcessor;
 import com.codeforcommunity.api.IImportProcessor;
 import com.codeforcommunity.api.ILeaderboardProcessor;
 import com.codeforcommunity.api.IMapProcessor;
+import com.codeforcommunity.api.IProtectedAdminProcessor;
 import com.codeforcommunity.api.IProtectedEmailerProcessor;
 import com.codeforcommunity.api.IProtectedNeighborhoodsProcessor;
 import com.codeforcommunity.api.IProtectedReportProcessor;
@@ -16,11 +17,21 @@ import com.codeforcommunity.api.ITeamsProcessor;
 import com.codeforcommunity.auth.JWTAuthorizer;
 import com.codeforcommunity.auth.JWTCreator;
 import com.codeforcommunity.auth.JWTHandler;
+import com.codeforcommunity.dataaccess.TreeSpeciesIndex;
 import com.codeforcommunity.logger.SLogger;
+import com.codeforcommunity.map.MapLayerVersions;
+import com.codeforcommunity.map.PrivateStreetIndex;
+import com.codeforcommunity.map.SiteBenefitTotals;
+import com.codeforcommunity.map.SiteChangeLog;
+import com.codeforcommunity.map.SiteMapSnapshot;
+import com.codeforcommunity.map.SiteRegionLocator;
+import com.codeforcommunity.map.SiteResponseCache;
+import com.codeforcommunity.map.TileCache;
 import com.codeforcommunity.processor.AuthProcessorImpl;
 import com.codeforcommunity.processor.ImportProcessorImpl;
 import com.codeforcommunity.processor.LeaderboardProcessorImpl;
 import com.codeforcommunity.processor.MapProcessorImpl;
+import com.codeforcommunity.processor.ProtectedAdminProcessorImpl;
 import com.codeforcommunity.processor.ProtectedEmailerProcessorImpl;
 import com.codeforcommunity.processor.ProtectedNeighborhoodsProcessorImpl;
 import com.codeforcommunity.processor.ProtectedReportProcessorImpl;
@@ -32,21 +43,32 @@ import com.codeforcommunity.processor.SiteProcessorImpl;
 import com.codeforcommunity.processor.TeamsProcessorImpl;
 import com.codeforcommunity.propertiesLoader.PropertiesLoader;
 import com.codeforcommunity.requester.Emailer;
+import com.codeforcommunity.requester.TreeBenefitsCalculator;
 import com.codeforcommunity.rest.ApiRouter;
 import com.codeforcommunity.rest.IpThrottlingFilter;
+import com.codeforcommunity.rest.WorkerPool;
+import com.codeforcommunity.rest.WorkerPools;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.Refill;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
+import java.io.InputStream;
 import java.time.Duration;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
 import org.jooq.impl.DSL;
 
 public class ServiceMain {
+  private HikariDataSource dataSource;
   private DSLContext db;
   public static final long CAPACITY = 50;
   public static final Refill REFILL = Refill.greedy(20, Duration.ofMinutes(1));
+  private static final String PRIVATE_STREETS_RESOURCE = "/mapData/private_streets.json";
 
   public static void main(String[] args) {
     try {
@@ -74,7 +96,10 @@ public class ServiceMain {
     System.setProperties(systemProperties);
   }
 
-  /** Connect to the database and create a DSLContext so jOOQ can interact with it. */
+  /**
+   * Create a pool of connections to the database and a DSLContext backed by it so jOOQ can interact
+   * with the database.
+   */
   private void createDatabaseConnection() throws ClassNotFoundException {
     // Load configuration from db.properties file
     String databaseDriver = PropertiesLoader.loadProperty("database_driver");
@@ -85,8 +110,28 @@ public class ServiceMain {
     // This throws an exception if the database driver is not on the classpath
     Class.forName(databaseDriver);
 
+    HikariConfig config = new HikariConfig();
+    config.setPoolName("sftt-db-pool");
+    config.setDriverClassName(databaseDriver);
+    config.setJdbcUrl(databaseUrl);
+    config.setUsername(databaseUsername);
+    config.setPassword(databasePassword);
+    config.setMinimumIdle(
+        Integer.parseInt(PropertiesLoader.loadProperty("database_pool_min_idle")));
+    config.setMaximumPoolSize(
+        Integer.parseInt(PropertiesLoader.loadProperty("database_pool_max_size")));
+    config.setConnectionTimeout(
+        Long.parseLong(PropertiesLoader.loadProperty("database_pool_connection_timeout_ms")));
+    config.setLeakDetectionThreshold(
+        Long.parseLong(PropertiesLoader.loadProperty("database_pool_leak_detection_threshold_ms")));
+    // Number of server-side prepared statements the Postgres driver caches per connection
+    config.addDataSourceProperty(
+        "preparedStatementCacheQueries",
+        PropertiesLoader.loadProperty("database_statement_cache_size"));
+
     // Create a DSLContext from the above configuration
-    this.db = DSL.using(databaseUrl, databaseUsername, databasePassword);
+    this.dataSource = new HikariDataSource(config);
+    this.db = DSL.using(this.dataSource, SQLDialect.POSTGRES);
   }
 
   /** Initialize the server and get all the supporting classes going. */
@@ -108,26 +153,81 @@ public class ServiceMain {
 
     Emailer emailer = new Emailer();
 
+    // Build the in-memory site map before any requests can be served from it
+    SiteMapSnapshot siteMap = new SiteMapSnapshot(this.db);
+    siteMap.load();
+    SiteChangeLog siteChanges = new SiteChangeLog(this.db);
+    scheduleSiteChangePruning(vertx, siteChanges);
+    PrivateStreetIndex privateStreets = loadPrivateStreets();
+    SiteRegionLocator siteRegions = new SiteRegionLocator(this.db);
+    siteRegions.load();
+    MapLayerVersions layerVersions = new MapLayerVersions();
+    TileCache tileCache =
+        new TileCache(Integer.parseInt(PropertiesLoader.loadProperty("map_tile_cache_size")));
+    TreeSpeciesIndex speciesIndex = new TreeSpeciesIndex(this.db);
+    speciesIndex.load();
+    TreeBenefitsCalculator benefitsCalculator = new TreeBenefitsCalculator(this.db, speciesIndex);
+    benefitsCalculator.load();
+    SiteBenefitTotals siteBenefits = new SiteBenefitTotals(this.db, benefitsCalculator);
+    siteBenefits.load();
+    SiteResponseCache siteResponses =
+        new SiteResponseCache(
+            Long.parseLong(PropertiesLoader.loadProperty("site_response_cache_bytes")));
+
     // Create the processor implementation instances
     IAuthProcessor authProc = new AuthProcessorImpl(this.db, emailer, jwtCreator);
-    IProtectedUserProcessor protectedUserProc = new ProtectedUserProcessorImpl(this.db, emailer);
-    IImportProcessor importProc = new ImportProcessorImpl(this.db);
-    IReservationProcessor reservationProc = new ReservationProcessorImpl(this.db);
+    IProtectedUserProcessor protectedUserProc =
+        new ProtectedUserProcessorImpl(this.db, emailer, siteResponses);
+    IImportProcessor importProc =
+        new ImportProcessorImpl(
+            this.db,
+            siteMap,
+            siteChanges,
+            layerVersions,
+            privateStreets,
+            siteRegions,
+            siteResponses,
+            speciesIndex,
+            benefitsCalculator,
+            siteBenefits);
+    IReservationProcessor reservationProc = new ReservationProcessorImpl(this.db, layerVersions);
     ILeaderboardProcessor leaderboardProc = new LeaderboardProcessorImpl(this.db);
-    IMapProcessor mapProc = new MapProcessorImpl(this.db);
+    IMapProcessor mapProc =
+        new MapProcessorImpl(
+            this.db, siteMap, siteChanges, layerVersions, tileCache, privateStreets);
     ITeamsProcessor teamsProc = new TeamsProcessorImpl(this.db);
-    IProtectedSiteProcessor protectedSiteProc = new ProtectedSiteProcessorImpl(this.db, emailer);
-    ISiteProcessor siteProc = new SiteProcessorImpl(this.db);
+    IProtectedSiteProcessor protectedSiteProc =
+        new ProtectedSiteProcessorImpl(
+            this.db,
+            emailer,
+            siteMap,
+            siteChanges,
+            privateStreets,
+            siteRegions,
+            siteResponses,
+            siteBenefits);
+    ISiteProcessor siteProc =
+        new SiteProcessorImpl(
+            this.db, siteMap, siteResponses, speciesIndex, benefitsCalculator, siteBenefits);
     IProtectedReportProcessor protectedReportProc = new ProtectedReportProcessorImpl(this.db);
     IReportProcessor reportProc = new ReportProcessorImpl(this.db);
     IProtectedNeighborhoodsProcessor protectedNeighborhoodsProc =
-        new ProtectedNeighborhoodsProcessorImpl(this.db, emailer);
+        new ProtectedNeighborhoodsProcessorImpl(this.db, emailer, layerVersions);
     IProtectedEmailerProcessor emailerProc = new ProtectedEmailerProcessorImpl(this.db);
+    IProtectedAdminProcessor adminProc =
+        new ProtectedAdminProcessorImpl(this.dataSource, siteResponses, tileCache);
 
     Bandwidth bandwidth = Bandwidth.classic(CAPACITY, REFILL);
     BucketConfiguration configuration = BucketConfiguration.builder().addLimit(bandwidth).build();
     IpThrottlingFilter filter = new IpThrottlingFilter(configuration);
 
+    WorkerPools workerPools =
+        new WorkerPools(
+            createWorkerPool("public"),
+            createWorkerPool("protected"),
+            createWorkerPool("report"),
+            createWorkerPool("import"));
+
     // Create the API router and start the HTTP server
     ApiRouter router =
         new ApiRouter(
@@ -144,15 +244,77 @@ public class ServiceMain {
             reportProc,
             protectedNeighborhoodsProc,
             emailerProc,
+            adminProc,
             jwtAuthorizer,
-            filter);
+            filter,
+            workerPools);
 
     startApiServer(router, vertx);
   }
 
-  /** Start up the actual API server that will listen for requests. */
+  /** Load the private streets that ship with the app into a spatial index. */
+  private PrivateStreetIndex loadPrivateStreets() {
+    double bufferMeters =
+        Double.parseDouble(PropertiesLoader.loadProperty("private_street_buffer_meters"));
+    InputStream geoJson = ServiceMain.class.getResourceAsStream(PRIVATE_STREETS_RESOURCE);
+    if (geoJson == null) {
+      throw new IllegalStateException("Missing resource " + PRIVATE_STREETS_RESOURCE);
+    }
+    return PrivateStreetIndex.load(geoJson, bufferMeters);
+  }
+
+  /**
+   * Prune superseded entries from the site change log every `site_changes_prune_interval_minutes`
+   * minutes, off of the event loop.
+   */
+  private void scheduleSiteChangePruning(Vertx vertx, SiteChangeLog siteChanges) {
+    long interval =
+        TimeUnit.MINUTES.toMillis(
+            Long.parseLong(PropertiesLoader.loadProperty("site_changes_prune_interval_minutes")));
+    vertx.setPeriodic(
+        interval,
+        timerId ->
+            vertx.<Integer>executeBlocking(
+                promise -> promise.complete(siteChanges.prune()),
+                false,
+                result -> {
+                  if (result.failed()) {
+                    SLogger.logApplicationError(result.cause());
+                  }
+                }));
+  }
+
+  /**
+   * Create the worker pool for the given route group, sized by the `worker_pool_<group>_size` and
+   * `worker_pool_<group>_max_queue` properties.
+   */
+  private WorkerPool createWorkerPool(String group) {
+    int poolSize =
+        Integer.parseInt(PropertiesLoader.loadProperty("worker_pool_" + group + "_size"));
+    int maxQueueDepth =
+        Integer.parseInt(PropertiesLoader.loadProperty("worker_pool_" + group + "_max_queue"));
+    return new WorkerPool("sftt-" + group + "-worker", poolSize, maxQueueDepth);
+  }
+
+  /**
+   * Start up the actual API server that will listen for requests. The `api_instances` property
+   * controls how many instances of the API verticle share the port, where 0 deploys one instance
+   * per available processor.
+   */
   private void startApiServer(ApiRouter router, Vertx vertx) {
-    ApiMain apiMain = new ApiMain(router);
-    apiMain.startApi(vertx);
+    int instances = Integer.parseInt(PropertiesLoader.loadProperty("api_instances"));
+    if (instances <= 0) {
+      instances = Runtime.getRuntime().availableProcessors();
+    }
+
+    DeploymentOptions options = new DeploymentOptions().setInstances(instances);
+    vertx.deployVerticle(
+        () -> new ApiMain(router),
+        options,
+        result -> {
+          if (result.failed()) {
+            SLogger.logApplicationError(result.cause());
+          }
+        });
   }
 }
@@ -0,0 +1,110 @@
+package com.codeforcommunity.dataaccess;
+
+import static org.jooq.generated.Tables.SITE_CURRENT_ENTRY;
+import static org.jooq.generated.Tables.SITE_ENTRIES;
+import static org.jooq.impl.DSL.select;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.jooq.DSLContext;
+import org.jooq.generated.tables.records.SiteEntriesRecord;
+
+/**
+ * Encapsulates the database operations on each site's current entry, the most recently created
+ * entry of the site that hasn't been deleted. The current entry of every site is kept in the
+ * site_current_entry table, which must be updated in the same transaction as any write that adds or
+ * deletes a site's entries, so it can be looked up directly instead of sorting the site's whole
+ * entry history.
+ */
+public class SiteEntryDatabaseOperations {
+  // Keeps each statement well below the number of bind values Postgres allows
+  private static final int BATCH_SIZE = 1000;
+
+  private SiteEntryDatabaseOperations() {}
+
+  /**
+   * Set the name the entry's tree is shown with from its common name, genus and species. Must be
+   * called whenever any of those are set, so the name never has to be worked out when reading.
+   */
+  public static void setDisplayName(SiteEntriesRecord record) {
+    record.setDisplayName(
+        displayName(record.getCommonName(), record.getGenus(), record.getSpecies()));
+  }
+
+  /**
+   * Returns the name a tree is shown with. The common name is used if there is one, otherwise the
+   * genus and species, or "Unknown Species" if those are both empty too. A missing (rather than
+   * empty) value gives no name, as the query this replaces did.
+   */
+  static String displayName(String commonName, String genus, String species) {
+    if (commonName == null || !commonName.isEmpty()) {
+      return commonName;
+    }
+    if ("".equals(genus) && "".equals(species)) {
+      return "Unknown Species";
+    }
+    if ("".equals(genus)) {
+      return species;
+    }
+    if ("".equals(species)) {
+      return genus;
+    }
+    if (genus == null || species == null) {
+      return null;
+    }
+    return genus + " " + species;
+  }
+
+  /**
+   * Returns the current entry of the given site, or null if the site has no entries. The record is
+   * attached to the given context, so changes to it can be stored.
+   */
+  public static SiteEntriesRecord latestSiteEntry(DSLContext ctx, int siteId) {
+    return ctx.selectFrom(SITE_ENTRIES)
+        .where(
+            SITE_ENTRIES.ID.eq(
+                select(SITE_CURRENT_ENTRY.ENTRY_ID)
+                    .from(SITE_CURRENT_ENTRY)
+                    .where(SITE_CURRENT_ENTRY.SITE_ID.eq(siteId))))
+        .fetchOne();
+  }
+
+  /**
+   * Point the given site's current entry at a newly created entry. Only for entries created now,
+   * which are always the most recent entry of their site.
+   */
+  public static void setCurrentEntry(DSLContext ctx, int siteId, int entryId) {
+    ctx.insertInto(SITE_CURRENT_ENTRY, SITE_CURRENT_ENTRY.SITE_ID, SITE_CURRENT_ENTRY.ENTRY_ID)
+        .values(siteId, entryId)
+        .onConflict(SITE_CURRENT_ENTRY.SITE_ID)
+        .doUpdate()
+        .set(SITE_CURRENT_ENTRY.ENTRY_ID, entryId)
+        .execute();
+  }
+
+  /**
+   * Work out the current entry of each of the given sites again from their entries. Used after
+   * entries are deleted, or created with times that might not be the most recent.
+   */
+  public static void refreshCurrentEntries(DSLContext ctx, Collection<Integer> siteIds) {
+    List<Integer> ids = new ArrayList<>(siteIds);
+    for (int start = 0; start < ids.size(); start += BATCH_SIZE) {
+      List<Integer> batch = ids.subList(start, Math.min(start + BATCH_SIZE, ids.size()));
+
+      ctx.deleteFrom(SITE_CURRENT_ENTRY).where(SITE_CURRENT_ENTRY.SITE_ID.in(batch)).execute();
+      ctx.insertInto(SITE_CURRENT_ENTRY, SITE_CURRENT_ENTRY.SITE_ID, SITE_CURRENT_ENTRY.ENTRY_ID)
+          .select(
+              ctx.select(SITE_ENTRIES.SITE_ID, SITE_ENTRIES.ID)
+                  .distinctOn(SITE_ENTRIES.SITE_ID)
+                  .from(SITE_ENTRIES)
+                  .where(SITE_ENTRIES.SITE_ID.in(batch))
+                  .and(SITE_ENTRIES.DELETED_AT.isNull())
+                  .orderBy(
+                      SITE_ENTRIES.SITE_ID,
+                      SITE_ENTRIES.CREATED_AT.desc().nullsLast(),
+                      SITE_ENTRIES.ID.desc()))
+          .execute();
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package com.codeforcommunity.dataaccess;
+
+import static org.jooq.generated.Tables.TREE_SPECIES;
+
+import com.codeforcommunity.logger.SLogger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.jooq.DSLContext;
+
+/**
+ * An in-memory dictionary of the tree_species table, keyed by normalized common name. Entries name
+ * their tree in free text, so names are compared with case, spaces and punctuation removed (e.g.
+ * "Honey locust" and "Honeylocust"), and a name that still matches no species is matched to the
+ * species whose name is only a typo or two away from it. The index must be reloaded whenever tree
+ * species are imported.
+ */
+public class TreeSpeciesIndex {
+  // The shortest normalized name that is matched to a species with a different name
+  private static final int MIN_FUZZY_LENGTH = 5;
+  // Names may differ by one edit for each this many characters of the shorter name
+  private static final int CHARACTERS_PER_EDIT = 5;
+  private static final int MAX_EDITS = 2;
+  // The most names whose closest species is remembered, since names are free text
+  static final int MAX_MATCHES = 10_000;
+
+  private final SLogger logger = new SLogger(TreeSpeciesIndex.class);
+  private final DSLContext db;
+
+  private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap());
+
+  public TreeSpeciesIndex(DSLContext db) {
+    this.db = db;
+  }
+
+  /** Rebuild the index from the tree_species table. */
+  public void load() {
+    Map<String, Species> species = new HashMap<>();
+    db.selectFrom(TREE_SPECIES)
+        .orderBy(TREE_SPECIES.GENUS, TREE_SPECIES.SPECIES)
+        .fetch()
+        .forEach(
+            record ->
+                // Species whose names normalize the same are told apart by genus and species
+                species.putIfAbsent(
+                    normalize(record.getCommonName()),
+                    new Species(
+                        record.getCommonName(),
+                        record.getSpeciesCode(),
+                        record.getDefaultImage())));
+    snapshot = new Snapshot(species);
+    logger.info(String.format("Indexed %d tree species", species.size()));
+  }
+
+  /**
+   * Find the species with the given common name, or failing that the one species with the closest
+   * name within a few typos of it.
+   *
+   * @param commonName the common name of a tree, as written on a site entry
+   * @return the species, or null if the name is null or matches no species (or several equally)
+   */
+  public Species find(String commonName) {
+    if (commonName == null) {
+      return null;
+    }
+    return snapshot.find(normalize(commonName));
+  }
+
+  /** Returns the number of names whose closest species is currently remembered. */
+  int cachedMatches() {
+    return snapshot.cachedMatches();
+  }
+
+  /** Returns the given common name in lowercase with everything but letters and digits removed. */
+  static String normalize(String commonName) {
+    StringBuilder normalized = new StringBuilder(commonName.length());
+    commonName
+        .codePoints()
+        .filter(Character::isLetterOrDigit)
+        .map(Character::toLowerCase)
+        .forEach(normalized::appendCodePoint);
+    return normalized.toString();
+  }
+
+  /**
+   * Returns the number of single character insertions, deletions, substitutions or swaps of
+   * adjacent characters needed to turn one string into the other, or anything past the given limit
+   * if it needs more than that.
+   */
+  static int editDistance(String a, String b, int limit) {
+    if (Math.abs(a.length() - b.length()) > limit) {
+      return limit + 1;
+    }
+
+    // Only the last three rows of the table are needed
+    int[] beforeLast = new int[b.length() + 1];
+    int[] last = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      last[j] = j;
+    }
+
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      int rowMin = current[0];
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        current[j] = Math.min(Math.min(current[j - 1], last[j]) + 1, last[j - 1] + cost);
+        if (i > 1
+            && j > 1
+            && a.charAt(i - 1) == b.charAt(j - 2)
+            && a.charAt(i - 2) == b.charAt(j - 1)) {
+          current[j] = Math.min(current[j], beforeLast[j - 2] + 1);
+        }
+        rowMin = Math.min(rowMin, current[j]);
+      }
+      if (rowMin > limit) {
+        return limit + 1;
+      }
+
+      int[] recycled = beforeLast;
+      beforeLast = last;
+      last = current;
+      current = recycled;
+    }
+    return last[b.length()];
+  }
+
+  /**
+   * The species loaded by one call to {@link #load()}, along with the most recently used names that
+   * didn't match a species exactly and the species they were matched to, so that common
+   * misspellings only have to be compared with every species once.
+   */
+  private static class Snapshot {
+    private final Map<String, Species> species;
+    private final Map<String, Optional<Species>> matches =
+        new LinkedHashMap<String, Optional<Species>>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Optional<Species>> eldest) {
+            return size() > MAX_MATCHES;
+          }
+        };
+
+    private Snapshot(Map<String, Species> species) {
+      this.species = species;
+    }
+
+    private Species find(String name) {
+      Species exact = species.get(name);
+      if (exact != null) {
+        return exact;
+      }
+
+      synchronized (matches) {
+        Optional<Species> match = matches.get(name);
+        if (match != null) {
+          return match.orElse(null);
+        }
+      }
+      // Matched outside of the lock, so two lookups of the same new name may both match it
+      Optional<Species> match = closest(name);
+      synchronized (matches) {
+        matches.put(name, match);
+      }
+      return match.orElse(null);
+    }
+
+    private int cachedMatches() {
+      synchronized (matches) {
+        return matches.size();
+      }
+    }
+
+    private Optional<Species> closest(String name) {
+      if (name.length() < MIN_FUZZY_LENGTH) {
+        return Optional.empty();
+      }
+
+      Species closest = null;
+      int closestDistance = Integer.MAX_VALUE;
+      boolean tied = false;
+      for (Map.Entry<String, Species> candidate : species.entrySet()) {
+        int shorter = Math.min(name.length(), candidate.getKey().length());
+        int limit = Math.min(MAX_EDITS, shorter / CHARACTERS_PER_EDIT);
+        int distance = editDistance(name, candidate.getKey(), limit);
+        if (distance > limit) {
+          continue;
+        }
+
+        if (distance < closestDistance) {
+          closest = candidate.getValue();
+          closestDistance = distance;
+          tied = false;
+        } else if (distance == closestDistance) {
+          tied = true;
+        }
+      }
+      return tied ? Optional.empty() : Optional.ofNullable(closest);
+    }
+  }
+
+  /** The details of a tree species needed when showing or calculating the benefits of a tree. */
+  public static class Species {
+    private final String commonName;
+    private final String speciesCode;
+    private final String defaultImage;
+
+    private Species(String commonName, String speciesCode, String defaultImage) {
+      this.commonName = commonName;
+      this.speciesCode = speciesCode;
+      this.defaultImage = defaultImage;
+    }
+
+    public String getCommonName() {
+      return commonName;
+    }
+
+    public String getSpeciesCode() {
+      return speciesCode;
+    }
+
+    /** Returns the url of the image shown for trees of this species without images, or null. */
+    public String getDefaultImage() {
+      return defaultImage;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.codeforcommunity.map;
+
+import com.codeforcommunity.dto.map.MapLayerPayload;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the encoded payload of a single map layer. The layer's response is only built, serialized
+ * and gzipped when a request asks for a version that is newer than the one already encoded.
+ */
+public class EncodedLayer {
+  private volatile MapLayerPayload payload;
+
+  /**
+   * Returns the payload for the given version of the layer, encoding the response from the given
+   * supplier if this version hasn't been encoded yet.
+   *
+   * @param version the current version of the layer
+   * @param response supplies the response DTO for the current version of the layer
+   */
+  public MapLayerPayload get(long version, Supplier<?> response) {
+    return getEncoded(version, () -> Json.encodeToBuffer(response.get()));
+  }
+
+  /**
+   * Returns the payload for the given version of the layer, taking the body from the given supplier
+   * if this version hasn't been encoded yet. Used for layers that aren't encoded as JSON.
+   *
+   * @param version the current version of the layer
+   * @param body supplies the encoded body for the current version of the layer
+   */
+  public MapLayerPayload getEncoded(long version, Supplier<Buffer> body) {
+    MapLayerPayload cached = this.payload;
+    if (cached != null && cached.getVersion() == version) {
+      return cached;
+    }
+
+    synchronized (this) {
+      // Another thread may have encoded this version while we were waiting
+      cached = this.payload;
+      if (cached != null && cached.getVersion() == version) {
+        return cached;
+      }
+
+      MapLayerPayload encoded = encode(version, body.get());
+      this.payload = encoded;
+      return encoded;
+    }
+  }
+
+  /**
+   * Build the payload of an already encoded body, gzipping it and computing the ETags of both
+   * versions of the body.
+   *
+   * @param version the version of the layer the body was built from
+   * @param body the encoded body
+   */
+  public static MapLayerPayload encode(long version, Buffer body) {
+    String hash = hash(body);
+    return new MapLayerPayload(
+        version, body, gzip(body), "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+  }
+
+  /** Returns a hex encoded hash of the given body, used as the body's ETag. */
+  private static String hash(Buffer body) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes());
+      StringBuilder hex = new StringBuilder();
+      // Half of the digest is plenty to tell versions of a layer apart
+      for (int i = 0; i < digest.length / 2; i++) {
+        hex.append(String.format("%02x", digest[i]));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Buffer gzip(Buffer body) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(body.length() / 4);
+    try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+      gzipOut.write(body.getBytes());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Buffer.buffer(out.toByteArray());
+  }
+}
@@ -0,0 +1,185 @@
+package com.codeforcommunity.map;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+
+/**
+ * Simplifies GeoJSON Polygon and MultiPolygon geometry with the Douglas-Peucker algorithm, so that
+ * zoomed out maps don't have to download and draw points that would end up on the same pixel.
+ */
+public class GeometrySimplifier {
+  // A closed ring needs at least three distinct points plus the repeated first point
+  private static final int MIN_RING_POINTS = 4;
+
+  private GeometrySimplifier() {}
+
+  /**
+   * Simplify the given GeoJSON geometry text.
+   *
+   * @param geometry a GeoJSON Polygon or MultiPolygon
+   * @param tolerance the furthest, in degrees, that a removed point may be from the simplified ring
+   * @return the simplified geometry as GeoJSON text, of the same type as the given geometry, or the
+   *     given geometry unchanged if it is not a well formed Polygon or MultiPolygon
+   */
+  public static String simplify(String geometry, double tolerance) {
+    if (geometry == null) {
+      return null;
+    }
+
+    String type;
+    List<List<double[]>> polygons;
+    try {
+      JsonObject geometryJson = new JsonObject(geometry);
+      type = geometryJson.getString("type");
+      polygons = PolygonLayer.parseGeometry(geometryJson);
+    } catch (DecodeException
+        | ClassCastException
+        | IndexOutOfBoundsException
+        | NullPointerException e) {
+      // Malformed geometry (invalid JSON, or missing or mistyped positions) is kept as it is rather
+      // than failing the rest of an import
+      return geometry;
+    }
+    if (polygons.isEmpty()) {
+      return geometry;
+    }
+
+    JsonArray simplifiedPolygons = new JsonArray();
+    for (List<double[]> polygon : polygons) {
+      JsonArray rings = new JsonArray();
+      for (double[] ring : polygon) {
+        rings.add(toPositions(simplifyRing(ring, tolerance)));
+      }
+      simplifiedPolygons.add(rings);
+    }
+
+    JsonObject simplified = new JsonObject().put("type", type);
+    if ("Polygon".equals(type)) {
+      simplified.put("coordinates", simplifiedPolygons.getJsonArray(0));
+    } else {
+      simplified.put("coordinates", simplifiedPolygons);
+    }
+    return simplified.encode();
+  }
+
+  /**
+   * Simplify a closed ring of alternating longitudes and latitudes. Rings that would collapse below
+   * a triangle are returned unchanged, so that small blocks never disappear from the map.
+   */
+  static double[] simplifyRing(double[] ring, double tolerance) {
+    int points = ring.length / 2;
+    if (points <= MIN_RING_POINTS || tolerance <= 0) {
+      return ring;
+    }
+
+    boolean[] keep = new boolean[points];
+    // The first and last points of a ring are the same, so the ring is split at the point furthest
+    // from it and each half is simplified on its own
+    int last = points - 1;
+    int split = furthestPoint(ring, 0, last);
+    keep[0] = true;
+    keep[split] = true;
+    keep[last] = true;
+    simplifySection(ring, 0, split, tolerance, keep);
+    simplifySection(ring, split, last, tolerance, keep);
+
+    int kept = 0;
+    for (boolean k : keep) {
+      if (k) {
+        kept++;
+      }
+    }
+    if (kept < MIN_RING_POINTS) {
+      return ring;
+    }
+
+    double[] simplified = new double[kept * 2];
+    int next = 0;
+    for (int i = 0; i < points; i++) {
+      if (keep[i]) {
+        simplified[next++] = ring[2 * i];
+        simplified[next++] = ring[2 * i + 1];
+      }
+    }
+    return simplified;
+  }
+
+  /** Mark the points between start and end that must be kept to stay within the tolerance. */
+  private static void simplifySection(
+      double[] ring, int start, int end, double tolerance, boolean[] keep) {
+    // Iterative, since rings with many thousands of points could otherwise overflow the stack
+    int[] stack = new int[ring.length + 2];
+    int top = 0;
+    stack[top++] = start;
+    stack[top++] = end;
+
+    while (top > 0) {
+      int sectionEnd = stack[--top];
+      int sectionStart = stack[--top];
+      if (sectionEnd - sectionStart < 2) {
+        continue;
+      }
+
+      int furthest = sectionStart;
+      double furthestDistance = -1;
+      for (int i = sectionStart + 1; i < sectionEnd; i++) {
+        double distance = segmentDistance(ring, i, sectionStart, sectionEnd);
+        if (distance > furthestDistance) {
+          furthest = i;
+          furthestDistance = distance;
+        }
+      }
+
+      if (furthestDistance > tolerance) {
+        keep[furthest] = true;
+        stack[top++] = sectionStart;
+        stack[top++] = furthest;
+        stack[top++] = furthest;
+        stack[top++] = sectionEnd;
+      }
+    }
+  }
+
+  /** Returns the index of the point between start and end that is furthest from the start. */
+  private static int furthestPoint(double[] ring, int start, int end) {
+    int furthest = start;
+    double furthestDistance = -1;
+    for (int i = start + 1; i < end; i++) {
+      double dx = ring[2 * i] - ring[2 * start];
+      double dy = ring[2 * i + 1] - ring[2 * start + 1];
+      double distance = dx * dx + dy * dy;
+      if (distance > furthestDistance) {
+        furthest = i;
+        furthestDistance = distance;
+      }
+    }
+    return furthest;
+  }
+
+  /** Returns the distance from the given point to the segment between start and end. */
+  private static double segmentDistance(double[] ring, int point, int start, int end) {
+    double px = ring[2 * point];
+    double py = ring[2 * point + 1];
+    double ax = ring[2 * start];
+    double ay = ring[2 * start + 1];
+    double dx = ring[2 * end] - ax;
+    double dy = ring[2 * end + 1] - ay;
+
+    double lengthSquared = dx * dx + dy * dy;
+    double t = 0;
+    if (lengthSquared > 0) {
+      t = Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+    }
+    return Math.hypot(px - (ax + t * dx), py - (ay + t * dy));
+  }
+
+  private static JsonArray toPositions(double[] ring) {
+    JsonArray positions = new JsonArray();
+    for (int i = 0; i + 1 < ring.length; i += 2) {
+      positions.add(new JsonArray().add(ring[i]).add(ring[i + 1]));
+    }
+    return positions;
+  }
+}
@@ -0,0 +1,34 @@
+package com.codeforcommunity.map;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the version of the block and neighborhood map layers. Anything that changes what one of
+ * these layers looks like must invalidate it, so that payloads cached for the old version are
+ * rebuilt on the next request.
+ */
+public class MapLayerVersions {
+  private final AtomicLong blocksVersion = new AtomicLong();
+  private final AtomicLong neighborhoodsVersion = new AtomicLong();
+
+  /** Called when blocks are added or their geometry changes. */
+  public void invalidateBlocks() {
+    blocksVersion.incrementAndGet();
+  }
+
+  /**
+   * Called when neighborhoods are added or edited, or when a block reservation changes, since each
+   * neighborhood includes the percent of its blocks that have been completed.
+   */
+  public void invalidateNeighborhoods() {
+    neighborhoodsVersion.incrementAndGet();
+  }
+
+  public long getBlocksVersion() {
+    return blocksVersion.get();
+  }
+
+  public long getNeighborhoodsVersion() {
+    return neighborhoodsVersion.get();
+  }
+}
@@ -0,0 +1,67 @@
+package com.codeforcommunity.map;
+
+import com.codeforcommunity.dto.map.BoundingBox;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/** A block or neighborhood with its geometry parsed into polygons. */
+public class PolygonFeature {
+  private final int id;
+  private final Map<String, Object> properties;
+  // Each polygon is a list of rings, exterior first, of alternating longitudes and latitudes
+  private final List<List<double[]>> polygons;
+
+  private final double minLng;
+  private final double minLat;
+  private final double maxLng;
+  private final double maxLat;
+
+  public PolygonFeature(int id, Map<String, Object> properties, List<List<double[]>> polygons) {
+    this.id = id;
+    this.properties = Collections.unmodifiableMap(properties);
+    // A polygon without any rings has nothing to draw
+    this.polygons =
+        polygons.stream().filter(polygon -> !polygon.isEmpty()).collect(Collectors.toList());
+
+    double minLng = Double.POSITIVE_INFINITY;
+    double minLat = Double.POSITIVE_INFINITY;
+    double maxLng = Double.NEGATIVE_INFINITY;
+    double maxLat = Double.NEGATIVE_INFINITY;
+    for (List<double[]> polygon : this.polygons) {
+      // Holes are inside of the exterior ring, so only it affects the bounds
+      double[] exterior = polygon.get(0);
+      for (int i = 0; i + 1 < exterior.length; i += 2) {
+        minLng = Math.min(minLng, exterior[i]);
+        maxLng = Math.max(maxLng, exterior[i]);
+        minLat = Math.min(minLat, exterior[i + 1]);
+        maxLat = Math.max(maxLat, exterior[i + 1]);
+      }
+    }
+    this.minLng = minLng;
+    this.minLat = minLat;
+    this.maxLng = maxLng;
+    this.maxLat = maxLat;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public Map<String, Object> getProperties() {
+    return properties;
+  }
+
+  public List<List<double[]>> getPolygons() {
+    return polygons;
+  }
+
+  /** Whether this feature's bounds overlap the given bounding box. */
+  public boolean overlaps(BoundingBox bbox) {
+    return minLng <= bbox.getMaxLng()
+        && maxLng >= bbox.getMinLng()
+        && minLat <= bbox.getMaxLat()
+        && maxLat >= bbox.getMinLat();
+  }
+}
@@ -0,0 +1,116 @@
+package com.codeforcommunity.map;
+
+import com.codeforcommunity.dto.map.BoundingBox;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The parsed polygons of every feature in a block or neighborhood layer, for one version of that
+ * layer. Geometry is stored in the database as GeoJSON text, so parsing it once per version saves
+ * every tile from having to do it again.
+ */
+public class PolygonLayer {
+  private final long version;
+  private final List<PolygonFeature> features;
+
+  private PolygonLayer(long version, List<PolygonFeature> features) {
+    this.version = version;
+    this.features = Collections.unmodifiableList(features);
+  }
+
+  /**
+   * Build a layer from GeoJSON features.
+   *
+   * @param version the version of the layer the features are from
+   * @param features the features of the layer
+   * @param id gets the id of a feature
+   * @param geometry gets the GeoJSON Polygon or MultiPolygon geometry of a feature
+   * @param properties gets the properties of a feature
+   * @param <T> the type of the features
+   */
+  public static <T> PolygonLayer fromFeatures(
+      long version,
+      List<T> features,
+      Function<T, Integer> id,
+      Function<T, JsonObject> geometry,
+      Function<T, Object> properties) {
+    List<PolygonFeature> polygonFeatures = new ArrayList<>(features.size());
+    for (T feature : features) {
+      List<List<double[]>> polygons = parseGeometry(geometry.apply(feature));
+      if (polygons.isEmpty()) {
+        continue;
+      }
+      Map<String, Object> propertyMap = JsonObject.mapFrom(properties.apply(feature)).getMap();
+      polygonFeatures.add(new PolygonFeature(id.apply(feature), propertyMap, polygons));
+    }
+    return new PolygonLayer(version, polygonFeatures);
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public List<PolygonFeature> getFeatures() {
+    return features;
+  }
+
+  /** Returns the features whose bounds overlap the given bounding box. */
+  public List<PolygonFeature> query(BoundingBox bbox) {
+    List<PolygonFeature> matches = new ArrayList<>();
+    for (PolygonFeature feature : features) {
+      if (feature.overlaps(bbox)) {
+        matches.add(feature);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Parse a GeoJSON Polygon or MultiPolygon into a list of polygons, each a list of rings with the
+   * exterior ring first. Each ring is an array of alternating longitudes and latitudes. Any other
+   * type of geometry, and any polygon without rings, is ignored.
+   */
+  static List<List<double[]>> parseGeometry(JsonObject geometry) {
+    List<List<double[]>> polygons = new ArrayList<>();
+    if (geometry == null) {
+      return polygons;
+    }
+
+    String type = geometry.getString("type");
+    JsonArray coordinates = geometry.getJsonArray("coordinates");
+    if (coordinates == null) {
+      return polygons;
+    }
+
+    if ("Polygon".equals(type)) {
+      polygons.add(parsePolygon(coordinates));
+    } else if ("MultiPolygon".equals(type)) {
+      for (int i = 0; i < coordinates.size(); i++) {
+        polygons.add(parsePolygon(coordinates.getJsonArray(i)));
+      }
+    }
+    // Polygons without any rings have nothing to draw
+    polygons.removeIf(List::isEmpty);
+    return polygons;
+  }
+
+  private static List<double[]> parsePolygon(JsonArray rings) {
+    List<double[]> polygon = new ArrayList<>(rings.size());
+    for (int i = 0; i < rings.size(); i++) {
+      JsonArray positions = rings.getJsonArray(i);
+      double[] ring = new double[positions.size() * 2];
+      for (int j = 0; j < positions.size(); j++) {
+        JsonArray position = positions.getJsonArray(j);
+        ring[2 * j] = position.getDouble(0);
+        ring[2 * j + 1] = position.getDouble(1);
+      }
+      polygon.add(ring);
+    }
+    return polygon;
+  }
+}
@@ -0,0 +1,358 @@
+package com.codeforcommunity.map;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A read-only R-tree of the segments of every private street, used to tell whether a point lies on
+ * a private street. A point is on a private street if it is within the buffer distance of one of
+ * the street's segments.
+ *
+ * <p>The tree is bulk loaded with the sort-tile-recursive algorithm, so a query only visits the few
+ * nodes near the point. Coordinates are projected onto a flat plane in meters around the streets'
+ * average latitude, which is accurate enough over the area of a single city.
+ */
+public class PrivateStreetIndex {
+  private static final int NODE_CAPACITY = 16;
+  private static final double METERS_PER_DEGREE = 111_320;
+
+  private final double bufferMeters;
+  private final double metersPerDegreeLng;
+
+  // Each segment's projected end points and the index of its street, in tree order
+  private final double[] segmentCoordinates;
+  private final int[] segmentStreets;
+  private final List<Street> streets;
+
+  // Each level of the tree, from the leaves up to the root
+  private final List<Level> levels;
+
+  private PrivateStreetIndex(
+      double bufferMeters,
+      double metersPerDegreeLng,
+      double[] segmentCoordinates,
+      int[] segmentStreets,
+      List<Street> streets,
+      List<Level> levels) {
+    this.bufferMeters = bufferMeters;
+    this.metersPerDegreeLng = metersPerDegreeLng;
+    this.segmentCoordinates = segmentCoordinates;
+    this.segmentStreets = segmentStreets;
+    this.streets = streets;
+    this.levels = levels;
+  }
+
+  /**
+   * Build the index from a GeoJSON FeatureCollection of LineString and MultiLineString streets.
+   *
+   * @param geoJson the private streets GeoJSON
+   * @param bufferMeters how close to a street a point must be to count as on it
+   */
+  public static PrivateStreetIndex load(InputStream geoJson, double bufferMeters) {
+    JsonArray features = new JsonObject(Buffer.buffer(readAll(geoJson))).getJsonArray("features");
+
+    List<Street> streets = new ArrayList<>();
+    List<double[]> lines = new ArrayList<>();
+    List<Integer> lineStreets = new ArrayList<>();
+    double latitudeSum = 0;
+    int pointCount = 0;
+
+    for (int i = 0; i < features.size(); i++) {
+      JsonObject feature = features.getJsonObject(i);
+      JsonObject properties = feature.getJsonObject("properties", new JsonObject());
+      JsonObject geometry = feature.getJsonObject("geometry");
+      if (geometry == null) {
+        continue;
+      }
+
+      List<JsonArray> featureLines = new ArrayList<>();
+      if ("LineString".equals(geometry.getString("type"))) {
+        featureLines.add(geometry.getJsonArray("coordinates"));
+      } else if ("MultiLineString".equals(geometry.getString("type"))) {
+        JsonArray coordinates = geometry.getJsonArray("coordinates");
+        for (int j = 0; j < coordinates.size(); j++) {
+          featureLines.add(coordinates.getJsonArray(j));
+        }
+      }
+
+      streets.add(
+          new Street(properties.getString("street_name"), properties.getString("neighborhood")));
+      for (JsonArray positions : featureLines) {
+        double[] line = new double[positions.size() * 2];
+        for (int j = 0; j < positions.size(); j++) {
+          line[2 * j] = positions.getJsonArray(j).getDouble(0);
+          line[2 * j + 1] = positions.getJsonArray(j).getDouble(1);
+          latitudeSum += line[2 * j + 1];
+          pointCount++;
+        }
+        lines.add(line);
+        lineStreets.add(streets.size() - 1);
+      }
+    }
+
+    double averageLatitude = pointCount == 0 ? 0 : latitudeSum / pointCount;
+    double metersPerDegreeLng = METERS_PER_DEGREE * Math.cos(Math.toRadians(averageLatitude));
+
+    // Split every line into its segments, projected into meters
+    List<double[]> segments = new ArrayList<>();
+    for (int i = 0; i < lines.size(); i++) {
+      double[] line = lines.get(i);
+      for (int j = 0; j + 3 < line.length; j += 2) {
+        segments.add(
+            new double[] {
+              line[j] * metersPerDegreeLng,
+              line[j + 1] * METERS_PER_DEGREE,
+              line[j + 2] * metersPerDegreeLng,
+              line[j + 3] * METERS_PER_DEGREE,
+              lineStreets.get(i)
+            });
+      }
+    }
+
+    sortTileRecursive(segments, s -> (s[0] + s[2]) / 2, s -> (s[1] + s[3]) / 2);
+    double[] segmentCoordinates = new double[segments.size() * 4];
+    int[] segmentStreets = new int[segments.size()];
+    double[][] bounds = new double[segments.size()][];
+    for (int i = 0; i < segments.size(); i++) {
+      double[] segment = segments.get(i);
+      System.arraycopy(segment, 0, segmentCoordinates, i * 4, 4);
+      segmentStreets[i] = (int) segment[4];
+      bounds[i] =
+          new double[] {
+            Math.min(segment[0], segment[2]),
+            Math.min(segment[1], segment[3]),
+            Math.max(segment[0], segment[2]),
+            Math.max(segment[1], segment[3])
+          };
+    }
+
+    List<Level> levels = new ArrayList<>();
+    Level level = Level.over(bounds);
+    levels.add(level);
+    while (level.size() > 1) {
+      level = Level.over(level.bounds());
+      levels.add(level);
+    }
+
+    return new PrivateStreetIndex(
+        bufferMeters, metersPerDegreeLng, segmentCoordinates, segmentStreets, streets, levels);
+  }
+
+  /**
+   * Returns the private street nearest to the given point, if the point is within the buffer
+   * distance of one.
+   */
+  public Optional<Match> nearest(double lat, double lng) {
+    if (levels.isEmpty() || levels.get(0).size() == 0) {
+      return Optional.empty();
+    }
+
+    double x = lng * metersPerDegreeLng;
+    double y = lat * METERS_PER_DEGREE;
+    Nearest nearest = new Nearest(bufferMeters);
+    search(levels.size() - 1, 0, levels.get(levels.size() - 1).size(), x, y, nearest);
+
+    if (nearest.segment < 0) {
+      return Optional.empty();
+    }
+    Street street = streets.get(segmentStreets[nearest.segment]);
+    return Optional.of(new Match(street.name, street.neighborhood, nearest.distance));
+  }
+
+  /**
+   * Returns whether the given point is on a private street, or null if either coordinate is
+   * missing.
+   */
+  public Boolean isOnPrivateStreet(BigDecimal lat, BigDecimal lng) {
+    if (lat == null || lng == null) {
+      return null;
+    }
+    return nearest(lat.doubleValue(), lng.doubleValue()).isPresent();
+  }
+
+  /** Returns the number of street segments in the index. */
+  public int size() {
+    return segmentStreets.length;
+  }
+
+  private void search(int levelIndex, int start, int end, double x, double y, Nearest nearest) {
+    Level level = levels.get(levelIndex);
+    for (int node = start; node < end; node++) {
+      if (level.distance(node, x, y) > nearest.distance) {
+        continue;
+      }
+
+      if (levelIndex == 0) {
+        // The children of the leaves are the segments themselves
+        for (int segment = level.childStart[node]; segment < level.childEnd[node]; segment++) {
+          double distance = segmentDistance(segment, x, y);
+          if (distance <= nearest.distance) {
+            nearest.distance = distance;
+            nearest.segment = segment;
+          }
+        }
+      } else {
+        search(levelIndex - 1, level.childStart[node], level.childEnd[node], x, y, nearest);
+      }
+    }
+  }
+
+  private double segmentDistance(int segment, double x, double y) {
+    double ax = segmentCoordinates[segment * 4];
+    double ay = segmentCoordinates[segment * 4 + 1];
+    double dx = segmentCoordinates[segment * 4 + 2] - ax;
+    double dy = segmentCoordinates[segment * 4 + 3] - ay;
+
+    double lengthSquared = dx * dx + dy * dy;
+    double t = 0;
+    if (lengthSquared > 0) {
+      t = Math.max(0, Math.min(1, ((x - ax) * dx + (y - ay) * dy) / lengthSquared));
+    }
+    return Math.hypot(x - (ax + t * dx), y - (ay + t * dy));
+  }
+
+  /**
+   * Order the given items so that each run of {@link #NODE_CAPACITY} items is close together, by
+   * sorting into vertical slices by x and then each slice by y.
+   */
+  private static <T> void sortTileRecursive(
+      List<T> items, ToDoubleFunction<T> centerX, ToDoubleFunction<T> centerY) {
+    int nodeCount = (items.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    int sliceCount = (int) Math.ceil(Math.sqrt(nodeCount));
+    int sliceSize = sliceCount * NODE_CAPACITY;
+
+    items.sort(Comparator.comparingDouble(centerX));
+    for (int start = 0; start < items.size(); start += sliceSize) {
+      items
+          .subList(start, Math.min(start + sliceSize, items.size()))
+          .sort(Comparator.comparingDouble(centerY));
+    }
+  }
+
+  private static byte[] readAll(InputStream in) {
+    try (InputStream input = in) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] chunk = new byte[8192];
+      int read;
+      while ((read = input.read(chunk)) != -1) {
+        out.write(chunk, 0, read);
+      }
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** One level of the tree, where each node covers a range of the level below it. */
+  private static class Level {
+    private final double[][] nodeBounds;
+    private final int[] childStart;
+    private final int[] childEnd;
+
+    private Level(double[][] nodeBounds, int[] childStart, int[] childEnd) {
+      this.nodeBounds = nodeBounds;
+      this.childStart = childStart;
+      this.childEnd = childEnd;
+    }
+
+    /**
+     * Build the level above the given bounds by grouping each consecutive run of them into a node.
+     * The segments are in sort-tile-recursive order, so consecutive runs are close together.
+     */
+    private static Level over(double[][] childBounds) {
+      int nodeCount = (childBounds.length + NODE_CAPACITY - 1) / NODE_CAPACITY;
+      double[][] nodeBounds = new double[nodeCount][];
+      int[] childStart = new int[nodeCount];
+      int[] childEnd = new int[nodeCount];
+
+      for (int node = 0; node < nodeCount; node++) {
+        int start = node * NODE_CAPACITY;
+        int end = Math.min(start + NODE_CAPACITY, childBounds.length);
+        double[] bounds = Arrays.copyOf(childBounds[start], 4);
+        for (int child = start + 1; child < end; child++) {
+          bounds[0] = Math.min(bounds[0], childBounds[child][0]);
+          bounds[1] = Math.min(bounds[1], childBounds[child][1]);
+          bounds[2] = Math.max(bounds[2], childBounds[child][2]);
+          bounds[3] = Math.max(bounds[3], childBounds[child][3]);
+        }
+        nodeBounds[node] = bounds;
+        childStart[node] = start;
+        childEnd[node] = end;
+      }
+      return new Level(nodeBounds, childStart, childEnd);
+    }
+
+    private int size() {
+      return nodeBounds.length;
+    }
+
+    private double[][] bounds() {
+      return nodeBounds;
+    }
+
+    /** Returns the distance from the given point to the bounds of the given node. */
+    private double distance(int node, double x, double y) {
+      double[] bounds = nodeBounds[node];
+      double dx = Math.max(0, Math.max(bounds[0] - x, x - bounds[2]));
+      double dy = Math.max(0, Math.max(bounds[1] - y, y - bounds[3]));
+      return Math.hypot(dx, dy);
+    }
+  }
+
+  /** The closest segment found so far by a query. */
+  private static class Nearest {
+    private double distance;
+    private int segment = -1;
+
+    private Nearest(double maxDistance) {
+      this.distance = maxDistance;
+    }
+  }
+
+  private static class Street {
+    private final String name;
+    private final String neighborhood;
+
+    private Street(String name, String neighborhood) {
+      this.name = name;
+      this.neighborhood = neighborhood;
+    }
+  }
+
+  /** A private street that a point is on, and how far the point is from its center line. */
+  public static class Match {
+    private final String streetName;
+    private final String neighborhood;
+    private final double distanceMeters;
+
+    private Match(String streetName, String neighborhood, double distanceMeters) {
+      this.streetName = streetName;
+      this.neighborhood = neighborhood;
+      this.distanceMeters = distanceMeters;
+    }
+
+    public String getStreetName() {
+      return streetName;
+    }
+
+    public String getNeighborhood() {
+      return neighborhood;
+    }
+
+    public double getDistanceMeters() {
+      return distanceMeters;
+    }
+  }
+}
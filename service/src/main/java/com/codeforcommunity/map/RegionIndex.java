@@ -0,0 +1,146 @@
+package com.codeforcommunity.map;
+
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read-only index of polygonal regions, such as blocks or neighborhoods, that finds which region
+ * contains a point. Each region is bucketed into every grid cell its bounds overlap, so a lookup
+ * only tests the few regions near the point. Lookups are safe from any number of threads.
+ */
+public class RegionIndex {
+  // Small enough that a cell overlaps only a handful of blocks
+  private static final double CELL_SIZE_DEGREES = 0.002;
+
+  private final Map<Long, List<Region>> cells;
+  private final Set<Integer> ids;
+
+  private RegionIndex(Map<Long, List<Region>> cells, Set<Integer> ids) {
+    this.cells = cells;
+    this.ids = ids;
+  }
+
+  /**
+   * Build an index of the given regions.
+   *
+   * @param regions each region's GeoJSON Polygon or MultiPolygon geometry, keyed by region id
+   */
+  public static RegionIndex fromGeometry(Map<Integer, String> regions) {
+    Map<Long, List<Region>> cells = new HashMap<>();
+    for (Map.Entry<Integer, String> entry : regions.entrySet()) {
+      Region region =
+          new Region(entry.getKey(), PolygonLayer.parseGeometry(new JsonObject(entry.getValue())));
+      if (region.polygons.isEmpty()) {
+        continue;
+      }
+
+      for (long x = cellIndex(region.minLng); x <= cellIndex(region.maxLng); x++) {
+        for (long y = cellIndex(region.minLat); y <= cellIndex(region.maxLat); y++) {
+          cells.computeIfAbsent(key(x, y), key -> new ArrayList<>()).add(region);
+        }
+      }
+    }
+    return new RegionIndex(cells, Collections.unmodifiableSet(regions.keySet()));
+  }
+
+  /** Returns an index with no regions in it. */
+  public static RegionIndex empty() {
+    return new RegionIndex(Collections.emptyMap(), Collections.emptySet());
+  }
+
+  /**
+   * Returns the id of the region containing the given point, or null if no region does. If regions
+   * overlap, the one with the lowest id is returned so that the result doesn't depend on order.
+   */
+  public Integer locate(double lat, double lng) {
+    List<Region> candidates = cells.get(key(cellIndex(lng), cellIndex(lat)));
+    if (candidates == null) {
+      return null;
+    }
+
+    Integer match = null;
+    for (Region region : candidates) {
+      if ((match == null || region.id < match) && region.contains(lat, lng)) {
+        match = region.id;
+      }
+    }
+    return match;
+  }
+
+  /** Returns whether a region with the given id is in the index. */
+  public boolean contains(int id) {
+    return ids.contains(id);
+  }
+
+  private static long cellIndex(double degrees) {
+    return (long) Math.floor(degrees / CELL_SIZE_DEGREES);
+  }
+
+  private static long key(long x, long y) {
+    return (x << 32) ^ (y & 0xffffffffL);
+  }
+
+  /** A region's polygons and their bounds. */
+  private static class Region {
+    private final int id;
+    // Each polygon is a list of rings, exterior first, of alternating longitudes and latitudes
+    private final List<List<double[]>> polygons;
+    private double minLng = Double.POSITIVE_INFINITY;
+    private double minLat = Double.POSITIVE_INFINITY;
+    private double maxLng = Double.NEGATIVE_INFINITY;
+    private double maxLat = Double.NEGATIVE_INFINITY;
+
+    private Region(int id, List<List<double[]>> polygons) {
+      this.id = id;
+      this.polygons = polygons;
+      for (List<double[]> polygon : polygons) {
+        double[] exterior = polygon.get(0);
+        for (int i = 0; i + 1 < exterior.length; i += 2) {
+          minLng = Math.min(minLng, exterior[i]);
+          maxLng = Math.max(maxLng, exterior[i]);
+          minLat = Math.min(minLat, exterior[i + 1]);
+          maxLat = Math.max(maxLat, exterior[i + 1]);
+        }
+      }
+    }
+
+    private boolean contains(double lat, double lng) {
+      if (lng < minLng || lng > maxLng || lat < minLat || lat > maxLat) {
+        return false;
+      }
+
+      for (List<double[]> polygon : polygons) {
+        // Inside the exterior ring and outside of every hole
+        boolean inside = ringContains(polygon.get(0), lat, lng);
+        for (int i = 1; inside && i < polygon.size(); i++) {
+          inside = !ringContains(polygon.get(i), lat, lng);
+        }
+        if (inside) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /** Ray casting test of whether the ring contains the point. */
+    private static boolean ringContains(double[] ring, double lat, double lng) {
+      boolean inside = false;
+      int points = ring.length / 2;
+      for (int i = 0, j = points - 1; i < points; j = i++) {
+        double xi = ring[2 * i];
+        double yi = ring[2 * i + 1];
+        double xj = ring[2 * j];
+        double yj = ring[2 * j + 1];
+        if ((yi > lat) != (yj > lat) && lng < (xj - xi) * (lat - yi) / (yj - yi) + xi) {
+          inside = !inside;
+        }
+      }
+      return inside;
+    }
+  }
+}
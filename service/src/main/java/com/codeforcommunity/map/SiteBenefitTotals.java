@@ -0,0 +1,284 @@
+package com.codeforcommunity.map;
+
+import static org.jooq.generated.tables.SiteCurrentEntry.SITE_CURRENT_ENTRY;
+import static org.jooq.generated.tables.SiteEntries.SITE_ENTRIES;
+import static org.jooq.generated.tables.Sites.SITES;
+import static org.jooq.impl.DSL.noCondition;
+
+import com.codeforcommunity.dto.site.TreeBenefitsTotalsResponse;
+import com.codeforcommunity.logger.SLogger;
+import com.codeforcommunity.requester.TreeBenefitsCalculator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Record4;
+
+/**
+ * The total environmental benefits of the trees of every neighborhood and of the whole city. A tree
+ * is counted by its site's current entry, if it has a tree present of a known species and diameter.
+ *
+ * <p>The totals are calculated across every site at startup, in parallel, and afterwards only the
+ * sites that are written to are re-queried, with their old benefits taken out of the totals and
+ * their new ones added in. The totals must be loaded again whenever the tree species or tree
+ * benefits are imported, since either can change the benefits of any number of trees.
+ *
+ * <p>Sites are queried outside the lock, so each load and refresh takes a sequence number before
+ * querying. A read is only applied to a site if no read with a later number has been applied to it
+ * already, since a later read started after every write that an earlier one could have seen. Reads
+ * are published as an immutable snapshot, so getting the totals never waits on a load or refresh.
+ */
+public class SiteBenefitTotals {
+  // Keeps each query well below the number of bind values Postgres allows
+  private static final int FETCH_BATCH_SIZE = 1000;
+  // Each array of totals holds every benefit followed by the number of trees counted
+  private static final int TREE_COUNT = TreeBenefitsCalculator.BENEFIT_COUNT;
+
+  private final SLogger logger = new SLogger(SiteBenefitTotals.class);
+  private final DSLContext db;
+  private final TreeBenefitsCalculator calculator;
+
+  // The fields below are guarded by this object's lock
+  private Totals totals = new Totals();
+  // The number of the last load or refresh to start
+  private long sequence = 0;
+  // The number of the load the totals were built from
+  private long loadedSequence = 0;
+  // The number of the last refresh applied to each site since that load
+  private final Map<Integer, Long> refreshedSequences = new HashMap<>();
+
+  private volatile Snapshot snapshot = totals.snapshot();
+
+  public SiteBenefitTotals(DSLContext db, TreeBenefitsCalculator calculator) {
+    this.db = db;
+    this.calculator = calculator;
+  }
+
+  /**
+   * Calculate the totals across every site, replacing the current totals. Sites refreshed while the
+   * sites are being queried may have been read before their latest write, so they are refreshed
+   * again afterwards.
+   */
+  public void load() {
+    long start = System.currentTimeMillis();
+    long loadSequence = nextSequence();
+    List<Record4<Integer, Integer, String, Double>> records = treesQuery(noCondition());
+    // Sum the trees on the common fork-join pool, each thread into its own totals
+    Totals loaded =
+        records
+            .parallelStream()
+            .collect(
+                Totals::new,
+                (partial, record) -> partial.add(CountedTree.of(record, calculator)),
+                Totals::merge);
+
+    List<Integer> refreshedDuringLoad = new ArrayList<>();
+    synchronized (this) {
+      if (loadSequence < loadedSequence) {
+        // A load that started later has already replaced the totals with a newer read
+        return;
+      }
+      refreshedSequences.forEach(
+          (siteId, refreshSequence) -> {
+            if (refreshSequence > loadSequence) {
+              refreshedDuringLoad.add(siteId);
+            }
+          });
+      refreshedSequences.values().removeIf(refreshSequence -> refreshSequence < loadSequence);
+      totals = loaded;
+      loadedSequence = loadSequence;
+      snapshot = totals.snapshot();
+    }
+    logger.info(
+        String.format(
+            "Totaled the benefits of %d of %d sites in %dms",
+            loaded.trees.size(), records.size(), System.currentTimeMillis() - start));
+
+    refreshSites(refreshedDuringLoad);
+  }
+
+  /**
+   * Re-query the given sites and replace their benefits in the totals, removing any that no longer
+   * have a tree that can be counted.
+   *
+   * @param siteIds the ids of the sites that changed
+   */
+  public void refreshSites(Collection<Integer> siteIds) {
+    List<Integer> ids = new ArrayList<>(siteIds);
+    for (int start = 0; start < ids.size(); start += FETCH_BATCH_SIZE) {
+      List<Integer> batch = ids.subList(start, Math.min(start + FETCH_BATCH_SIZE, ids.size()));
+
+      long refreshSequence = nextSequence();
+      Map<Integer, CountedTree> trees = new HashMap<>();
+      for (Record4<Integer, Integer, String, Double> record : treesQuery(SITES.ID.in(batch))) {
+        CountedTree tree = CountedTree.of(record, calculator);
+        if (tree != null) {
+          trees.put(tree.siteId, tree);
+        }
+      }
+
+      synchronized (this) {
+        if (refreshSequence < loadedSequence) {
+          // The current totals were loaded from a newer read of every site
+          continue;
+        }
+        for (Integer siteId : batch) {
+          Long appliedSequence = refreshedSequences.get(siteId);
+          if (appliedSequence != null && appliedSequence > refreshSequence) {
+            continue;
+          }
+          refreshedSequences.put(siteId, refreshSequence);
+          totals.remove(siteId);
+          totals.add(trees.get(siteId));
+        }
+        snapshot = totals.snapshot();
+      }
+    }
+  }
+
+  /**
+   * Returns the total benefits of the trees in the given neighborhood, or of every tree if no
+   * neighborhood is given.
+   */
+  public TreeBenefitsTotalsResponse get(Integer neighborhoodId) {
+    Snapshot current = snapshot;
+    double[] sums =
+        neighborhoodId == null ? current.city : current.neighborhoods.get(neighborhoodId);
+    if (sums == null) {
+      sums = new double[TREE_COUNT + 1];
+    }
+    return new TreeBenefitsTotalsResponse(
+        neighborhoodId, (int) sums[TREE_COUNT], TreeBenefitsCalculator.toResponse(sums));
+  }
+
+  private synchronized long nextSequence() {
+    return ++sequence;
+  }
+
+  /**
+   * Query the id, neighborhood, tree common name and diameter of the sites matching the given
+   * condition that have a tree which can be counted.
+   */
+  private List<Record4<Integer, Integer, String, Double>> treesQuery(Condition siteCondition) {
+    return db.select(
+            SITES.ID, SITES.NEIGHBORHOOD_ID, SITE_ENTRIES.COMMON_NAME, SITE_ENTRIES.DIAMETER)
+        .from(SITES)
+        .join(SITE_CURRENT_ENTRY)
+        .on(SITE_CURRENT_ENTRY.SITE_ID.eq(SITES.ID))
+        .join(SITE_ENTRIES)
+        .on(SITE_ENTRIES.ID.eq(SITE_CURRENT_ENTRY.ENTRY_ID))
+        .where(siteCondition)
+        .and(SITES.DELETED_AT.isNull())
+        .and(SITE_ENTRIES.TREE_PRESENT.isDistinctFrom(false))
+        .and(SITE_ENTRIES.COMMON_NAME.isNotNull())
+        .and(SITE_ENTRIES.DIAMETER.isNotNull())
+        .fetch();
+  }
+
+  /**
+   * A site's tree and the benefits it was counted with, kept so exactly those can be taken out
+   * again even after the benefits of its species change.
+   */
+  private static class CountedTree {
+    private final int siteId;
+    private final Integer neighborhoodId;
+    private final double[] benefits;
+
+    private CountedTree(int siteId, Integer neighborhoodId, double[] benefits) {
+      this.siteId = siteId;
+      this.neighborhoodId = neighborhoodId;
+      this.benefits = benefits;
+    }
+
+    /** Returns the tree of the given record, or null if its species is unknown. */
+    private static CountedTree of(
+        Record4<Integer, Integer, String, Double> record, TreeBenefitsCalculator calculator) {
+      double[] benefits = new double[TREE_COUNT + 1];
+      if (!calculator.addBenefits(record.value3(), record.value4(), benefits)) {
+        return null;
+      }
+      benefits[TREE_COUNT] = 1;
+      return new CountedTree(record.value1(), record.value2(), benefits);
+    }
+  }
+
+  /** The totals of every neighborhood and the city, along with the trees counted in them. */
+  private static class Totals {
+    private final Map<Integer, CountedTree> trees = new HashMap<>();
+    private final Map<Integer, double[]> neighborhoods = new HashMap<>();
+    private final double[] city = new double[TREE_COUNT + 1];
+
+    /** Add the given tree's benefits, if there is one. */
+    private void add(CountedTree tree) {
+      if (tree == null) {
+        return;
+      }
+
+      trees.put(tree.siteId, tree);
+      addTo(city, tree.benefits, 1);
+      if (tree.neighborhoodId != null) {
+        addTo(
+            neighborhoods.computeIfAbsent(tree.neighborhoodId, id -> new double[TREE_COUNT + 1]),
+            tree.benefits,
+            1);
+      }
+    }
+
+    /** Take the benefits of the given site's tree back out, if it was counted. */
+    private void remove(int siteId) {
+      CountedTree tree = trees.remove(siteId);
+      if (tree == null) {
+        return;
+      }
+
+      addTo(city, tree.benefits, -1);
+      if (tree.neighborhoodId != null) {
+        double[] neighborhood = neighborhoods.get(tree.neighborhoodId);
+        addTo(neighborhood, tree.benefits, -1);
+        if (neighborhood[TREE_COUNT] == 0) {
+          neighborhoods.remove(tree.neighborhoodId);
+        }
+      }
+    }
+
+    private void merge(Totals other) {
+      trees.putAll(other.trees);
+      addTo(city, other.city, 1);
+      other.neighborhoods.forEach(
+          (neighborhoodId, sums) ->
+              addTo(
+                  neighborhoods.computeIfAbsent(neighborhoodId, id -> new double[TREE_COUNT + 1]),
+                  sums,
+                  1));
+    }
+
+    /** Copy the totals into a snapshot that isn't changed by later adds and removes. */
+    private Snapshot snapshot() {
+      Map<Integer, double[]> neighborhoodsCopy = new HashMap<>();
+      neighborhoods.forEach(
+          (neighborhoodId, sums) -> neighborhoodsCopy.put(neighborhoodId, sums.clone()));
+      return new Snapshot(Collections.unmodifiableMap(neighborhoodsCopy), city.clone());
+    }
+
+    private static void addTo(double[] sums, double[] values, int sign) {
+      for (int i = 0; i < sums.length; i++) {
+        sums[i] += sign * values[i];
+      }
+    }
+  }
+
+  /** The totals as of a load or refresh, never changed once published. */
+  private static class Snapshot {
+    private final Map<Integer, double[]> neighborhoods;
+    private final double[] city;
+
+    private Snapshot(Map<Integer, double[]> neighborhoods, double[] city) {
+      this.neighborhoods = neighborhoods;
+      this.city = city;
+    }
+  }
+}
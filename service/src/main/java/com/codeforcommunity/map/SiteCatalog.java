@@ -0,0 +1,434 @@
+package com.codeforcommunity.map;
+
+import com.codeforcommunity.dto.map.GeometryPoint;
+import com.codeforcommunity.dto.map.SiteFeature;
+import com.codeforcommunity.dto.map.SiteFeatureProperties;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The map feature of every site, stored as columns of primitives rather than as a graph of objects
+ * per site. Each site takes up one slot across the columns:
+ *
+ * <ul>
+ *   <li>its id
+ *   <li>its latitude and longitude, as longs in units of 10^-14 degrees (the scale of the sites
+ *       table's NUMERIC(17, 14) columns, so no precision is lost), or {@link #MISSING_COORDINATE}
+ *   <li>its tree present flag, packed into a byte of flags
+ *   <li>its adopter's id and its planting date in days since 1970-01-01, or {@link #MISSING}
+ *   <li>its common name and owner as codes into dictionaries shared by every site, since only a few
+ *       hundred distinct values of each are spread across every site
+ *   <li>its address, which is nearly unique to each site and so is kept as is
+ * </ul>
+ *
+ * <p>Features are only built back up as objects when they are read. Writers are serialized with
+ * each other and with readers, so a reader never sees a site partially written.
+ */
+public class SiteCatalog {
+  public static final int MISSING = Integer.MIN_VALUE;
+  public static final long MISSING_COORDINATE = Long.MIN_VALUE;
+
+  private static final int COORDINATE_SCALE = 14;
+  private static final int INITIAL_CAPACITY = 1024;
+  // The number of features built at a time by an iterator
+  private static final int ITERATOR_BATCH_SIZE = 1000;
+
+  // The bits of a site's flags
+  private static final byte TREE_PRESENT_KNOWN = 1;
+  private static final byte TREE_PRESENT = 1 << 1;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final SlotMap slots = new SlotMap();
+  private final StringDictionary commonNames = new StringDictionary();
+  private final StringDictionary owners = new StringDictionary();
+
+  // Slots freed by removed sites, reused before the columns grow
+  private int[] freeSlots = new int[16];
+  private int freeSlotCount;
+  private int slotCount;
+
+  private int[] ids = new int[INITIAL_CAPACITY];
+  private long[] lats = new long[INITIAL_CAPACITY];
+  private long[] lngs = new long[INITIAL_CAPACITY];
+  private byte[] flags = new byte[INITIAL_CAPACITY];
+  private int[] adopterIds = new int[INITIAL_CAPACITY];
+  private int[] plantingDays = new int[INITIAL_CAPACITY];
+  private int[] commonNameCodes = new int[INITIAL_CAPACITY];
+  private int[] ownerCodes = new int[INITIAL_CAPACITY];
+  private String[] addresses = new String[INITIAL_CAPACITY];
+
+  /** Add the given site, or replace it if a site with the same id is already stored. */
+  public void put(SiteFeature feature) {
+    SiteFeatureProperties properties = feature.getProperties();
+    List<BigDecimal> coordinates = feature.getGeometry().getCoordinates();
+
+    lock.writeLock().lock();
+    try {
+      int id = properties.getId();
+      int slot = slots.get(id);
+      if (slot < 0) {
+        slot = allocateSlot();
+        slots.put(id, slot);
+      }
+
+      ids[slot] = id;
+      // GeoJSON coordinates are ordered longitude, latitude
+      lngs[slot] = fixedPoint(coordinates.get(0));
+      lats[slot] = fixedPoint(coordinates.get(1));
+      flags[slot] = flags(properties.getTreePresent());
+      adopterIds[slot] = orMissing(properties.getAdopterId());
+      plantingDays[slot] = days(properties.getPlantingDate());
+      commonNameCodes[slot] = commonNames.code(properties.getCommonName());
+      ownerCodes[slot] = owners.code(properties.getOwner());
+      addresses[slot] = properties.getAddress();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove the site with the given id.
+   *
+   * @return the site's feature as it was before being removed, or null if it wasn't stored
+   */
+  public SiteFeature remove(int siteId) {
+    lock.writeLock().lock();
+    try {
+      int slot = slots.remove(siteId);
+      if (slot < 0) {
+        return null;
+      }
+
+      SiteFeature removed = featureAt(slot);
+      addresses[slot] = null;
+      if (freeSlotCount == freeSlots.length) {
+        freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+      }
+      freeSlots[freeSlotCount++] = slot;
+      return removed;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Returns the feature of the site with the given id, or null if it isn't stored. */
+  public SiteFeature get(int siteId) {
+    lock.readLock().lock();
+    try {
+      int slot = slots.get(siteId);
+      return slot < 0 ? null : featureAt(slot);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the features of the sites with the given ids, in the same order, leaving out any that
+   * aren't stored.
+   */
+  public List<SiteFeature> get(List<Integer> siteIds) {
+    List<SiteFeature> features = new ArrayList<>(siteIds.size());
+    lock.readLock().lock();
+    try {
+      for (Integer siteId : siteIds) {
+        int slot = slots.get(siteId);
+        if (slot >= 0) {
+          features.add(featureAt(slot));
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return features;
+  }
+
+  /** Returns the features of every site, ordered by site id. */
+  public List<SiteFeature> getAll() {
+    lock.readLock().lock();
+    try {
+      int[] sortedIds = slots.keys();
+      Arrays.sort(sortedIds);
+
+      List<SiteFeature> features = new ArrayList<>(sortedIds.length);
+      for (int siteId : sortedIds) {
+        features.add(featureAt(slots.get(siteId)));
+      }
+      return features;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns an iterator over the feature of every site, ordered by site id. Features are built a
+   * batch at a time as the iterator advances, holding the lock only while each batch is built, so
+   * an iterator that advances slowly never holds up writers. Each site is seen as it was when its
+   * batch was built, and sites removed before then are left out.
+   */
+  public Iterator<SiteFeature> iterator() {
+    int[] sortedIds;
+    lock.readLock().lock();
+    try {
+      sortedIds = slots.keys();
+    } finally {
+      lock.readLock().unlock();
+    }
+    Arrays.sort(sortedIds);
+
+    return new Iterator<SiteFeature>() {
+      private int nextId = 0;
+      private Iterator<SiteFeature> batch = Collections.emptyIterator();
+
+      @Override
+      public boolean hasNext() {
+        while (!batch.hasNext() && nextId < sortedIds.length) {
+          int end = Math.min(nextId + ITERATOR_BATCH_SIZE, sortedIds.length);
+          List<Integer> batchIds = new ArrayList<>(end - nextId);
+          for (int i = nextId; i < end; i++) {
+            batchIds.add(sortedIds[i]);
+          }
+          nextId = end;
+          batch = get(batchIds).iterator();
+        }
+        return batch.hasNext();
+      }
+
+      @Override
+      public SiteFeature next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return batch.next();
+      }
+    };
+  }
+
+  /** Returns the number of sites stored. */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return slots.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Build the feature of the site in the given slot. Must be called holding the lock. */
+  private SiteFeature featureAt(int slot) {
+    byte siteFlags = flags[slot];
+    Boolean treePresent =
+        (siteFlags & TREE_PRESENT_KNOWN) == 0 ? null : (siteFlags & TREE_PRESENT) != 0;
+    SiteFeatureProperties properties =
+        new SiteFeatureProperties(
+            ids[slot],
+            treePresent,
+            commonNames.value(commonNameCodes[slot]),
+            plantingDays[slot] == MISSING
+                ? null
+                : Date.valueOf(LocalDate.ofEpochDay(plantingDays[slot])),
+            adopterIds[slot] == MISSING ? null : adopterIds[slot],
+            addresses[slot],
+            owners.value(ownerCodes[slot]));
+    GeometryPoint geometry = new GeometryPoint(degrees(lats[slot]), degrees(lngs[slot]));
+    return new SiteFeature(properties, geometry);
+  }
+
+  /** Returns an unused slot, growing the columns if every slot is taken. */
+  private int allocateSlot() {
+    if (freeSlotCount > 0) {
+      return freeSlots[--freeSlotCount];
+    }
+
+    if (slotCount == ids.length) {
+      int capacity = ids.length * 2;
+      ids = Arrays.copyOf(ids, capacity);
+      lats = Arrays.copyOf(lats, capacity);
+      lngs = Arrays.copyOf(lngs, capacity);
+      flags = Arrays.copyOf(flags, capacity);
+      adopterIds = Arrays.copyOf(adopterIds, capacity);
+      plantingDays = Arrays.copyOf(plantingDays, capacity);
+      commonNameCodes = Arrays.copyOf(commonNameCodes, capacity);
+      ownerCodes = Arrays.copyOf(ownerCodes, capacity);
+      addresses = Arrays.copyOf(addresses, capacity);
+    }
+    return slotCount++;
+  }
+
+  private static long fixedPoint(BigDecimal degrees) {
+    if (degrees == null) {
+      return MISSING_COORDINATE;
+    }
+    return degrees.setScale(COORDINATE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValue();
+  }
+
+  private static BigDecimal degrees(long fixedPoint) {
+    return fixedPoint == MISSING_COORDINATE
+        ? null
+        : BigDecimal.valueOf(fixedPoint, COORDINATE_SCALE);
+  }
+
+  private static byte flags(Boolean treePresent) {
+    if (treePresent == null) {
+      return 0;
+    }
+    return treePresent ? TREE_PRESENT_KNOWN | TREE_PRESENT : TREE_PRESENT_KNOWN;
+  }
+
+  private static int orMissing(Integer value) {
+    return value == null ? MISSING : value;
+  }
+
+  private static int days(Date date) {
+    return date == null ? MISSING : (int) date.toLocalDate().toEpochDay();
+  }
+
+  /**
+   * Maps site ids to slots with open addressing, so that looking up a site doesn't need a boxed key
+   * or an entry object per site.
+   */
+  private static class SlotMap {
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final int REMOVED = Integer.MIN_VALUE + 1;
+
+    private int[] keys = newKeys(INITIAL_CAPACITY * 2);
+    private int[] values = new int[INITIAL_CAPACITY * 2];
+    private int size;
+    // Both live and removed entries, since removed entries still lengthen probes
+    private int used;
+
+    /** Returns the slot of the given site id, or -1 if it has none. */
+    private int get(int key) {
+      int mask = keys.length - 1;
+      for (int i = hash(key) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+        if (keys[i] == key) {
+          return values[i];
+        }
+      }
+      return -1;
+    }
+
+    private void put(int key, int value) {
+      if ((used + 1) * 2 > keys.length) {
+        rehash(size * 4 > keys.length ? keys.length * 2 : keys.length);
+      }
+
+      int mask = keys.length - 1;
+      int i = hash(key) & mask;
+      int firstRemoved = -1;
+      for (; keys[i] != EMPTY; i = (i + 1) & mask) {
+        if (keys[i] == key) {
+          values[i] = value;
+          return;
+        }
+        if (keys[i] == REMOVED && firstRemoved < 0) {
+          firstRemoved = i;
+        }
+      }
+
+      if (firstRemoved >= 0) {
+        i = firstRemoved;
+      } else {
+        used++;
+      }
+      keys[i] = key;
+      values[i] = value;
+      size++;
+    }
+
+    /** Remove the given site id, returning its slot, or -1 if it had none. */
+    private int remove(int key) {
+      int mask = keys.length - 1;
+      for (int i = hash(key) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+        if (keys[i] == key) {
+          keys[i] = REMOVED;
+          size--;
+          return values[i];
+        }
+      }
+      return -1;
+    }
+
+    private int size() {
+      return size;
+    }
+
+    /** Returns every site id, in no particular order. */
+    private int[] keys() {
+      int[] live = new int[size];
+      int next = 0;
+      for (int key : keys) {
+        if (key != EMPTY && key != REMOVED) {
+          live[next++] = key;
+        }
+      }
+      return live;
+    }
+
+    private void rehash(int capacity) {
+      int[] oldKeys = keys;
+      int[] oldValues = values;
+      keys = newKeys(capacity);
+      values = new int[capacity];
+      size = 0;
+      used = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != EMPTY && oldKeys[i] != REMOVED) {
+          put(oldKeys[i], oldValues[i]);
+        }
+      }
+    }
+
+    private static int[] newKeys(int capacity) {
+      int[] keys = new int[capacity];
+      Arrays.fill(keys, EMPTY);
+      return keys;
+    }
+
+    /** Spreads sequential ids across the table. */
+    private static int hash(int key) {
+      int h = key * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+  }
+
+  /**
+   * The distinct values of a string column. Code 0 stands for null. Values are never dropped, which
+   * only costs the few values that stop being used by any site.
+   */
+  private static class StringDictionary {
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    private StringDictionary() {
+      values.add(null);
+    }
+
+    private int code(String value) {
+      if (value == null) {
+        return 0;
+      }
+      return codes.computeIfAbsent(
+          value,
+          newValue -> {
+            values.add(newValue);
+            return values.size() - 1;
+          });
+    }
+
+    private String value(int code) {
+      return values.get(code);
+    }
+  }
+}
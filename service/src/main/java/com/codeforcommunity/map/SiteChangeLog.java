@@ -0,0 +1,139 @@
+package com.codeforcommunity.map;
+
+import static org.jooq.generated.tables.SiteChanges.SITE_CHANGES;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.selectOne;
+import static org.jooq.impl.DSL.val;
+
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStep2;
+import org.jooq.generated.tables.SiteChanges;
+import org.jooq.generated.tables.records.SiteChangesRecord;
+
+/**
+ * An append-only log of which sites have changed on the map. Every write that changes a site's map
+ * feature appends the site's id in its own transaction, tagged with the id of that transaction.
+ *
+ * <p>Transactions can commit in a different order than they started in, so the log is only ever
+ * read up to the oldest transaction that is still running, and that transaction id is the version
+ * that clients ask for changes since. Every change below it has either been committed or rolled
+ * back, so no client can skip past a change that commits later, no matter which server logged it.
+ */
+public class SiteChangeLog {
+  // Keeps each statement well below the number of bind values Postgres allows
+  private static final int BATCH_SIZE = 1000;
+
+  // The id of the current transaction, and the id of the oldest transaction still running
+  private static final Field<Long> CURRENT_TX_ID = field("txid_current()", Long.class);
+  private static final Field<Long> OLDEST_RUNNING_TX_ID =
+      field("txid_snapshot_xmin(txid_current_snapshot())", Long.class);
+
+  private final DSLContext db;
+
+  public SiteChangeLog(DSLContext db) {
+    this.db = db;
+  }
+
+  /**
+   * Record that the given sites have changed. This must be called with the context of the
+   * transaction that makes the change, so that the change is logged if and only if it commits.
+   *
+   * @param ctx the context of the transaction that changes the sites
+   * @param siteIds the ids of the sites that changed
+   */
+  public void append(DSLContext ctx, Collection<Integer> siteIds) {
+    List<Integer> ids = new ArrayList<>(siteIds);
+    for (int start = 0; start < ids.size(); start += BATCH_SIZE) {
+      List<Integer> batch = ids.subList(start, Math.min(start + BATCH_SIZE, ids.size()));
+      InsertValuesStep2<SiteChangesRecord, Integer, Long> insert =
+          ctx.insertInto(SITE_CHANGES, SITE_CHANGES.SITE_ID, SITE_CHANGES.TX_ID);
+      for (Integer siteId : batch) {
+        insert = insert.values(val(siteId), CURRENT_TX_ID);
+      }
+      insert.execute();
+    }
+  }
+
+  /** Returns the sites that changed at or after the given version of the log. */
+  public ChangedSites changedSince(long version) {
+    return changedWhere(SITE_CHANGES.TX_ID.ge(version));
+  }
+
+  /**
+   * Returns the sites that changed after the given time, for a client's first sync only. Changes
+   * are timed by when their transaction started, so a change that commits after the given time from
+   * a transaction that started before it is missed. Clients must ask for every later sync by the
+   * version this returns.
+   */
+  public ChangedSites changedSince(Timestamp time) {
+    return changedWhere(SITE_CHANGES.CHANGED_AT.gt(time.toInstant().atOffset(ZoneOffset.UTC)));
+  }
+
+  private ChangedSites changedWhere(Condition condition) {
+    // Fix the version first so that changes still being written are left for the next request
+    long version = db.select(OLDEST_RUNNING_TX_ID).fetchOne().value1();
+
+    Set<Integer> siteIds =
+        new LinkedHashSet<>(
+            db.selectDistinct(SITE_CHANGES.SITE_ID)
+                .from(SITE_CHANGES)
+                .where(condition)
+                .and(SITE_CHANGES.TX_ID.lt(version))
+                .orderBy(SITE_CHANGES.SITE_ID)
+                .fetch(SITE_CHANGES.SITE_ID));
+    return new ChangedSites(version, siteIds);
+  }
+
+  /**
+   * Delete every change that has been superseded by a later change to the same site, one that was
+   * logged both in a later transaction and at a later time. A client that hasn't seen the earlier
+   * change, by either version or time, also hasn't seen the later one, so it still learns that the
+   * site changed, and the log stays at about one change per site.
+   *
+   * @return the number of changes deleted
+   */
+  public int prune() {
+    SiteChanges later = SITE_CHANGES.as("later");
+    return db.deleteFrom(SITE_CHANGES)
+        .whereExists(
+            selectOne()
+                .from(later)
+                .where(later.SITE_ID.eq(SITE_CHANGES.SITE_ID))
+                .and(later.CHANGED_AT.ge(SITE_CHANGES.CHANGED_AT))
+                .and(
+                    later
+                        .TX_ID
+                        .gt(SITE_CHANGES.TX_ID)
+                        .or(later.TX_ID.eq(SITE_CHANGES.TX_ID).and(later.ID.gt(SITE_CHANGES.ID)))))
+        .execute();
+  }
+
+  /** The ids of the sites that changed, and the version of the log they were read at. */
+  public static class ChangedSites {
+    private final long version;
+    private final Set<Integer> siteIds;
+
+    private ChangedSites(long version, Set<Integer> siteIds) {
+      this.version = version;
+      this.siteIds = Collections.unmodifiableSet(siteIds);
+    }
+
+    public long getVersion() {
+      return version;
+    }
+
+    public Set<Integer> getSiteIds() {
+      return siteIds;
+    }
+  }
+}
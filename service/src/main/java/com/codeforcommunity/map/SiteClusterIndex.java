@@ -0,0 +1,215 @@
+package com.codeforcommunity.map;
+
+import com.codeforcommunity.dto.map.BoundingBox;
+import com.codeforcommunity.dto.map.GeometryPoint;
+import com.codeforcommunity.dto.map.SiteClusterFeature;
+import com.codeforcommunity.dto.map.SiteClusterProperties;
+import com.codeforcommunity.dto.map.SiteFeature;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clusters site markers for every zoom level up to {@link #MAX_CLUSTER_ZOOM}. At each zoom level
+ * the map is split into square cells 64 pixels wide in Web Mercator, and the sites in a cell form
+ * one cluster, drawn at the average location of its sites. Each cell is split into four cells at
+ * the next zoom level, so a cluster is always made up of the clusters below it.
+ *
+ * <p>Clusters only keep running totals of their sites, so adding or removing a site just updates
+ * the one cluster containing it at each zoom level. Sites without a location are not clustered.
+ */
+public class SiteClusterIndex {
+  // Past this zoom level sites are few enough per screen to send on their own
+  public static final int MAX_CLUSTER_ZOOM = SiteGridIndex.FULL_DETAIL_ZOOM;
+  // Cluster cells are a quarter of a 256 pixel tile wide, so each cell at zoom z is 2^-(z + 2) of
+  // the width of the world
+  private static final int CELLS_PER_TILE_SHIFT = 2;
+  // The furthest north or south Web Mercator can project
+  private static final double MAX_LATITUDE = 85.05112878;
+  private static final int COORDINATE_SCALE = 7;
+
+  private final List<Map<Long, Cluster>> levels = new ArrayList<>(MAX_CLUSTER_ZOOM + 1);
+
+  public SiteClusterIndex() {
+    for (int zoom = 0; zoom <= MAX_CLUSTER_ZOOM; zoom++) {
+      levels.add(new ConcurrentHashMap<>());
+    }
+  }
+
+  /** Add the given site to the cluster it falls in at every zoom level. */
+  public void add(SiteFeature feature) {
+    update(feature, 1);
+  }
+
+  /** Remove the given site from the clusters it was added to, if it has a location. */
+  public void remove(SiteFeature feature) {
+    update(feature, -1);
+  }
+
+  private void update(SiteFeature feature, int sign) {
+    // GeoJSON coordinates are ordered longitude, latitude
+    List<BigDecimal> coordinates = feature.getGeometry().getCoordinates();
+    BigDecimal lng = coordinates.get(0);
+    BigDecimal lat = coordinates.get(1);
+    if (lat == null || lng == null) {
+      return;
+    }
+
+    Cluster site =
+        new Cluster(
+            sign,
+            feature.getProperties().getAdopterId() != null ? sign : 0,
+            Boolean.TRUE.equals(feature.getProperties().getTreePresent()) ? sign : 0,
+            sign * lat.doubleValue(),
+            sign * lng.doubleValue(),
+            sign * (long) feature.getProperties().getId());
+
+    // The cells of the deepest zoom level are halved for each level up
+    long x = cellIndex(mercatorX(lng.doubleValue()), MAX_CLUSTER_ZOOM);
+    long y = cellIndex(mercatorY(lat.doubleValue()), MAX_CLUSTER_ZOOM);
+    for (int zoom = MAX_CLUSTER_ZOOM; zoom >= 0; zoom--) {
+      levels.get(zoom).compute(key(x, y), (key, cluster) -> site.plus(cluster));
+      x >>= 1;
+      y >>= 1;
+    }
+  }
+
+  /**
+   * Find the clusters at the given zoom level whose cells overlap the given bounding box.
+   *
+   * @param zoom the zoom level the map is being drawn at, with levels past {@link
+   *     #MAX_CLUSTER_ZOOM} clustered as if they were at it
+   * @param bbox the area of the map being viewed, or null for the whole map
+   * @return the clusters as point features, ordered by cell
+   */
+  public List<SiteClusterFeature> query(int zoom, BoundingBox bbox) {
+    int level = Math.max(0, Math.min(zoom, MAX_CLUSTER_ZOOM));
+    Map<Long, Cluster> clusters = levels.get(level);
+
+    List<Long> keys = new ArrayList<>();
+    if (bbox == null) {
+      keys.addAll(clusters.keySet());
+    } else {
+      long minX = cellIndex(mercatorX(bbox.getMinLng()), level);
+      long maxX = cellIndex(mercatorX(bbox.getMaxLng()), level);
+      // Web Mercator y grows southwards
+      long minY = cellIndex(mercatorY(bbox.getMaxLat()), level);
+      long maxY = cellIndex(mercatorY(bbox.getMinLat()), level);
+
+      // A box covering more cells than there are clusters is cheaper to answer by scanning them all
+      if ((maxX - minX + 1) * (maxY - minY + 1) > clusters.size()) {
+        for (Long key : clusters.keySet()) {
+          long x = key >> 32;
+          long y = key & 0xffffffffL;
+          if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+            keys.add(key);
+          }
+        }
+      } else {
+        for (long x = minX; x <= maxX; x++) {
+          for (long y = minY; y <= maxY; y++) {
+            if (clusters.containsKey(key(x, y))) {
+              keys.add(key(x, y));
+            }
+          }
+        }
+      }
+    }
+
+    keys.sort(null);
+    List<SiteClusterFeature> features = new ArrayList<>(keys.size());
+    for (Long key : keys) {
+      Cluster cluster = clusters.get(key);
+      // The cluster may have emptied since its key was read
+      if (cluster != null) {
+        features.add(cluster.toFeature());
+      }
+    }
+    return features;
+  }
+
+  /** Returns how far across the world the given longitude is, from 0 to 1. */
+  private static double mercatorX(double lng) {
+    return (lng + 180.0) / 360.0;
+  }
+
+  /** Returns how far down the world the given latitude is in Web Mercator, from 0 to 1. */
+  private static double mercatorY(double lat) {
+    double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat))));
+    return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+  }
+
+  /** Returns the cell at the given zoom level that a projected coordinate falls in. */
+  private static long cellIndex(double projected, int zoom) {
+    long cells = 1L << (zoom + CELLS_PER_TILE_SHIFT);
+    return Math.max(0, Math.min(cells - 1, (long) Math.floor(projected * cells)));
+  }
+
+  /** Packs two cell coordinates into a single key. */
+  private static long key(long x, long y) {
+    return (x << 32) | y;
+  }
+
+  /**
+   * The running totals of the sites in one cluster. Clusters are immutable so that queries never
+   * see one partially updated.
+   */
+  private static class Cluster {
+    private final int count;
+    private final int adoptedCount;
+    private final int treePresentCount;
+    private final double latSum;
+    private final double lngSum;
+    // Once a single site is left, this is its id
+    private final long idSum;
+
+    private Cluster(
+        int count,
+        int adoptedCount,
+        int treePresentCount,
+        double latSum,
+        double lngSum,
+        long idSum) {
+      this.count = count;
+      this.adoptedCount = adoptedCount;
+      this.treePresentCount = treePresentCount;
+      this.latSum = latSum;
+      this.lngSum = lngSum;
+      this.idSum = idSum;
+    }
+
+    /** Returns the totals of both clusters, or null if no sites would be left. */
+    private Cluster plus(Cluster other) {
+      if (other == null) {
+        return count > 0 ? this : null;
+      }
+      int newCount = count + other.count;
+      if (newCount <= 0) {
+        return null;
+      }
+      return new Cluster(
+          newCount,
+          adoptedCount + other.adoptedCount,
+          treePresentCount + other.treePresentCount,
+          latSum + other.latSum,
+          lngSum + other.lngSum,
+          idSum + other.idSum);
+    }
+
+    private SiteClusterFeature toFeature() {
+      SiteClusterProperties properties =
+          new SiteClusterProperties(
+              count, adoptedCount, treePresentCount, count == 1 ? (int) idSum : null);
+      GeometryPoint geometry =
+          new GeometryPoint(coordinate(latSum / count), coordinate(lngSum / count));
+      return new SiteClusterFeature(properties, geometry);
+    }
+
+    private static BigDecimal coordinate(double degrees) {
+      return BigDecimal.valueOf(degrees).setScale(COORDINATE_SCALE, RoundingMode.HALF_UP);
+    }
+  }
+}
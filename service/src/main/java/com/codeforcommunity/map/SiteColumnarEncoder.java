@@ -0,0 +1,189 @@
+package com.codeforcommunity.map;
+
+import com.codeforcommunity.dto.map.SiteFeature;
+import com.codeforcommunity.dto.map.SiteFeatureProperties;
+import io.vertx.core.buffer.Buffer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the site layer as {@code application/x-sftt-sites}, a compact columnar alternative to the
+ * site GeoJSON. Every number is big-endian. The layout is:
+ *
+ * <ul>
+ *   <li>the magic bytes "SFTT", then a version byte (1), then the number of sites N as an int
+ *   <li>N site ids as ints, in ascending order
+ *   <li>N latitudes, then N longitudes, as ints in ten-millionths of a degree, with {@link
+ *       #MISSING} for an unknown location
+ *   <li>the tree present bitset, then the adopted bitset, each as ceil(N / 8) bytes where bit i % 8
+ *       of byte i / 8 is set for site i
+ *   <li>an int adopter id for each adopted site, in site order
+ *   <li>N planting dates as ints in days since 1970-01-01, with {@link #MISSING} for none
+ *   <li>the common name, owner and address columns, each written as a dictionary
+ * </ul>
+ *
+ * <p>A dictionary is an int count of entries followed by each entry as an unsigned short byte
+ * length and its UTF-8 bytes, and then one index into the entries for each of the N sites. An entry
+ * longer than 65535 bytes is cut short at the last whole character that fits. Indices are unsigned
+ * shorts if there are at most 65536 entries and ints otherwise. Entry 0 always stands for a missing
+ * value.
+ */
+public class SiteColumnarEncoder {
+  public static final int MISSING = Integer.MIN_VALUE;
+
+  private static final byte[] MAGIC = "SFTT".getBytes(StandardCharsets.US_ASCII);
+  private static final byte VERSION = 1;
+  private static final BigDecimal COORDINATE_SCALE = BigDecimal.valueOf(10_000_000);
+
+  private SiteColumnarEncoder() {}
+
+  /**
+   * Encode the given sites.
+   *
+   * @param features the features of the sites, ordered by site id
+   */
+  public static Buffer encode(Collection<SiteFeature> features) {
+    int count = features.size();
+    int[] ids = new int[count];
+    int[] lats = new int[count];
+    int[] lngs = new int[count];
+    int[] plantingDates = new int[count];
+    BitSet treePresent = new BitSet(count);
+    BitSet adopted = new BitSet(count);
+    List<Integer> adopterIds = new ArrayList<>();
+    Dictionary commonNames = new Dictionary(count);
+    Dictionary owners = new Dictionary(count);
+    Dictionary addresses = new Dictionary(count);
+
+    int i = 0;
+    for (SiteFeature feature : features) {
+      SiteFeatureProperties properties = feature.getProperties();
+      List<BigDecimal> coordinates = feature.getGeometry().getCoordinates();
+
+      ids[i] = properties.getId();
+      lngs[i] = fixedPoint(coordinates.get(0));
+      lats[i] = fixedPoint(coordinates.get(1));
+      plantingDates[i] = days(properties.getPlantingDate());
+      treePresent.set(i, Boolean.TRUE.equals(properties.getTreePresent()));
+      if (properties.getAdopterId() != null) {
+        adopted.set(i);
+        adopterIds.add(properties.getAdopterId());
+      }
+      commonNames.add(properties.getCommonName());
+      owners.add(properties.getOwner());
+      addresses.add(properties.getAddress());
+      i++;
+    }
+
+    Buffer buffer = Buffer.buffer(count * 32);
+    buffer.appendBytes(MAGIC).appendByte(VERSION).appendInt(count);
+    appendInts(buffer, ids);
+    appendInts(buffer, lats);
+    appendInts(buffer, lngs);
+    appendBitSet(buffer, treePresent, count);
+    appendBitSet(buffer, adopted, count);
+    adopterIds.forEach(buffer::appendInt);
+    appendInts(buffer, plantingDates);
+    commonNames.appendTo(buffer);
+    owners.appendTo(buffer);
+    addresses.appendTo(buffer);
+    return buffer;
+  }
+
+  private static int fixedPoint(BigDecimal degrees) {
+    if (degrees == null) {
+      return MISSING;
+    }
+    return degrees.multiply(COORDINATE_SCALE).setScale(0, RoundingMode.HALF_UP).intValue();
+  }
+
+  private static int days(Date date) {
+    if (date == null) {
+      return MISSING;
+    }
+    return (int) date.toLocalDate().toEpochDay();
+  }
+
+  private static void appendInts(Buffer buffer, int[] values) {
+    for (int value : values) {
+      buffer.appendInt(value);
+    }
+  }
+
+  private static void appendBitSet(Buffer buffer, BitSet bits, int count) {
+    byte[] bytes = new byte[(count + 7) / 8];
+    byte[] set = bits.toByteArray();
+    System.arraycopy(set, 0, bytes, 0, set.length);
+    buffer.appendBytes(bytes);
+  }
+
+  /** The distinct values of a string column, along with each site's index into them. */
+  private static class Dictionary {
+    private final Map<String, Integer> indices = new HashMap<>();
+    private final List<byte[]> entries = new ArrayList<>();
+    private final int[] siteIndices;
+    private int size;
+
+    private Dictionary(int count) {
+      this.siteIndices = new int[count];
+      // Entry 0 stands for a missing value
+      entries.add(new byte[0]);
+    }
+
+    private void add(String value) {
+      int index = 0;
+      if (value != null) {
+        index =
+            indices.computeIfAbsent(
+                value,
+                newValue -> {
+                  entries.add(utf8(newValue));
+                  return entries.size() - 1;
+                });
+      }
+      siteIndices[size++] = index;
+    }
+
+    private void appendTo(Buffer buffer) {
+      buffer.appendInt(entries.size());
+      for (byte[] entry : entries) {
+        buffer.appendUnsignedShort(entry.length).appendBytes(entry);
+      }
+
+      boolean shortIndices = entries.size() <= 0x10000;
+      for (int i = 0; i < size; i++) {
+        if (shortIndices) {
+          buffer.appendUnsignedShort(siteIndices[i]);
+        } else {
+          buffer.appendInt(siteIndices[i]);
+        }
+      }
+    }
+
+    /**
+     * Returns the UTF-8 bytes of the value, cut short if they wouldn't fit an unsigned short. The
+     * cut is never made partway through a character, so the bytes always decode.
+     */
+    private static byte[] utf8(String value) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      if (bytes.length <= 0xFFFF) {
+        return bytes;
+      }
+      // Back up over continuation bytes (10xxxxxx) to the start of the character that doesn't fit
+      int length = 0xFFFF;
+      while ((bytes[length] & 0xC0) == 0x80) {
+        length--;
+      }
+      return Arrays.copyOf(bytes, length);
+    }
+  }
+}
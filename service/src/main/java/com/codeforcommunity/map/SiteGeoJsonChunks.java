@@ -0,0 +1,62 @@
+package com.codeforcommunity.map;
+
+import com.codeforcommunity.dto.map.SiteFeature;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Encodes the site GeoJSON in chunks, each built from the next features only when it is asked for.
+ * The chunks joined together are the same as encoding a whole {@link
+ * com.codeforcommunity.dto.map.SiteGeoResponse} of the same features, without ever holding more
+ * than one chunk of it in memory.
+ */
+public class SiteGeoJsonChunks implements Iterator<Buffer> {
+  private static final String HEADER =
+      "{\"type\":\"FeatureCollection\",\"name\":\"sites\",\"features\":[";
+  private static final String FOOTER = "]}";
+  // Chunks are handed off once they are at least this many bytes
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  private final Iterator<SiteFeature> features;
+  private boolean firstChunk = true;
+  private boolean firstFeature = true;
+  private boolean finished = false;
+
+  /** @param features the features of the collection, in order */
+  public SiteGeoJsonChunks(Iterator<SiteFeature> features) {
+    this.features = features;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !finished;
+  }
+
+  @Override
+  public Buffer next() {
+    if (finished) {
+      throw new NoSuchElementException();
+    }
+
+    Buffer chunk = Buffer.buffer(CHUNK_SIZE);
+    if (firstChunk) {
+      chunk.appendString(HEADER);
+      firstChunk = false;
+    }
+    while (chunk.length() < CHUNK_SIZE && features.hasNext()) {
+      if (!firstFeature) {
+        chunk.appendByte((byte) ',');
+      }
+      firstFeature = false;
+      chunk.appendBuffer(Json.encodeToBuffer(features.next()));
+    }
+
+    if (!features.hasNext()) {
+      chunk.appendString(FOOTER);
+      finished = true;
+    }
+    return chunk;
+  }
+}
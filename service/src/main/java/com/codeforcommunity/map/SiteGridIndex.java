@@ -0,0 +1,297 @@
+package com.codeforcommunity.map;
+
+import com.codeforcommunity.dto.map.BoundingBox;
+import com.codeforcommunity.dto.map.SiteFeature;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A spatial index of site features, bucketing each site into a fixed size grid cell by its
+ * location. Looking up the sites in a bounding box only has to scan the cells that overlap it.
+ * Sites without a location are not indexed. The index only keeps each site's id and location, and
+ * queries return site ids for the features to be read from the {@link SiteCatalog}.
+ */
+public class SiteGridIndex {
+  // Roughly 550m of latitude, which keeps a few hundred sites in a dense cell
+  static final double CELL_SIZE_DEGREES = 0.005;
+
+  /** Below this zoom level a bounding box query keeps at most one site per few pixels. */
+  public static final int FULL_DETAIL_ZOOM = 16;
+
+  private static final int THINNING_PIXELS = 2;
+  private static final int TILE_SIZE_PIXELS = 256;
+  private static final double METERS_PER_DEGREE = 111_320;
+
+  private final Map<Long, Map<Integer, IndexedSite>> cells = new ConcurrentHashMap<>();
+
+  /** Add the given site to the index, or replace it if it is already indexed at the same place. */
+  public void add(SiteFeature feature) {
+    IndexedSite site = IndexedSite.from(feature);
+    if (site == null) {
+      return;
+    }
+    cells
+        .computeIfAbsent(cellKey(site.lat, site.lng), key -> new ConcurrentHashMap<>())
+        .put(site.id, site);
+  }
+
+  /** Remove the given site from the index, if it was indexed. */
+  public void remove(SiteFeature feature) {
+    IndexedSite site = IndexedSite.from(feature);
+    if (site == null) {
+      return;
+    }
+    Map<Integer, IndexedSite> cell = cells.get(cellKey(site.lat, site.lng));
+    if (cell != null) {
+      cell.remove(site.id);
+    }
+  }
+
+  /**
+   * Find the sites inside the given bounding box, ordered by site id. If a zoom level below {@link
+   * #FULL_DETAIL_ZOOM} is given, sites that would be drawn within a couple of pixels of an earlier
+   * site at that zoom are left out, since they can't be told apart on the map anyway.
+   *
+   * @param bbox the area to find sites in
+   * @param zoom the zoom level the map is being drawn at, or null to return every site
+   * @return the ids of the sites in the box
+   */
+  public List<Integer> query(BoundingBox bbox, Integer zoom) {
+    List<IndexedSite> matches = new ArrayList<>();
+
+    // Clamped to the cells that a valid location can fall in, so the number of cells the box
+    // covers can't overflow or be so large that looping over them never finishes
+    long minCellX = clampedCellIndex(bbox.getMinLng(), 180);
+    long maxCellX = clampedCellIndex(bbox.getMaxLng(), 180);
+    long minCellY = clampedCellIndex(bbox.getMinLat(), 90);
+    long maxCellY = clampedCellIndex(bbox.getMaxLat(), 90);
+
+    // A box covering more cells than are populated is cheaper to answer by scanning every cell
+    if ((maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) > cells.size()) {
+      for (Map<Integer, IndexedSite> cell : cells.values()) {
+        addMatches(cell, bbox, matches);
+      }
+    } else {
+      for (long x = minCellX; x <= maxCellX; x++) {
+        for (long y = minCellY; y <= maxCellY; y++) {
+          Map<Integer, IndexedSite> cell = cells.get(key(x, y));
+          if (cell != null) {
+            addMatches(cell, bbox, matches);
+          }
+        }
+      }
+    }
+
+    matches.sort(Comparator.comparingInt(site -> site.id));
+
+    List<Integer> siteIds = new ArrayList<>(matches.size());
+    if (zoom == null || zoom >= FULL_DETAIL_ZOOM) {
+      matches.forEach(site -> siteIds.add(site.id));
+      return siteIds;
+    }
+
+    // The width in degrees of a few pixels at this zoom level
+    double bucketSize =
+        360.0 / (TILE_SIZE_PIXELS * Math.pow(2, Math.max(zoom, 0))) * THINNING_PIXELS;
+    Set<Long> usedBuckets = new HashSet<>();
+    for (IndexedSite site : matches) {
+      long bucket =
+          key((long) Math.floor(site.lng / bucketSize), (long) Math.floor(site.lat / bucketSize));
+      if (usedBuckets.add(bucket)) {
+        siteIds.add(site.id);
+      }
+    }
+    return siteIds;
+  }
+
+  /**
+   * Find the sites closest to the given point, nearest first. Cells are searched in rings spreading
+   * out from the point's cell, stopping once no site in a further ring could be closer than the
+   * furthest site found so far.
+   *
+   * @param lat the latitude of the point
+   * @param lng the longitude of the point
+   * @param limit the most sites to return
+   * @param radiusMeters the furthest a site may be from the point, or null for no limit
+   * @return the ids of the closest sites, ordered by distance and then by site id, or none if the
+   *     limit isn't positive or the point isn't a finite location
+   */
+  public List<Integer> nearest(double lat, double lng, int limit, Double radiusMeters) {
+    if (limit < 1 || !Double.isFinite(lat) || !Double.isFinite(lng)) {
+      return Collections.emptyList();
+    }
+    double maxDistance = radiusMeters == null ? Double.POSITIVE_INFINITY : radiusMeters;
+    double metersPerDegreeLng = METERS_PER_DEGREE * Math.cos(Math.toRadians(lat));
+    // Every site in ring r is at least r - 1 whole cells away from the point along one axis
+    double ringSpacing = CELL_SIZE_DEGREES * Math.min(METERS_PER_DEGREE, metersPerDegreeLng);
+    NearestSites nearest = new NearestSites(lat, lng, metersPerDegreeLng, limit, maxDistance);
+
+    long centerX = cellIndex(lng);
+    long centerY = cellIndex(lat);
+    for (long ring = 0; ; ring++) {
+      double ringDistance = Math.max(0, ring - 1) * ringSpacing;
+      if (ringDistance > maxDistance || ringDistance > nearest.furthestDistance()) {
+        break;
+      }
+
+      // Once a ring covers more cells than are populated it is cheaper to scan every cell, which
+      // also ends the search when there are fewer sites than asked for
+      long side = 2 * ring + 1;
+      if (side * side > cells.size()) {
+        nearest.clear();
+        cells.values().forEach(nearest::offerAll);
+        break;
+      }
+
+      for (long x = centerX - ring; x <= centerX + ring; x++) {
+        nearest.offerAll(cells.get(key(x, centerY - ring)));
+        if (ring > 0) {
+          nearest.offerAll(cells.get(key(x, centerY + ring)));
+        }
+      }
+      for (long y = centerY - ring + 1; y <= centerY + ring - 1; y++) {
+        nearest.offerAll(cells.get(key(centerX - ring, y)));
+        nearest.offerAll(cells.get(key(centerX + ring, y)));
+      }
+    }
+
+    return nearest.toSiteIds();
+  }
+
+  private static void addMatches(
+      Map<Integer, IndexedSite> cell, BoundingBox bbox, List<IndexedSite> matches) {
+    for (IndexedSite site : cell.values()) {
+      if (bbox.contains(site.lat, site.lng)) {
+        matches.add(site);
+      }
+    }
+  }
+
+  private static long cellIndex(double degrees) {
+    return (long) Math.floor(degrees / CELL_SIZE_DEGREES);
+  }
+
+  /** Returns the index of the cell of the given coordinate, clamped to between -limit and limit. */
+  private static long clampedCellIndex(double degrees, double limit) {
+    // Math.max and Math.min both return NaN for NaN, which would then be cast to cell 0
+    double clamped = Double.isNaN(degrees) ? 0 : Math.max(-limit, Math.min(limit, degrees));
+    return cellIndex(clamped);
+  }
+
+  private static long cellKey(double lat, double lng) {
+    return key(cellIndex(lng), cellIndex(lat));
+  }
+
+  /** Packs two grid coordinates into a single key. */
+  private static long key(long x, long y) {
+    return (x << 32) ^ (y & 0xffffffffL);
+  }
+
+  /** The closest sites to a point seen so far, up to a limit. */
+  private static class NearestSites {
+    private static final Comparator<Neighbor> NEAREST_FIRST =
+        Comparator.<Neighbor>comparingDouble(neighbor -> neighbor.distance)
+            .thenComparingInt(neighbor -> neighbor.site.id);
+
+    private final double lat;
+    private final double lng;
+    private final double metersPerDegreeLng;
+    private final int limit;
+    private final double maxDistance;
+    // The furthest of the closest sites is at the head, so it can be replaced by a closer one
+    private final PriorityQueue<Neighbor> neighbors;
+
+    private NearestSites(
+        double lat, double lng, double metersPerDegreeLng, int limit, double maxDistance) {
+      this.lat = lat;
+      this.lng = lng;
+      this.metersPerDegreeLng = metersPerDegreeLng;
+      this.limit = limit;
+      this.maxDistance = maxDistance;
+      this.neighbors = new PriorityQueue<>(limit + 1, NEAREST_FIRST.reversed());
+    }
+
+    private void offerAll(Map<Integer, IndexedSite> cell) {
+      if (cell == null) {
+        return;
+      }
+      for (IndexedSite site : cell.values()) {
+        double dx = (site.lng - lng) * metersPerDegreeLng;
+        double dy = (site.lat - lat) * METERS_PER_DEGREE;
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if (distance > maxDistance || distance > furthestDistance()) {
+          continue;
+        }
+
+        Neighbor neighbor = new Neighbor(site, distance);
+        if (neighbors.size() < limit) {
+          neighbors.add(neighbor);
+        } else if (NEAREST_FIRST.compare(neighbor, neighbors.peek()) < 0) {
+          neighbors.poll();
+          neighbors.add(neighbor);
+        }
+      }
+    }
+
+    /** Returns the distance a site must beat to be added, once the limit has been reached. */
+    private double furthestDistance() {
+      return neighbors.size() < limit ? Double.POSITIVE_INFINITY : neighbors.peek().distance;
+    }
+
+    private void clear() {
+      neighbors.clear();
+    }
+
+    private List<Integer> toSiteIds() {
+      List<Neighbor> sorted = new ArrayList<>(neighbors);
+      sorted.sort(NEAREST_FIRST);
+
+      List<Integer> siteIds = new ArrayList<>(sorted.size());
+      sorted.forEach(neighbor -> siteIds.add(neighbor.site.id));
+      return siteIds;
+    }
+  }
+
+  private static class Neighbor {
+    private final IndexedSite site;
+    private final double distance;
+
+    private Neighbor(IndexedSite site, double distance) {
+      this.site = site;
+      this.distance = distance;
+    }
+  }
+
+  /** A site's id along with its location as doubles, so queries don't touch BigDecimals. */
+  private static class IndexedSite {
+    private final int id;
+    private final double lat;
+    private final double lng;
+
+    private IndexedSite(int id, double lat, double lng) {
+      this.id = id;
+      this.lat = lat;
+      this.lng = lng;
+    }
+
+    /** Returns the indexed form of the given feature, or null if the site has no location. */
+    private static IndexedSite from(SiteFeature feature) {
+      // GeoJSON coordinates are ordered longitude, latitude
+      List<BigDecimal> coordinates = feature.getGeometry().getCoordinates();
+      BigDecimal lng = coordinates.get(0);
+      BigDecimal lat = coordinates.get(1);
+      if (lat == null || lng == null) {
+        return null;
+      }
+      return new IndexedSite(feature.getProperties().getId(), lat.doubleValue(), lng.doubleValue());
+    }
+  }
+}
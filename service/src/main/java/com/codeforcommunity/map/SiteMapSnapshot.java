@@ -0,0 +1,341 @@
+package com.codeforcommunity.map;
+
+import static org.jooq.generated.tables.AdoptedSites.ADOPTED_SITES;
+import static org.jooq.generated.tables.SiteCurrentEntry.SITE_CURRENT_ENTRY;
+import static org.jooq.generated.tables.SiteEntries.SITE_ENTRIES;
+import static org.jooq.generated.tables.Sites.SITES;
+import static org.jooq.impl.DSL.noCondition;
+
+import com.codeforcommunity.dto.map.BoundingBox;
+import com.codeforcommunity.dto.map.GeometryPoint;
+import com.codeforcommunity.dto.map.SiteClusterFeature;
+import com.codeforcommunity.dto.map.SiteFeature;
+import com.codeforcommunity.dto.map.SiteFeatureProperties;
+import com.codeforcommunity.dto.map.SiteGeoResponse;
+import com.codeforcommunity.logger.SLogger;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.jooq.Condition;
+import org.jooq.Cursor;
+import org.jooq.DSLContext;
+import org.jooq.Record9;
+import org.jooq.Result;
+import org.jooq.ResultQuery;
+import org.jooq.impl.DSL;
+
+/**
+ * An in-memory snapshot of every site's map feature, held in a {@link SiteCatalog} along with the
+ * spatial indexes over it. The snapshot is built with one full query at startup and afterwards only
+ * the sites that are written to are re-queried and patched in, so serving the site map never has to
+ * run the full query on the request path.
+ *
+ * <p>Every change to the snapshot bumps its version. Anything derived from the snapshot (such as
+ * the {@link SiteGeoResponse}) is rebuilt at most once per version.
+ */
+public class SiteMapSnapshot {
+  // Keeps each query well below the number of bind values Postgres allows
+  private static final int FETCH_BATCH_SIZE = 1000;
+  // The number of rows read from the database at a time when reading every site
+  private static final int CURSOR_FETCH_SIZE = 2000;
+
+  private final SLogger logger = new SLogger(SiteMapSnapshot.class);
+  private final DSLContext db;
+
+  private volatile SiteCatalog catalog = new SiteCatalog();
+  private final AtomicLong version = new AtomicLong();
+  private volatile SiteGridIndex gridIndex = new SiteGridIndex();
+  private volatile SiteClusterIndex clusterIndex = new SiteClusterIndex();
+
+  // Writers are serialized so an older read of a site can never overwrite a newer one
+  private final Object writeLock = new Object();
+
+  private volatile VersionedResponse response;
+
+  public SiteMapSnapshot(DSLContext db) {
+    this.db = db;
+  }
+
+  /** Load the feature of every site, replacing the current contents of the snapshot. */
+  public void load() {
+    synchronized (writeLock) {
+      long start = System.currentTimeMillis();
+
+      // Build the new catalog and indexes off to the side so queries never see a partially loaded
+      // one
+      SiteCatalog newCatalog = new SiteCatalog();
+      SiteGridIndex newGridIndex = new SiteGridIndex();
+      SiteClusterIndex newClusterIndex = new SiteClusterIndex();
+      queryAllFeatures(
+          feature -> {
+            newCatalog.put(feature);
+            newGridIndex.add(feature);
+            newClusterIndex.add(feature);
+          });
+      catalog = newCatalog;
+      gridIndex = newGridIndex;
+      clusterIndex = newClusterIndex;
+      version.incrementAndGet();
+
+      logger.info(
+          String.format(
+              "Loaded %d sites into the site map in %dms",
+              newCatalog.size(), System.currentTimeMillis() - start));
+    }
+  }
+
+  /**
+   * Re-query the given site and patch it into the snapshot, removing it if it no longer exists or
+   * has been deleted.
+   *
+   * @param siteId the id of the site that changed
+   */
+  public void refreshSite(int siteId) {
+    refreshSites(Collections.singletonList(siteId));
+  }
+
+  /**
+   * Re-query the given sites and patch them into the snapshot, removing any that no longer exist or
+   * have been deleted.
+   *
+   * @param siteIds the ids of the sites that changed
+   */
+  public void refreshSites(Collection<Integer> siteIds) {
+    if (siteIds.isEmpty()) {
+      return;
+    }
+
+    synchronized (writeLock) {
+      Result<
+              Record9<
+                  Integer, Boolean, String, Date, Integer, String, String, BigDecimal, BigDecimal>>
+          records = siteRecordsQuery(db, SITES.ID.in(siteIds)).fetch();
+
+      Set<Integer> removedIds = new HashSet<>(siteIds);
+      for (Record9<Integer, Boolean, String, Date, Integer, String, String, BigDecimal, BigDecimal>
+          record : records) {
+        putFeature(siteFeatureFromRecord(record));
+        removedIds.remove(record.value1());
+      }
+      removedIds.forEach(this::removeFeature);
+      version.incrementAndGet();
+    }
+  }
+
+  /** Add or replace the feature of a site, keeping the indexes in step with it. */
+  private void putFeature(SiteFeature feature) {
+    SiteFeature previous = catalog.get(feature.getProperties().getId());
+    catalog.put(feature);
+    if (previous != null) {
+      gridIndex.remove(previous);
+      clusterIndex.remove(previous);
+    }
+    gridIndex.add(feature);
+    clusterIndex.add(feature);
+  }
+
+  /** Remove the feature of a site, keeping the indexes in step with it. */
+  private void removeFeature(int siteId) {
+    SiteFeature previous = catalog.remove(siteId);
+    if (previous != null) {
+      gridIndex.remove(previous);
+      clusterIndex.remove(previous);
+    }
+  }
+
+  /**
+   * Returns an iterator over the feature of every site in the snapshot, ordered by site id. The
+   * features are read from the snapshot a batch at a time as the iterator advances, so iterating
+   * never holds a database connection or the snapshot's lock while the caller is between batches.
+   */
+  public Iterator<SiteFeature> iterateFeatures() {
+    return catalog.iterator();
+  }
+
+  /**
+   * Query the feature of every site straight from the database, handing each one to the given
+   * consumer in site id order as it is read. Rows are read through a cursor a batch at a time, so
+   * only one batch of sites is ever held in memory. The read stays open until the consumer has seen
+   * every site.
+   *
+   * @param consumer accepts the feature of each site
+   */
+  private void queryAllFeatures(Consumer<SiteFeature> consumer) {
+    // Postgres only reads a batch at a time inside of a transaction, otherwise the driver loads
+    // every row up front no matter the fetch size
+    db.transaction(
+        configuration -> {
+          try (Cursor<
+                  Record9<
+                      Integer,
+                      Boolean,
+                      String,
+                      Date,
+                      Integer,
+                      String,
+                      String,
+                      BigDecimal,
+                      BigDecimal>>
+              cursor =
+                  siteRecordsQuery(DSL.using(configuration), noCondition())
+                      .fetchSize(CURSOR_FETCH_SIZE)
+                      .fetchLazy()) {
+            for (Record9<
+                    Integer, Boolean, String, Date, Integer, String, String, BigDecimal, BigDecimal>
+                record : cursor) {
+              consumer.accept(siteFeatureFromRecord(record));
+            }
+          }
+        });
+  }
+
+  /**
+   * Query the current features of the given sites straight from the database, without touching the
+   * snapshot. Sites that no longer exist or have been deleted are left out.
+   *
+   * @param siteIds the ids of the sites to fetch
+   * @return the features of the sites, keyed and ordered by site id
+   */
+  public SortedMap<Integer, SiteFeature> fetchFeatures(Collection<Integer> siteIds) {
+    SortedMap<Integer, SiteFeature> fetched = new TreeMap<>();
+    List<Integer> ids = new ArrayList<>(siteIds);
+    for (int start = 0; start < ids.size(); start += FETCH_BATCH_SIZE) {
+      List<Integer> batch = ids.subList(start, Math.min(start + FETCH_BATCH_SIZE, ids.size()));
+      for (Record9<Integer, Boolean, String, Date, Integer, String, String, BigDecimal, BigDecimal>
+          record : siteRecordsQuery(db, SITES.ID.in(batch))) {
+        fetched.put(record.value1(), siteFeatureFromRecord(record));
+      }
+    }
+    return fetched;
+  }
+
+  /** Returns the current version of the snapshot, which changes whenever any site changes. */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /** Returns the features of every site, ordered by site id. */
+  public List<SiteFeature> getFeatures() {
+    return catalog.getAll();
+  }
+
+  /**
+   * Returns the features of the sites inside the given bounding box, thinned out for the given zoom
+   * level.
+   *
+   * @see SiteGridIndex#query(BoundingBox, Integer)
+   */
+  public List<SiteFeature> getFeaturesInBox(BoundingBox bbox, Integer zoom) {
+    return catalog.get(gridIndex.query(bbox, zoom));
+  }
+
+  /**
+   * Returns the features of the sites closest to the given point, nearest first.
+   *
+   * @see SiteGridIndex#nearest(double, double, int, Double)
+   */
+  public List<SiteFeature> getNearestFeatures(
+      double lat, double lng, int limit, Double radiusMeters) {
+    return catalog.get(gridIndex.nearest(lat, lng, limit, radiusMeters));
+  }
+
+  /**
+   * Returns the site clusters at the given zoom level.
+   *
+   * @see SiteClusterIndex#query(int, BoundingBox)
+   */
+  public List<SiteClusterFeature> getClusters(int zoom, BoundingBox bbox) {
+    return clusterIndex.query(zoom, bbox);
+  }
+
+  /** Returns the site GeoJSON for the current version of the snapshot. */
+  public SiteGeoResponse getSiteGeoResponse() {
+    long currentVersion = version.get();
+    VersionedResponse cached = this.response;
+    if (cached != null && cached.version == currentVersion) {
+      return cached.response;
+    }
+
+    SiteGeoResponse newResponse = new SiteGeoResponse(catalog.getAll());
+    this.response = new VersionedResponse(currentVersion, newResponse);
+    return newResponse;
+  }
+
+  /**
+   * Build the query for the map feature information of every site matching the given condition,
+   * based on each site's current entry.
+   *
+   * @param ctx the context to run the query in
+   * @param siteCondition the condition on the sites table for which sites to fetch
+   */
+  private ResultQuery<
+          Record9<Integer, Boolean, String, Date, Integer, String, String, BigDecimal, BigDecimal>>
+      siteRecordsQuery(DSLContext ctx, Condition siteCondition) {
+    return ctx.select(
+            SITES.ID,
+            SITE_ENTRIES.TREE_PRESENT,
+            SITE_ENTRIES.DISPLAY_NAME,
+            SITE_ENTRIES.PLANTING_DATE,
+            ADOPTED_SITES.USER_ID,
+            SITES.ADDRESS,
+            SITES.OWNER,
+            SITES.LAT,
+            SITES.LNG)
+        .from(SITES)
+        .leftJoin(SITE_CURRENT_ENTRY)
+        .on(SITE_CURRENT_ENTRY.SITE_ID.eq(SITES.ID))
+        .leftJoin(SITE_ENTRIES)
+        .on(SITE_ENTRIES.ID.eq(SITE_CURRENT_ENTRY.ENTRY_ID))
+        .leftJoin(ADOPTED_SITES)
+        .on(ADOPTED_SITES.SITE_ID.eq(SITES.ID))
+        .where(SITES.DELETED_AT.isNull())
+        .and(siteCondition)
+        .orderBy(SITES.ID);
+  }
+
+  private SiteFeature siteFeatureFromRecord(
+      Record9<
+              Integer, // #1 Site ID
+              Boolean, // #2 Tree Present
+              String, // #3 Common Name
+              Date, // #4 Planting Date
+              Integer, // #5 Adopter User ID
+              String, // #6 Address
+              String, // #7 Owner
+              BigDecimal, // #8 Lat
+              BigDecimal> // #9 Lng
+          sitesRecord) {
+    SiteFeatureProperties properties =
+        new SiteFeatureProperties(
+            sitesRecord.value1(),
+            sitesRecord.value2(),
+            sitesRecord.value3(),
+            sitesRecord.value4(),
+            sitesRecord.value5(),
+            sitesRecord.value6(),
+            sitesRecord.value7());
+    GeometryPoint geometry = new GeometryPoint(sitesRecord.value8(), sitesRecord.value9());
+    return new SiteFeature(properties, geometry);
+  }
+
+  /** A site GeoJSON response and the snapshot version it was built from. */
+  private static class VersionedResponse {
+    private final long version;
+    private final SiteGeoResponse response;
+
+    private VersionedResponse(long version, SiteGeoResponse response) {
+      this.version = version;
+      this.response = response;
+    }
+  }
+}
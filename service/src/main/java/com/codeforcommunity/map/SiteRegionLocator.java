@@ -0,0 +1,100 @@
+package com.codeforcommunity.map;
+
+import static org.jooq.generated.Tables.BLOCKS;
+import static org.jooq.generated.Tables.NEIGHBORHOODS;
+
+import com.codeforcommunity.logger.SLogger;
+import java.math.BigDecimal;
+import org.jooq.DSLContext;
+
+/**
+ * Finds the neighborhood and block that a site's location falls in, from in-memory indexes of the
+ * neighborhood and block geometry. The indexes must be reloaded whenever blocks or neighborhoods
+ * are imported.
+ */
+public class SiteRegionLocator {
+  private final SLogger logger = new SLogger(SiteRegionLocator.class);
+  private final DSLContext db;
+
+  private volatile RegionIndex neighborhoods = RegionIndex.empty();
+  private volatile RegionIndex blocks = RegionIndex.empty();
+
+  public SiteRegionLocator(DSLContext db) {
+    this.db = db;
+  }
+
+  /** Load both the neighborhood and block indexes. */
+  public void load() {
+    reloadNeighborhoods();
+    reloadBlocks();
+  }
+
+  /** Rebuild the neighborhood index from the neighborhoods table. */
+  public void reloadNeighborhoods() {
+    long start = System.currentTimeMillis();
+    neighborhoods =
+        RegionIndex.fromGeometry(
+            db.select(NEIGHBORHOODS.ID, NEIGHBORHOODS.GEOMETRY)
+                .from(NEIGHBORHOODS)
+                .fetchMap(NEIGHBORHOODS.ID, NEIGHBORHOODS.GEOMETRY));
+    logger.info(
+        String.format("Indexed neighborhood geometry in %dms", System.currentTimeMillis() - start));
+  }
+
+  /** Rebuild the block index from the blocks table. */
+  public void reloadBlocks() {
+    long start = System.currentTimeMillis();
+    blocks =
+        RegionIndex.fromGeometry(
+            db.select(BLOCKS.ID, BLOCKS.GEOMETRY)
+                .from(BLOCKS)
+                .fetchMap(BLOCKS.ID, BLOCKS.GEOMETRY));
+    logger.info(
+        String.format("Indexed block geometry in %dms", System.currentTimeMillis() - start));
+  }
+
+  /**
+   * Find the neighborhood and block containing the given location. Either may be null if the
+   * location isn't inside one, or if the location is missing.
+   */
+  public SiteRegion locate(BigDecimal lat, BigDecimal lng) {
+    if (lat == null || lng == null) {
+      return new SiteRegion(null, null);
+    }
+    double latitude = lat.doubleValue();
+    double longitude = lng.doubleValue();
+    return new SiteRegion(
+        neighborhoods.locate(latitude, longitude), blocks.locate(latitude, longitude));
+  }
+
+  /** Returns whether a neighborhood with the given id has been loaded. */
+  public boolean hasNeighborhood(int neighborhoodId) {
+    return neighborhoods.contains(neighborhoodId);
+  }
+
+  /** Returns whether a block with the given id has been loaded. */
+  public boolean hasBlock(int blockId) {
+    return blocks.contains(blockId);
+  }
+
+  /** The neighborhood and block that a location falls in. */
+  public static class SiteRegion {
+    private final Integer neighborhoodId;
+    private final Integer blockId;
+
+    private SiteRegion(Integer neighborhoodId, Integer blockId) {
+      this.neighborhoodId = neighborhoodId;
+      this.blockId = blockId;
+    }
+
+    /** The id of the containing neighborhood, or null if there isn't one. */
+    public Integer getNeighborhoodId() {
+      return neighborhoodId;
+    }
+
+    /** The id of the containing block, or null if there isn't one. */
+    public Integer getBlockId() {
+      return blockId;
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.codeforcommunity.map;
+
+import io.vertx.core.buffer.Buffer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A least recently used cache of encoded site responses, keyed by site id. The cache is bounded by
+ * the total size of the responses it holds rather than by their number, since a site with a long
+ * history of entries and images can be many times the size of a new one.
+ *
+ * <p>Responses are never checked against the database, so every write that changes what a site's
+ * response holds (the site, its entries, their images or its adopter) must invalidate the site once
+ * it has been committed.
+ */
+public class SiteResponseCache {
+  private final long maxBytes;
+  private final Map<Integer, Buffer> responses = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long bytes = 0;
+  // Bumped by every invalidation, so responses built from data read before one aren't cached
+  private long generation = 0;
+
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+
+  public SiteResponseCache(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Returns the cached response of the site, or builds and caches it if it isn't cached. Responses
+   * are built outside of the cache's lock, so two requests for the same missing site may both build
+   * it. A response is not cached if it is larger than the whole cache, or if any site was
+   * invalidated while it was being built.
+   *
+   * @param siteId the id of the site
+   * @param builder builds the site's encoded response if it isn't cached
+   */
+  public Buffer get(int siteId, Supplier<Buffer> builder) {
+    long builtGeneration;
+    synchronized (this) {
+      Buffer response = responses.get(siteId);
+      if (response != null) {
+        hits++;
+        return response;
+      }
+      misses++;
+      builtGeneration = generation;
+    }
+
+    Buffer response = builder.get();
+    synchronized (this) {
+      if (builtGeneration == generation && response.length() <= maxBytes) {
+        remove(siteId);
+        responses.put(siteId, response);
+        bytes += response.length();
+        evictToSize();
+      }
+    }
+    return response;
+  }
+
+  /** Called after a write that changes the response of the given site has been committed. */
+  public void invalidate(int siteId) {
+    invalidate(Collections.singletonList(siteId));
+  }
+
+  /** Called after a write that changes the responses of the given sites has been committed. */
+  public synchronized void invalidate(Collection<Integer> siteIds) {
+    generation++;
+    siteIds.forEach(this::remove);
+  }
+
+  /**
+   * Called after a write that could change the response of any number of sites, such as an import
+   * or a change to a username shown on many sites, has been committed.
+   */
+  public synchronized void invalidateAll() {
+    generation++;
+    responses.clear();
+    bytes = 0;
+  }
+
+  /** Remove the site's response, if cached. Must be called holding the lock. */
+  private void remove(int siteId) {
+    Buffer removed = responses.remove(siteId);
+    if (removed != null) {
+      bytes -= removed.length();
+    }
+  }
+
+  /**
+   * Evict the least recently used responses until the cache fits. Must be called holding the lock.
+   */
+  private void evictToSize() {
+    Iterator<Buffer> eldest = responses.values().iterator();
+    while (bytes > maxBytes && eldest.hasNext()) {
+      bytes -= eldest.next().length();
+      eldest.remove();
+      evictions++;
+    }
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Returns the number of responses removed to make room for others, not counting invalidations.
+   */
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  public synchronized int size() {
+    return responses.size();
+  }
+
+  /** Returns the total size in bytes of the responses cached. */
+  public synchronized long getBytes() {
+    return bytes;
+  }
+}
@@ -0,0 +1,81 @@
+package com.codeforcommunity.map;
+
+import com.codeforcommunity.dto.map.MapLayerPayload;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A least recently used cache of encoded vector tiles. Tiles are keyed by their layer, coordinate
+ * and the version of the layer they were built from, so tiles of an old version are never served
+ * and simply age out of the cache.
+ */
+public class TileCache {
+  private final Map<String, MapLayerPayload> tiles;
+
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+
+  public TileCache(int maxTiles) {
+    this.tiles =
+        new LinkedHashMap<String, MapLayerPayload>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, MapLayerPayload> eldest) {
+            // Only ever called from put, so the cache's lock is held
+            if (size() > maxTiles) {
+              evictions++;
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Returns the cached tile, or builds and caches it if it isn't cached. Tiles are built outside of
+   * the cache's lock, so two requests for the same missing tile may both build it.
+   *
+   * @param layer the name of the tile's layer
+   * @param z the zoom level of the tile
+   * @param x the column of the tile
+   * @param y the row of the tile
+   * @param version the current version of the layer
+   * @param builder builds the tile if it isn't cached
+   */
+  public MapLayerPayload get(
+      String layer, int z, int x, int y, long version, Supplier<MapLayerPayload> builder) {
+    String key = layer + "/" + z + "/" + x + "/" + y + "@" + version;
+    synchronized (this) {
+      MapLayerPayload tile = tiles.get(key);
+      if (tile != null) {
+        hits++;
+        return tile;
+      }
+      misses++;
+    }
+
+    MapLayerPayload tile = builder.get();
+    synchronized (this) {
+      tiles.put(key, tile);
+    }
+    return tile;
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /** Returns the number of tiles removed to make room for others. */
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  public synchronized int size() {
+    return tiles.size();
+  }
+}
@@ -0,0 +1,381 @@
+package com.codeforcommunity.map;
+
+import com.codeforcommunity.dto.map.BoundingBox;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the features of a single map tile as a Mapbox Vector Tile (version 2.1 of the
+ * specification) containing one layer. Coordinates are given as longitude and latitude and are
+ * projected into the tile with Web Mercator. Polygons are clipped to the tile plus a small buffer,
+ * so that shapes crossing tile edges join up when drawn.
+ *
+ * <p>The protobuf encoding is written out by hand, since a tile only uses a handful of message
+ * types.
+ */
+public class VectorTileEncoder {
+  public static final int EXTENT = 4096;
+  // How far past the tile edges geometry is kept, in tile units
+  public static final int BUFFER = 64;
+
+  // Geometry types
+  private static final int POINT = 1;
+  private static final int POLYGON = 3;
+
+  // Geometry commands
+  private static final int MOVE_TO = 1;
+  private static final int LINE_TO = 2;
+  private static final int CLOSE_PATH = 7;
+
+  private final int z;
+  private final int x;
+  private final int y;
+
+  private final Map<String, Integer> keys = new LinkedHashMap<>();
+  private final Map<Object, Integer> values = new LinkedHashMap<>();
+  private final List<byte[]> features = new ArrayList<>();
+
+  public VectorTileEncoder(int z, int x, int y) {
+    this.z = z;
+    this.x = x;
+    this.y = y;
+  }
+
+  /**
+   * Add a point feature to the tile. Points outside of the tile and its buffer are ignored.
+   *
+   * @param id the id of the feature
+   * @param lat the latitude of the point
+   * @param lng the longitude of the point
+   * @param properties the properties of the feature, null values are left out
+   */
+  public void addPoint(long id, double lat, double lng, Map<String, Object> properties) {
+    long px = Math.round(tileX(lng));
+    long py = Math.round(tileY(lat));
+    if (px < -BUFFER || px > EXTENT + BUFFER || py < -BUFFER || py > EXTENT + BUFFER) {
+      return;
+    }
+
+    List<Integer> geometry = new ArrayList<>(3);
+    geometry.add(command(MOVE_TO, 1));
+    geometry.add(zigZag(px));
+    geometry.add(zigZag(py));
+
+    features.add(encodeFeature(id, POINT, geometry, properties));
+  }
+
+  /**
+   * Add a polygon or multipolygon feature to the tile. Rings are clipped to the tile and its
+   * buffer, and any parts of the feature left without area are dropped.
+   *
+   * @param id the id of the feature
+   * @param polygons the polygons of the feature, each a list of rings with the exterior ring first,
+   *     and each ring an array of alternating longitudes and latitudes. Polygons without any rings
+   *     are skipped.
+   * @param properties the properties of the feature, null values are left out
+   */
+  public void addPolygons(long id, List<List<double[]>> polygons, Map<String, Object> properties) {
+    List<Integer> geometry = new ArrayList<>();
+    long[] cursor = new long[2];
+
+    for (List<double[]> polygon : polygons) {
+      for (int ringIndex = 0; ringIndex < polygon.size(); ringIndex++) {
+        List<long[]> ring = projectAndClip(polygon.get(ringIndex));
+        if (ring == null) {
+          if (ringIndex == 0) {
+            // Without its exterior ring the polygon's holes have nothing to cut out of
+            break;
+          }
+          continue;
+        }
+
+        // Exterior rings must have a positive area in tile coordinates, interior rings negative
+        boolean exterior = ringIndex == 0;
+        if ((area(ring) > 0) != exterior) {
+          Collections.reverse(ring);
+        }
+        writeRing(ring, cursor, geometry);
+      }
+    }
+
+    if (!geometry.isEmpty()) {
+      features.add(encodeFeature(id, POLYGON, geometry, properties));
+    }
+  }
+
+  /**
+   * Returns the area covered by this tile and its buffer. Features outside of these bounds have no
+   * effect on the tile.
+   */
+  public BoundingBox getBounds() {
+    double n = 1L << z;
+    double buffer = (double) BUFFER / EXTENT;
+    double minLng = (x - buffer) / n * 360.0 - 180.0;
+    double maxLng = (x + 1 + buffer) / n * 360.0 - 180.0;
+    double maxLat = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * (y - buffer) / n))));
+    double minLat = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * (y + 1 + buffer) / n))));
+    return new BoundingBox(minLng, minLat, maxLng, maxLat);
+  }
+
+  /** Whether any features have been added to the tile. */
+  public boolean isEmpty() {
+    return features.isEmpty();
+  }
+
+  /**
+   * Encode the tile with all the added features in a single layer.
+   *
+   * @param layerName the name of the layer
+   * @return the encoded tile
+   */
+  public byte[] encode(String layerName) {
+    ProtobufWriter layer = new ProtobufWriter();
+    layer.writeVarintField(15, 2); // version
+    layer.writeStringField(1, layerName);
+    for (byte[] feature : features) {
+      layer.writeBytesField(2, feature);
+    }
+    for (String key : keys.keySet()) {
+      layer.writeStringField(3, key);
+    }
+    for (Object value : values.keySet()) {
+      layer.writeBytesField(4, encodeValue(value));
+    }
+    layer.writeVarintField(5, EXTENT);
+
+    ProtobufWriter tile = new ProtobufWriter();
+    tile.writeBytesField(3, layer.toByteArray());
+    return tile.toByteArray();
+  }
+
+  /** The x coordinate of the given longitude within this tile. */
+  private double tileX(double lng) {
+    double worldX = (lng + 180.0) / 360.0 * (1L << z);
+    return (worldX - x) * EXTENT;
+  }
+
+  /** The y coordinate of the given latitude within this tile, increasing downwards. */
+  private double tileY(double lat) {
+    double latRad = Math.toRadians(lat);
+    double worldY =
+        (1.0 - Math.log(Math.tan(latRad) + 1.0 / Math.cos(latRad)) / Math.PI) / 2.0 * (1L << z);
+    return (worldY - y) * EXTENT;
+  }
+
+  /**
+   * Project a ring into tile coordinates, clip it to the buffered tile and snap it to the integer
+   * grid. Returns null if nothing with any area is left of the ring. The returned ring is not
+   * closed, its last point is not a repeat of its first.
+   */
+  private List<long[]> projectAndClip(double[] ring) {
+    List<double[]> points = new ArrayList<>(ring.length / 2);
+    for (int i = 0; i + 1 < ring.length; i += 2) {
+      points.add(new double[] {tileX(ring[i]), tileY(ring[i + 1])});
+    }
+
+    double min = -BUFFER;
+    double max = EXTENT + BUFFER;
+    points = clip(points, 0, min, true);
+    points = clip(points, 0, max, false);
+    points = clip(points, 1, min, true);
+    points = clip(points, 1, max, false);
+
+    List<long[]> snapped = new ArrayList<>(points.size());
+    for (double[] point : points) {
+      long[] snappedPoint = {Math.round(point[0]), Math.round(point[1])};
+      long[] last = snapped.isEmpty() ? null : snapped.get(snapped.size() - 1);
+      if (last == null || last[0] != snappedPoint[0] || last[1] != snappedPoint[1]) {
+        snapped.add(snappedPoint);
+      }
+    }
+    // Drop the closing point (or any points that collapsed onto the first point)
+    while (snapped.size() > 1
+        && snapped.get(0)[0] == snapped.get(snapped.size() - 1)[0]
+        && snapped.get(0)[1] == snapped.get(snapped.size() - 1)[1]) {
+      snapped.remove(snapped.size() - 1);
+    }
+
+    if (snapped.size() < 3 || area(snapped) == 0) {
+      return null;
+    }
+    return snapped;
+  }
+
+  /**
+   * Clip a ring against one edge of the buffered tile (one step of Sutherland-Hodgman).
+   *
+   * @param points the ring to clip
+   * @param axis 0 to clip against a vertical edge, 1 against a horizontal one
+   * @param edge the coordinate of the edge
+   * @param keepAbove whether to keep the side of the edge with larger coordinates
+   */
+  private static List<double[]> clip(
+      List<double[]> points, int axis, double edge, boolean keepAbove) {
+    List<double[]> clipped = new ArrayList<>(points.size());
+    if (points.isEmpty()) {
+      return clipped;
+    }
+
+    double[] previous = points.get(points.size() - 1);
+    boolean previousInside = keepAbove ? previous[axis] >= edge : previous[axis] <= edge;
+    for (double[] current : points) {
+      boolean currentInside = keepAbove ? current[axis] >= edge : current[axis] <= edge;
+      if (currentInside != previousInside) {
+        double t = (edge - previous[axis]) / (current[axis] - previous[axis]);
+        double[] intersection = new double[2];
+        intersection[axis] = edge;
+        intersection[1 - axis] = previous[1 - axis] + t * (current[1 - axis] - previous[1 - axis]);
+        clipped.add(intersection);
+      }
+      if (currentInside) {
+        clipped.add(current);
+      }
+      previous = current;
+      previousInside = currentInside;
+    }
+    return clipped;
+  }
+
+  /** Twice the signed area of an unclosed ring, positive when clockwise with y pointing down. */
+  private static long area(List<long[]> ring) {
+    long sum = 0;
+    for (int i = 0; i < ring.size(); i++) {
+      long[] a = ring.get(i);
+      long[] b = ring.get((i + 1) % ring.size());
+      sum += a[0] * b[1] - b[0] * a[1];
+    }
+    return sum;
+  }
+
+  /** Append the commands drawing the given ring, relative to and then moving the cursor. */
+  private static void writeRing(List<long[]> ring, long[] cursor, List<Integer> geometry) {
+    geometry.add(command(MOVE_TO, 1));
+    writePoint(ring.get(0), cursor, geometry);
+    geometry.add(command(LINE_TO, ring.size() - 1));
+    for (int i = 1; i < ring.size(); i++) {
+      writePoint(ring.get(i), cursor, geometry);
+    }
+    geometry.add(command(CLOSE_PATH, 1));
+  }
+
+  private static void writePoint(long[] point, long[] cursor, List<Integer> geometry) {
+    geometry.add(zigZag(point[0] - cursor[0]));
+    geometry.add(zigZag(point[1] - cursor[1]));
+    cursor[0] = point[0];
+    cursor[1] = point[1];
+  }
+
+  private static int command(int id, int count) {
+    return (id & 0x7) | (count << 3);
+  }
+
+  private static int zigZag(long n) {
+    return (int) ((n << 1) ^ (n >> 63));
+  }
+
+  private byte[] encodeFeature(
+      long id, int type, List<Integer> geometry, Map<String, Object> properties) {
+    ProtobufWriter tags = new ProtobufWriter();
+    for (Map.Entry<String, Object> property : properties.entrySet()) {
+      Object value = normalizeValue(property.getValue());
+      if (value == null) {
+        continue;
+      }
+      tags.writeVarint(keys.computeIfAbsent(property.getKey(), key -> keys.size()));
+      tags.writeVarint(values.computeIfAbsent(value, v -> values.size()));
+    }
+
+    ProtobufWriter commands = new ProtobufWriter();
+    for (int command : geometry) {
+      commands.writeVarint(command & 0xffffffffL);
+    }
+
+    ProtobufWriter feature = new ProtobufWriter();
+    feature.writeVarintField(1, id);
+    feature.writeBytesField(2, tags.toByteArray());
+    feature.writeVarintField(3, type);
+    feature.writeBytesField(4, commands.toByteArray());
+    return feature.toByteArray();
+  }
+
+  /**
+   * Convert a property value into one of the types a tile can hold: String, Long, Double or
+   * Boolean. Anything else is written as its string form.
+   */
+  private static Object normalizeValue(Object value) {
+    if (value == null || value instanceof String || value instanceof Boolean) {
+      return value;
+    }
+    if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    return value.toString();
+  }
+
+  private static byte[] encodeValue(Object value) {
+    ProtobufWriter writer = new ProtobufWriter();
+    if (value instanceof String) {
+      writer.writeStringField(1, (String) value);
+    } else if (value instanceof Double) {
+      writer.writeDoubleField(3, (Double) value);
+    } else if (value instanceof Long) {
+      long n = (Long) value;
+      writer.writeVarintField(6, (n << 1) ^ (n >> 63)); // sint64
+    } else {
+      writer.writeVarintField(7, ((Boolean) value) ? 1 : 0);
+    }
+    return writer.toByteArray();
+  }
+
+  /** Writes the few protobuf wire types that tiles use. */
+  private static class ProtobufWriter {
+    private static final int VARINT = 0;
+    private static final int FIXED_64 = 1;
+    private static final int LENGTH_DELIMITED = 2;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    void writeVarint(long value) {
+      while ((value & ~0x7fL) != 0) {
+        out.write((int) ((value & 0x7f) | 0x80));
+        value >>>= 7;
+      }
+      out.write((int) value);
+    }
+
+    void writeVarintField(int field, long value) {
+      writeVarint((field << 3) | VARINT);
+      writeVarint(value);
+    }
+
+    void writeDoubleField(int field, double value) {
+      writeVarint((field << 3) | FIXED_64);
+      long bits = Double.doubleToLongBits(value);
+      for (int i = 0; i < 8; i++) {
+        out.write((int) (bits >>> (8 * i)) & 0xff);
+      }
+    }
+
+    void writeBytesField(int field, byte[] bytes) {
+      writeVarint((field << 3) | LENGTH_DELIMITED);
+      writeVarint(bytes.length);
+      out.write(bytes, 0, bytes.length);
+    }
+
+    void writeStringField(int field, String value) {
+      writeBytesField(field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    byte[] toByteArray() {
+      return out.toByteArray();
+    }
+  }
+}
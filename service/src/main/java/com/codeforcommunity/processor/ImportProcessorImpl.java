@@ -1,13 +1,18 @@
 package com.codeforcommunity.processor;
 
+import static com.codeforcommunity.dataaccess.SiteEntryDatabaseOperations.refreshCurrentEntries;
+import static com.codeforcommunity.dataaccess.SiteEntryDatabaseOperations.setDisplayName;
 import static org.jooq.generated.Tables.BLOCKS;
 import static org.jooq.generated.Tables.ENTRY_USERNAMES;
 import static org.jooq.generated.Tables.NEIGHBORHOODS;
+import static org.jooq.generated.Tables.SITES;
 import static org.jooq.generated.Tables.TEAMS;
 import static org.jooq.generated.Tables.USERS;
+import static org.jooq.impl.DSL.field;
 
 import com.codeforcommunity.api.IImportProcessor;
 import com.codeforcommunity.auth.JWTData;
+import com.codeforcommunity.dataaccess.TreeSpeciesIndex;
 import com.codeforcommunity.dto.imports.BlockImport;
 import com.codeforcommunity.dto.imports.ImportBlocksRequest;
 import com.codeforcommunity.dto.imports.ImportNeighborhoodsRequest;
@@ -16,19 +21,33 @@ import com.codeforcommunity.dto.imports.ImportSitesRequest;
 import com.codeforcommunity.dto.imports.ImportTreeBenefitsRequest;
 import com.codeforcommunity.dto.imports.ImportTreeSpeciesRequest;
 import com.codeforcommunity.dto.imports.NeighborhoodImport;
+import com.codeforcommunity.dto.imports.SiteImport;
 import com.codeforcommunity.dto.imports.TreeBenefitImport;
 import com.codeforcommunity.dto.imports.TreeSpeciesImport;
+import com.codeforcommunity.enums.GeometryDetail;
 import com.codeforcommunity.enums.PrivilegeLevel;
 import com.codeforcommunity.exceptions.AuthException;
 import com.codeforcommunity.exceptions.ResourceDoesNotExistException;
 import com.codeforcommunity.exceptions.RouteInvalidException;
 import com.codeforcommunity.exceptions.UserDoesNotExistException;
+import com.codeforcommunity.map.GeometrySimplifier;
+import com.codeforcommunity.map.MapLayerVersions;
+import com.codeforcommunity.map.PrivateStreetIndex;
+import com.codeforcommunity.map.SiteBenefitTotals;
+import com.codeforcommunity.map.SiteChangeLog;
+import com.codeforcommunity.map.SiteMapSnapshot;
+import com.codeforcommunity.map.SiteRegionLocator;
+import com.codeforcommunity.map.SiteRegionLocator.SiteRegion;
+import com.codeforcommunity.map.SiteResponseCache;
+import com.codeforcommunity.requester.TreeBenefitsCalculator;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Result;
 import org.jooq.generated.Tables;
 import org.jooq.generated.tables.records.BlocksRecord;
 import org.jooq.generated.tables.records.EntryUsernamesRecord;
@@ -38,12 +57,53 @@ import org.jooq.generated.tables.records.SiteEntriesRecord;
 import org.jooq.generated.tables.records.SitesRecord;
 import org.jooq.generated.tables.records.TreeBenefitsRecord;
 import org.jooq.generated.tables.records.TreeSpeciesRecord;
+import org.jooq.impl.DSL;
 
 public class ImportProcessorImpl implements IImportProcessor {
-  private final DSLContext db;
+  // Moves the id sequence of the sites table past the largest site id in use
+  private static final Field<Long> SYNC_SITE_ID_SEQUENCE =
+      field(
+          "setval('sites_id_seq', greatest((select max(id) from sites), "
+              + "(select last_value from sites_id_seq)))",
+          Long.class);
 
-  public ImportProcessorImpl(DSLContext db) {
+  private final DSLContext db;
+  private final SiteMapSnapshot siteMap;
+  private final SiteChangeLog siteChanges;
+  private final MapLayerVersions layerVersions;
+  private final PrivateStreetIndex privateStreets;
+  private final SiteRegionLocator siteRegions;
+  private final SiteResponseCache siteResponses;
+  private final TreeSpeciesIndex speciesIndex;
+  private final TreeBenefitsCalculator benefitsCalculator;
+  private final SiteBenefitTotals siteBenefits;
+
+  public ImportProcessorImpl(
+      DSLContext db,
+      SiteMapSnapshot siteMap,
+      SiteChangeLog siteChanges,
+      MapLayerVersions layerVersions,
+      PrivateStreetIndex privateStreets,
+      SiteRegionLocator siteRegions,
+      SiteResponseCache siteResponses,
+      TreeSpeciesIndex speciesIndex,
+      TreeBenefitsCalculator benefitsCalculator,
+      SiteBenefitTotals siteBenefits) {
     this.db = db;
+    this.siteMap = siteMap;
+    this.siteChanges = siteChanges;
+    this.layerVersions = layerVersions;
+    this.privateStreets = privateStreets;
+    this.siteRegions = siteRegions;
+    this.siteResponses = siteResponses;
+    this.speciesIndex = speciesIndex;
+    this.benefitsCalculator = benefitsCalculator;
+    this.siteBenefits = siteBenefits;
+  }
+
+  /** Simplify the given GeoJSON geometry to the given level of detail. */
+  private String simplify(String geometry, GeometryDetail detail) {
+    return GeometrySimplifier.simplify(geometry, detail.getTolerance());
   }
 
   @Override
@@ -63,8 +123,16 @@ public class ImportProcessorImpl implements IImportProcessor {
       block.setLat(blockImport.getLat());
       block.setLng(blockImport.getLng());
       block.setGeometry(blockImport.getGeometry());
+      block.setGeometryFine(simplify(blockImport.getGeometry(), GeometryDetail.FINE));
+      block.setGeometryMedium(simplify(blockImport.getGeometry(), GeometryDetail.MEDIUM));
+      block.setGeometryCoarse(simplify(blockImport.getGeometry(), GeometryDetail.COARSE));
       block.store();
     }
+
+    siteRegions.reloadBlocks();
+    // New blocks also change the completion percentage of their neighborhoods
+    layerVersions.invalidateBlocks();
+    layerVersions.invalidateNeighborhoods();
   }
 
   @Override
@@ -82,10 +150,18 @@ public class ImportProcessorImpl implements IImportProcessor {
       neighborhood.setLat(neighborhoodImport.getLat());
       neighborhood.setLng(neighborhoodImport.getLng());
       neighborhood.setGeometry(neighborhoodImport.getGeometry());
+      neighborhood.setGeometryFine(simplify(neighborhoodImport.getGeometry(), GeometryDetail.FINE));
+      neighborhood.setGeometryMedium(
+          simplify(neighborhoodImport.getGeometry(), GeometryDetail.MEDIUM));
+      neighborhood.setGeometryCoarse(
+          simplify(neighborhoodImport.getGeometry(), GeometryDetail.COARSE));
       neighborhood.setCanopyCoverage(neighborhoodImport.getCanopyCoverage());
 
       neighborhood.store();
     }
+
+    siteRegions.reloadNeighborhoods();
+    layerVersions.invalidateNeighborhoods();
   }
 
   @Override
@@ -144,10 +220,12 @@ public class ImportProcessorImpl implements IImportProcessor {
     for (ReservationsRecord record : records) {
       record.store();
     }
+
+    layerVersions.invalidateNeighborhoods();
   }
 
-  private void importSiteEntryUsername(Integer siteEntryId, String username) {
-    EntryUsernamesRecord record = db.newRecord(ENTRY_USERNAMES);
+  private void importSiteEntryUsername(DSLContext ctx, Integer siteEntryId, String username) {
+    EntryUsernamesRecord record = ctx.newRecord(ENTRY_USERNAMES);
 
     record.setEntryId(siteEntryId);
     record.setUsername(username);
@@ -167,148 +245,176 @@ public class ImportProcessorImpl implements IImportProcessor {
     List<SitesRecord> sitesRecords = new ArrayList<>();
     List<Map.Entry<SiteEntriesRecord, String>> siteEntryRecordsAndUsernames = new ArrayList<>();
 
-    importSitesRequest
-        .getSites()
-        .forEach(
-            siteImport -> {
-              SitesRecord site = db.newRecord(Tables.SITES);
-              SiteEntriesRecord siteEntry = db.newRecord(Tables.SITE_ENTRIES);
-
-              if (siteImport.getBlockId() != null
-                  && !db.fetchExists(
-                      db.selectFrom(BLOCKS).where(BLOCKS.ID.eq(siteImport.getBlockId())))) {
-                throw new ResourceDoesNotExistException(siteImport.getBlockId(), "block");
-              }
-
-              if (siteImport.getNeighborhoodId() != null
-                  && !db.fetchExists(
-                      db.selectFrom(
-                          NEIGHBORHOODS.where(
-                              NEIGHBORHOODS.ID.eq(siteImport.getNeighborhoodId()))))) {
-                throw new ResourceDoesNotExistException(
-                    siteImport.getNeighborhoodId(), "neighborhood");
-              }
+    // Locate every site's neighborhood and block up front, spread across all cores since each
+    // lookup is independent and the imports can be very large
+    List<SiteImport> siteImports = importSitesRequest.getSites();
+    List<SiteRegion> regions =
+        siteImports
+            .parallelStream()
+            .map(siteImport -> siteRegions.locate(siteImport.getLat(), siteImport.getLng()))
+            .collect(Collectors.toList());
 
-              // Set all values for the site record
-              site.setId(siteImport.getSiteId());
-              site.setBlockId(siteImport.getBlockId());
-              site.setLat(siteImport.getLat());
-              site.setLng(siteImport.getLng());
-              site.setCity(siteImport.getCity());
-              site.setZip(siteImport.getZip());
-              site.setAddress(siteImport.getAddress());
-              site.setNeighborhoodId(siteImport.getNeighborhoodId());
-              if (siteImport.getDeletedAt() != null) {
-                site.setDeletedAt(siteImport.getDeletedAt());
-              }
-              site.setOwner(siteImport.getOwner());
-
-              // Set all values for the site entry record
-              siteEntry.setSiteId(siteImport.getSiteId());
-              // siteEntry.setUserId(); userId not set due to missing userId's. Username is set
-              // later, stored in different table
-              siteEntry.setUpdatedAt(siteImport.getUpdatedAt());
-              siteEntry.setQa(siteImport.getQa());
-              siteEntry.setTreePresent(siteImport.getTreePresent());
-              siteEntry.setStatus(siteImport.getStatus());
-              siteEntry.setGenus(siteImport.getGenus());
-              siteEntry.setSpecies(siteImport.getSpecies());
-              siteEntry.setCommonName(siteImport.getCommonName());
-              siteEntry.setConfidence(siteImport.getConfidence());
-              siteEntry.setMultistem(siteImport.getMultistem());
-              siteEntry.setDiameter(siteImport.getDiameter());
-              siteEntry.setCircumference(siteImport.getCircumference());
-              siteEntry.setCoverage(siteImport.getCoverage());
-              siteEntry.setPruning(siteImport.getPruning());
-              siteEntry.setCondition(siteImport.getCondition());
-              siteEntry.setDiscoloring(siteImport.getDiscoloring());
-              siteEntry.setLeaning(siteImport.getLeaning());
-              siteEntry.setConstrictingGrate(siteImport.getConstrictingGrate());
-              siteEntry.setWounds(siteImport.getWounds());
-              siteEntry.setPooling(siteImport.getPooling());
-              siteEntry.setStakesWithWires(siteImport.getStakesWithWires());
-              siteEntry.setStakesWithoutWires(siteImport.getStakesWithoutWires());
-              siteEntry.setLight(siteImport.getLight());
-              siteEntry.setBicycle(siteImport.getBicycle());
-              siteEntry.setBagEmpty(siteImport.getBagEmpty());
-              siteEntry.setBagFilled(siteImport.getBagFilled());
-              siteEntry.setTape(siteImport.getTape());
-              siteEntry.setSuckerGrowth(siteImport.getSuckerGrowth());
-              siteEntry.setSiteType(siteImport.getSiteType());
-              siteEntry.setSidewalkWidth(siteImport.getSidewalkWidth());
-              siteEntry.setSiteWidth(siteImport.getSiteWidth());
-              siteEntry.setSiteLength(siteImport.getSiteLength());
-              siteEntry.setMaterial(siteImport.getMaterial());
-              siteEntry.setRaisedBed(siteImport.getRaisedBed());
-              siteEntry.setFence(siteImport.getFence());
-              siteEntry.setTrash(siteImport.getTrash());
-              siteEntry.setWires(siteImport.getWires());
-              siteEntry.setGrate(siteImport.getGrate());
-              siteEntry.setStump(siteImport.getStump());
-              siteEntry.setTreeNotes(siteImport.getTreeNotes());
-              siteEntry.setSiteNotes(siteImport.getSiteNotes());
-              siteEntry.setMelneaCassTrees(siteImport.getMelneaCassTrees());
-              siteEntry.setMcbNumber(siteImport.getMcbNumber());
-              siteEntry.setTreeDedicatedTo(siteImport.getTreeDedicatedTo());
-              siteEntry.setPlantingDate(siteImport.getPlantingDate());
-              siteEntry.setTreeName(siteImport.getTreeName());
-
-              /* Cambridge fields */
-              siteEntry.setTrunks(siteImport.getTrunks());
-              siteEntry.setSpeciesShort(siteImport.getSpeciesShort());
-              siteEntry.setLocation(siteImport.getLocation());
-              siteEntry.setSiteRetiredReason(siteImport.getSiteRetiredReason());
-              siteEntry.setInspectr(siteImport.getInspectr());
-              siteEntry.setAbutsOpenArea(siteImport.getAbutsOpenArea());
-              siteEntry.setTreeWellCover(siteImport.getTreeWellCover());
-              siteEntry.setTreeGrateActionReq(siteImport.getTreeGrateActionReq());
-              siteEntry.setGlobalId(siteImport.getGlobalId());
-              siteEntry.setPb(siteImport.getPb());
-              siteEntry.setSiteReplanted(siteImport.getSiteReplanted());
-              siteEntry.setOverheadWires(siteImport.getOverheadWires());
-              siteEntry.setOwnership(siteImport.getOwnership());
-              siteEntry.setScheduledRemoval(siteImport.getScheduledRemoval());
-              siteEntry.setStructuralSoil(siteImport.getStructuralSoil());
-              siteEntry.setWateringResponsibility(siteImport.getWateringResponsibility());
-              siteEntry.setCultivar(siteImport.getCultivar());
-              siteEntry.setSolarRating(siteImport.getSolarRating());
-              siteEntry.setBareRoot(siteImport.getBareRoot());
-              siteEntry.setAdaCompliant(siteImport.getAdaCompliant());
-              siteEntry.setCartegraphPlantDate(siteImport.getCartegraphPlantDate());
-              siteEntry.setLocationRetired(siteImport.getLocationRetired());
-              siteEntry.setCreatedDate(siteImport.getCreatedDate());
-              siteEntry.setOrder(siteImport.getOrder());
-              siteEntry.setPlantingSeason(siteImport.getPlantingSeason());
-              siteEntry.setExposedRootFlare(siteImport.getExposedRootFlare());
-              siteEntry.setStTreePruningZone(siteImport.getStTreePruningZone());
-              siteEntry.setMemTree(siteImport.getMemTree());
-              siteEntry.setCartegraphRetireDate(siteImport.getCartegraphRetireDate());
-              siteEntry.setRemovalReason(siteImport.getRemovalReason());
-              siteEntry.setOffStTreePruningZone(siteImport.getOffStTreePruningZone());
-              siteEntry.setPlantingContract(siteImport.getPlantingContract());
-              siteEntry.setTreeWellDepth(siteImport.getTreeWellDepth());
-              siteEntry.setRemovalDate(siteImport.getRemovalDate());
-              siteEntry.setScientificName(siteImport.getScientificName());
-              siteEntry.setBiocharAdded(siteImport.getBiocharAdded());
-              siteEntry.setLastEditedUser(siteImport.getLastEditedUser());
-
-              sitesRecords.add(site);
-              siteEntryRecordsAndUsernames.add(
-                  new AbstractMap.SimpleEntry<>(siteEntry, siteImport.getUsername()));
-            });
+    for (int i = 0; i < siteImports.size(); i++) {
+      SiteImport siteImport = siteImports.get(i);
+      SiteRegion region = regions.get(i);
+      SitesRecord site = db.newRecord(Tables.SITES);
+      SiteEntriesRecord siteEntry = db.newRecord(Tables.SITE_ENTRIES);
+
+      // The located neighborhood and block take precedence over the imported ones
+      Integer blockId = region.getBlockId() != null ? region.getBlockId() : siteImport.getBlockId();
+      Integer neighborhoodId =
+          region.getNeighborhoodId() != null
+              ? region.getNeighborhoodId()
+              : siteImport.getNeighborhoodId();
+
+      if (blockId != null && !siteRegions.hasBlock(blockId)) {
+        throw new ResourceDoesNotExistException(blockId, "block");
+      }
 
-    for (SitesRecord record : sitesRecords) {
-      record.store();
-    }
+      if (neighborhoodId != null && !siteRegions.hasNeighborhood(neighborhoodId)) {
+        throw new ResourceDoesNotExistException(neighborhoodId, "neighborhood");
+      }
 
-    for (Map.Entry<SiteEntriesRecord, String> pair : siteEntryRecordsAndUsernames) {
-      pair.getKey().store();
-      Integer siteEntryId = pair.getKey().getId();
-      String username = pair.getValue();
-      if (username != null && !username.isEmpty()) {
-        importSiteEntryUsername(siteEntryId, pair.getValue());
+      // Set all values for the site record
+      site.setId(siteImport.getSiteId());
+      site.setBlockId(blockId);
+      site.setLat(siteImport.getLat());
+      site.setLng(siteImport.getLng());
+      site.setOnPrivateStreet(
+          privateStreets.isOnPrivateStreet(siteImport.getLat(), siteImport.getLng()));
+      site.setCity(siteImport.getCity());
+      site.setZip(siteImport.getZip());
+      site.setAddress(siteImport.getAddress());
+      site.setNeighborhoodId(neighborhoodId);
+      if (siteImport.getDeletedAt() != null) {
+        site.setDeletedAt(siteImport.getDeletedAt());
       }
+      site.setOwner(siteImport.getOwner());
+
+      // Set all values for the site entry record
+      siteEntry.setSiteId(siteImport.getSiteId());
+      // siteEntry.setUserId(); userId not set due to missing userId's. Username is set
+      // later, stored in different table
+      siteEntry.setUpdatedAt(siteImport.getUpdatedAt());
+      siteEntry.setQa(siteImport.getQa());
+      siteEntry.setTreePresent(siteImport.getTreePresent());
+      siteEntry.setStatus(siteImport.getStatus());
+      siteEntry.setGenus(siteImport.getGenus());
+      siteEntry.setSpecies(siteImport.getSpecies());
+      siteEntry.setCommonName(siteImport.getCommonName());
+      setDisplayName(siteEntry);
+      siteEntry.setConfidence(siteImport.getConfidence());
+      siteEntry.setMultistem(siteImport.getMultistem());
+      siteEntry.setDiameter(siteImport.getDiameter());
+      siteEntry.setCircumference(siteImport.getCircumference());
+      siteEntry.setCoverage(siteImport.getCoverage());
+      siteEntry.setPruning(siteImport.getPruning());
+      siteEntry.setCondition(siteImport.getCondition());
+      siteEntry.setDiscoloring(siteImport.getDiscoloring());
+      siteEntry.setLeaning(siteImport.getLeaning());
+      siteEntry.setConstrictingGrate(siteImport.getConstrictingGrate());
+      siteEntry.setWounds(siteImport.getWounds());
+      siteEntry.setPooling(siteImport.getPooling());
+      siteEntry.setStakesWithWires(siteImport.getStakesWithWires());
+      siteEntry.setStakesWithoutWires(siteImport.getStakesWithoutWires());
+      siteEntry.setLight(siteImport.getLight());
+      siteEntry.setBicycle(siteImport.getBicycle());
+      siteEntry.setBagEmpty(siteImport.getBagEmpty());
+      siteEntry.setBagFilled(siteImport.getBagFilled());
+      siteEntry.setTape(siteImport.getTape());
+      siteEntry.setSuckerGrowth(siteImport.getSuckerGrowth());
+      siteEntry.setSiteType(siteImport.getSiteType());
+      siteEntry.setSidewalkWidth(siteImport.getSidewalkWidth());
+      siteEntry.setSiteWidth(siteImport.getSiteWidth());
+      siteEntry.setSiteLength(siteImport.getSiteLength());
+      siteEntry.setMaterial(siteImport.getMaterial());
+      siteEntry.setRaisedBed(siteImport.getRaisedBed());
+      siteEntry.setFence(siteImport.getFence());
+      siteEntry.setTrash(siteImport.getTrash());
+      siteEntry.setWires(siteImport.getWires());
+      siteEntry.setGrate(siteImport.getGrate());
+      siteEntry.setStump(siteImport.getStump());
+      siteEntry.setTreeNotes(siteImport.getTreeNotes());
+      siteEntry.setSiteNotes(siteImport.getSiteNotes());
+      siteEntry.setMelneaCassTrees(siteImport.getMelneaCassTrees());
+      siteEntry.setMcbNumber(siteImport.getMcbNumber());
+      siteEntry.setTreeDedicatedTo(siteImport.getTreeDedicatedTo());
+      siteEntry.setPlantingDate(siteImport.getPlantingDate());
+      siteEntry.setTreeName(siteImport.getTreeName());
+
+      /* Cambridge fields */
+      siteEntry.setTrunks(siteImport.getTrunks());
+      siteEntry.setSpeciesShort(siteImport.getSpeciesShort());
+      siteEntry.setLocation(siteImport.getLocation());
+      siteEntry.setSiteRetiredReason(siteImport.getSiteRetiredReason());
+      siteEntry.setInspectr(siteImport.getInspectr());
+      siteEntry.setAbutsOpenArea(siteImport.getAbutsOpenArea());
+      siteEntry.setTreeWellCover(siteImport.getTreeWellCover());
+      siteEntry.setTreeGrateActionReq(siteImport.getTreeGrateActionReq());
+      siteEntry.setGlobalId(siteImport.getGlobalId());
+      siteEntry.setPb(siteImport.getPb());
+      siteEntry.setSiteReplanted(siteImport.getSiteReplanted());
+      siteEntry.setOverheadWires(siteImport.getOverheadWires());
+      siteEntry.setOwnership(siteImport.getOwnership());
+      siteEntry.setScheduledRemoval(siteImport.getScheduledRemoval());
+      siteEntry.setStructuralSoil(siteImport.getStructuralSoil());
+      siteEntry.setWateringResponsibility(siteImport.getWateringResponsibility());
+      siteEntry.setCultivar(siteImport.getCultivar());
+      siteEntry.setSolarRating(siteImport.getSolarRating());
+      siteEntry.setBareRoot(siteImport.getBareRoot());
+      siteEntry.setAdaCompliant(siteImport.getAdaCompliant());
+      siteEntry.setCartegraphPlantDate(siteImport.getCartegraphPlantDate());
+      siteEntry.setLocationRetired(siteImport.getLocationRetired());
+      siteEntry.setCreatedDate(siteImport.getCreatedDate());
+      siteEntry.setOrder(siteImport.getOrder());
+      siteEntry.setPlantingSeason(siteImport.getPlantingSeason());
+      siteEntry.setExposedRootFlare(siteImport.getExposedRootFlare());
+      siteEntry.setStTreePruningZone(siteImport.getStTreePruningZone());
+      siteEntry.setMemTree(siteImport.getMemTree());
+      siteEntry.setCartegraphRetireDate(siteImport.getCartegraphRetireDate());
+      siteEntry.setRemovalReason(siteImport.getRemovalReason());
+      siteEntry.setOffStTreePruningZone(siteImport.getOffStTreePruningZone());
+      siteEntry.setPlantingContract(siteImport.getPlantingContract());
+      siteEntry.setTreeWellDepth(siteImport.getTreeWellDepth());
+      siteEntry.setRemovalDate(siteImport.getRemovalDate());
+      siteEntry.setScientificName(siteImport.getScientificName());
+      siteEntry.setBiocharAdded(siteImport.getBiocharAdded());
+      siteEntry.setLastEditedUser(siteImport.getLastEditedUser());
+
+      sitesRecords.add(site);
+      siteEntryRecordsAndUsernames.add(
+          new AbstractMap.SimpleEntry<>(siteEntry, siteImport.getUsername()));
     }
+
+    List<Integer> siteIds =
+        sitesRecords.stream().map(SitesRecord::getId).collect(Collectors.toList());
+    db.transaction(
+        configuration -> {
+          DSLContext ctx = DSL.using(configuration);
+          for (SitesRecord record : sitesRecords) {
+            record.attach(configuration);
+            record.store();
+          }
+          // Imported sites keep their own ids, so sites added afterwards must be given ids past
+          // them
+          ctx.select(SYNC_SITE_ID_SEQUENCE).execute();
+          for (Map.Entry<SiteEntriesRecord, String> pair : siteEntryRecordsAndUsernames) {
+            pair.getKey().attach(configuration);
+            pair.getKey().store();
+            Integer siteEntryId = pair.getKey().getId();
+            String username = pair.getValue();
+            if (username != null && !username.isEmpty()) {
+              importSiteEntryUsername(ctx, siteEntryId, pair.getValue());
+            }
+          }
+          refreshCurrentEntries(ctx, siteIds);
+          siteChanges.append(ctx, siteIds);
+        });
+
+    // An import can touch any number of sites, so rebuild the whole site map
+    siteMap.load();
+    siteResponses.invalidateAll();
+    siteBenefits.load();
   }
 
   @Override
@@ -328,6 +434,12 @@ public class ImportProcessorImpl implements IImportProcessor {
 
       treeSpecies.store();
     }
+
+    speciesIndex.load();
+    // Entries without images are shown with their species' default image
+    siteResponses.invalidateAll();
+    // A new species can give benefits to trees that didn't have any
+    siteBenefits.load();
   }
 
   @Override
@@ -358,5 +470,87 @@ public class ImportProcessorImpl implements IImportProcessor {
 
       treeBenefits.store();
     }
+
+    benefitsCalculator.load();
+    siteBenefits.load();
+  }
+
+  @Override
+  public void backfillPrivateStreetFlags(JWTData userData) {
+    if (userData.getPrivilegeLevel() != PrivilegeLevel.SUPER_ADMIN) {
+      throw new AuthException("User does not have the required privilege level.");
+    }
+
+    List<Integer> onPrivateStreet = new ArrayList<>();
+    List<Integer> notOnPrivateStreet = new ArrayList<>();
+    db.select(SITES.ID, SITES.LAT, SITES.LNG)
+        .from(SITES)
+        .where(SITES.ON_PRIVATE_STREET.isNull())
+        .and(SITES.LAT.isNotNull())
+        .and(SITES.LNG.isNotNull())
+        .forEach(
+            site -> {
+              if (privateStreets.isOnPrivateStreet(site.value2(), site.value3())) {
+                onPrivateStreet.add(site.value1());
+              } else {
+                notOnPrivateStreet.add(site.value1());
+              }
+            });
+
+    db.transaction(
+        configuration -> {
+          DSLContext ctx = DSL.using(configuration);
+          updatePrivateStreetFlags(ctx, onPrivateStreet, true);
+          updatePrivateStreetFlags(ctx, notOnPrivateStreet, false);
+        });
+
+    // Site responses include the flag
+    siteResponses.invalidateAll();
+  }
+
+  @Override
+  public void backfillSimplifiedGeometry(JWTData userData) {
+    if (userData.getPrivilegeLevel() != PrivilegeLevel.SUPER_ADMIN) {
+      throw new AuthException("User does not have the required privilege level.");
+    }
+
+    Result<BlocksRecord> blocks =
+        db.selectFrom(BLOCKS)
+            .where(BLOCKS.GEOMETRY_FINE.isNull())
+            .and(BLOCKS.GEOMETRY.isNotNull())
+            .fetch();
+    for (BlocksRecord block : blocks) {
+      block.setGeometryFine(simplify(block.getGeometry(), GeometryDetail.FINE));
+      block.setGeometryMedium(simplify(block.getGeometry(), GeometryDetail.MEDIUM));
+      block.setGeometryCoarse(simplify(block.getGeometry(), GeometryDetail.COARSE));
+    }
+    db.batchUpdate(blocks).execute();
+
+    Result<NeighborhoodsRecord> neighborhoods =
+        db.selectFrom(NEIGHBORHOODS)
+            .where(NEIGHBORHOODS.GEOMETRY_FINE.isNull())
+            .and(NEIGHBORHOODS.GEOMETRY.isNotNull())
+            .fetch();
+    for (NeighborhoodsRecord neighborhood : neighborhoods) {
+      neighborhood.setGeometryFine(simplify(neighborhood.getGeometry(), GeometryDetail.FINE));
+      neighborhood.setGeometryMedium(simplify(neighborhood.getGeometry(), GeometryDetail.MEDIUM));
+      neighborhood.setGeometryCoarse(simplify(neighborhood.getGeometry(), GeometryDetail.COARSE));
+    }
+    db.batchUpdate(neighborhoods).execute();
+
+    layerVersions.invalidateBlocks();
+    layerVersions.invalidateNeighborhoods();
+  }
+
+  private void updatePrivateStreetFlags(
+      DSLContext ctx, List<Integer> siteIds, boolean onPrivateStreet) {
+    // Keeps each statement well below the number of bind values Postgres allows
+    int batchSize = 1000;
+    for (int start = 0; start < siteIds.size(); start += batchSize) {
+      ctx.update(SITES)
+          .set(SITES.ON_PRIVATE_STREET, onPrivateStreet)
+          .where(SITES.ID.in(siteIds.subList(start, Math.min(start + batchSize, siteIds.size()))))
+          .execute();
+    }
   }
 }
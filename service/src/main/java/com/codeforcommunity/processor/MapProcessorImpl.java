@@ -1,54 +1,138 @@
 package com.codeforcommunity.processor;
 
-import static org.jooq.generated.tables.AdoptedSites.ADOPTED_SITES;
 import static org.jooq.generated.tables.Blocks.BLOCKS;
 import static org.jooq.generated.tables.Neighborhoods.NEIGHBORHOODS;
 import static org.jooq.generated.tables.Reservations.RESERVATIONS;
-import static org.jooq.generated.tables.SiteEntries.SITE_ENTRIES;
-import static org.jooq.generated.tables.Sites.SITES;
-import static org.jooq.impl.DSL.concat;
+import static org.jooq.impl.DSL.coalesce;
 import static org.jooq.impl.DSL.count;
-import static org.jooq.impl.DSL.max;
-import static org.jooq.impl.DSL.table;
-import static org.jooq.impl.DSL.when;
 
 import com.codeforcommunity.api.IMapProcessor;
 import com.codeforcommunity.dto.map.BlockFeature;
 import com.codeforcommunity.dto.map.BlockFeatureProperties;
 import com.codeforcommunity.dto.map.BlockGeoResponse;
-import com.codeforcommunity.dto.map.GeometryPoint;
+import com.codeforcommunity.dto.map.BoundingBox;
+import com.codeforcommunity.dto.map.MapLayerPayload;
 import com.codeforcommunity.dto.map.NeighborhoodFeature;
 import com.codeforcommunity.dto.map.NeighborhoodFeatureProperties;
 import com.codeforcommunity.dto.map.NeighborhoodGeoResponse;
+import com.codeforcommunity.dto.map.PrivateStreetResponse;
+import com.codeforcommunity.dto.map.SiteBoxResponse;
+import com.codeforcommunity.dto.map.SiteChangesResponse;
+import com.codeforcommunity.dto.map.SiteClusterResponse;
 import com.codeforcommunity.dto.map.SiteFeature;
 import com.codeforcommunity.dto.map.SiteFeatureProperties;
 import com.codeforcommunity.dto.map.SiteGeoResponse;
+import com.codeforcommunity.enums.GeometryDetail;
 import com.codeforcommunity.enums.ReservationAction;
+import com.codeforcommunity.exceptions.MalformedParameterException;
 import com.codeforcommunity.logger.SLogger;
+import com.codeforcommunity.map.EncodedLayer;
+import com.codeforcommunity.map.MapLayerVersions;
+import com.codeforcommunity.map.PolygonFeature;
+import com.codeforcommunity.map.PolygonLayer;
+import com.codeforcommunity.map.PrivateStreetIndex;
+import com.codeforcommunity.map.SiteChangeLog;
+import com.codeforcommunity.map.SiteColumnarEncoder;
+import com.codeforcommunity.map.SiteGeoJsonChunks;
+import com.codeforcommunity.map.SiteGridIndex;
+import com.codeforcommunity.map.SiteMapSnapshot;
+import com.codeforcommunity.map.TileCache;
+import com.codeforcommunity.map.VectorTileEncoder;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import java.math.BigDecimal;
-import java.sql.Date;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.Record2;
-import org.jooq.Record6;
-import org.jooq.Record9;
-import org.jooq.Result;
-import org.jooq.Select;
 import org.jooq.Table;
 import org.jooq.generated.tables.records.BlocksRecord;
 import org.jooq.generated.tables.records.NeighborhoodsRecord;
 
 public class MapProcessorImpl implements IMapProcessor {
+  // The names of the vector tile layers
+  private static final String SITES_LAYER = "sites";
+  private static final String BLOCKS_LAYER = "blocks";
+  private static final String NEIGHBORHOODS_LAYER = "neighborhoods";
+  private static final int MAX_TILE_ZOOM = 22;
 
   private final SLogger logger = new SLogger(MapProcessorImpl.class);
   private final DSLContext db;
+  private final SiteMapSnapshot siteMap;
+  private final SiteChangeLog siteChanges;
+  private final MapLayerVersions layerVersions;
 
-  public MapProcessorImpl(DSLContext db) {
+  private final Map<GeometryDetail, EncodedLayer> blockLayers = new EnumMap<>(GeometryDetail.class);
+  private final Map<GeometryDetail, EncodedLayer> neighborhoodLayers =
+      new EnumMap<>(GeometryDetail.class);
+  private final EncodedLayer siteLayer = new EncodedLayer();
+  private final EncodedLayer siteColumnarLayer = new EncodedLayer();
+
+  private final TileCache tileCache;
+  private final PrivateStreetIndex privateStreets;
+  private volatile PolygonLayer blockPolygons;
+  private volatile PolygonLayer neighborhoodPolygons;
+
+  public MapProcessorImpl(
+      DSLContext db,
+      SiteMapSnapshot siteMap,
+      SiteChangeLog siteChanges,
+      MapLayerVersions layerVersions,
+      TileCache tileCache,
+      PrivateStreetIndex privateStreets) {
     this.db = db;
+    this.siteMap = siteMap;
+    this.siteChanges = siteChanges;
+    this.layerVersions = layerVersions;
+    this.tileCache = tileCache;
+    this.privateStreets = privateStreets;
+
+    for (GeometryDetail detail : GeometryDetail.values()) {
+      blockLayers.put(detail, new EncodedLayer());
+      neighborhoodLayers.put(detail, new EncodedLayer());
+    }
+  }
+
+  /** Returns the parsed block polygons for the current version of the blocks. */
+  private PolygonLayer getBlockPolygons() {
+    long version = layerVersions.getBlocksVersion();
+    PolygonLayer polygons = this.blockPolygons;
+    if (polygons == null || polygons.getVersion() != version) {
+      polygons =
+          PolygonLayer.fromFeatures(
+              version,
+              getBlockGeoJson().getFeatures(),
+              feature -> feature.getProperties().getBlockId(),
+              BlockFeature::getGeometry,
+              BlockFeature::getProperties);
+      this.blockPolygons = polygons;
+    }
+    return polygons;
+  }
+
+  /** Returns the parsed neighborhood polygons for the current version of the neighborhoods. */
+  private PolygonLayer getNeighborhoodPolygons() {
+    long version = layerVersions.getNeighborhoodsVersion();
+    PolygonLayer polygons = this.neighborhoodPolygons;
+    if (polygons == null || polygons.getVersion() != version) {
+      polygons =
+          PolygonLayer.fromFeatures(
+              version,
+              getNeighborhoodGeoJson().getFeatures(),
+              feature -> feature.getProperties().getNeighborhoodId(),
+              NeighborhoodFeature::getGeometry,
+              NeighborhoodFeature::getProperties);
+      this.neighborhoodPolygons = polygons;
+    }
+    return polygons;
   }
 
   /** Create a corresponding BlockFeature from a BlocksRecord. */
@@ -70,47 +154,48 @@ public class MapProcessorImpl implements IMapProcessor {
   }
 
   /**
-   * Given a neighborhoodId, return the percent of blocks that have been completed or are in QA in
-   * it as an integer between 0 and 100.
+   * Return the percent of blocks in each neighborhood that have been completed or are in QA, as an
+   * integer between 0 and 100 keyed by neighborhood id. Neighborhoods without any blocks are left
+   * out.
    */
-  private Integer getNeighborhoodCompletionPercentage(int neighborhoodId) {
-    // This counts the number of blocks that are in the given neighborhood
-    int totalNeighborhoodBlocks =
-        db.select(count())
-            .from(BLOCKS)
-            .where(BLOCKS.NEIGHBORHOOD_ID.eq(neighborhoodId))
-            .fetchOne(0, Integer.class);
-
+  private Map<Integer, Integer> getNeighborhoodCompletionPercentages() {
     // This joins each block with their most recent reservations table entry
-    Select<Record2<Integer, ReservationAction>> subquery =
+    Table<Record2<Integer, ReservationAction>> latestReservations =
         db.select(BLOCKS.ID, RESERVATIONS.ACTION_TYPE)
             .distinctOn(BLOCKS.ID)
             .from(BLOCKS)
             .join(RESERVATIONS)
             .onKey()
-            .where(BLOCKS.NEIGHBORHOOD_ID.eq(neighborhoodId))
-            .orderBy(BLOCKS.ID, RESERVATIONS.PERFORMED_AT.desc());
-
-    // This counts the number of rows in the above query that have their most recent reservation
-    // action as complete or qa
-    int completedNeighborhoodBlocks =
-        db.select(count())
-            .from(subquery)
-            .where(
-                subquery
-                    .field(1, ReservationAction.class)
-                    .in(ReservationAction.COMPLETE, ReservationAction.QA))
-            .fetchOne(0, Integer.class);
-
-    double completionPercent = (double) completedNeighborhoodBlocks / totalNeighborhoodBlocks;
-    return (int) Math.floor(completionPercent * 100);
+            .orderBy(BLOCKS.ID, RESERVATIONS.PERFORMED_AT.desc())
+            .asTable("latest_reservations");
+    Field<ReservationAction> latestAction = latestReservations.field(RESERVATIONS.ACTION_TYPE);
+
+    // This counts every block in each neighborhood along with the blocks whose most recent
+    // reservation action is complete or qa, all in a single pass
+    Field<Integer> totalBlocks = count();
+    Field<Integer> completedBlocks =
+        count().filterWhere(latestAction.in(ReservationAction.COMPLETE, ReservationAction.QA));
+    Map<Integer, Integer> percentages = new HashMap<>();
+    db.select(BLOCKS.NEIGHBORHOOD_ID, totalBlocks, completedBlocks)
+        .from(BLOCKS)
+        .leftJoin(latestReservations)
+        .on(latestReservations.field(BLOCKS.ID).eq(BLOCKS.ID))
+        .groupBy(BLOCKS.NEIGHBORHOOD_ID)
+        .forEach(
+            record -> {
+              double completionPercent =
+                  (double) record.get(completedBlocks) / record.get(totalBlocks);
+              percentages.put(
+                  record.get(BLOCKS.NEIGHBORHOOD_ID), (int) Math.floor(completionPercent * 100));
+            });
+    return percentages;
   }
 
   /** Create a corresponding NeighborhoodFeature for a given neighborhoodsRecord */
   private NeighborhoodFeature neighborhoodFeatureFromRecord(
-      NeighborhoodsRecord neighborhoodsRecord) {
+      NeighborhoodsRecord neighborhoodsRecord, Map<Integer, Integer> completionPercentages) {
     Integer neighborhoodCompletionPercentage =
-        getNeighborhoodCompletionPercentage(neighborhoodsRecord.getId());
+        completionPercentages.getOrDefault(neighborhoodsRecord.getId(), 0);
     NeighborhoodFeatureProperties properties =
         new NeighborhoodFeatureProperties(
             neighborhoodsRecord.getId(),
@@ -132,183 +217,234 @@ public class MapProcessorImpl implements IMapProcessor {
     }
   }
 
-  private SiteFeature siteFeatureFromRecord(
-      Record9<
-              Integer, // #1 Site ID
-              Boolean, // #2 Tree Present
-              String, // #3 Common Name
-              Date, // #4 Planting Date
-              Integer, // #5 Adopter User ID
-              String, // #6 Address
-              String, // #7 Owner
-              BigDecimal, // #8 Lat
-              BigDecimal> // #9 Lng
-          sitesRecord) {
-    SiteFeatureProperties properties =
-        new SiteFeatureProperties(
-            sitesRecord.value1(),
-            sitesRecord.value2(),
-            sitesRecord.value3(),
-            sitesRecord.value4(),
-            sitesRecord.value5(),
-            sitesRecord.value6(),
-            sitesRecord.value7());
-    GeometryPoint geometry = new GeometryPoint(sitesRecord.value8(), sitesRecord.value9());
-    return new SiteFeature(properties, geometry);
+  /**
+   * Returns the geometry field to select for the given level of detail, falling back to the full
+   * geometry for rows imported before simplified geometry was stored.
+   */
+  private static Field<String> geometryField(
+      GeometryDetail detail,
+      Field<String> full,
+      Field<String> fine,
+      Field<String> medium,
+      Field<String> coarse) {
+    switch (detail) {
+      case FINE:
+        return coalesce(fine, full).as(full.getName());
+      case MEDIUM:
+        return coalesce(medium, full).as(full.getName());
+      case COARSE:
+        return coalesce(coarse, full).as(full.getName());
+      default:
+        return full;
+    }
   }
 
   @Override
   public BlockGeoResponse getBlockGeoJson() {
+    return getBlockGeoJson(GeometryDetail.FULL);
+  }
+
+  @Override
+  public NeighborhoodGeoResponse getNeighborhoodGeoJson() {
+    return getNeighborhoodGeoJson(GeometryDetail.FULL);
+  }
+
+  @Override
+  public BlockGeoResponse getBlockGeoJson(GeometryDetail detail) {
+    Field<String> geometry =
+        geometryField(
+            detail,
+            BLOCKS.GEOMETRY,
+            BLOCKS.GEOMETRY_FINE,
+            BLOCKS.GEOMETRY_MEDIUM,
+            BLOCKS.GEOMETRY_COARSE);
     List<BlockFeature> features =
-        this.db.selectFrom(BLOCKS).stream()
+        this.db.select(BLOCKS.ID, BLOCKS.LAT, BLOCKS.LNG, geometry).from(BLOCKS).fetchInto(BLOCKS)
+            .stream()
             .map(this::blockFeatureFromRecord)
             .collect(Collectors.toList());
     return new BlockGeoResponse(features);
   }
 
   @Override
-  public NeighborhoodGeoResponse getNeighborhoodGeoJson() {
+  public NeighborhoodGeoResponse getNeighborhoodGeoJson(GeometryDetail detail) {
+    Field<String> geometry =
+        geometryField(
+            detail,
+            NEIGHBORHOODS.GEOMETRY,
+            NEIGHBORHOODS.GEOMETRY_FINE,
+            NEIGHBORHOODS.GEOMETRY_MEDIUM,
+            NEIGHBORHOODS.GEOMETRY_COARSE);
+    Map<Integer, Integer> completionPercentages = getNeighborhoodCompletionPercentages();
     List<NeighborhoodFeature> features =
-        this.db.selectFrom(NEIGHBORHOODS).stream()
-            .map(this::neighborhoodFeatureFromRecord)
+        this.db
+            .select(
+                NEIGHBORHOODS.ID,
+                NEIGHBORHOODS.NEIGHBORHOOD_NAME,
+                NEIGHBORHOODS.CANOPY_COVERAGE,
+                NEIGHBORHOODS.LAT,
+                NEIGHBORHOODS.LNG,
+                geometry)
+            .from(NEIGHBORHOODS).fetchInto(NEIGHBORHOODS).stream()
+            .map(record -> neighborhoodFeatureFromRecord(record, completionPercentages))
             .collect(Collectors.toList());
     return new NeighborhoodGeoResponse(features);
   }
 
   @Override
   public SiteGeoResponse getSiteGeoJson() {
-    // Since this SQL query takes a long time, we cache the result
-    if (!SiteGeoResponseCache.isExpired()) {
-      return SiteGeoResponseCache.getResponse();
-    }
+    return siteMap.getSiteGeoResponse();
+  }
+
+  @Override
+  public Iterator<Buffer> getSiteGeoJsonChunks() {
+    return new SiteGeoJsonChunks(siteMap.iterateFeatures());
+  }
 
-    Field<Timestamp> maxDate = max(SITE_ENTRIES.CREATED_AT).as("maxDate");
-
-    Table<
-            Record2<
-                Integer, // Site Entry ID
-                Timestamp // Created At
-            >>
-        recentlyCreated =
-            table(
-                    this.db
-                        .select(SITE_ENTRIES.SITE_ID, maxDate)
-                        .from(SITE_ENTRIES)
-                        .where(SITE_ENTRIES.DELETED_AT.isNull())
-                        .groupBy(SITE_ENTRIES.SITE_ID))
-                .as("recentlyCreated");
-
-    Table<
-            Record6<
-                Integer, // Site ID
-                Boolean, // Tree Present
-                String, // Common Name
-                String, // Genus
-                String, // Species
-                Date // Planting Date
-            >>
-        newEntries =
-            table(
-                    this.db
-                        .select(
-                            SITE_ENTRIES.SITE_ID,
-                            SITE_ENTRIES.TREE_PRESENT,
-                            SITE_ENTRIES.COMMON_NAME,
-                            SITE_ENTRIES.GENUS,
-                            SITE_ENTRIES.SPECIES,
-                            SITE_ENTRIES.PLANTING_DATE)
-                        .from(SITE_ENTRIES)
-                        .join(recentlyCreated)
-                        .on(SITE_ENTRIES.SITE_ID.eq(recentlyCreated.field(SITE_ENTRIES.SITE_ID)))
-                        .and(SITE_ENTRIES.CREATED_AT.eq(recentlyCreated.field(maxDate))))
-                .as("newEntries");
-
-    Field<String> treeName =
-        when( // common name is empty
-                newEntries.field(SITE_ENTRIES.COMMON_NAME).eq(""),
-                when( // all 3 are empty
-                        newEntries
-                            .field(SITE_ENTRIES.GENUS)
-                            .eq("")
-                            .and(newEntries.field(SITE_ENTRIES.SPECIES).eq("")),
-                        "Unknown Species")
-                    .otherwise(
-                        when( // common name and genus are empty
-                                newEntries.field(SITE_ENTRIES.GENUS).eq(""),
-                                newEntries.field(SITE_ENTRIES.SPECIES))
-                            .otherwise( // common name and species are empty
-                                when(
-                                        newEntries.field(SITE_ENTRIES.SPECIES).eq(""),
-                                        newEntries.field(SITE_ENTRIES.GENUS))
-                                    .otherwise( // just common name is empty
-                                        concat(
-                                            newEntries.field(SITE_ENTRIES.GENUS).concat(" "),
-                                            newEntries.field(SITE_ENTRIES.SPECIES))))))
-            .otherwise(newEntries.field(SITE_ENTRIES.COMMON_NAME)); // common name is not empty
-
-    Result<
-            Record9<
-                Integer, // Site ID
-                Boolean, // Tree Present
-                String, // Name
-                Date, // Planting Date
-                Integer, // Adopter User ID
-                String, // Address
-                String, // Owner
-                BigDecimal, // Lat
-                BigDecimal>> // Lng
-        userRecords =
-            this.db
-                .select(
-                    SITES.ID,
-                    newEntries.field(SITE_ENTRIES.TREE_PRESENT),
-                    treeName,
-                    newEntries.field(SITE_ENTRIES.PLANTING_DATE),
-                    ADOPTED_SITES.USER_ID,
-                    SITES.ADDRESS,
-                    SITES.OWNER,
-                    SITES.LAT,
-                    SITES.LNG)
-                .from(SITES)
-                .leftJoin(newEntries)
-                .on(SITES.ID.eq(newEntries.field(SITE_ENTRIES.SITE_ID)))
-                .leftJoin(ADOPTED_SITES)
-                .on(ADOPTED_SITES.SITE_ID.eq(SITES.ID))
-                .where(SITES.DELETED_AT.isNull())
-                .orderBy(SITES.ID)
-                .fetch();
-
-    List<SiteFeature> features =
-        userRecords.stream().map(this::siteFeatureFromRecord).collect(Collectors.toList());
-
-    SiteGeoResponse response = new SiteGeoResponse(features);
-    SiteGeoResponseCache.setResponse(response);
-    return response;
+  @Override
+  public SiteBoxResponse getSiteGeoJson(BoundingBox bbox, Integer zoom) {
+    boolean thinned = zoom != null && zoom < SiteGridIndex.FULL_DETAIL_ZOOM;
+    return new SiteBoxResponse(
+        siteMap.getFeaturesInBox(bbox, zoom), thinned, SiteGridIndex.FULL_DETAIL_ZOOM);
   }
 
-  /**
-   * SiteGeoResponseCache is a basic in-memory cache to remember previous SiteGeoResponse results,
-   * and only recompute values when the data in the cache is expired. This was implemented because
-   * getSiteGeoJson() takes too long, (an average of 5000ms as of writing) to perform and load
-   * testing revealed the Vert.x event loop getting overloaded.
-   */
-  private static class SiteGeoResponseCache {
-    private static SiteGeoResponse response;
-    private static long expireTime = 0;
-    private static final long timeToLive =
-        20 * 1000; // in milliseconds, 5000 is the avg. response time
-
-    public static SiteGeoResponse getResponse() {
-      return response;
+  @Override
+  public SiteClusterResponse getSiteClusters(int zoom, BoundingBox bbox) {
+    return new SiteClusterResponse(zoom, siteMap.getClusters(zoom, bbox));
+  }
+
+  @Override
+  public SiteChangesResponse getSiteChanges(long sinceVersion) {
+    return siteChangesResponse(siteChanges.changedSince(sinceVersion));
+  }
+
+  @Override
+  public SiteChangesResponse getSiteChanges(Timestamp sinceTime) {
+    return siteChangesResponse(siteChanges.changedSince(sinceTime));
+  }
+
+  /** Look up the current features of the changed sites, any that are missing were deleted. */
+  private SiteChangesResponse siteChangesResponse(SiteChangeLog.ChangedSites changes) {
+    Map<Integer, SiteFeature> features = siteMap.fetchFeatures(changes.getSiteIds());
+    List<Integer> deletedSiteIds =
+        changes.getSiteIds().stream()
+            .filter(siteId -> !features.containsKey(siteId))
+            .collect(Collectors.toList());
+    return new SiteChangesResponse(
+        changes.getVersion(), new ArrayList<>(features.values()), deletedSiteIds);
+  }
+
+  @Override
+  public MapLayerPayload getBlockPayload(GeometryDetail detail) {
+    return blockLayers
+        .get(detail)
+        .get(layerVersions.getBlocksVersion(), () -> getBlockGeoJson(detail));
+  }
+
+  @Override
+  public MapLayerPayload getNeighborhoodPayload(GeometryDetail detail) {
+    return neighborhoodLayers
+        .get(detail)
+        .get(layerVersions.getNeighborhoodsVersion(), () -> getNeighborhoodGeoJson(detail));
+  }
+
+  @Override
+  public MapLayerPayload getSitePayload() {
+    return siteLayer.get(siteMap.getVersion(), this::getSiteGeoJson);
+  }
+
+  @Override
+  public MapLayerPayload getSiteColumnarPayload() {
+    return siteColumnarLayer.getEncoded(
+        siteMap.getVersion(), () -> SiteColumnarEncoder.encode(siteMap.getFeatures()));
+  }
+
+  @Override
+  public PrivateStreetResponse getPrivateStreet(double lat, double lng) {
+    return privateStreets
+        .nearest(lat, lng)
+        .map(
+            match ->
+                new PrivateStreetResponse(
+                    true,
+                    match.getStreetName(),
+                    match.getNeighborhood(),
+                    match.getDistanceMeters()))
+        .orElseGet(() -> new PrivateStreetResponse(false, null, null, null));
+  }
+
+  @Override
+  public MapLayerPayload getTile(String layer, int z, int x, int y) {
+    if (z < 0 || z > MAX_TILE_ZOOM) {
+      throw new MalformedParameterException("z");
+    }
+    long tilesPerSide = 1L << z;
+    if (x < 0 || x >= tilesPerSide) {
+      throw new MalformedParameterException("x");
+    }
+    if (y < 0 || y >= tilesPerSide) {
+      throw new MalformedParameterException("y");
+    }
+
+    switch (layer) {
+      case SITES_LAYER:
+        return tileCache.get(layer, z, x, y, siteMap.getVersion(), () -> buildSiteTile(z, x, y));
+      case BLOCKS_LAYER:
+        PolygonLayer blocks = getBlockPolygons();
+        return tileCache.get(
+            layer, z, x, y, blocks.getVersion(), () -> buildPolygonTile(blocks, layer, z, x, y));
+      case NEIGHBORHOODS_LAYER:
+        PolygonLayer neighborhoods = getNeighborhoodPolygons();
+        return tileCache.get(
+            layer,
+            z,
+            x,
+            y,
+            neighborhoods.getVersion(),
+            () -> buildPolygonTile(neighborhoods, layer, z, x, y));
+      default:
+        throw new MalformedParameterException("layer");
     }
+  }
+
+  /** Encode the tile of site points at the given coordinate. */
+  private MapLayerPayload buildSiteTile(int z, int x, int y) {
+    long version = siteMap.getVersion();
+    VectorTileEncoder encoder = new VectorTileEncoder(z, x, y);
+
+    // Zoomed out tiles leave out sites that would be drawn on top of each other
+    for (SiteFeature feature : siteMap.getFeaturesInBox(encoder.getBounds(), z)) {
+      SiteFeatureProperties properties = feature.getProperties();
+      List<BigDecimal> coordinates = feature.getGeometry().getCoordinates();
+
+      Map<String, Object> tileProperties = new LinkedHashMap<>();
+      tileProperties.put("id", properties.getId());
+      tileProperties.put("treePresent", properties.getTreePresent());
+      tileProperties.put("commonName", properties.getCommonName());
+      tileProperties.put("plantingDate", properties.getPlantingDate());
+      tileProperties.put("adopterId", properties.getAdopterId());
+      tileProperties.put("address", properties.getAddress());
+      tileProperties.put("owner", properties.getOwner());
 
-    public static void setResponse(SiteGeoResponse newResponse) {
-      response = newResponse;
-      expireTime = System.currentTimeMillis() + timeToLive;
+      encoder.addPoint(
+          properties.getId(),
+          coordinates.get(1).doubleValue(),
+          coordinates.get(0).doubleValue(),
+          tileProperties);
     }
 
-    public static boolean isExpired() {
-      return System.currentTimeMillis() >= expireTime;
+    return EncodedLayer.encode(version, Buffer.buffer(encoder.encode(SITES_LAYER)));
+  }
+
+  /** Encode the tile of the given polygon layer at the given coordinate. */
+  private MapLayerPayload buildPolygonTile(
+      PolygonLayer polygons, String layerName, int z, int x, int y) {
+    VectorTileEncoder encoder = new VectorTileEncoder(z, x, y);
+
+    for (PolygonFeature feature : polygons.query(encoder.getBounds())) {
+      encoder.addPolygons(feature.getId(), feature.getPolygons(), feature.getProperties());
     }
+
+    return EncodedLayer.encode(polygons.getVersion(), Buffer.buffer(encoder.encode(layerName)));
   }
 }
@@ -0,0 +1,62 @@
+package com.codeforcommunity.processor;
+
+import com.codeforcommunity.api.IProtectedAdminProcessor;
+import com.codeforcommunity.auth.JWTData;
+import com.codeforcommunity.dto.admin.CacheMetrics;
+import com.codeforcommunity.dto.admin.DatabasePoolMetrics;
+import com.codeforcommunity.map.SiteResponseCache;
+import com.codeforcommunity.map.TileCache;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.util.Arrays;
+import java.util.List;
+
+public class ProtectedAdminProcessorImpl extends AbstractProcessor
+    implements IProtectedAdminProcessor {
+
+  private final HikariDataSource dataSource;
+  private final SiteResponseCache siteResponses;
+  private final TileCache tileCache;
+
+  public ProtectedAdminProcessorImpl(
+      HikariDataSource dataSource, SiteResponseCache siteResponses, TileCache tileCache) {
+    this.dataSource = dataSource;
+    this.siteResponses = siteResponses;
+    this.tileCache = tileCache;
+  }
+
+  @Override
+  public DatabasePoolMetrics getDatabasePoolMetrics(JWTData userData) {
+    assertAdminOrSuperAdmin(userData.getPrivilegeLevel());
+
+    HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+    return new DatabasePoolMetrics(
+        dataSource.getPoolName(),
+        dataSource.getMaximumPoolSize(),
+        pool.getActiveConnections(),
+        pool.getIdleConnections(),
+        pool.getTotalConnections(),
+        pool.getThreadsAwaitingConnection());
+  }
+
+  @Override
+  public List<CacheMetrics> getCacheMetrics(JWTData userData) {
+    assertAdminOrSuperAdmin(userData.getPrivilegeLevel());
+
+    return Arrays.asList(
+        new CacheMetrics(
+            "site-responses",
+            siteResponses.size(),
+            siteResponses.getBytes(),
+            siteResponses.getHits(),
+            siteResponses.getMisses(),
+            siteResponses.getEvictions()),
+        new CacheMetrics(
+            "map-tiles",
+            tileCache.size(),
+            null,
+            tileCache.getHits(),
+            tileCache.getMisses(),
+            tileCache.getEvictions()));
+  }
+}
@@ -8,6 +8,7 @@ import com.codeforcommunity.dto.neighborhoods.EditCanopyCoverageRequest;
 import com.codeforcommunity.dto.neighborhoods.SendEmailRequest;
 import com.codeforcommunity.exceptions.MalformedParameterException;
 import com.codeforcommunity.exceptions.ResourceDoesNotExistException;
+import com.codeforcommunity.map.MapLayerVersions;
 import com.codeforcommunity.requester.Emailer;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -20,10 +21,13 @@ public class ProtectedNeighborhoodsProcessorImpl extends AbstractProcessor
     implements IProtectedNeighborhoodsProcessor {
   private final DSLContext db;
   private final Emailer emailer;
+  private final MapLayerVersions layerVersions;
 
-  public ProtectedNeighborhoodsProcessorImpl(DSLContext db, Emailer emailer) {
+  public ProtectedNeighborhoodsProcessorImpl(
+      DSLContext db, Emailer emailer, MapLayerVersions layerVersions) {
     this.db = db;
     this.emailer = emailer;
+    this.layerVersions = layerVersions;
   }
 
   @Override
@@ -57,6 +61,8 @@ public class ProtectedNeighborhoodsProcessorImpl extends AbstractProcessor
     record.setCanopyCoverage(canopyCoverage);
 
     record.store();
+
+    layerVersions.invalidateNeighborhoods();
   }
 
   /**
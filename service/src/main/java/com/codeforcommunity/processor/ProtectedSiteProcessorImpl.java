@@ -1,5 +1,9 @@
 package com.codeforcommunity.processor;
 
+import static com.codeforcommunity.dataaccess.SiteEntryDatabaseOperations.latestSiteEntry;
+import static com.codeforcommunity.dataaccess.SiteEntryDatabaseOperations.refreshCurrentEntries;
+import static com.codeforcommunity.dataaccess.SiteEntryDatabaseOperations.setCurrentEntry;
+import static com.codeforcommunity.dataaccess.SiteEntryDatabaseOperations.setDisplayName;
 import static com.codeforcommunity.requester.S3Requester.loadS3Image;
 import static org.jooq.generated.Tables.ADOPTED_SITES;
 import static org.jooq.generated.Tables.BLOCKS;
@@ -14,7 +18,9 @@ import static org.jooq.generated.Tables.USER_SITE_REPORTS;
 import static org.jooq.impl.DSL.coalesce;
 import static org.jooq.impl.DSL.count;
 import static org.jooq.impl.DSL.max;
+import static org.jooq.impl.DSL.name;
 import static org.jooq.impl.DSL.noCondition;
+import static org.jooq.impl.DSL.sequence;
 import static org.jooq.impl.DSL.when;
 
 import com.amazonaws.services.s3.model.S3Object;
@@ -54,6 +60,13 @@ import com.codeforcommunity.exceptions.NoTreePresentException;
 import com.codeforcommunity.exceptions.ResourceDoesNotExistException;
 import com.codeforcommunity.exceptions.WrongAdoptionStatusException;
 import com.codeforcommunity.logger.SLogger;
+import com.codeforcommunity.map.PrivateStreetIndex;
+import com.codeforcommunity.map.SiteBenefitTotals;
+import com.codeforcommunity.map.SiteChangeLog;
+import com.codeforcommunity.map.SiteMapSnapshot;
+import com.codeforcommunity.map.SiteRegionLocator;
+import com.codeforcommunity.map.SiteRegionLocator.SiteRegion;
+import com.codeforcommunity.map.SiteResponseCache;
 import com.codeforcommunity.requester.Emailer;
 import com.codeforcommunity.requester.S3Requester;
 import com.fasterxml.jackson.databind.MappingIterator;
@@ -66,6 +79,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -77,6 +92,7 @@ import org.jooq.DSLContext;
 import org.jooq.Record11;
 import org.jooq.Record3;
 import org.jooq.Result;
+import org.jooq.Sequence;
 import org.jooq.Table;
 import org.jooq.generated.tables.pojos.Users;
 import org.jooq.generated.tables.records.AdoptedSitesRecord;
@@ -87,6 +103,8 @@ import org.jooq.generated.tables.records.SitesRecord;
 import org.jooq.generated.tables.records.StewardshipRecord;
 import org.jooq.generated.tables.records.UserSiteReportsRecord;
 import org.jooq.generated.tables.records.UsersRecord;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
 import org.simplejavamail.api.email.AttachmentResource;
 
 public class ProtectedSiteProcessorImpl extends AbstractProcessor
@@ -94,15 +112,79 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
 
   private final DSLContext db;
   private final Emailer emailer;
+  private final SiteMapSnapshot siteMap;
+  private final SiteChangeLog siteChanges;
+  private final PrivateStreetIndex privateStreets;
+  private final SiteRegionLocator siteRegions;
+  private final SiteResponseCache siteResponses;
+  private final SiteBenefitTotals siteBenefits;
   private final SLogger logger = new SLogger(ProtectedSiteProcessorImpl.class);
 
   private static final int MAX_SUBMITTED_SITE_IMAGES = 20;
   private static final int UPLOAD_SITE_IMAGE_SLACK_FREQ = 2;
   private static final int MAX_DAILY_SITE_REPORTS = 15;
-
-  public ProtectedSiteProcessorImpl(DSLContext db, Emailer emailer) {
+  // The sequence that the site images table's ids are given from
+  private static final Sequence<Integer> SITE_IMAGES_ID_SEQ =
+      sequence(name("site_images_id_seq"), SQLDataType.INTEGER);
+
+  public ProtectedSiteProcessorImpl(
+      DSLContext db,
+      Emailer emailer,
+      SiteMapSnapshot siteMap,
+      SiteChangeLog siteChanges,
+      PrivateStreetIndex privateStreets,
+      SiteRegionLocator siteRegions,
+      SiteResponseCache siteResponses,
+      SiteBenefitTotals siteBenefits) {
     this.db = db;
     this.emailer = emailer;
+    this.siteMap = siteMap;
+    this.siteChanges = siteChanges;
+    this.privateStreets = privateStreets;
+    this.siteRegions = siteRegions;
+    this.siteResponses = siteResponses;
+    this.siteBenefits = siteBenefits;
+  }
+
+  /**
+   * Returns the located region's id if the site's location is inside one, otherwise the id given in
+   * the request.
+   */
+  private static Integer locatedOrGiven(Integer locatedId, Integer givenId) {
+    return locatedId != null ? locatedId : givenId;
+  }
+
+  /**
+   * Called from within the transaction of any write that changes what a site looks like on the map
+   * (its location, latest entry or adoption status), so that the change is logged if and only if
+   * the write commits.
+   *
+   * @param ctx the context of the write's transaction
+   * @param siteIds the ids of the sites that changed
+   */
+  private void logSitesChanged(DSLContext ctx, Collection<Integer> siteIds) {
+    siteChanges.append(ctx, siteIds);
+  }
+
+  private void logSiteChanged(DSLContext ctx, int siteId) {
+    logSitesChanged(ctx, Collections.singletonList(siteId));
+  }
+
+  /**
+   * Called after any write that changes what a site looks like on the map has been committed.
+   * Writes that only change a site's details, such as its images, just invalidate its cached
+   * response instead.
+   *
+   * @param siteIds the ids of the sites that changed
+   */
+  private void onSitesChanged(Collection<Integer> siteIds) {
+    siteMap.refreshSites(siteIds);
+    siteResponses.invalidate(siteIds);
+    siteBenefits.refreshSites(siteIds);
+  }
+
+  private void onSiteChanged(int siteId) {
+    onSitesChanged(Collections.singletonList(siteId));
   }
 
   /**
@@ -191,6 +273,16 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
     }
   }
 
+  /** Returns the id of the site the image with the given imageId was uploaded to. */
+  private int getImageSiteId(int imageId) {
+    return db.select(SITE_ENTRIES.SITE_ID)
+        .from(SITE_IMAGES)
+        .join(SITE_ENTRIES)
+        .on(SITE_ENTRIES.ID.eq(SITE_IMAGES.SITE_ENTRY_ID))
+        .where(SITE_IMAGES.ID.eq(imageId))
+        .fetchOne(SITE_ENTRIES.SITE_ID);
+  }
+
   /**
    * Check if the user is an admin or the adopter of the site with the given siteId
    *
@@ -276,7 +368,11 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
   }
 
   private Boolean isAlreadyAdopted(int siteId) {
-    return db.fetchExists(db.selectFrom(ADOPTED_SITES).where(ADOPTED_SITES.SITE_ID.eq(siteId)));
+    return isAlreadyAdopted(db, siteId);
+  }
+
+  private Boolean isAlreadyAdopted(DSLContext ctx, int siteId) {
+    return ctx.fetchExists(ctx.selectFrom(ADOPTED_SITES).where(ADOPTED_SITES.SITE_ID.eq(siteId)));
   }
 
   private Boolean isAlreadyAdoptedByUser(int userId, int siteId) {
@@ -348,8 +444,9 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
     if (isAlreadyAdopted(siteId)) {
       throw new WrongAdoptionStatusException(true);
     }
-    // prevent users from adopting a site with no tree
-    if (!latestSiteEntry(siteId).getTreePresent()) {
+    // prevent users from adopting a site with no tree, including one with no entries at all
+    SiteEntriesRecord latestSiteEntry = latestSiteEntry(db, siteId);
+    if (latestSiteEntry == null || !Boolean.TRUE.equals(latestSiteEntry.getTreePresent())) {
       throw new NoTreePresentException(siteId);
     }
 
@@ -357,7 +454,15 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
     record.setUserId(userData.getUserId());
     record.setSiteId(siteId);
     record.setDateAdopted(dateAdopted);
-    record.store();
+
+    db.transaction(
+        configuration -> {
+          record.attach(configuration);
+          record.store();
+          logSiteChanged(DSL.using(configuration), siteId);
+        });
+
+    onSiteChanged(siteId);
   }
 
   @Override
@@ -369,21 +474,29 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
 
     db.transaction(
         configuration -> {
-          db.deleteFrom(ADOPTED_SITES)
+          DSLContext ctx = DSL.using(configuration);
+          ctx.deleteFrom(ADOPTED_SITES)
               .where(ADOPTED_SITES.USER_ID.eq(userData.getUserId()))
               .and(ADOPTED_SITES.SITE_ID.eq(siteId))
               .execute();
 
-          this.resetTreeName(siteId);
+          this.resetTreeName(ctx, siteId);
+          logSiteChanged(ctx, siteId);
         });
+
+    onSiteChanged(siteId);
   }
 
-  private void resetTreeName(int siteId) {
-    int latestSiteEntryId = this.latestSiteEntry(siteId).getId();
+  private void resetTreeName(DSLContext ctx, int siteId) {
+    SiteEntriesRecord latestSiteEntry = latestSiteEntry(ctx, siteId);
+    // A site without entries has no name to reset
+    if (latestSiteEntry == null) {
+      return;
+    }
 
-    db.update(SITE_ENTRIES)
+    ctx.update(SITE_ENTRIES)
         .setNull(SITE_ENTRIES.TREE_NAME)
-        .where(SITE_ENTRIES.ID.eq(latestSiteEntryId))
+        .where(SITE_ENTRIES.ID.eq(latestSiteEntry.getId()))
         .execute();
   }
 
@@ -396,27 +509,43 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
       throw new WrongAdoptionStatusException(false);
     }
 
+    db.transaction(
+        configuration -> {
+          DSLContext ctx = DSL.using(configuration);
+          forceUnadoptSite(ctx, userData, siteId);
+          logSiteChanged(ctx, siteId);
+        });
+
+    onSiteChanged(siteId);
+  }
+
+  /**
+   * Removes the adoption of the given site and resets its tree name using the given context, so
+   * that callers which are already in a transaction can unadopt as part of it.
+   *
+   * @param ctx the context to run the queries with
+   * @param userData the data of the user force unadopting the site
+   * @param siteId the id of the adopted site
+   */
+  private void forceUnadoptSite(DSLContext ctx, JWTData userData, int siteId) {
     AdoptedSitesRecord adoptedSite =
-        db.selectFrom(ADOPTED_SITES)
+        ctx.selectFrom(ADOPTED_SITES)
             .where(ADOPTED_SITES.SITE_ID.eq(siteId))
             .fetchInto(AdoptedSitesRecord.class)
             .get(0);
 
     Integer adopterId = adoptedSite.getUserId();
 
-    UsersRecord adopter = db.selectFrom(USERS).where(USERS.ID.eq(adopterId)).fetchOne();
+    UsersRecord adopter = ctx.selectFrom(USERS).where(USERS.ID.eq(adopterId)).fetchOne();
 
     if (isAdmin(adopter.getPrivilegeLevel())
         && !(userData.getPrivilegeLevel().equals(PrivilegeLevel.SUPER_ADMIN))) {
       throw new AuthException("User does not have the required privilege level.");
     }
 
-    db.transaction(
-        configuration -> {
-          db.deleteFrom(ADOPTED_SITES).where(ADOPTED_SITES.SITE_ID.eq(siteId)).execute();
+    ctx.deleteFrom(ADOPTED_SITES).where(ADOPTED_SITES.SITE_ID.eq(siteId)).execute();
 
-          this.resetTreeName(siteId);
-        });
+    this.resetTreeName(ctx, siteId);
   }
 
   @Override
@@ -486,6 +615,7 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
     record.setGenus(updateSiteRequest.getGenus());
     record.setSpecies(updateSiteRequest.getSpecies());
     record.setCommonName(updateSiteRequest.getCommonName());
+    setDisplayName(record);
     record.setConfidence(updateSiteRequest.getConfidence());
     record.setDiameter(updateSiteRequest.getDiameter());
     record.setCircumference(updateSiteRequest.getCircumference());
@@ -525,87 +655,112 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
 
   @Override
   public void addSite(JWTData userData, AddSiteRequest addSiteRequest) {
-    if (addSiteRequest.getBlockId() != null) {
-      checkBlockExists(addSiteRequest.getBlockId());
+    SiteRegion region = siteRegions.locate(addSiteRequest.getLat(), addSiteRequest.getLng());
+    Integer blockId = locatedOrGiven(region.getBlockId(), addSiteRequest.getBlockId());
+    Integer neighborhoodId =
+        locatedOrGiven(region.getNeighborhoodId(), addSiteRequest.getNeighborhoodId());
+
+    if (blockId != null) {
+      checkBlockExists(blockId);
     }
 
-    checkNeighborhoodExists(addSiteRequest.getNeighborhoodId());
+    checkNeighborhoodExists(neighborhoodId);
 
+    // The ids of the new site and entry are left to the id sequences of their tables, which never
+    // give two writers the same id
     SitesRecord sitesRecord = db.newRecord(SITES);
-
-    int newId = db.select(max(SITES.ID)).from(SITES).fetchOne(0, Integer.class) + 1;
-
-    sitesRecord.setId(newId);
-    sitesRecord.setBlockId(addSiteRequest.getBlockId());
+    sitesRecord.setBlockId(blockId);
     sitesRecord.setLat(addSiteRequest.getLat());
     sitesRecord.setLng(addSiteRequest.getLng());
+    sitesRecord.setOnPrivateStreet(
+        privateStreets.isOnPrivateStreet(addSiteRequest.getLat(), addSiteRequest.getLng()));
     sitesRecord.setCity(addSiteRequest.getCity());
     sitesRecord.setZip(addSiteRequest.getZip());
     sitesRecord.setAddress(addSiteRequest.getAddress());
-    sitesRecord.setNeighborhoodId(addSiteRequest.getNeighborhoodId());
+    sitesRecord.setNeighborhoodId(neighborhoodId);
     sitesRecord.setOwner(addSiteRequest.getOwner().toString());
 
-    sitesRecord.store();
-
     SiteEntriesRecord siteEntriesRecord = db.newRecord(SITE_ENTRIES);
-
-    int newSiteEntriesId =
-        db.select(max(SITE_ENTRIES.ID)).from(SITE_ENTRIES).fetchOne(0, Integer.class) + 1;
-
-    siteEntriesRecord.setId(newSiteEntriesId);
     siteEntriesRecord.setUserId(userData.getUserId());
-    siteEntriesRecord.setSiteId(sitesRecord.getId());
     siteEntriesRecord.setCreatedAt(new Timestamp(System.currentTimeMillis()));
     siteEntriesRecord.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
     populateSiteEntry(siteEntriesRecord, addSiteRequest);
 
-    siteEntriesRecord.store();
+    db.transaction(
+        configuration -> {
+          sitesRecord.attach(configuration);
+          sitesRecord.store();
+          siteEntriesRecord.setSiteId(sitesRecord.getId());
+          siteEntriesRecord.attach(configuration);
+          siteEntriesRecord.store();
+          DSLContext ctx = DSL.using(configuration);
+          setCurrentEntry(ctx, sitesRecord.getId(), siteEntriesRecord.getId());
+          logSiteChanged(ctx, sitesRecord.getId());
+        });
+
+    onSiteChanged(sitesRecord.getId());
   }
 
   public void updateSite(JWTData userData, int siteId, UpdateSiteRequest updateSiteRequest) {
     assertAdminOrSuperAdmin(userData.getPrivilegeLevel());
     checkSiteExists(siteId);
 
+    // The id of the new entry is left to the id sequence of the site entries table
     SiteEntriesRecord record = db.newRecord(SITE_ENTRIES);
-
-    int newId = db.select(max(SITE_ENTRIES.ID)).from(SITE_ENTRIES).fetchOne(0, Integer.class) + 1;
-
-    record.setId(newId);
     record.setUserId(userData.getUserId());
     record.setSiteId(siteId);
     populateSiteEntry(record, updateSiteRequest);
 
     db.transaction(
         configuration -> {
+          DSLContext ctx = DSL.using(configuration);
+          record.attach(configuration);
           record.store();
-          if (!updateSiteRequest.isTreePresent() && isAlreadyAdopted(siteId)) {
-            forceUnadoptSite(userData, siteId);
+          setCurrentEntry(ctx, siteId, record.getId());
+          if (!updateSiteRequest.isTreePresent() && isAlreadyAdopted(ctx, siteId)) {
+            forceUnadoptSite(ctx, userData, siteId);
           }
+          logSiteChanged(ctx, siteId);
         });
+
+    onSiteChanged(siteId);
   }
 
   @Override
   public void editSite(JWTData userData, int siteId, EditSiteRequest editSiteRequest) {
     assertAdminOrSuperAdmin(userData.getPrivilegeLevel());
     checkSiteExists(siteId);
-    if (editSiteRequest.getBlockId() != null) {
-      checkBlockExists(editSiteRequest.getBlockId());
+    SiteRegion region = siteRegions.locate(editSiteRequest.getLat(), editSiteRequest.getLng());
+    Integer blockId = locatedOrGiven(region.getBlockId(), editSiteRequest.getBlockId());
+    Integer neighborhoodId =
+        locatedOrGiven(region.getNeighborhoodId(), editSiteRequest.getNeighborhoodId());
+    if (blockId != null) {
+      checkBlockExists(blockId);
     }
-    checkNeighborhoodExists(editSiteRequest.getNeighborhoodId());
+    checkNeighborhoodExists(neighborhoodId);
 
     SitesRecord site = db.selectFrom(SITES).where(SITES.ID.eq(siteId)).fetchOne();
 
     site.setId(siteId);
-    site.setBlockId(editSiteRequest.getBlockId());
+    site.setBlockId(blockId);
     site.setAddress(editSiteRequest.getAddress());
     site.setCity(editSiteRequest.getCity());
     site.setZip(editSiteRequest.getZip());
     site.setLat(editSiteRequest.getLat());
     site.setLng(editSiteRequest.getLng());
-    site.setNeighborhoodId(editSiteRequest.getNeighborhoodId());
+    site.setOnPrivateStreet(
+        privateStreets.isOnPrivateStreet(editSiteRequest.getLat(), editSiteRequest.getLng()));
+    site.setNeighborhoodId(neighborhoodId);
     site.setOwner(editSiteRequest.getOwner().toString());
 
-    site.store();
+    db.transaction(
+        configuration -> {
+          site.attach(configuration);
+          site.store();
+          logSiteChanged(DSL.using(configuration), siteId);
+        });
+
+    onSiteChanged(siteId);
   }
 
   @Override
@@ -651,7 +806,15 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
 
     SitesRecord site = db.selectFrom(SITES).where(SITES.ID.eq(siteId)).fetchOne();
     site.setDeletedAt(new Timestamp(System.currentTimeMillis()));
-    site.store();
+
+    db.transaction(
+        configuration -> {
+          site.attach(configuration);
+          site.store();
+          logSiteChanged(DSL.using(configuration), siteId);
+        });
+
+    onSiteChanged(siteId);
   }
 
   @Override
@@ -689,7 +852,7 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
     checkSiteExists(siteId);
     checkAdminOrSiteAdopter(userData, siteId);
 
-    SiteEntriesRecord latestSiteEntry = this.latestSiteEntry(siteId);
+    SiteEntriesRecord latestSiteEntry = latestSiteEntry(db, siteId);
     if (latestSiteEntry == null) {
       throw new LinkedResourceDoesNotExistException(
           "Site Entry", userData.getUserId(), "User", siteId, "Site");
@@ -702,15 +865,8 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
     }
 
     latestSiteEntry.store();
-  }
 
-  private SiteEntriesRecord latestSiteEntry(int siteId) {
-    return db.selectFrom(SITE_ENTRIES)
-        .where(SITE_ENTRIES.SITE_ID.eq(siteId))
-        .and(SITE_ENTRIES.DELETED_AT.isNull())
-        .orderBy(SITE_ENTRIES.CREATED_AT.desc())
-        .fetchInto(SiteEntriesRecord.class)
-        .get(0);
+    siteResponses.invalidate(siteId);
   }
 
   @Override
@@ -719,9 +875,8 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
     checkEntryExists(siteEntryId);
     checkCanUploadImage(userData);
 
-    Integer maxImageId =
-        db.select(max(SITE_IMAGES.ID)).from(SITE_IMAGES).fetchOne(0, Integer.class);
-    int newImageId = (maxImageId == null ? 0 : maxImageId) + 1;
+    // The id names the uploaded image, so it is taken from the table's id sequence up front
+    int newImageId = db.nextval(SITE_IMAGES_ID_SEQ);
 
     if (newImageId % UPLOAD_SITE_IMAGE_SLACK_FREQ == 0) {
       logger.info("INFO: " + newImageId + "th site image uploaded", true);
@@ -746,6 +901,11 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
     siteImagesRecord.setAnonymous(uploadSiteImageRequest.getAnonymous());
 
     siteImagesRecord.store();
+
+    // Only approved images are shown on the site
+    if (status == ImageApprovalStatus.APPROVED) {
+      siteResponses.invalidate(getImageSiteId(newImageId));
+    }
   }
 
   @Override
@@ -761,7 +921,10 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
 
     S3Requester.deleteSiteImage(imageUrl);
 
+    int siteId = getImageSiteId(imageId);
     db.deleteFrom(SITE_IMAGES).where(SITE_IMAGES.ID.eq(imageId)).execute();
+
+    siteResponses.invalidate(siteId);
   }
 
   @Override
@@ -1025,15 +1188,22 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
 
     db.transaction(
         configuration -> {
+          DSLContext ctx = DSL.using(configuration);
+          siteEntriesRecord.attach(configuration);
           siteEntriesRecord.store();
           // force unadopt only if we change the latest site entry of an adopted site to have no
           // tree
+          SiteEntriesRecord latestSiteEntry = latestSiteEntry(ctx, siteId);
           if (!editSiteEntryRequest.isTreePresent()
-              && isAlreadyAdopted(siteId)
-              && entryId == latestSiteEntry(siteId).getId()) {
-            forceUnadoptSite(userData, siteId);
+              && isAlreadyAdopted(ctx, siteId)
+              && latestSiteEntry != null
+              && entryId == latestSiteEntry.getId()) {
+            forceUnadoptSite(ctx, userData, siteId);
           }
+          logSiteChanged(ctx, siteId);
         });
+
+    onSiteChanged(siteId);
   }
 
   @Override
@@ -1073,6 +1243,8 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
         db.selectFrom(SITE_IMAGES).where(SITE_IMAGES.ID.eq(imageID)).fetchOne();
     imageRecord.setApprovalStatus(ImageApprovalStatus.APPROVED.getApprovalStatus());
     imageRecord.store();
+
+    siteResponses.invalidate(getImageSiteId(imageID));
   }
 
   @Override
@@ -1109,6 +1281,7 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
       siteRecord.setZip(req.getZip());
       siteRecord.setLat(req.getLat());
       siteRecord.setLng(req.getLng());
+      siteRecord.setOnPrivateStreet(privateStreets.isOnPrivateStreet(req.getLat(), req.getLng()));
       siteRecord.setNeighborhoodId(req.getNeighborhoodId());
       siteRecord.setOwner(req.getOwner().toString());
     }
@@ -1118,7 +1291,14 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
       records.add(entry.getValue());
     }
 
-    db.batchStore(records).execute();
+    db.transaction(
+        configuration -> {
+          DSLContext ctx = DSL.using(configuration);
+          ctx.batchStore(records).execute();
+          logSitesChanged(ctx, siteRecords.keySet());
+        });
+
+    onSitesChanged(siteRecords.keySet());
   }
 
   @Override
@@ -1129,8 +1309,7 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
     List<Integer> siteIds = manyAddSiteEntriesRequest.getSites();
     List<UpdateSiteRequest> updateSiteRequests = manyAddSiteEntriesRequest.getUpdateSiteRequests();
 
-    int newId = db.select(max(SITE_ENTRIES.ID)).from(SITE_ENTRIES).fetchOne(0, Integer.class) + 1;
-
+    // The ids of the new entries are left to the id sequence of the site entries table
     List<SiteEntriesRecord> records = new ArrayList<>();
 
     for (int i = 0; i < siteIds.size(); i++) {
@@ -1138,14 +1317,21 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
       UpdateSiteRequest req = updateSiteRequests.get(i);
       SiteEntriesRecord record = db.newRecord(SITE_ENTRIES);
 
-      record.setId(newId + i);
       record.setSiteId(siteId);
       populateSiteEntry(record, req);
 
       records.add(record);
     }
 
-    db.batchStore(records).execute();
+    db.transaction(
+        configuration -> {
+          DSLContext ctx = DSL.using(configuration);
+          ctx.batchStore(records).execute();
+          refreshCurrentEntries(ctx, siteIds);
+          logSitesChanged(ctx, siteIds);
+        });
+
+    onSitesChanged(siteIds);
   }
 
   @Override
@@ -1219,6 +1405,16 @@ public class ProtectedSiteProcessorImpl extends AbstractProcessor
     }
 
     entry.setDeletedAt(new Timestamp(System.currentTimeMillis()));
-    entry.store();
+
+    db.transaction(
+        configuration -> {
+          entry.attach(configuration);
+          entry.store();
+          DSLContext ctx = DSL.using(configuration);
+          refreshCurrentEntries(ctx, Collections.singletonList(entry.getSiteId()));
+          logSiteChanged(ctx, entry.getSiteId());
+        });
+
+    onSiteChanged(entry.getSiteId());
   }
 }
@@ -29,6 +29,7 @@ import com.codeforcommunity.exceptions.UserDeletedException;
 import com.codeforcommunity.exceptions.UserDoesNotExistException;
 import com.codeforcommunity.exceptions.UsernameAlreadyInUseException;
 import com.codeforcommunity.exceptions.WrongPasswordException;
+import com.codeforcommunity.map.SiteResponseCache;
 import com.codeforcommunity.requester.Emailer;
 import java.sql.Timestamp;
 import java.time.Instant;
@@ -49,10 +50,13 @@ public class ProtectedUserProcessorImpl extends AbstractProcessor
   private final DSLContext db;
   private final Emailer emailer;
   private final AuthDatabaseOperations authDatabaseOperations;
+  private final SiteResponseCache siteResponses;
 
-  public ProtectedUserProcessorImpl(DSLContext db, Emailer emailer) {
+  public ProtectedUserProcessorImpl(
+      DSLContext db, Emailer emailer, SiteResponseCache siteResponses) {
     this.db = db;
     this.emailer = emailer;
+    this.siteResponses = siteResponses;
     this.authDatabaseOperations = new AuthDatabaseOperations(db);
   }
 
@@ -171,6 +175,10 @@ public class ProtectedUserProcessorImpl extends AbstractProcessor
       }
       user.setUsername(changeUsernameRequest.getNewUsername());
       user.store();
+
+      // The username is shown on every site the user has adopted, added entries to or uploaded
+      // images of
+      siteResponses.invalidateAll();
     } else {
       throw new WrongPasswordException();
     }
@@ -224,13 +232,15 @@ public class ProtectedUserProcessorImpl extends AbstractProcessor
 
     db.transaction(
         configuration -> {
+          // create the user on the transaction's connection so the insert below can see it
           UsersRecord user =
-              authDatabaseOperations.createNewUser(
-                  newUserRequest.getUsername(),
-                  newUserRequest.getEmail(),
-                  newUserRequest.getPassword(),
-                  newUserRequest.getFirstName(),
-                  newUserRequest.getLastName());
+              new AuthDatabaseOperations(DSL.using(configuration))
+                  .createNewUser(
+                      newUserRequest.getUsername(),
+                      newUserRequest.getEmail(),
+                      newUserRequest.getPassword(),
+                      newUserRequest.getFirstName(),
+                      newUserRequest.getLastName());
 
           DSL.using(configuration)
               .insertInto(PARENT_ACCOUNTS, PARENT_ACCOUNTS.PARENT_ID, PARENT_ACCOUNTS.CHILD_ID)
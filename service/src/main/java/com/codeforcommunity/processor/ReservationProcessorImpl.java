@@ -18,6 +18,7 @@ import com.codeforcommunity.exceptions.ResourceDoesNotExistException;
 import com.codeforcommunity.exceptions.UserDeletedException;
 import com.codeforcommunity.exceptions.UserDoesNotExistException;
 import com.codeforcommunity.exceptions.UserNotOnTeamException;
+import com.codeforcommunity.map.MapLayerVersions;
 import java.sql.Timestamp;
 import java.util.Optional;
 import org.jooq.DSLContext;
@@ -27,9 +28,12 @@ import org.jooq.generated.tables.records.UsersRecord;
 public class ReservationProcessorImpl extends AbstractProcessor implements IReservationProcessor {
 
   private final DSLContext db;
+  // Reservations change the completion percentage shown on each neighborhood
+  private final MapLayerVersions layerVersions;
 
-  public ReservationProcessorImpl(DSLContext db) {
+  public ReservationProcessorImpl(DSLContext db, MapLayerVersions layerVersions) {
     this.db = db;
+    this.layerVersions = layerVersions;
   }
 
   private Optional<ReservationsRecord> lastAction(int blockId) {
@@ -179,6 +183,8 @@ public class ReservationProcessorImpl extends AbstractProcessor implements IRese
     blockOpenCheck(makeReservationRequest.getBlockID());
 
     reservationsRecord.store();
+
+    layerVersions.invalidateNeighborhoods();
   }
 
   @Override
@@ -199,6 +205,8 @@ public class ReservationProcessorImpl extends AbstractProcessor implements IRese
     blockReservedCheck(completeReservationRequest.getBlockID(), userData.getUserId());
 
     reservationsRecord.store();
+
+    layerVersions.invalidateNeighborhoods();
   }
 
   @Override
@@ -214,6 +222,8 @@ public class ReservationProcessorImpl extends AbstractProcessor implements IRese
     blockReservedCheck(releaseReservationRequest.getBlockID(), userData.getUserId());
 
     reservationsRecord.store();
+
+    layerVersions.invalidateNeighborhoods();
   }
 
   @Override
@@ -230,6 +240,8 @@ public class ReservationProcessorImpl extends AbstractProcessor implements IRese
     blockCompleteCheck(uncompleteReservationRequest.getBlockID());
 
     reservationsRecord.store();
+
+    layerVersions.invalidateNeighborhoods();
   }
 
   @Override
@@ -246,6 +258,8 @@ public class ReservationProcessorImpl extends AbstractProcessor implements IRese
     blockCompleteCheck(markForQARequest.getBlockID());
 
     reservationsRecord.store();
+
+    layerVersions.invalidateNeighborhoods();
   }
 
   @Override
@@ -270,6 +284,8 @@ public class ReservationProcessorImpl extends AbstractProcessor implements IRese
     reservationsRecord.setPerformedAt(lastCompletion.getPerformedAt());
 
     reservationsRecord.store();
+
+    layerVersions.invalidateNeighborhoods();
   }
 
   @Override
@@ -285,5 +301,7 @@ public class ReservationProcessorImpl extends AbstractProcessor implements IRese
     reservationsRecord.setPerformedAt(new Timestamp(System.currentTimeMillis()));
 
     reservationsRecord.store();
+
+    layerVersions.invalidateNeighborhoods();
   }
 }
@@ -1,33 +1,43 @@
 package com.codeforcommunity.processor;
 
+import static com.codeforcommunity.dataaccess.SiteEntryDatabaseOperations.latestSiteEntry;
 import static org.jooq.generated.Tables.ADOPTED_SITES;
 import static org.jooq.generated.Tables.ENTRY_USERNAMES;
+import static org.jooq.generated.Tables.NEIGHBORHOODS;
 import static org.jooq.generated.Tables.SITES;
 import static org.jooq.generated.Tables.SITE_ENTRIES;
 import static org.jooq.generated.Tables.SITE_IMAGES;
 import static org.jooq.generated.Tables.STEWARDSHIP;
-import static org.jooq.generated.Tables.TREE_SPECIES;
 import static org.jooq.generated.Tables.USERS;
-import static org.jooq.impl.DSL.lower;
-import static org.jooq.impl.DSL.replace;
 
 import com.codeforcommunity.api.ISiteProcessor;
+import com.codeforcommunity.dataaccess.TreeSpeciesIndex;
+import com.codeforcommunity.dataaccess.TreeSpeciesIndex.Species;
+import com.codeforcommunity.dto.map.SiteGeoResponse;
 import com.codeforcommunity.dto.site.GetSiteResponse;
 import com.codeforcommunity.dto.site.SiteEntry;
 import com.codeforcommunity.dto.site.SiteEntryImage;
 import com.codeforcommunity.dto.site.StewardshipActivitiesResponse;
 import com.codeforcommunity.dto.site.StewardshipActivity;
 import com.codeforcommunity.dto.site.TreeBenefitsResponse;
+import com.codeforcommunity.dto.site.TreeBenefitsTotalsResponse;
 import com.codeforcommunity.enums.ImageApprovalStatus;
 import com.codeforcommunity.enums.SiteOwner;
 import com.codeforcommunity.exceptions.ResourceDoesNotExistException;
 import com.codeforcommunity.logger.SLogger;
+import com.codeforcommunity.map.SiteBenefitTotals;
+import com.codeforcommunity.map.SiteMapSnapshot;
+import com.codeforcommunity.map.SiteResponseCache;
 import com.codeforcommunity.requester.TreeBenefitsCalculator;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import org.jooq.DSLContext;
-import org.jooq.generated.tables.records.AdoptedSitesRecord;
+import org.jooq.Record;
+import org.jooq.Result;
 import org.jooq.generated.tables.records.SiteEntriesRecord;
 import org.jooq.generated.tables.records.SiteImagesRecord;
 import org.jooq.generated.tables.records.SitesRecord;
@@ -38,9 +48,25 @@ public class SiteProcessorImpl implements ISiteProcessor {
   private final SLogger logger = new SLogger(SiteProcessorImpl.class);
 
   private final DSLContext db;
-
-  public SiteProcessorImpl(DSLContext db) {
+  private final SiteMapSnapshot siteMap;
+  private final SiteResponseCache siteResponses;
+  private final TreeSpeciesIndex speciesIndex;
+  private final TreeBenefitsCalculator benefitsCalculator;
+  private final SiteBenefitTotals siteBenefits;
+
+  public SiteProcessorImpl(
+      DSLContext db,
+      SiteMapSnapshot siteMap,
+      SiteResponseCache siteResponses,
+      TreeSpeciesIndex speciesIndex,
+      TreeBenefitsCalculator benefitsCalculator,
+      SiteBenefitTotals siteBenefits) {
     this.db = db;
+    this.siteMap = siteMap;
+    this.siteResponses = siteResponses;
+    this.speciesIndex = speciesIndex;
+    this.benefitsCalculator = benefitsCalculator;
+    this.siteBenefits = siteBenefits;
   }
 
   private void checkSiteExists(int siteId) {
@@ -49,208 +75,196 @@ public class SiteProcessorImpl implements ISiteProcessor {
     }
   }
 
-  private SiteEntriesRecord latestSiteEntry(int siteId) {
-    return db.selectFrom(SITE_ENTRIES)
-        .where(SITE_ENTRIES.SITE_ID.eq(siteId))
-        .and(SITE_ENTRIES.DELETED_AT.isNull())
-        .orderBy(SITE_ENTRIES.CREATED_AT.desc())
-        .fetchInto(SiteEntriesRecord.class)
-        .get(0);
-  }
-
+  /**
+   * Returns the entries of the given site, newest first. Everything shown with the entries is
+   * fetched for all of them at once, so the number of queries doesn't grow with the site's history.
+   */
   private List<SiteEntry> getSiteEntries(int siteId) {
-    List<SiteEntriesRecord> records =
-        db.selectFrom(SITE_ENTRIES)
+    Result<Record> results =
+        db.select(SITE_ENTRIES.fields())
+            .select(USERS.USERNAME, ENTRY_USERNAMES.USERNAME)
+            .from(SITE_ENTRIES)
+            .leftJoin(USERS)
+            .on(USERS.ID.eq(SITE_ENTRIES.USER_ID))
+            .leftJoin(ENTRY_USERNAMES)
+            .on(ENTRY_USERNAMES.ENTRY_ID.eq(SITE_ENTRIES.ID))
             .where(SITE_ENTRIES.SITE_ID.eq(siteId))
             .and(SITE_ENTRIES.DELETED_AT.isNull())
             .orderBy(SITE_ENTRIES.CREATED_AT.desc())
             .fetch();
 
-    List<SiteEntry> siteEntries = new ArrayList<>();
+    if (results.isEmpty()) {
+      return new ArrayList<>();
+    }
 
-    records.forEach(
-        record -> {
-          String username;
-          if (record.getUserId() == null) {
-            username =
-                db.selectFrom(ENTRY_USERNAMES)
-                    .where(ENTRY_USERNAMES.ENTRY_ID.eq(record.getId()))
-                    .fetchOne(ENTRY_USERNAMES.USERNAME);
-          } else {
-            username =
-                db.selectFrom(USERS)
-                    .where(USERS.ID.eq(record.getUserId()))
-                    .fetchOne(USERS.USERNAME);
-          }
+    // Finds if the site is adopted, and if it is the username of the adopter
+    String adopter =
+        db.select(USERS.USERNAME)
+            .from(ADOPTED_SITES)
+            .join(USERS)
+            .on(USERS.ID.eq(ADOPTED_SITES.USER_ID))
+            .where(ADOPTED_SITES.SITE_ID.eq(siteId))
+            .fetchOne(USERS.USERNAME);
 
-          // Finds if the site is adopted, and if it is returns the username of the adopter
-          String adopter;
-          AdoptedSitesRecord adoptedSitesRecord =
-              db.selectFrom(ADOPTED_SITES).where(ADOPTED_SITES.SITE_ID.eq(siteId)).fetchOne();
-          if (adoptedSitesRecord == null) {
-            adopter = null;
-          } else {
-            adopter =
-                db.select(USERS.USERNAME)
-                    .from(USERS)
-                    .where(USERS.ID.eq(adoptedSitesRecord.getUserId()))
-                    .fetchOne()
-                    .value1();
-          }
+    List<SiteEntriesRecord> records = new ArrayList<>(results.size());
+    results.forEach(result -> records.add(result.into(SITE_ENTRIES)));
+    Map<Integer, List<SiteEntryImage>> images = getSiteEntryImages(siteId, records);
 
-          SiteEntry siteEntry =
-              new SiteEntry(
-                  record.getId(),
-                  username,
-                  record.getCreatedAt(),
-                  record.getUpdatedAt(),
-                  record.getTreePresent(),
-                  record.getStatus(),
-                  record.getGenus(),
-                  record.getSpecies(),
-                  record.getCommonName(),
-                  record.getConfidence(),
-                  record.getDiameter(),
-                  record.getCircumference(),
-                  record.getMultistem(),
-                  record.getCoverage(),
-                  record.getPruning(),
-                  record.getCondition(),
-                  record.getDiscoloring(),
-                  record.getLeaning(),
-                  record.getConstrictingGrate(),
-                  record.getWounds(),
-                  record.getPooling(),
-                  record.getStakesWithWires(),
-                  record.getStakesWithoutWires(),
-                  record.getLight(),
-                  record.getBicycle(),
-                  record.getBagEmpty(),
-                  record.getBagFilled(),
-                  record.getTape(),
-                  record.getSuckerGrowth(),
-                  record.getSiteType(),
-                  record.getSidewalkWidth(),
-                  record.getSiteWidth(),
-                  record.getSiteLength(),
-                  record.getMaterial(),
-                  record.getRaisedBed(),
-                  record.getFence(),
-                  record.getTrash(),
-                  record.getWires(),
-                  record.getGrate(),
-                  record.getStump(),
-                  record.getTreeNotes(),
-                  record.getSiteNotes(),
-                  record.getTreeName(),
-                  adopter,
-                  record.getBostonId(),
-                  record.getPlantingDate(),
-                  getSiteEntryImages(record.getId(), record.getCommonName()),
-
-                  /* Cambridge fields */
-                  record.getTrunks(),
-                  record.getSpeciesShort(),
-                  record.getLocation(),
-                  record.getSiteRetiredReason(),
-                  record.getInspectr(),
-                  record.getAbutsOpenArea(),
-                  record.getTreeWellCover(),
-                  record.getTreeGrateActionReq(),
-                  record.getGlobalId(),
-                  record.getPb(),
-                  record.getSiteReplanted(),
-                  record.getOverheadWires(),
-                  record.getOwnership(),
-                  record.getScheduledRemoval(),
-                  record.getStructuralSoil(),
-                  record.getWateringResponsibility(),
-                  record.getCultivar(),
-                  record.getSolarRating(),
-                  record.getBareRoot(),
-                  record.getAdaCompliant(),
-                  record.getCartegraphPlantDate(),
-                  record.getLocationRetired(),
-                  record.getCreatedDate(),
-                  record.getOrder(),
-                  record.getPlantingSeason(),
-                  record.getExposedRootFlare(),
-                  record.getStTreePruningZone(),
-                  record.getMemTree(),
-                  record.getCartegraphRetireDate(),
-                  record.getRemovalReason(),
-                  record.getOffStTreePruningZone(),
-                  record.getPlantingContract(),
-                  record.getTreeWellDepth(),
-                  record.getRemovalDate(),
-                  record.getScientificName(),
-                  record.getBiocharAdded(),
-                  record.getLastEditedUser());
-
-          siteEntries.add(siteEntry);
-        });
+    List<SiteEntry> siteEntries = new ArrayList<>();
+    for (int i = 0; i < results.size(); i++) {
+      SiteEntriesRecord record = records.get(i);
+      // Entries submitted without an account keep the name they were submitted under
+      String username =
+          record.getUserId() == null
+              ? results.get(i).get(ENTRY_USERNAMES.USERNAME)
+              : results.get(i).get(USERS.USERNAME);
+
+      SiteEntry siteEntry =
+          new SiteEntry(
+              record.getId(),
+              username,
+              record.getCreatedAt(),
+              record.getUpdatedAt(),
+              record.getTreePresent(),
+              record.getStatus(),
+              record.getGenus(),
+              record.getSpecies(),
+              record.getCommonName(),
+              record.getConfidence(),
+              record.getDiameter(),
+              record.getCircumference(),
+              record.getMultistem(),
+              record.getCoverage(),
+              record.getPruning(),
+              record.getCondition(),
+              record.getDiscoloring(),
+              record.getLeaning(),
+              record.getConstrictingGrate(),
+              record.getWounds(),
+              record.getPooling(),
+              record.getStakesWithWires(),
+              record.getStakesWithoutWires(),
+              record.getLight(),
+              record.getBicycle(),
+              record.getBagEmpty(),
+              record.getBagFilled(),
+              record.getTape(),
+              record.getSuckerGrowth(),
+              record.getSiteType(),
+              record.getSidewalkWidth(),
+              record.getSiteWidth(),
+              record.getSiteLength(),
+              record.getMaterial(),
+              record.getRaisedBed(),
+              record.getFence(),
+              record.getTrash(),
+              record.getWires(),
+              record.getGrate(),
+              record.getStump(),
+              record.getTreeNotes(),
+              record.getSiteNotes(),
+              record.getTreeName(),
+              adopter,
+              record.getBostonId(),
+              record.getPlantingDate(),
+              images.get(record.getId()),
+
+              /* Cambridge fields */
+              record.getTrunks(),
+              record.getSpeciesShort(),
+              record.getLocation(),
+              record.getSiteRetiredReason(),
+              record.getInspectr(),
+              record.getAbutsOpenArea(),
+              record.getTreeWellCover(),
+              record.getTreeGrateActionReq(),
+              record.getGlobalId(),
+              record.getPb(),
+              record.getSiteReplanted(),
+              record.getOverheadWires(),
+              record.getOwnership(),
+              record.getScheduledRemoval(),
+              record.getStructuralSoil(),
+              record.getWateringResponsibility(),
+              record.getCultivar(),
+              record.getSolarRating(),
+              record.getBareRoot(),
+              record.getAdaCompliant(),
+              record.getCartegraphPlantDate(),
+              record.getLocationRetired(),
+              record.getCreatedDate(),
+              record.getOrder(),
+              record.getPlantingSeason(),
+              record.getExposedRootFlare(),
+              record.getStTreePruningZone(),
+              record.getMemTree(),
+              record.getCartegraphRetireDate(),
+              record.getRemovalReason(),
+              record.getOffStTreePruningZone(),
+              record.getPlantingContract(),
+              record.getTreeWellDepth(),
+              record.getRemovalDate(),
+              record.getScientificName(),
+              record.getBiocharAdded(),
+              record.getLastEditedUser());
+
+      siteEntries.add(siteEntry);
+    }
 
     return siteEntries;
   }
 
-  private List<SiteEntryImage> getSiteEntryImages(int entryId, String commonName) {
-    List<SiteImagesRecord> imageRecords =
-        db.selectFrom(SITE_IMAGES)
-            .where(SITE_IMAGES.SITE_ENTRY_ID.eq(entryId))
-            .and(SITE_IMAGES.APPROVAL_STATUS.eq(ImageApprovalStatus.APPROVED.getApprovalStatus()))
-            .orderBy(SITE_IMAGES.UPLOADED_AT.desc())
-            .fetch();
-
-    if (!imageRecords.isEmpty()) {
-      return imageRecords.stream()
-          .map(
-              record -> {
-                String username;
-                if (record.getAnonymous()) {
-                  username = "Anonymous";
-                } else {
-                  username =
-                      db.selectFrom(USERS)
-                          .where(USERS.ID.eq(record.getUploaderId()))
-                          .fetchOne()
-                          .getUsername();
-                }
-
-                return new SiteEntryImage(
-                    record.getId(),
-                    username,
-                    record.getUploaderId(),
-                    record.getUploadedAt(),
-                    record.getImageUrl());
-              })
-          .collect(Collectors.toList());
-    }
-
-    // if no approved images exist for the entry, check if its tree has a default image.
-    // if the tree's common name is null, we won't find any default image - return empty list
-    if (commonName == null) {
-      return new ArrayList<>();
-    }
-
-    // to counter any minor differences in tree name (e.g. Honey locust vs Honeylocust),
-    // normalize the tree's common name by setting the name to all lowercase and removing empty
-    // spaces
-    String defaultUrl =
-        db.select(TREE_SPECIES.DEFAULT_IMAGE)
-            .from(TREE_SPECIES)
-            .where(
-                lower(replace(TREE_SPECIES.COMMON_NAME, " ", ""))
-                    .eq(commonName.toLowerCase().replace(" ", "")))
-            .fetchOne(0, String.class);
-
-    if (defaultUrl != null) {
-      List<SiteEntryImage> images = new ArrayList<SiteEntryImage>();
-      images.add(new SiteEntryImage(defaultUrl));
-      return images;
-    }
+  /**
+   * Returns the images of each of the given entries of a site, keyed by entry id and newest first.
+   * Entries without any approved images get their tree's default image instead, if it has one.
+   */
+  private Map<Integer, List<SiteEntryImage>> getSiteEntryImages(
+      int siteId, List<SiteEntriesRecord> entries) {
+    Map<Integer, List<SiteEntryImage>> images = new HashMap<>();
+    entries.forEach(entry -> images.put(entry.getId(), new ArrayList<>()));
+
+    db.select(SITE_IMAGES.fields())
+        .select(USERS.USERNAME)
+        .from(SITE_IMAGES)
+        .join(SITE_ENTRIES)
+        .on(SITE_ENTRIES.ID.eq(SITE_IMAGES.SITE_ENTRY_ID))
+        .leftJoin(USERS)
+        .on(USERS.ID.eq(SITE_IMAGES.UPLOADER_ID))
+        .where(SITE_ENTRIES.SITE_ID.eq(siteId))
+        .and(SITE_IMAGES.APPROVAL_STATUS.eq(ImageApprovalStatus.APPROVED.getApprovalStatus()))
+        .orderBy(SITE_IMAGES.UPLOADED_AT.desc())
+        .fetch()
+        .forEach(
+            result -> {
+              SiteImagesRecord record = result.into(SITE_IMAGES);
+              List<SiteEntryImage> entryImages = images.get(record.getSiteEntryId());
+              // The image's entry may have been deleted
+              if (entryImages == null) {
+                return;
+              }
+
+              String username = record.getAnonymous() ? "Anonymous" : result.get(USERS.USERNAME);
+              entryImages.add(
+                  new SiteEntryImage(
+                      record.getId(),
+                      username,
+                      record.getUploaderId(),
+                      record.getUploadedAt(),
+                      record.getImageUrl()));
+            });
+
+    // if no approved images exist for an entry, check if its tree has a default image.
+    // if the tree's common name is null, we won't find any default image
+    entries.forEach(
+        entry -> {
+          List<SiteEntryImage> entryImages = images.get(entry.getId());
+          Species species = speciesIndex.find(entry.getCommonName());
+          if (entryImages.isEmpty() && species != null && species.getDefaultImage() != null) {
+            entryImages.add(new SiteEntryImage(species.getDefaultImage()));
+          }
+        });
 
-    // if no default image either, return empty list
-    return new ArrayList<>();
+    return images;
   }
 
   @Override
@@ -272,9 +286,20 @@ public class SiteProcessorImpl implements ISiteProcessor {
         sitesRecord.getAddress(),
         sitesRecord.getNeighborhoodId(),
         SiteOwner.from(sitesRecord.getOwner()),
+        sitesRecord.getOnPrivateStreet(),
         getSiteEntries(siteId));
   }
 
+  @Override
+  public Buffer getEncodedSite(int siteId) {
+    return siteResponses.get(siteId, () -> Json.encodeToBuffer(getSite(siteId)));
+  }
+
+  @Override
+  public SiteGeoResponse getNearbySites(double lat, double lng, int limit, Double radiusMeters) {
+    return new SiteGeoResponse(siteMap.getNearestFeatures(lat, lng, limit, radiusMeters));
+  }
+
   @Override
   public StewardshipActivitiesResponse getStewardshipActivities(int siteId) {
     List<StewardshipRecord> records =
@@ -317,7 +342,7 @@ public class SiteProcessorImpl implements ISiteProcessor {
   public TreeBenefitsResponse calculateBenefits(int siteId) {
     checkSiteExists(siteId);
 
-    SiteEntriesRecord record = latestSiteEntry(siteId);
+    SiteEntriesRecord record = latestSiteEntry(db, siteId);
 
     if (record == null) {
       throw new ResourceDoesNotExistException(siteId, "site entry");
@@ -332,6 +357,16 @@ public class SiteProcessorImpl implements ISiteProcessor {
       throw new ResourceDoesNotExistException(siteId, "site entry diameter");
     }
 
-    return new TreeBenefitsCalculator(this.db, commonName, diameter).calculateBenefits();
+    return benefitsCalculator.calculateBenefits(commonName, diameter);
+  }
+
+  @Override
+  public TreeBenefitsTotalsResponse getBenefitTotals(Integer neighborhoodId) {
+    if (neighborhoodId != null
+        && !db.fetchExists(NEIGHBORHOODS, NEIGHBORHOODS.ID.eq(neighborhoodId))) {
+      throw new ResourceDoesNotExistException(neighborhoodId, "Neighborhood");
+    }
+
+    return siteBenefits.get(neighborhoodId);
   }
 }
@@ -1,125 +1,255 @@
 package com.codeforcommunity.requester;
 
 import static org.jooq.generated.Tables.TREE_BENEFITS;
-import static org.jooq.generated.Tables.TREE_SPECIES;
-import static org.jooq.impl.DSL.lower;
-import static org.jooq.impl.DSL.replace;
 
+import com.codeforcommunity.dataaccess.TreeSpeciesIndex;
+import com.codeforcommunity.dataaccess.TreeSpeciesIndex.Species;
 import com.codeforcommunity.dto.site.TreeBenefitsResponse;
+import com.codeforcommunity.logger.SLogger;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.generated.tables.records.TreeBenefitsRecord;
-import org.jooq.generated.tables.records.TreeSpeciesRecord;
 
+/**
+ * Calculates the environmental benefits of trees from the tree_benefits table, which gives each
+ * species' benefits at a fixed set of diameters. Benefits at other diameters are interpolated
+ * between the two closest of these.
+ *
+ * <p>The whole table is loaded into memory, one array of doubles per species, so calculating
+ * benefits needs no queries and allocates nothing but the response. The table must be reloaded
+ * whenever tree benefits are imported.
+ */
 public class TreeBenefitsCalculator {
   static final double[] intervals =
       new double[] {3.81, 11.43, 22.86, 38.10, 53.34, 68.58, 83.82, 99.06, 114.30};
 
-  static final Map<String, Double> currencyConversion =
-      new HashMap<String, Double>() {
-        {
-          put("electricity_kwh_to_currency", 0.1401);
-          put("natural_gas_kbtu_to_currency", 0.01408);
-          put("h20_gal_to_currency", 0.0008);
-          put("co2_lb_to_currency", 0.00334);
-          put("o3_lb_to_currency", 4.59);
-          put("nox_lb_to_currency", 4.59);
-          put("pm10_lb_to_currency", 8.31);
-          put("sox_lb_to_currency", 3.48);
-          put("voc_lb_to_currency", 2.31);
-        }
-      };
-  static final Map<String, Double> unitConversion =
-      new HashMap<String, Double>() {
-        {
-          put("kBTU_to_kWh", 0.2930);
-          put("kg_to_lb", 2.20462);
-          put("m3_to_gal", 264.172);
-        }
+  // currency conversions
+  static final double ELECTRICITY_KWH_TO_CURRENCY = 0.1401;
+  static final double NATURAL_GAS_KBTU_TO_CURRENCY = 0.01408;
+  static final double H20_GAL_TO_CURRENCY = 0.0008;
+  static final double CO2_LB_TO_CURRENCY = 0.00334;
+  static final double O3_LB_TO_CURRENCY = 4.59;
+  static final double NOX_LB_TO_CURRENCY = 4.59;
+  static final double PM10_LB_TO_CURRENCY = 8.31;
+  static final double SOX_LB_TO_CURRENCY = 3.48;
+  static final double VOC_LB_TO_CURRENCY = 2.31;
+
+  // unit conversions
+  static final double KBTU_TO_KWH = 0.2930;
+  static final double KG_TO_LB = 2.20462;
+  static final double M3_TO_GAL = 264.172;
+
+  /** The tree_benefits columns kept for each diameter, in the order they are stored in curves. */
+  private static final Field<?>[] PROPERTIES =
+      new Field<?>[] {
+        TREE_BENEFITS.AQ_NOX_AVOIDED,
+        TREE_BENEFITS.AQ_NOX_DEP,
+        TREE_BENEFITS.AQ_OZONE_DEP,
+        TREE_BENEFITS.AQ_PM10_AVOIDED,
+        TREE_BENEFITS.AQ_PM10_DEP,
+        TREE_BENEFITS.AQ_SOX_AVOIDED,
+        TREE_BENEFITS.AQ_SOX_DEP,
+        TREE_BENEFITS.AQ_VOC_AVOIDED,
+        TREE_BENEFITS.CO2_AVOIDED,
+        TREE_BENEFITS.CO2_SEQUESTERED,
+        TREE_BENEFITS.CO2_STORAGE,
+        TREE_BENEFITS.ELECTRICITY,
+        TREE_BENEFITS.HYDRO_INTERCEPTION,
+        TREE_BENEFITS.NATURAL_GAS
       };
 
-  // fields to be set in the constructor
+  private static final int AQ_NOX_AVOIDED = 0;
+  private static final int AQ_NOX_DEP = 1;
+  private static final int AQ_OZONE_DEP = 2;
+  private static final int AQ_PM10_AVOIDED = 3;
+  private static final int AQ_PM10_DEP = 4;
+  private static final int AQ_SOX_AVOIDED = 5;
+  private static final int AQ_SOX_DEP = 6;
+  private static final int AQ_VOC_AVOIDED = 7;
+  private static final int CO2_AVOIDED = 8;
+  private static final int CO2_SEQUESTERED = 9;
+  private static final int CO2_STORAGE = 10;
+  private static final int ELECTRICITY = 11;
+  private static final int HYDRO_INTERCEPTION = 12;
+  private static final int NATURAL_GAS = 13;
+
+  /** The number of benefits calculated for a tree, in the order of the response's fields. */
+  public static final int BENEFIT_COUNT = 10;
+
+  private static final int ENERGY = 0;
+  private static final int ENERGY_MONEY = 1;
+  private static final int STORMWATER = 2;
+  private static final int STORMWATER_MONEY = 3;
+  private static final int AIR_QUALITY = 4;
+  private static final int AIR_QUALITY_MONEY = 5;
+  private static final int CO2_REMOVED = 6;
+  private static final int CO2_REMOVED_MONEY = 7;
+  private static final int CO2_STORED = 8;
+  private static final int CO2_STORED_MONEY = 9;
+
+  private final SLogger logger = new SLogger(TreeBenefitsCalculator.class);
   private final DSLContext db;
-  private final String commonName;
-  private final double diameterCM;
-
-  // fields to be computed and set when calculateBenefits() is called
-  private double x0;
-  private double x1;
-  private TreeBenefitsRecord y0Record;
-  private TreeBenefitsRecord y1Record;
-  // diameter in inches
-  public TreeBenefitsCalculator(DSLContext db, String commonName, double diameter) {
-    this.db = db;
-    this.commonName = commonName;
+  private final TreeSpeciesIndex speciesIndex;
 
-    // clamp diameter to min and max of intervals
-    this.diameterCM =
-        Math.min(Math.max(diameter * 2.54, intervals[0]), intervals[intervals.length - 1]);
+  // Each species' value of every property at every interval, indexed by
+  // property * intervals.length + interval
+  private volatile Map<String, double[]> curves = new HashMap<>();
+
+  public TreeBenefitsCalculator(DSLContext db, TreeSpeciesIndex speciesIndex) {
+    this.db = db;
+    this.speciesIndex = speciesIndex;
   }
 
-  public TreeBenefitsResponse calculateBenefits() {
-    String speciesCode = getSpeciesCode(this.commonName);
+  /** Rebuild the curves of every species from the tree_benefits table. */
+  public void load() {
+    Map<String, double[]> loaded = new HashMap<>();
+    int skipped = 0;
+    for (TreeBenefitsRecord record : db.selectFrom(TREE_BENEFITS).fetch()) {
+      int interval = Arrays.binarySearch(intervals, record.getDiameter());
+      if (interval < 0) {
+        skipped++;
+        continue;
+      }
+
+      double[] curve =
+          loaded.computeIfAbsent(
+              record.getSpeciesCode(),
+              speciesCode -> {
+                double[] newCurve = new double[PROPERTIES.length * intervals.length];
+                Arrays.fill(newCurve, Double.NaN);
+                return newCurve;
+              });
+      for (int property = 0; property < PROPERTIES.length; property++) {
+        curve[property * intervals.length + interval] =
+            record.get(PROPERTIES[property], double.class);
+      }
+    }
 
-    if (speciesCode == null) {
-      // if the given tree is unknown, return a response with all nulls
+    // A species missing any diameter can't be interpolated across the whole range
+    loaded.values().removeIf(curve -> Arrays.stream(curve).anyMatch(Double::isNaN));
+    curves = loaded;
+    logger.info(
+        String.format(
+            "Loaded tree benefits of %d species, skipping %d rows with unknown diameters",
+            loaded.size(), skipped));
+  }
+
+  /**
+   * Calculates the environmental impacts of a tree. This includes the following values: energy
+   * conserved, stormwater filtered, air quality improved, carbon dioxide removed, and carbon
+   * dioxide stored, as well as the amount of money saved for each category.
+   *
+   * @param commonName the tree's common name
+   * @param diameter the tree's diameter in inches
+   * @return the tree's benefits, or a response with all nulls if the tree's species is unknown
+   */
+  public TreeBenefitsResponse calculateBenefits(String commonName, double diameter) {
+    double[] benefits = new double[BENEFIT_COUNT];
+    if (!addBenefits(commonName, diameter, benefits)) {
       return new TreeBenefitsResponse();
     }
+    return toResponse(benefits);
+  }
+
+  /**
+   * Adds the benefits of a tree to the given totals, so that the benefits of many trees can be
+   * summed without building a response for each one.
+   *
+   * @param commonName the tree's common name
+   * @param diameter the tree's diameter in inches
+   * @param totals the totals of each benefit, of length {@link #BENEFIT_COUNT} and in the order of
+   *     the response's fields
+   * @return whether the tree's species is known, since nothing is added if it isn't
+   */
+  public boolean addBenefits(String commonName, double diameter, double[] totals) {
+    Species species = speciesIndex.find(commonName);
+    double[] curve = species == null ? null : curves.get(species.getSpeciesCode());
+    if (curve == null) {
+      return false;
+    }
+
+    // clamp diameter to min and max of intervals
+    double diameterCM =
+        Math.min(Math.max(diameter * 2.54, intervals[0]), intervals[intervals.length - 1]);
 
-    double x0 = 0;
-    double x1 = 0;
     // i should never reach the last element in intervals
+    int interval = 0;
     for (int i = 0; i < intervals.length - 1; i++) {
       if (intervals[i] <= diameterCM) {
-        x0 = intervals[i];
-        x1 = intervals[i + 1];
+        interval = i;
       }
     }
 
-    // store computed x values and records for easy access in helper methods
-    this.x0 = x0;
-    this.x1 = x1;
-    this.y0Record =
-        db.selectFrom(TREE_BENEFITS)
-            .where(TREE_BENEFITS.SPECIES_CODE.eq(speciesCode))
-            .and(TREE_BENEFITS.DIAMETER.eq(x0))
-            .fetchOne();
-    this.y1Record =
-        db.selectFrom(TREE_BENEFITS)
-            .where(TREE_BENEFITS.SPECIES_CODE.eq(speciesCode))
-            .and(TREE_BENEFITS.DIAMETER.eq(x1))
-            .fetchOne();
+    double naturalGas = interpolate(curve, NATURAL_GAS, interval, diameterCM);
+    double electricity = interpolate(curve, ELECTRICITY, interval, diameterCM);
+    double hydroInterception = interpolate(curve, HYDRO_INTERCEPTION, interval, diameterCM);
+    double noxAvoided = interpolate(curve, AQ_NOX_AVOIDED, interval, diameterCM);
+    double noxDep = interpolate(curve, AQ_NOX_DEP, interval, diameterCM);
+    double ozoneDep = interpolate(curve, AQ_OZONE_DEP, interval, diameterCM);
+    double pm10Avoided = interpolate(curve, AQ_PM10_AVOIDED, interval, diameterCM);
+    double pm10Dep = interpolate(curve, AQ_PM10_DEP, interval, diameterCM);
+    double soxAvoided = interpolate(curve, AQ_SOX_AVOIDED, interval, diameterCM);
+    double soxDep = interpolate(curve, AQ_SOX_DEP, interval, diameterCM);
+    double vocAvoided = interpolate(curve, AQ_VOC_AVOIDED, interval, diameterCM);
+    double co2Avoided = interpolate(curve, CO2_AVOIDED, interval, diameterCM);
+    double co2Sequestered = interpolate(curve, CO2_SEQUESTERED, interval, diameterCM);
+    double co2Storage = interpolate(curve, CO2_STORAGE, interval, diameterCM);
 
-    return new TreeBenefitsResponse(
-        calcEnergy(), calcEnergyMoney(),
-        calcStormwater(), calcStormwaterMoney(),
-        calcAirQuality(), calcAirQualityMoney(),
-        calcCo2Removed(), calcCo2RemovedMoney(),
-        calcCo2Stored(), calcCo2StoredMoney());
-  }
+    // energy conserved (from natural gas and electricity) in kWh, natural gas Kbtu to kWh
+    totals[ENERGY] += (naturalGas * KBTU_TO_KWH) + electricity;
+    totals[ENERGY_MONEY] +=
+        (naturalGas * NATURAL_GAS_KBTU_TO_CURRENCY) + (electricity * ELECTRICITY_KWH_TO_CURRENCY);
 
-  // helper to query the species code from the tree_species table
-  private String getSpeciesCode(String commonName) {
-    TreeSpeciesRecord record =
-        db.selectFrom(TREE_SPECIES)
-            .where(
-                lower(replace(TREE_SPECIES.COMMON_NAME, " ", ""))
-                    .eq(commonName.toLowerCase().replace(" ", "")))
-            .fetchOne();
-
-    if (record == null) {
-      return null;
-    }
+    // water filtered, m3 to gal
+    double stormwater = hydroInterception * M3_TO_GAL;
+    totals[STORMWATER] += stormwater;
+    totals[STORMWATER_MONEY] += stormwater * H20_GAL_TO_CURRENCY;
+
+    // air quality improved based on the avoidance and deposition of various compounds, kgs to lbs
+    totals[AIR_QUALITY] +=
+        (noxAvoided + noxDep + ozoneDep + pm10Avoided + pm10Dep + soxAvoided + soxDep + vocAvoided)
+            * KG_TO_LB;
+    // distributive property: v1*lbs*m1 + v2*lbs*m2 = lbs*(v1*m1 + v2*m2)
+    totals[AIR_QUALITY_MONEY] +=
+        (((noxAvoided + noxDep) * NOX_LB_TO_CURRENCY)
+                + (ozoneDep * O3_LB_TO_CURRENCY)
+                + ((pm10Avoided + pm10Dep) * PM10_LB_TO_CURRENCY)
+                + ((soxAvoided + soxDep) * SOX_LB_TO_CURRENCY)
+                + (vocAvoided * VOC_LB_TO_CURRENCY))
+            * KG_TO_LB;
+
+    // carbon dioxide removed (from avoiding and sequestering), kgs to lbs
+    double co2Removed = (co2Avoided + co2Sequestered) * KG_TO_LB;
+    totals[CO2_REMOVED] += co2Removed;
+    totals[CO2_REMOVED_MONEY] += co2Removed * CO2_LB_TO_CURRENCY;
+
+    // carbon dioxide stored, kgs to lbs
+    double co2Stored = co2Storage * KG_TO_LB;
+    totals[CO2_STORED] += co2Stored;
+    totals[CO2_STORED_MONEY] += co2Stored * CO2_LB_TO_CURRENCY;
+
+    return true;
+  }
 
-    return record.getSpeciesCode();
+  /** Build a response from benefits in the order of the response's fields. */
+  public static TreeBenefitsResponse toResponse(double[] benefits) {
+    return new TreeBenefitsResponse(
+        benefits[ENERGY], benefits[ENERGY_MONEY],
+        benefits[STORMWATER], benefits[STORMWATER_MONEY],
+        benefits[AIR_QUALITY], benefits[AIR_QUALITY_MONEY],
+        benefits[CO2_REMOVED], benefits[CO2_REMOVED_MONEY],
+        benefits[CO2_STORED], benefits[CO2_STORED_MONEY]);
   }
 
   // helper to calculate the interpolated value of the given property
-  private double calcProperty(Field property) {
-    double y0 = this.y0Record.get(property, Double.class);
-    double y1 = this.y1Record.get(property, Double.class);
+  private static double interpolate(double[] curve, int property, int interval, double diameterCM) {
+    double x0 = intervals[interval];
+    double x1 = intervals[interval + 1];
+    double y0 = curve[property * intervals.length + interval];
+    double y1 = curve[property * intervals.length + interval + 1];
 
     if (y0 == y1) {
       return y0;
@@ -131,93 +261,4 @@ public class TreeBenefitsCalculator {
 
     return m * diameterCM + b;
   }
-
-  /** Calculates the total energy conserved (from natural gas and electricity) in kWh */
-  private double calcEnergy() {
-    // natural gas Kbtu to kWh
-    return (calcProperty(TREE_BENEFITS.NATURAL_GAS) * unitConversion.get("kBTU_to_kWh"))
-        + calcProperty(TREE_BENEFITS.ELECTRICITY);
-  }
-
-  /**
-   * Calculates the total money saved from energy conserved (from natural gas and electricity) in
-   * USD
-   */
-  private double calcEnergyMoney() {
-    return (calcProperty(TREE_BENEFITS.NATURAL_GAS)
-            * currencyConversion.get("natural_gas_kbtu_to_currency"))
-        + (calcProperty(TREE_BENEFITS.ELECTRICITY)
-            * currencyConversion.get("electricity_kwh_to_currency"));
-  }
-
-  /** Calculates the total water filtered in gal */
-  private double calcStormwater() {
-    // m3 to gal
-    return calcProperty(TREE_BENEFITS.HYDRO_INTERCEPTION) * unitConversion.get("m3_to_gal");
-  }
-
-  /** Calculates the total money saved from water filtered in USD */
-  private double calcStormwaterMoney() {
-    return this.calcStormwater() * currencyConversion.get("h20_gal_to_currency");
-  }
-
-  /**
-   * Calculates the air quality improved based on the avoidance and deposition of various compounds
-   * in lbs: nitrous oxide (NOx) avoided nitrous oxide (NOx) deposition ozone deposition PM10
-   * avoided PM10 deposition sulfur oxide (SOx) avoided sulfur oxide (SOx) deposition volatile
-   * organic compounds (VOCs) avoided
-   */
-  private double calcAirQuality() {
-    // kgs to lbs
-    return (calcProperty(TREE_BENEFITS.AQ_NOX_AVOIDED)
-            + calcProperty(TREE_BENEFITS.AQ_NOX_DEP)
-            + calcProperty(TREE_BENEFITS.AQ_OZONE_DEP)
-            + calcProperty(TREE_BENEFITS.AQ_PM10_AVOIDED)
-            + calcProperty(TREE_BENEFITS.AQ_PM10_DEP)
-            + calcProperty(TREE_BENEFITS.AQ_SOX_AVOIDED)
-            + calcProperty(TREE_BENEFITS.AQ_SOX_DEP)
-            + calcProperty(TREE_BENEFITS.AQ_VOC_AVOIDED))
-        * unitConversion.get("kg_to_lb");
-  }
-
-  /** Calculates the total money saved from air quality improved in USD */
-  private double calcAirQualityMoney() {
-    // kgs to lbs
-    // distributive property: v1*lbs*m1 + v2*lbs*m2 = lbs*(v1*m1 + v2*m2)
-    return (((calcProperty(TREE_BENEFITS.AQ_NOX_AVOIDED) + calcProperty(TREE_BENEFITS.AQ_NOX_DEP))
-                * currencyConversion.get("nox_lb_to_currency"))
-            + (calcProperty(TREE_BENEFITS.AQ_OZONE_DEP)
-                * currencyConversion.get("o3_lb_to_currency"))
-            + ((calcProperty(TREE_BENEFITS.AQ_PM10_AVOIDED)
-                    + calcProperty(TREE_BENEFITS.AQ_PM10_DEP))
-                * currencyConversion.get("pm10_lb_to_currency"))
-            + ((calcProperty(TREE_BENEFITS.AQ_SOX_AVOIDED) + calcProperty(TREE_BENEFITS.AQ_SOX_DEP))
-                * currencyConversion.get("sox_lb_to_currency"))
-            + (calcProperty(TREE_BENEFITS.AQ_VOC_AVOIDED)
-                * currencyConversion.get("voc_lb_to_currency")))
-        * unitConversion.get("kg_to_lb");
-  }
-
-  /** Calculates the total carbon dioxide removed (from avoiding and sequestering) in lbs */
-  private double calcCo2Removed() {
-    // kgs to lbs
-    return (calcProperty(TREE_BENEFITS.CO2_AVOIDED) + calcProperty(TREE_BENEFITS.CO2_SEQUESTERED))
-        * unitConversion.get("kg_to_lb");
-  }
-
-  /** Calculates the total money saved from dioxide removed in USD */
-  private double calcCo2RemovedMoney() {
-    return this.calcCo2Removed() * currencyConversion.get("co2_lb_to_currency");
-  }
-
-  /** Calculates the total carbon dioxide stored in lbs */
-  private double calcCo2Stored() {
-    // kgs to lbs
-    return calcProperty(TREE_BENEFITS.CO2_STORAGE) * unitConversion.get("kg_to_lb");
-  }
-
-  /** Calculates the total money saved from dioxide stored in USD */
-  private double calcCo2StoredMoney() {
-    return this.calcCo2Stored() * currencyConversion.get("co2_lb_to_currency");
-  }
 }
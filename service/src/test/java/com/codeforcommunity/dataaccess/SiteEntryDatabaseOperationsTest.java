@@ -0,0 +1,61 @@
+package com.codeforcommunity.dataaccess;
+
+import static com.codeforcommunity.dataaccess.SiteEntryDatabaseOperations.displayName;
+import static org.jooq.generated.Tables.SITE_ENTRIES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.codeforcommunity.JooqMock;
+import org.jooq.generated.tables.records.SiteEntriesRecord;
+import org.junit.jupiter.api.Test;
+
+public class SiteEntryDatabaseOperationsTest {
+
+  @Test
+  public void testDisplayNameCommonName() {
+    assertEquals("Red Maple", displayName("Red Maple", "Acer", "rubrum"));
+    assertEquals("Red Maple", displayName("Red Maple", null, null));
+    assertEquals("Red Maple", displayName("Red Maple", "", ""));
+    // Only an empty common name falls back, not a blank one
+    assertEquals(" ", displayName(" ", "Acer", "rubrum"));
+  }
+
+  @Test
+  public void testDisplayNameGenusAndSpecies() {
+    assertEquals("Acer rubrum", displayName("", "Acer", "rubrum"));
+    assertEquals("Acer", displayName("", "Acer", ""));
+    assertEquals("rubrum", displayName("", "", "rubrum"));
+    assertEquals("Unknown Species", displayName("", "", ""));
+  }
+
+  @Test
+  public void testDisplayNameMissingValues() {
+    // A missing value gives no name, as it did in SQL, where comparing or joining with null is null
+    assertNull(displayName(null, "Acer", "rubrum"));
+    assertNull(displayName(null, null, null));
+    assertNull(displayName("", null, null));
+    assertNull(displayName("", "Acer", null));
+    assertNull(displayName("", null, "rubrum"));
+    assertNull(displayName("", null, ""));
+    assertNull(displayName("", "", null));
+  }
+
+  @Test
+  public void testSetDisplayName() {
+    SiteEntriesRecord record = new JooqMock().getContext().newRecord(SITE_ENTRIES);
+    record.setCommonName("");
+    record.setGenus("Acer");
+    record.setSpecies("rubrum");
+    SiteEntryDatabaseOperations.setDisplayName(record);
+    assertEquals("Acer rubrum", record.getDisplayName());
+
+    // Setting it again follows a change to the names
+    record.setCommonName("Red Maple");
+    SiteEntryDatabaseOperations.setDisplayName(record);
+    assertEquals("Red Maple", record.getDisplayName());
+
+    record.setCommonName(null);
+    SiteEntryDatabaseOperations.setDisplayName(record);
+    assertNull(record.getDisplayName());
+  }
+}
@@ -0,0 +1,86 @@
+package com.codeforcommunity.dataaccess;
+
+import static com.codeforcommunity.requester.TreeFixtures.HONEYLOCUST;
+import static com.codeforcommunity.requester.TreeFixtures.PIN_OAK;
+import static com.codeforcommunity.requester.TreeFixtures.RED_MAPLE;
+import static com.codeforcommunity.requester.TreeFixtures.SUGAR_MAPLE;
+import static com.codeforcommunity.requester.TreeFixtures.species;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.codeforcommunity.JooqMock;
+import com.codeforcommunity.JooqMock.OperationType;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TreeSpeciesIndexTest {
+  JooqMock mockDb;
+  TreeSpeciesIndex index;
+
+  @BeforeEach
+  public void setup() {
+    mockDb = new JooqMock();
+    mockDb.addReturn(
+        OperationType.SELECT,
+        Arrays.asList(
+            species(mockDb.getContext(), HONEYLOCUST),
+            species(mockDb.getContext(), RED_MAPLE),
+            species(mockDb.getContext(), SUGAR_MAPLE),
+            species(mockDb.getContext(), PIN_OAK)));
+    index = new TreeSpeciesIndex(mockDb.getContext());
+    index.load();
+  }
+
+  @Test
+  public void testNormalize() {
+    assertEquals("honeylocust", TreeSpeciesIndex.normalize("Honey locust"));
+    assertEquals("kwanzancherry", TreeSpeciesIndex.normalize(" Kwanzan-Cherry "));
+  }
+
+  @Test
+  public void testEditDistance() {
+    assertEquals(0, TreeSpeciesIndex.editDistance("maple", "maple", 2));
+    assertEquals(1, TreeSpeciesIndex.editDistance("maple", "mapel", 2));
+    assertEquals(1, TreeSpeciesIndex.editDistance("maple", "maples", 2));
+    assertEquals(2, TreeSpeciesIndex.editDistance("maple", "mopel", 2));
+    assertEquals(3, TreeSpeciesIndex.editDistance("maple", "oak", 2));
+  }
+
+  @Test
+  public void testFindExact() {
+    assertEquals("GLTR", index.find("Honey locust").getSpeciesCode());
+    assertEquals("GLTR", index.find("HONEYLOCUST").getSpeciesCode());
+    assertEquals("ACRU", index.find("red maple").getSpeciesCode());
+  }
+
+  @Test
+  public void testFindNearMiss() {
+    assertEquals("GLTR", index.find("Honey locusts").getSpeciesCode());
+    assertEquals("ACSA2", index.find("Sugar Mapel").getSpeciesCode());
+    assertEquals("QUPA", index.find("Pin Oaks").getSpeciesCode());
+  }
+
+  @Test
+  public void testFindNoMatch() {
+    assertNull(index.find(null));
+    assertNull(index.find("Oak"));
+    assertNull(index.find("Norway Spruce"));
+    // Too many typos for a name this short
+    assertNull(index.find("Pan Oaks"));
+  }
+
+  @Test
+  public void testMatchesAreBounded() {
+    for (int i = 0; i < TreeSpeciesIndex.MAX_MATCHES + 100; i++) {
+      assertNull(index.find("Unknown tree " + i));
+    }
+    assertEquals(TreeSpeciesIndex.MAX_MATCHES, index.cachedMatches());
+
+    // Exact names are looked up directly rather than remembered
+    assertEquals("GLTR", index.find("Honeylocust").getSpeciesCode());
+    assertEquals(TreeSpeciesIndex.MAX_MATCHES, index.cachedMatches());
+    // Near misses are still matched once older names have been forgotten
+    assertEquals("GLTR", index.find("Honey locusts").getSpeciesCode());
+  }
+}
@@ -0,0 +1,114 @@
+package com.codeforcommunity.map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+public class GeometrySimplifierTest {
+  // A unit square with an extra point close to the middle of each side
+  private static final double[] SQUARE =
+      new double[] {0, 0, 0.5, 0.001, 1, 0, 0.999, 0.5, 1, 1, 0.5, 1.001, 0, 1, 0.001, 0.5, 0, 0};
+  private static final double[] SIMPLIFIED_SQUARE = new double[] {0, 0, 1, 0, 1, 1, 0, 1, 0, 0};
+
+  @Test
+  public void testSimplifyRingRemovesPointsWithinTolerance() {
+    assertArrayEquals(SIMPLIFIED_SQUARE, GeometrySimplifier.simplifyRing(SQUARE, 0.01));
+  }
+
+  @Test
+  public void testSimplifyRingKeepsPointsBeyondTolerance() {
+    assertArrayEquals(SQUARE, GeometrySimplifier.simplifyRing(SQUARE, 0.0001));
+  }
+
+  @Test
+  public void testSimplifyRingKeepsSomePoints() {
+    // Only the bottom side's middle point is further from the side than the tolerance
+    double[] ring =
+        new double[] {0, 0, 0.5, 0.1, 1, 0, 0.999, 0.5, 1, 1, 0.5, 1.001, 0, 1, 0.001, 0.5, 0, 0};
+    assertArrayEquals(
+        new double[] {0, 0, 0.5, 0.1, 1, 0, 1, 1, 0, 1, 0, 0},
+        GeometrySimplifier.simplifyRing(ring, 0.01));
+  }
+
+  @Test
+  public void testSimplifyRingWithoutTolerance() {
+    assertSame(SQUARE, GeometrySimplifier.simplifyRing(SQUARE, 0));
+  }
+
+  @Test
+  public void testSimplifyRingNeverCollapses() {
+    // A thin sliver would lose every point but its ends
+    double[] sliver = new double[] {0, 0, 1, 0.0001, 2, 0, 1, -0.0001, 0, 0};
+    assertSame(sliver, GeometrySimplifier.simplifyRing(sliver, 1));
+
+    double[] triangle = new double[] {0, 0, 1, 0, 0, 1, 0, 0};
+    assertSame(triangle, GeometrySimplifier.simplifyRing(triangle, 1));
+  }
+
+  private static JsonArray positions(double[] ring) {
+    JsonArray positions = new JsonArray();
+    for (int i = 0; i < ring.length; i += 2) {
+      positions.add(new JsonArray().add(ring[i]).add(ring[i + 1]));
+    }
+    return positions;
+  }
+
+  @Test
+  public void testSimplifyPolygon() {
+    String polygon =
+        new JsonObject()
+            .put("type", "Polygon")
+            .put("coordinates", new JsonArray().add(positions(SQUARE)))
+            .encode();
+
+    JsonObject simplified = new JsonObject(GeometrySimplifier.simplify(polygon, 0.01));
+    assertEquals("Polygon", simplified.getString("type"));
+    assertEquals(
+        new JsonArray().add(positions(SIMPLIFIED_SQUARE)), simplified.getJsonArray("coordinates"));
+  }
+
+  @Test
+  public void testSimplifyMultiPolygon() {
+    String multiPolygon =
+        new JsonObject()
+            .put("type", "MultiPolygon")
+            .put(
+                "coordinates",
+                new JsonArray()
+                    .add(new JsonArray().add(positions(SQUARE)))
+                    .add(new JsonArray().add(positions(SQUARE))))
+            .encode();
+
+    JsonObject simplified = new JsonObject(GeometrySimplifier.simplify(multiPolygon, 0.01));
+    assertEquals("MultiPolygon", simplified.getString("type"));
+    JsonArray polygon = new JsonArray().add(positions(SIMPLIFIED_SQUARE));
+    assertEquals(new JsonArray().add(polygon).add(polygon), simplified.getJsonArray("coordinates"));
+  }
+
+  @Test
+  public void testSimplifyKeepsOtherGeometry() {
+    String point = "{\"type\":\"Point\",\"coordinates\":[0,0]}";
+    assertSame(point, GeometrySimplifier.simplify(point, 0.01));
+    assertNull(GeometrySimplifier.simplify(null, 0.01));
+  }
+
+  @Test
+  public void testSimplifyKeepsMalformedGeometry() {
+    String[] malformed =
+        new String[] {
+          "not json",
+          "{\"type\":\"Polygon\",\"coordinates\":\"none\"}",
+          "{\"type\":\"Polygon\",\"coordinates\":[[[0]]]}",
+          "{\"type\":\"Polygon\",\"coordinates\":[[null]]}",
+          "{\"type\":\"Polygon\",\"coordinates\":[[[\"a\",\"b\"]]]}"
+        };
+    for (String geometry : malformed) {
+      assertSame(geometry, GeometrySimplifier.simplify(geometry, 0.01));
+    }
+  }
+}
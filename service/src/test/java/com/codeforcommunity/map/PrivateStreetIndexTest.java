@@ -0,0 +1,227 @@
+package com.codeforcommunity.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class PrivateStreetIndexTest {
+  private static final double METERS_PER_DEGREE = 111_320;
+  private static final double BUFFER_METERS = 10;
+
+  private static JsonObject street(String name, String type, JsonArray coordinates) {
+    return new JsonObject()
+        .put("type", "Feature")
+        .put("properties", new JsonObject().put("street_name", name).put("neighborhood", "Fenway"))
+        .put("geometry", new JsonObject().put("type", type).put("coordinates", coordinates));
+  }
+
+  private static JsonArray line(double... coordinates) {
+    JsonArray positions = new JsonArray();
+    for (int i = 0; i < coordinates.length; i += 2) {
+      positions.add(new JsonArray().add(coordinates[i]).add(coordinates[i + 1]));
+    }
+    return positions;
+  }
+
+  private static PrivateStreetIndex index(JsonObject... streets) {
+    JsonArray features = new JsonArray();
+    for (JsonObject street : streets) {
+      features.add(street);
+    }
+    String geoJson =
+        new JsonObject().put("type", "FeatureCollection").put("features", features).encode();
+    return PrivateStreetIndex.load(
+        new ByteArrayInputStream(geoJson.getBytes(StandardCharsets.UTF_8)), BUFFER_METERS);
+  }
+
+  @Test
+  public void testPointNearSegment() {
+    // A street running east along the equator, where a degree is the same either way
+    PrivateStreetIndex index = index(street("Equator Way", "LineString", line(0, 0, 0.001, 0)));
+    assertEquals(1, index.size());
+
+    double fiveMeters = 5 / METERS_PER_DEGREE;
+    Optional<PrivateStreetIndex.Match> match = index.nearest(fiveMeters, 0.0005);
+    assertTrue(match.isPresent());
+    assertEquals("Equator Way", match.get().getStreetName());
+    assertEquals("Fenway", match.get().getNeighborhood());
+    assertEquals(5, match.get().getDistanceMeters(), 1e-6);
+
+    assertFalse(index.nearest(-15 / METERS_PER_DEGREE, 0.0005).isPresent());
+  }
+
+  @Test
+  public void testPointBeyondSegmentEnd() {
+    PrivateStreetIndex index = index(street("Equator Way", "LineString", line(0, 0, 0.001, 0)));
+    // Past the end of the street, the distance is to the end point rather than the line
+    double eightMeters = 8 / METERS_PER_DEGREE;
+    assertEquals(8, index.nearest(0, 0.001 + eightMeters).get().getDistanceMeters(), 1e-6);
+    assertFalse(index.nearest(0, 0.001 + 2 * eightMeters).isPresent());
+    assertFalse(index.nearest(eightMeters, -eightMeters).isPresent());
+  }
+
+  @Test
+  public void testBufferEdgeInclusive() {
+    PrivateStreetIndex index = index(street("Equator Way", "LineString", line(0, 0, 0.001, 0)));
+    double buffer = BUFFER_METERS / METERS_PER_DEGREE;
+    assertTrue(index.nearest(buffer * (1 - 1e-9), 0.0005).isPresent());
+    assertFalse(index.nearest(buffer * (1 + 1e-6), 0.0005).isPresent());
+  }
+
+  @Test
+  public void testNearestOfSeveralStreets() {
+    double meter = 1 / METERS_PER_DEGREE;
+    PrivateStreetIndex index =
+        index(
+            street("South St", "LineString", line(0, 0, 0.001, 0)),
+            street("North St", "LineString", line(0, 6 * meter, 0.001, 6 * meter)),
+            street(
+                "Split St",
+                "MultiLineString",
+                new JsonArray()
+                    .add(line(0.002, 0, 0.003, 0))
+                    .add(line(0.004, 0, 0.005, 0, 0.006, 0))));
+    assertEquals(5, index.size());
+
+    assertEquals("South St", index.nearest(2 * meter, 0.0005).get().getStreetName());
+    assertEquals("North St", index.nearest(4 * meter, 0.0005).get().getStreetName());
+    assertEquals("Split St", index.nearest(meter, 0.0025).get().getStreetName());
+    assertEquals("Split St", index.nearest(meter, 0.0055).get().getStreetName());
+    // Between the two lines of the split street, out of reach of both
+    assertFalse(index.nearest(0, 0.0035).isPresent());
+  }
+
+  @Test
+  public void testSkipsFeaturesWithoutSegments() {
+    PrivateStreetIndex index =
+        index(
+            new JsonObject().put("type", "Feature").put("properties", new JsonObject()),
+            street("Dot", "LineString", line(0, 0)),
+            street("Square", "Polygon", new JsonArray().add(line(0, 0, 1, 0, 1, 1, 0, 0))),
+            street("Real St", "LineString", line(0, 0, 0.001, 0)));
+    assertEquals(1, index.size());
+    assertEquals("Real St", index.nearest(0, 0).get().getStreetName());
+  }
+
+  @Test
+  public void testEmpty() {
+    PrivateStreetIndex index = index();
+    assertEquals(0, index.size());
+    assertFalse(index.nearest(0, 0).isPresent());
+    assertFalse(index.isOnPrivateStreet(BigDecimal.ZERO, BigDecimal.ZERO));
+  }
+
+  @Test
+  public void testIsOnPrivateStreetMissingCoordinates() {
+    PrivateStreetIndex index = index(street("Equator Way", "LineString", line(0, 0, 0.001, 0)));
+    assertTrue(index.isOnPrivateStreet(BigDecimal.ZERO, new BigDecimal("0.0005")));
+    assertNull(index.isOnPrivateStreet(null, BigDecimal.ZERO));
+    assertNull(index.isOnPrivateStreet(BigDecimal.ZERO, null));
+  }
+
+  /** Returns the distance in meters from the point to the nearest segment, by checking them all. */
+  private static double bruteForceDistance(JsonArray features, double lat, double lng) {
+    double averageLatitude = 0;
+    int pointCount = 0;
+    for (int i = 0; i < features.size(); i++) {
+      JsonArray lines = lines(features.getJsonObject(i).getJsonObject("geometry"));
+      for (int j = 0; j < lines.size(); j++) {
+        for (int k = 0; k < lines.getJsonArray(j).size(); k++) {
+          averageLatitude += lines.getJsonArray(j).getJsonArray(k).getDouble(1);
+          pointCount++;
+        }
+      }
+    }
+    double metersPerDegreeLng =
+        METERS_PER_DEGREE * Math.cos(Math.toRadians(averageLatitude / pointCount));
+
+    double x = lng * metersPerDegreeLng;
+    double y = lat * METERS_PER_DEGREE;
+    double best = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < features.size(); i++) {
+      JsonArray lines = lines(features.getJsonObject(i).getJsonObject("geometry"));
+      for (int j = 0; j < lines.size(); j++) {
+        JsonArray positions = lines.getJsonArray(j);
+        for (int k = 0; k + 1 < positions.size(); k++) {
+          double ax = positions.getJsonArray(k).getDouble(0) * metersPerDegreeLng;
+          double ay = positions.getJsonArray(k).getDouble(1) * METERS_PER_DEGREE;
+          double bx = positions.getJsonArray(k + 1).getDouble(0) * metersPerDegreeLng;
+          double by = positions.getJsonArray(k + 1).getDouble(1) * METERS_PER_DEGREE;
+          double dx = bx - ax;
+          double dy = by - ay;
+          double lengthSquared = dx * dx + dy * dy;
+          double t =
+              lengthSquared == 0
+                  ? 0
+                  : Math.max(0, Math.min(1, ((x - ax) * dx + (y - ay) * dy) / lengthSquared));
+          best = Math.min(best, Math.hypot(x - (ax + t * dx), y - (ay + t * dy)));
+        }
+      }
+    }
+    return best;
+  }
+
+  private static JsonArray lines(JsonObject geometry) {
+    if ("LineString".equals(geometry.getString("type"))) {
+      return new JsonArray().add(geometry.getJsonArray("coordinates"));
+    }
+    return geometry.getJsonArray("coordinates");
+  }
+
+  @Test
+  public void testMatchesBruteForceOverShippedStreets() throws Exception {
+    JsonArray features;
+    try (InputStream in = getClass().getResourceAsStream("/mapData/private_streets.json")) {
+      features =
+          new JsonObject(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+              .getJsonArray("features");
+    }
+    PrivateStreetIndex index =
+        PrivateStreetIndex.load(
+            getClass().getResourceAsStream("/mapData/private_streets.json"), BUFFER_METERS);
+    // Enough segments for a tree several levels deep
+    assertTrue(index.size() > 16 * 16);
+
+    Random random = new Random(14);
+    int matched = 0;
+    for (int i = 0; i < 2000; i++) {
+      double lat;
+      double lng;
+      if (i % 2 == 0) {
+        // Anywhere in the city, which is almost never near a private street
+        lat = 42.23 + random.nextDouble() * 0.17;
+        lng = -71.19 + random.nextDouble() * 0.19;
+      } else {
+        // Close to a point of a random street, which often is
+        JsonArray positions =
+            lines(features.getJsonObject(random.nextInt(features.size())).getJsonObject("geometry"))
+                .getJsonArray(0);
+        JsonArray position = positions.getJsonArray(random.nextInt(positions.size()));
+        lat = position.getDouble(1) + (random.nextDouble() - 0.5) * 0.0004;
+        lng = position.getDouble(0) + (random.nextDouble() - 0.5) * 0.0004;
+      }
+
+      double expected = bruteForceDistance(features, lat, lng);
+      Optional<PrivateStreetIndex.Match> match = index.nearest(lat, lng);
+      if (expected <= BUFFER_METERS) {
+        assertTrue(match.isPresent());
+        assertEquals(expected, match.get().getDistanceMeters(), 1e-6);
+        matched++;
+      } else {
+        assertFalse(match.isPresent());
+      }
+    }
+    assertTrue(matched > 0);
+  }
+}
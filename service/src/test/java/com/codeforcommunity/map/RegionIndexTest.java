@@ -0,0 +1,155 @@
+package com.codeforcommunity.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class RegionIndexTest {
+
+  /** Returns a closed ring of the rectangle between the given corners. */
+  private static JsonArray rectangle(double minLng, double minLat, double maxLng, double maxLat) {
+    return new JsonArray()
+        .add(new JsonArray().add(minLng).add(minLat))
+        .add(new JsonArray().add(maxLng).add(minLat))
+        .add(new JsonArray().add(maxLng).add(maxLat))
+        .add(new JsonArray().add(minLng).add(maxLat))
+        .add(new JsonArray().add(minLng).add(minLat));
+  }
+
+  private static String polygon(JsonArray... rings) {
+    JsonArray coordinates = new JsonArray();
+    for (JsonArray ring : rings) {
+      coordinates.add(ring);
+    }
+    return new JsonObject().put("type", "Polygon").put("coordinates", coordinates).encode();
+  }
+
+  private static String multiPolygon(JsonArray... exteriors) {
+    JsonArray coordinates = new JsonArray();
+    for (JsonArray exterior : exteriors) {
+      coordinates.add(new JsonArray().add(exterior));
+    }
+    return new JsonObject().put("type", "MultiPolygon").put("coordinates", coordinates).encode();
+  }
+
+  @Test
+  public void testLocate() {
+    Map<Integer, String> regions = new HashMap<>();
+    regions.put(1, polygon(rectangle(-71.07, 42.35, -71.06, 42.36)));
+    regions.put(2, polygon(rectangle(-71.06, 42.35, -71.05, 42.36)));
+    RegionIndex index = RegionIndex.fromGeometry(regions);
+
+    assertEquals(1, index.locate(42.355, -71.065));
+    assertEquals(2, index.locate(42.355, -71.055));
+    assertNull(index.locate(42.365, -71.055));
+    assertNull(index.locate(10, 10));
+  }
+
+  @Test
+  public void testLocateTriangle() {
+    // The bounds of a triangle cover points that the triangle itself doesn't
+    JsonArray triangle =
+        new JsonArray()
+            .add(new JsonArray().add(-71.07).add(42.35))
+            .add(new JsonArray().add(-71.06).add(42.35))
+            .add(new JsonArray().add(-71.07).add(42.36))
+            .add(new JsonArray().add(-71.07).add(42.35));
+    Map<Integer, String> regions = new HashMap<>();
+    regions.put(1, polygon(triangle));
+    RegionIndex index = RegionIndex.fromGeometry(regions);
+
+    assertEquals(1, index.locate(42.352, -71.068));
+    assertNull(index.locate(42.358, -71.062));
+  }
+
+  @Test
+  public void testLocateSkipsHoles() {
+    Map<Integer, String> regions = new HashMap<>();
+    regions.put(
+        1,
+        polygon(rectangle(-71.08, 42.34, -71.04, 42.38), rectangle(-71.07, 42.35, -71.05, 42.37)));
+    // An island inside the hole
+    regions.put(2, polygon(rectangle(-71.065, 42.355, -71.055, 42.365)));
+    RegionIndex index = RegionIndex.fromGeometry(regions);
+
+    assertEquals(1, index.locate(42.345, -71.075));
+    assertNull(index.locate(42.352, -71.068));
+    assertEquals(2, index.locate(42.36, -71.06));
+  }
+
+  @Test
+  public void testLocateMultiPolygon() {
+    Map<Integer, String> regions = new HashMap<>();
+    regions.put(
+        1,
+        multiPolygon(
+            rectangle(-71.07, 42.35, -71.06, 42.36), rectangle(-71.03, 42.35, -71.02, 42.36)));
+    RegionIndex index = RegionIndex.fromGeometry(regions);
+
+    assertEquals(1, index.locate(42.355, -71.065));
+    assertEquals(1, index.locate(42.355, -71.025));
+    // Between the two polygons, inside the region's bounds but neither polygon
+    assertNull(index.locate(42.355, -71.045));
+  }
+
+  @Test
+  public void testLocateOverlappingPicksLowestId() {
+    Map<Integer, String> regions = new HashMap<>();
+    regions.put(7, polygon(rectangle(-71.07, 42.35, -71.05, 42.37)));
+    regions.put(3, polygon(rectangle(-71.06, 42.36, -71.04, 42.38)));
+    regions.put(5, polygon(rectangle(-71.065, 42.355, -71.045, 42.375)));
+    RegionIndex index = RegionIndex.fromGeometry(regions);
+
+    assertEquals(3, index.locate(42.365, -71.055));
+    assertEquals(5, index.locate(42.358, -71.055));
+    assertEquals(7, index.locate(42.352, -71.068));
+  }
+
+  @Test
+  public void testLocateAcrossManyCells() {
+    // Much larger than a grid cell, and straddling zero so cells on both sides are negative
+    Map<Integer, String> regions = new HashMap<>();
+    regions.put(1, polygon(rectangle(-0.5, -0.5, 0.5, 0.5)));
+    RegionIndex index = RegionIndex.fromGeometry(regions);
+
+    assertEquals(1, index.locate(0, 0));
+    assertEquals(1, index.locate(-0.499, -0.499));
+    assertEquals(1, index.locate(0.499, 0.499));
+    assertEquals(1, index.locate(-0.001, 0.001));
+    assertNull(index.locate(0.501, 0));
+    assertNull(index.locate(0, -0.501));
+  }
+
+  @Test
+  public void testRegionsWithoutPolygons() {
+    Map<Integer, String> regions = new HashMap<>();
+    regions.put(
+        1, new JsonObject().put("type", "Polygon").put("coordinates", new JsonArray()).encode());
+    regions.put(2, "{\"type\":\"Point\",\"coordinates\":[-71.06,42.35]}");
+    RegionIndex index = RegionIndex.fromGeometry(regions);
+
+    assertNull(index.locate(42.35, -71.06));
+    // Still known regions, even though no point is ever located in them
+    assertTrue(index.contains(1));
+    assertTrue(index.contains(2));
+    assertFalse(index.contains(3));
+  }
+
+  @Test
+  public void testEmpty() {
+    RegionIndex empty = RegionIndex.empty();
+    assertNull(empty.locate(42.35, -71.06));
+    assertFalse(empty.contains(1));
+
+    RegionIndex none = RegionIndex.fromGeometry(new HashMap<>());
+    assertNull(none.locate(42.35, -71.06));
+    assertFalse(none.contains(1));
+  }
+}
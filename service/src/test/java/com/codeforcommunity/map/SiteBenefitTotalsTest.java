@@ -0,0 +1,233 @@
+package com.codeforcommunity.map;
+
+import static com.codeforcommunity.requester.TreeFixtures.RED_MAPLE;
+import static com.codeforcommunity.requester.TreeFixtures.benefitCurve;
+import static com.codeforcommunity.requester.TreeFixtures.calculator;
+import static com.codeforcommunity.requester.TreeFixtures.species;
+import static org.jooq.generated.Tables.SITES;
+import static org.jooq.generated.Tables.SITE_ENTRIES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.codeforcommunity.JooqMock;
+import com.codeforcommunity.JooqMock.OperationType;
+import com.codeforcommunity.dataaccess.TreeSpeciesIndex;
+import com.codeforcommunity.dto.site.TreeBenefitsTotalsResponse;
+import com.codeforcommunity.requester.TreeBenefitsCalculator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Record4;
+import org.jooq.Result;
+import org.jooq.generated.tables.records.TreeBenefitsRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SiteBenefitTotalsTest {
+  private static final double DELTA = 1e-9;
+
+  JooqMock mockDb;
+  TreeBenefitsCalculator calculator;
+  SiteBenefitTotals totals;
+
+  @BeforeEach
+  public void setup() {
+    DSLContext ctx = new JooqMock().getContext();
+    calculator =
+        calculator(Collections.singletonList(species(ctx, RED_MAPLE)), benefitCurve(ctx, "ACRU"));
+
+    mockDb = new JooqMock();
+    totals = new SiteBenefitTotals(mockDb.getContext(), calculator);
+  }
+
+  private Record4<Integer, Integer, String, Double> tree(
+      int siteId, Integer neighborhoodId, String commonName, double diameter) {
+    Record4<Integer, Integer, String, Double> record =
+        mockDb
+            .getContext()
+            .newRecord(
+                SITES.ID, SITES.NEIGHBORHOOD_ID, SITE_ENTRIES.COMMON_NAME, SITE_ENTRIES.DIAMETER);
+    record.values(siteId, neighborhoodId, commonName, diameter);
+    return record;
+  }
+
+  /** Returns a result of the given trees, as returned by the mock database. */
+  @SafeVarargs
+  private final Result<? extends Record> result(
+      Record4<Integer, Integer, String, Double>... trees) {
+    Result<Record4<Integer, Integer, String, Double>> result =
+        mockDb
+            .getContext()
+            .newResult(
+                SITES.ID, SITES.NEIGHBORHOOD_ID, SITE_ENTRIES.COMMON_NAME, SITE_ENTRIES.DIAMETER);
+    result.addAll(Arrays.asList(trees));
+    return result;
+  }
+
+  private double energyOf(double... diameters) {
+    double energy = 0;
+    for (double diameter : diameters) {
+      energy += calculator.calculateBenefits("Red Maple", diameter).getEnergy();
+    }
+    return energy;
+  }
+
+  private void assertTotals(int treeCount, double energy, TreeBenefitsTotalsResponse response) {
+    assertEquals(treeCount, response.getTreeCount());
+    assertEquals(energy, response.getBenefits().getEnergy(), DELTA);
+  }
+
+  @Test
+  public void testLoadSumsNeighborhoodsAndCity() {
+    mockDb.addReturn(
+        OperationType.SELECT,
+        Arrays.asList(
+            tree(1, 1, "Red Maple", 10),
+            tree(2, 1, "Red Maple", 20),
+            tree(3, 2, "Red Maple", 10),
+            tree(4, 2, "Norway Spruce", 10),
+            tree(5, null, "Red Maple", 10)));
+    totals.load();
+
+    assertTotals(2, energyOf(10, 20), totals.get(1));
+    assertTotals(1, energyOf(10), totals.get(2));
+    assertTotals(0, 0, totals.get(3));
+    assertTotals(4, energyOf(10, 20, 10, 10), totals.get(null));
+  }
+
+  @Test
+  public void testRefreshSitesReplacesTheirBenefits() {
+    mockDb.addReturn(
+        OperationType.SELECT,
+        Arrays.asList(
+            tree(1, 1, "Red Maple", 10), tree(2, 1, "Red Maple", 20), tree(3, 2, "Red Maple", 10)));
+    // Site 1 grew and moved neighborhoods, and site 3's tree was removed
+    mockDb.addReturn(OperationType.SELECT, tree(1, 2, "Red Maple", 30));
+    totals.load();
+    totals.refreshSites(Arrays.asList(1, 3));
+
+    assertTotals(1, energyOf(20), totals.get(1));
+    assertTotals(1, energyOf(30), totals.get(2));
+    assertTotals(2, energyOf(20, 30), totals.get(null));
+  }
+
+  @Test
+  public void testGetWithoutTrees() {
+    assertTotals(0, 0, totals.get(null));
+    assertTotals(0, 0, totals.get(1));
+
+    mockDb.addReturn(OperationType.SELECT, tree(1, 1, "Red Maple", 10));
+    mockDb.addReturn(OperationType.SELECT, Collections.emptyList());
+    totals.load();
+    totals.refreshSites(Collections.singletonList(1));
+
+    // A neighborhood left without trees is dropped rather than left with rounding errors
+    assertTotals(0, 0, totals.get(1));
+    assertTotals(0, 0, totals.get(null));
+  }
+
+  @Test
+  public void testRefreshSitesRemovesTheBenefitsTheyWereCountedWith() {
+    JooqMock calculatorDb = new JooqMock();
+    DSLContext ctx = calculatorDb.getContext();
+    List<TreeBenefitsRecord> doubledCurve = new ArrayList<>();
+    for (TreeBenefitsRecord record : benefitCurve(ctx, "ACRU")) {
+      record.setElectricity(record.getElectricity() * 2);
+      record.setNaturalGas(record.getNaturalGas() * 2);
+      doubledCurve.add(record);
+    }
+    calculatorDb.addReturn(
+        OperationType.SELECT, Collections.singletonList(species(ctx, RED_MAPLE)));
+    calculatorDb.addReturn(OperationType.SELECT, benefitCurve(ctx, "ACRU"));
+    calculatorDb.addReturn(OperationType.SELECT, doubledCurve);
+    TreeSpeciesIndex speciesIndex = new TreeSpeciesIndex(ctx);
+    speciesIndex.load();
+    calculator = new TreeBenefitsCalculator(ctx, speciesIndex);
+    calculator.load();
+    totals = new SiteBenefitTotals(mockDb.getContext(), calculator);
+
+    mockDb.addReturn(
+        OperationType.SELECT,
+        Arrays.asList(tree(1, 1, "Red Maple", 10), tree(2, 1, "Red Maple", 20)));
+    mockDb.addReturn(OperationType.SELECT, Collections.emptyList());
+    totals.load();
+    double energyOfSite2 = energyOf(20);
+
+    // The benefits change before the totals are loaded again, and site 1's tree is removed
+    calculator.load();
+    assertNotEquals(energyOfSite2, energyOf(20));
+    totals.refreshSites(Collections.singletonList(1));
+
+    assertTotals(1, energyOfSite2, totals.get(1));
+    assertTotals(1, energyOfSite2, totals.get(null));
+  }
+
+  @Test
+  public void testOlderRefreshDoesNotOverwriteNewerOne() {
+    AtomicInteger queries = new AtomicInteger();
+    mockDb.addReturn(
+        OperationType.SELECT,
+        () -> {
+          switch (queries.getAndIncrement()) {
+            case 0:
+              return result(tree(1, 1, "Red Maple", 10));
+            case 1:
+              // The tree grows again while the first refresh is reading it, and that write's
+              // refresh finishes first
+              totals.refreshSites(Collections.singletonList(1));
+              return result(tree(1, 1, "Red Maple", 20));
+            default:
+              return result(tree(1, 1, "Red Maple", 30));
+          }
+        });
+    totals.load();
+    totals.refreshSites(Collections.singletonList(1));
+
+    assertTotals(1, energyOf(30), totals.get(1));
+    assertTotals(1, energyOf(30), totals.get(null));
+  }
+
+  @Test
+  public void testSitesRefreshedDuringLoadAreRefreshedAgain() {
+    AtomicInteger queries = new AtomicInteger();
+    mockDb.addReturn(
+        OperationType.SELECT,
+        () -> {
+          if (queries.getAndIncrement() == 0) {
+            // Site 1 is written to and refreshed while every site is being read
+            totals.refreshSites(Collections.singletonList(1));
+            return result(tree(1, 1, "Red Maple", 10), tree(2, 2, "Red Maple", 10));
+          }
+          return result(tree(1, 1, "Red Maple", 30));
+        });
+    totals.load();
+
+    assertEquals(3, queries.get());
+    assertTotals(1, energyOf(30), totals.get(1));
+    assertTotals(1, energyOf(10), totals.get(2));
+    assertTotals(2, energyOf(30, 10), totals.get(null));
+  }
+
+  @Test
+  public void testOlderLoadDoesNotOverwriteNewerOne() {
+    AtomicInteger queries = new AtomicInteger();
+    mockDb.addReturn(
+        OperationType.SELECT,
+        () -> {
+          if (queries.getAndIncrement() == 0) {
+            // Another load starts and finishes while the first is reading every site
+            totals.load();
+            return result(tree(1, 1, "Red Maple", 10));
+          }
+          return result(tree(1, 1, "Red Maple", 30), tree(2, 1, "Red Maple", 10));
+        });
+    totals.load();
+
+    assertTotals(2, energyOf(30, 10), totals.get(1));
+    assertTotals(2, energyOf(30, 10), totals.get(null));
+  }
+}
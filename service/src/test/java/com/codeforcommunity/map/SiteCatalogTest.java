@@ -0,0 +1,224 @@
+package com.codeforcommunity.map;
+
+import static com.codeforcommunity.map.SiteGridIndexTest.site;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import com.codeforcommunity.dto.map.GeometryPoint;
+import com.codeforcommunity.dto.map.SiteFeature;
+import com.codeforcommunity.dto.map.SiteFeatureProperties;
+import io.vertx.core.json.Json;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SiteCatalogTest {
+  SiteCatalog catalog;
+
+  @BeforeEach
+  public void setup() {
+    catalog = new SiteCatalog();
+  }
+
+  /** Returns the ids of the given features, in order. */
+  private static List<Integer> ids(Iterable<SiteFeature> features) {
+    List<Integer> ids = new ArrayList<>();
+    features.forEach(feature -> ids.add(feature.getProperties().getId()));
+    return ids;
+  }
+
+  /** Features have no equals, so they are compared by their JSON. */
+  private static void assertFeatureEquals(SiteFeature expected, SiteFeature actual) {
+    assertEquals(Json.encode(expected), Json.encode(actual));
+  }
+
+  @Test
+  public void testRoundTripsEveryProperty() {
+    SiteFeature full =
+        new SiteFeature(
+            new SiteFeatureProperties(
+                7, true, "Red Maple", Date.valueOf("2019-04-30"), 12, "1 Main St", "Park"),
+            new GeometryPoint(
+                new BigDecimal("42.35012345678912"), new BigDecimal("-71.06098765432198")));
+    SiteFeature empty =
+        new SiteFeature(
+            new SiteFeatureProperties(8, null, null, null, null, null, null),
+            new GeometryPoint(null, null));
+    SiteFeature noTree =
+        new SiteFeature(
+            new SiteFeatureProperties(
+                9, false, "Red Maple", Date.valueOf("1960-01-01"), null, "2 Main St", "Park"),
+            new GeometryPoint(new BigDecimal("42.35"), new BigDecimal("-71.06")));
+    catalog.put(full);
+    catalog.put(empty);
+    catalog.put(noTree);
+
+    assertFeatureEquals(full, catalog.get(7));
+    assertFeatureEquals(empty, catalog.get(8));
+    assertEquals(
+        Json.encode(
+            new GeometryPoint(
+                new BigDecimal("42.35000000000000"), new BigDecimal("-71.06000000000000"))),
+        Json.encode(catalog.get(9).getGeometry()));
+    assertEquals(Boolean.FALSE, catalog.get(9).getProperties().getTreePresent());
+    assertEquals(Date.valueOf("1960-01-01"), catalog.get(9).getProperties().getPlantingDate());
+  }
+
+  @Test
+  public void testReplace() {
+    catalog.put(site(1, "42.35", "-71.06"));
+    catalog.put(
+        new SiteFeature(
+            new SiteFeatureProperties(1, false, "Oak", null, 3, null, null),
+            new GeometryPoint(new BigDecimal("42.36"), new BigDecimal("-71.05"))));
+
+    assertEquals(1, catalog.size());
+    assertEquals("Oak", catalog.get(1).getProperties().getCommonName());
+    assertEquals(3, catalog.get(1).getProperties().getAdopterId());
+  }
+
+  @Test
+  public void testRemove() {
+    catalog.put(site(1, "42.35", "-71.06"));
+    catalog.put(site(2, "42.36", "-71.05"));
+
+    SiteFeature removed = catalog.remove(1);
+    assertEquals(1, removed.getProperties().getId());
+    assertNull(catalog.get(1));
+    assertNull(catalog.remove(1));
+    assertNull(catalog.remove(3));
+    assertEquals(1, catalog.size());
+    assertEquals(Collections.singletonList(2), ids(catalog.getAll()));
+  }
+
+  @Test
+  public void testRemoveThenPutAgain() {
+    catalog.put(site(1, "42.35", "-71.06"));
+    catalog.put(site(2, "42.36", "-71.05"));
+    catalog.remove(1);
+
+    // A new site takes the removed site's slot, and must not be found under the old id
+    catalog.put(site(3, "42.40", "-71.10"));
+    assertNull(catalog.get(1));
+    assertEquals(
+        new BigDecimal("42.40000000000000"), catalog.get(3).getGeometry().getCoordinates().get(1));
+
+    catalog.put(site(1, "42.37", "-71.04"));
+    assertEquals(3, catalog.size());
+    assertEquals(Arrays.asList(1, 2, 3), ids(catalog.getAll()));
+    assertEquals(
+        new BigDecimal("42.37000000000000"), catalog.get(1).getGeometry().getCoordinates().get(1));
+    assertEquals(
+        new BigDecimal("42.36000000000000"), catalog.get(2).getGeometry().getCoordinates().get(1));
+  }
+
+  @Test
+  public void testGetMany() {
+    catalog.put(site(1, "42.35", "-71.06"));
+    catalog.put(site(2, "42.36", "-71.05"));
+    catalog.put(site(3, "42.40", "-71.10"));
+
+    assertEquals(Arrays.asList(3, 1), ids(catalog.get(Arrays.asList(3, 4, 1))));
+    assertEquals(Collections.emptyList(), catalog.get(Collections.emptyList()));
+  }
+
+  @Test
+  public void testEmpty() {
+    assertEquals(0, catalog.size());
+    assertNull(catalog.get(1));
+    assertNull(catalog.remove(1));
+    assertEquals(Collections.emptyList(), catalog.getAll());
+    assertEquals(Collections.emptyList(), catalog.get(Arrays.asList(1, 2)));
+    assertFalse(catalog.iterator().hasNext());
+  }
+
+  @Test
+  public void testUnusualIds() {
+    int[] ids = {0, -1, Integer.MAX_VALUE, Integer.MIN_VALUE + 2, 1 << 16, 1 << 20};
+    for (int id : ids) {
+      catalog.put(site(id, "42.35", "-71.06"));
+    }
+    for (int id : ids) {
+      assertEquals(id, catalog.get(id).getProperties().getId());
+    }
+    assertEquals(
+        Arrays.asList(Integer.MIN_VALUE + 2, -1, 0, 1 << 16, 1 << 20, Integer.MAX_VALUE),
+        ids(catalog.getAll()));
+  }
+
+  @Test
+  public void testGrowsPastInitialCapacity() {
+    for (int id = 1; id <= 5000; id++) {
+      catalog.put(site(id, "42.35", "-71.06"));
+    }
+    assertEquals(5000, catalog.size());
+    for (int id = 1; id <= 5000; id++) {
+      assertEquals(id, catalog.get(id).getProperties().getId());
+    }
+    assertNull(catalog.get(5001));
+  }
+
+  @Test
+  public void testRemovedMarkersAreCleared() {
+    // Each id is put and then removed, leaving a removed marker in the table each time. Without
+    // clearing them, every lookup of a missing id would probe the whole table.
+    catalog.put(site(0, "42.35", "-71.06"));
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(10),
+        () -> {
+          for (int id = 1; id <= 200_000; id++) {
+            catalog.put(site(id, "42.35", "-71.06"));
+            catalog.remove(id);
+            assertNull(catalog.get(id + 1));
+          }
+        });
+    assertEquals(1, catalog.size());
+    assertEquals(Collections.singletonList(0), ids(catalog.getAll()));
+  }
+
+  @Test
+  public void testMatchesMapUnderChurn() {
+    Random random = new Random(18);
+    Map<Integer, String> expected = new TreeMap<>();
+    for (int op = 0; op < 50_000; op++) {
+      int id = random.nextInt(3000);
+      if (random.nextInt(3) == 0) {
+        SiteFeature removed = catalog.remove(id);
+        String expectedRemoved = expected.remove(id);
+        assertEquals(
+            expectedRemoved, removed == null ? null : removed.getProperties().getAddress());
+      } else {
+        String address = id + " Main St " + op;
+        catalog.put(
+            new SiteFeature(
+                new SiteFeatureProperties(id, true, null, null, null, address, null),
+                new GeometryPoint(new BigDecimal("42.35"), new BigDecimal("-71.06"))));
+        expected.put(id, address);
+      }
+    }
+
+    assertEquals(expected.size(), catalog.size());
+    assertEquals(new ArrayList<>(expected.keySet()), ids(catalog.getAll()));
+    for (int id = 0; id < 3000; id++) {
+      SiteFeature feature = catalog.get(id);
+      assertEquals(expected.get(id), feature == null ? null : feature.getProperties().getAddress());
+    }
+
+    List<Integer> iterated = new ArrayList<>();
+    Iterator<SiteFeature> iterator = catalog.iterator();
+    iterator.forEachRemaining(feature -> iterated.add(feature.getProperties().getId()));
+    assertEquals(new ArrayList<>(expected.keySet()), iterated);
+  }
+}
@@ -0,0 +1,192 @@
+package com.codeforcommunity.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codeforcommunity.dto.map.BoundingBox;
+import com.codeforcommunity.dto.map.GeometryPoint;
+import com.codeforcommunity.dto.map.SiteClusterFeature;
+import com.codeforcommunity.dto.map.SiteClusterProperties;
+import com.codeforcommunity.dto.map.SiteFeature;
+import com.codeforcommunity.dto.map.SiteFeatureProperties;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SiteClusterIndexTest {
+  SiteClusterIndex index;
+
+  private static SiteFeature site(
+      int id, String lat, String lng, boolean treePresent, Integer adopterId) {
+    return new SiteFeature(
+        new SiteFeatureProperties(id, treePresent, null, null, adopterId, null, null),
+        new GeometryPoint(
+            lat == null ? null : new BigDecimal(lat), lng == null ? null : new BigDecimal(lng)));
+  }
+
+  @BeforeEach
+  public void setup() {
+    index = new SiteClusterIndex();
+    index.add(site(1, "42.3500", "-71.0600", true, 10));
+    index.add(site(2, "42.3600", "-71.0500", true, null));
+    index.add(site(3, "42.4000", "-71.1000", false, null));
+    // Too close to site 1 to be told apart even at the deepest zoom level
+    index.add(site(4, "42.35001", "-71.06001", false, 11));
+    // Sites without a location aren't clustered
+    index.add(site(5, null, null, true, 12));
+  }
+
+  private static List<Integer> counts(List<SiteClusterFeature> clusters) {
+    List<Integer> counts = new ArrayList<>();
+    clusters.forEach(cluster -> counts.add(cluster.getProperties().getCount()));
+    return counts;
+  }
+
+  private static List<Integer> siteIds(List<SiteClusterFeature> clusters) {
+    List<Integer> siteIds = new ArrayList<>();
+    clusters.forEach(cluster -> siteIds.add(cluster.getProperties().getSiteId()));
+    return siteIds;
+  }
+
+  @Test
+  public void testWholeCityInOneCluster() {
+    List<SiteClusterFeature> clusters = index.query(0, null);
+    assertEquals(1, clusters.size());
+
+    SiteClusterProperties properties = clusters.get(0).getProperties();
+    assertEquals(4, properties.getCount());
+    assertEquals(2, properties.getAdoptedCount());
+    assertEquals(2, properties.getTreePresentCount());
+    assertNull(properties.getSiteId());
+    // The average location of the four sites
+    assertEquals(
+        Arrays.asList(new BigDecimal("-71.0675025"), new BigDecimal("42.3650025")),
+        clusters.get(0).getGeometry().getCoordinates());
+  }
+
+  @Test
+  public void testClustersSplitAsZoomIncreases() {
+    assertEquals(Arrays.asList(2, 2), counts(index.query(10, null)));
+    assertEquals(
+        Arrays.asList(1, 2, 1), counts(index.query(SiteClusterIndex.MAX_CLUSTER_ZOOM, null)));
+  }
+
+  @Test
+  public void testSingleSiteCluster() {
+    List<SiteClusterFeature> clusters = index.query(SiteClusterIndex.MAX_CLUSTER_ZOOM, null);
+    assertEquals(Arrays.asList(3, null, 2), siteIds(clusters));
+    // A cluster of one site is drawn exactly where the site is
+    assertEquals(
+        Arrays.asList(new BigDecimal("-71.1000000"), new BigDecimal("42.4000000")),
+        clusters.get(0).getGeometry().getCoordinates());
+    assertEquals(0, clusters.get(0).getProperties().getAdoptedCount());
+    assertEquals(0, clusters.get(0).getProperties().getTreePresentCount());
+  }
+
+  @Test
+  public void testZoomClampedToLevels() {
+    assertEquals(
+        siteIds(index.query(SiteClusterIndex.MAX_CLUSTER_ZOOM, null)),
+        siteIds(index.query(SiteClusterIndex.MAX_CLUSTER_ZOOM + 4, null)));
+    assertEquals(counts(index.query(0, null)), counts(index.query(-1, null)));
+  }
+
+  @Test
+  public void testQueryBox() {
+    BoundingBox bbox = new BoundingBox(-71.07, 42.34, -71.04, 42.37);
+    assertEquals(
+        Arrays.asList(null, 2), siteIds(index.query(SiteClusterIndex.MAX_CLUSTER_ZOOM, bbox)));
+    assertEquals(
+        Collections.emptyList(),
+        index.query(SiteClusterIndex.MAX_CLUSTER_ZOOM, new BoundingBox(10, 10, 11, 11)));
+    // A box past the edges of the map is clamped to them
+    assertEquals(Arrays.asList(4), counts(index.query(0, new BoundingBox(-1e9, -90, 1e9, 90))));
+  }
+
+  @Test
+  public void testRemove() {
+    index.remove(site(1, "42.3500", "-71.0600", true, 10));
+    List<SiteClusterFeature> clusters = index.query(0, null);
+    assertEquals(3, clusters.get(0).getProperties().getCount());
+    assertEquals(1, clusters.get(0).getProperties().getAdoptedCount());
+    assertEquals(1, clusters.get(0).getProperties().getTreePresentCount());
+    // Site 4 is left on its own in the cluster it shared with site 1
+    assertEquals(
+        Arrays.asList(3, 4, 2), siteIds(index.query(SiteClusterIndex.MAX_CLUSTER_ZOOM, null)));
+
+    // Removing a site without a location changes nothing
+    index.remove(site(5, null, null, true, 12));
+    assertEquals(3, index.query(0, null).get(0).getProperties().getCount());
+  }
+
+  @Test
+  public void testRemoveEverySite() {
+    index.remove(site(1, "42.3500", "-71.0600", true, 10));
+    index.remove(site(2, "42.3600", "-71.0500", true, null));
+    index.remove(site(3, "42.4000", "-71.1000", false, null));
+    index.remove(site(4, "42.35001", "-71.06001", false, 11));
+    for (int zoom = 0; zoom <= SiteClusterIndex.MAX_CLUSTER_ZOOM; zoom++) {
+      assertEquals(Collections.emptyList(), index.query(zoom, null));
+    }
+
+    index.add(site(6, "42.3500", "-71.0600", true, null));
+    assertEquals(Arrays.asList(6), siteIds(index.query(0, null)));
+  }
+
+  @Test
+  public void testEdgesOfTheMap() {
+    SiteClusterIndex edges = new SiteClusterIndex();
+    edges.add(site(1, "89.9", "-180", true, null));
+    edges.add(site(2, "-89.9", "180", true, null));
+    assertEquals(
+        Arrays.asList(1, 2), siteIds(edges.query(SiteClusterIndex.MAX_CLUSTER_ZOOM, null)));
+    // Even zoom 0 is four cells wide, so opposite corners of the map never share a cluster
+    assertEquals(Arrays.asList(1, 2), siteIds(edges.query(0, null)));
+  }
+
+  @Test
+  public void testEmpty() {
+    SiteClusterIndex empty = new SiteClusterIndex();
+    assertEquals(Collections.emptyList(), empty.query(0, null));
+    assertEquals(
+        Collections.emptyList(),
+        empty.query(SiteClusterIndex.MAX_CLUSTER_ZOOM, new BoundingBox(-180, -90, 180, 90)));
+  }
+
+  @Test
+  public void testEveryLevelCountsEverySite() {
+    Random random = new Random(17);
+    SiteClusterIndex clusters = new SiteClusterIndex();
+    for (int id = 1; id <= 2000; id++) {
+      String lat = String.valueOf(42.2 + random.nextDouble() * 0.2);
+      String lng = String.valueOf(-71.2 + random.nextDouble() * 0.2);
+      clusters.add(site(id, lat, lng, id % 2 == 0, id % 3 == 0 ? id : null));
+    }
+
+    int previousClusters = 0;
+    for (int zoom = 0; zoom <= SiteClusterIndex.MAX_CLUSTER_ZOOM; zoom++) {
+      List<SiteClusterFeature> level = clusters.query(zoom, null);
+      int count = 0;
+      int adoptedCount = 0;
+      int treePresentCount = 0;
+      for (SiteClusterFeature cluster : level) {
+        count += cluster.getProperties().getCount();
+        adoptedCount += cluster.getProperties().getAdoptedCount();
+        treePresentCount += cluster.getProperties().getTreePresentCount();
+      }
+      assertEquals(2000, count);
+      assertEquals(666, adoptedCount);
+      assertEquals(1000, treePresentCount);
+      // Each cluster is split into at most four at the next level
+      assertTrue(level.size() >= previousClusters);
+      assertTrue(level.size() <= Math.max(1, 4 * previousClusters));
+      previousClusters = level.size();
+    }
+  }
+}
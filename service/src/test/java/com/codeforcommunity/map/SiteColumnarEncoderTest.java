@@ -0,0 +1,223 @@
+package com.codeforcommunity.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codeforcommunity.dto.map.GeometryPoint;
+import com.codeforcommunity.dto.map.SiteFeature;
+import com.codeforcommunity.dto.map.SiteFeatureProperties;
+import io.vertx.core.buffer.Buffer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class SiteColumnarEncoderTest {
+
+  private static SiteFeature site(
+      int id, String lat, String lng, Date plantingDate, Integer adopterId, String commonName) {
+    return new SiteFeature(
+        new SiteFeatureProperties(
+            id, adopterId != null, commonName, plantingDate, adopterId, "1 Main St", null),
+        new GeometryPoint(
+            lat == null ? null : new BigDecimal(lat), lng == null ? null : new BigDecimal(lng)));
+  }
+
+  /** Reads back the sites written by {@link SiteColumnarEncoder#encode}. */
+  private static class Decoded {
+    int[] ids;
+    int[] lats;
+    int[] lngs;
+    boolean[] treePresent;
+    Integer[] adopterIds;
+    int[] plantingDates;
+    String[] commonNames;
+    String[] owners;
+    String[] addresses;
+
+    private final Buffer buffer;
+    private int pos = 0;
+
+    Decoded(Buffer buffer) throws CharacterCodingException {
+      this.buffer = buffer;
+      assertEquals("SFTT", buffer.getString(0, 4, "US-ASCII"));
+      assertEquals(1, buffer.getByte(4));
+      pos = 5;
+      int count = readInt();
+
+      ids = readInts(count);
+      lats = readInts(count);
+      lngs = readInts(count);
+      treePresent = readBits(count);
+      boolean[] adopted = readBits(count);
+      adopterIds = new Integer[count];
+      for (int i = 0; i < count; i++) {
+        adopterIds[i] = adopted[i] ? readInt() : null;
+      }
+      plantingDates = readInts(count);
+      commonNames = readDictionary(count);
+      owners = readDictionary(count);
+      addresses = readDictionary(count);
+      assertEquals(buffer.length(), pos);
+    }
+
+    private int readInt() {
+      int value = buffer.getInt(pos);
+      pos += 4;
+      return value;
+    }
+
+    private int readUnsignedShort() {
+      int value = buffer.getUnsignedShort(pos);
+      pos += 2;
+      return value;
+    }
+
+    private int[] readInts(int count) {
+      int[] values = new int[count];
+      for (int i = 0; i < count; i++) {
+        values[i] = readInt();
+      }
+      return values;
+    }
+
+    private boolean[] readBits(int count) {
+      boolean[] bits = new boolean[count];
+      for (int i = 0; i < count; i++) {
+        bits[i] = (buffer.getByte(pos + i / 8) & (1 << (i % 8))) != 0;
+      }
+      pos += (count + 7) / 8;
+      return bits;
+    }
+
+    private String[] readDictionary(int count) throws CharacterCodingException {
+      int entryCount = readInt();
+      String[] entries = new String[entryCount];
+      for (int i = 0; i < entryCount; i++) {
+        int length = readUnsignedShort();
+        // Fails on malformed UTF-8 rather than quietly substituting it
+        CharBuffer decoded =
+            StandardCharsets.UTF_8
+                .newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(ByteBuffer.wrap(buffer.getBytes(pos, pos + length)));
+        entries[i] = decoded.toString();
+        pos += length;
+      }
+      assertEquals("", entries[0]);
+
+      String[] values = new String[count];
+      for (int i = 0; i < count; i++) {
+        int index = entryCount <= 0x10000 ? readUnsignedShort() : readInt();
+        values[i] = index == 0 ? null : entries[index];
+      }
+      return values;
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws CharacterCodingException {
+    List<SiteFeature> sites =
+        Arrays.asList(
+            site(1, "42.3500001", "-71.0600001", Date.valueOf("2020-05-01"), 7, "Red Maple"),
+            site(2, null, null, null, null, null),
+            site(3, "42.36", "-71.05", Date.valueOf("1969-12-31"), null, "Red Maple"),
+            site(4, "42.4", "-71.1", null, 9, "Ginkgo 銀杏"));
+
+    Decoded decoded = new Decoded(SiteColumnarEncoder.encode(sites));
+    assertEquals(Arrays.toString(new int[] {1, 2, 3, 4}), Arrays.toString(decoded.ids));
+    assertEquals(
+        Arrays.toString(new int[] {423500001, SiteColumnarEncoder.MISSING, 423600000, 424000000}),
+        Arrays.toString(decoded.lats));
+    assertEquals(
+        Arrays.toString(
+            new int[] {-710600001, SiteColumnarEncoder.MISSING, -710500000, -711000000}),
+        Arrays.toString(decoded.lngs));
+    assertEquals(
+        Arrays.toString(new boolean[] {true, false, false, true}),
+        Arrays.toString(decoded.treePresent));
+    assertEquals(Arrays.asList(7, null, null, 9), Arrays.asList(decoded.adopterIds));
+    assertEquals(
+        Arrays.toString(
+            new int[] {
+              (int) Date.valueOf("2020-05-01").toLocalDate().toEpochDay(),
+              SiteColumnarEncoder.MISSING,
+              -1,
+              SiteColumnarEncoder.MISSING
+            }),
+        Arrays.toString(decoded.plantingDates));
+    assertEquals(
+        Arrays.asList("Red Maple", null, "Red Maple", "Ginkgo 銀杏"),
+        Arrays.asList(decoded.commonNames));
+    assertEquals(Arrays.asList(null, null, null, null), Arrays.asList(decoded.owners));
+    assertEquals(Collections.nCopies(4, "1 Main St"), Arrays.asList(decoded.addresses));
+  }
+
+  @Test
+  public void testRoundTripNoSites() throws CharacterCodingException {
+    Decoded decoded = new Decoded(SiteColumnarEncoder.encode(Collections.emptyList()));
+    assertEquals(0, decoded.ids.length);
+    assertEquals(0, decoded.commonNames.length);
+  }
+
+  @Test
+  public void testLongEntryCutAtCharacter() throws CharacterCodingException {
+    // One byte of padding puts the 0xFFFF byte limit partway through a three byte character
+    StringBuilder builder = new StringBuilder("a");
+    for (int i = 0; i < 30000; i++) {
+      builder.append('銀');
+    }
+    String name = builder.toString();
+    assertTrue(name.getBytes(StandardCharsets.UTF_8).length > 0xFFFF);
+
+    Decoded decoded =
+        new Decoded(
+            SiteColumnarEncoder.encode(
+                Collections.singletonList(site(1, "42.35", "-71.06", null, null, name))));
+    String cut = decoded.commonNames[0];
+    assertTrue(name.startsWith(cut));
+    // 0xFFFF - 1 is divisible by 3, so every whole character up to the limit fits
+    assertEquals(1 + (0xFFFF - 1) / 3, cut.length());
+  }
+
+  @Test
+  public void testLongEntryCutAtSurrogatePair() throws CharacterCodingException {
+    // Four byte characters, which are each a surrogate pair in Java
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      builder.appendCodePoint(0x1F333);
+    }
+    String name = builder.toString();
+
+    Decoded decoded =
+        new Decoded(
+            SiteColumnarEncoder.encode(
+                Collections.singletonList(site(1, "42.35", "-71.06", null, null, name))));
+    String cut = decoded.commonNames[0];
+    assertTrue(name.startsWith(cut));
+    assertEquals(0xFFFF / 4, cut.codePointCount(0, cut.length()));
+  }
+
+  @Test
+  public void testManyEntriesUseIntIndices() throws CharacterCodingException {
+    List<SiteFeature> sites = new ArrayList<>();
+    for (int id = 1; id <= 0x10000; id++) {
+      sites.add(site(id, "42.35", "-71.06", null, null, "name " + id));
+    }
+
+    Decoded decoded = new Decoded(SiteColumnarEncoder.encode(sites));
+    assertEquals("name 1", decoded.commonNames[0]);
+    assertEquals("name 65536", decoded.commonNames[0xFFFF]);
+    assertNull(decoded.owners[0xFFFF]);
+  }
+}
@@ -0,0 +1,77 @@
+package com.codeforcommunity.map;
+
+import static com.codeforcommunity.map.SiteGridIndexTest.site;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codeforcommunity.dto.map.SiteFeature;
+import com.codeforcommunity.dto.map.SiteGeoResponse;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class SiteGeoJsonChunksTest {
+
+  private static int chunkCount;
+
+  private static String joined(Iterator<SiteFeature> features) {
+    Buffer joined = Buffer.buffer();
+    chunkCount = 0;
+    SiteGeoJsonChunks chunks = new SiteGeoJsonChunks(features);
+    while (chunks.hasNext()) {
+      joined.appendBuffer(chunks.next());
+      chunkCount++;
+    }
+    return joined.toString();
+  }
+
+  @Test
+  public void testNoFeatures() {
+    assertEquals(
+        Json.encode(new SiteGeoResponse(Collections.emptyList())),
+        joined(Collections.emptyIterator()));
+    assertEquals(1, chunkCount);
+  }
+
+  @Test
+  public void testManyChunks() {
+    List<SiteFeature> features = new ArrayList<>();
+    for (int id = 1; id <= 5000; id++) {
+      features.add(site(id, "42.35", "-71.06"));
+    }
+
+    assertEquals(Json.encode(new SiteGeoResponse(features)), joined(features.iterator()));
+    assertTrue(chunkCount > 1);
+  }
+
+  @Test
+  public void testCatalogIteratorSeesLaterWrites() {
+    SiteCatalog catalog = new SiteCatalog();
+    for (int id = 3000; id > 0; id--) {
+      catalog.put(site(id, "42.35", "-71.06"));
+    }
+
+    Iterator<SiteFeature> iterator = catalog.iterator();
+    assertEquals(1, iterator.next().getProperties().getId());
+    // Removed before their batch was read, so they are left out
+    catalog.remove(2999);
+    catalog.remove(3000);
+
+    int count = 1;
+    int lastId = 1;
+    while (iterator.hasNext()) {
+      int id = iterator.next().getProperties().getId();
+      assertTrue(id > lastId);
+      lastId = id;
+      count++;
+    }
+    assertEquals(2998, count);
+    assertEquals(2998, lastId);
+    assertFalse(iterator.hasNext());
+  }
+}
@@ -0,0 +1,209 @@
+package com.codeforcommunity.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codeforcommunity.dto.map.BoundingBox;
+import com.codeforcommunity.dto.map.GeometryPoint;
+import com.codeforcommunity.dto.map.SiteFeature;
+import com.codeforcommunity.dto.map.SiteFeatureProperties;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SiteGridIndexTest {
+  SiteGridIndex index;
+
+  static SiteFeature site(int id, String lat, String lng) {
+    return new SiteFeature(
+        new SiteFeatureProperties(id, true, null, null, null, null, null),
+        new GeometryPoint(
+            lat == null ? null : new BigDecimal(lat), lng == null ? null : new BigDecimal(lng)));
+  }
+
+  @BeforeEach
+  public void setup() {
+    index = new SiteGridIndex();
+    index.add(site(1, "42.3500", "-71.0600"));
+    index.add(site(2, "42.3600", "-71.0500"));
+    index.add(site(3, "42.4000", "-71.1000"));
+    // Too close to site 1 to be told apart until zoomed in
+    index.add(site(4, "42.35001", "-71.06001"));
+    // Sites without a location aren't indexed
+    index.add(site(5, null, null));
+  }
+
+  @Test
+  public void testQueryBox() {
+    assertEquals(
+        Arrays.asList(1, 2, 4), index.query(new BoundingBox(-71.07, 42.34, -71.04, 42.37), null));
+    assertEquals(
+        Collections.singletonList(3),
+        index.query(new BoundingBox(-71.2, 42.39, -71.09, 42.5), null));
+  }
+
+  @Test
+  public void testQueryBoxEdgesInclusive() {
+    assertEquals(
+        Arrays.asList(1, 2), index.query(new BoundingBox(-71.06, 42.35, -71.05, 42.36), null));
+    // A box that is a single point
+    assertEquals(
+        Collections.singletonList(3), index.query(new BoundingBox(-71.1, 42.4, -71.1, 42.4), null));
+  }
+
+  @Test
+  public void testQueryEmpty() {
+    assertEquals(Collections.emptyList(), index.query(new BoundingBox(10, 10, 11, 11), null));
+    assertEquals(
+        Collections.emptyList(),
+        new SiteGridIndex().query(new BoundingBox(-180, -90, 180, 90), null));
+  }
+
+  @Test
+  public void testQueryHugeBoxIsBounded() {
+    // Boxes far outside the range of coordinates are clamped to it rather than looped over
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5),
+        () -> {
+          assertEquals(
+              Arrays.asList(1, 2, 3, 4),
+              index.query(new BoundingBox(-1e20, -1e20, 1e20, 1e20), null));
+          assertEquals(
+              Arrays.asList(1, 2, 3, 4),
+              index.query(
+                  new BoundingBox(
+                      Double.NEGATIVE_INFINITY,
+                      Double.NEGATIVE_INFINITY,
+                      Double.POSITIVE_INFINITY,
+                      Double.POSITIVE_INFINITY),
+                  null));
+          assertTrue(
+              index
+                  .query(new BoundingBox(Double.NaN, Double.NaN, Double.NaN, Double.NaN), null)
+                  .isEmpty());
+        });
+  }
+
+  @Test
+  public void testQueryRemoved() {
+    index.remove(site(2, "42.3600", "-71.0500"));
+    assertEquals(
+        Arrays.asList(1, 4), index.query(new BoundingBox(-71.07, 42.34, -71.04, 42.37), null));
+  }
+
+  @Test
+  public void testQueryThinsBelowFullDetailZoom() {
+    BoundingBox bbox = new BoundingBox(-71.07, 42.34, -71.04, 42.37);
+    assertEquals(Arrays.asList(1, 2), index.query(bbox, 12));
+    assertEquals(Arrays.asList(1, 2, 4), index.query(bbox, SiteGridIndex.FULL_DETAIL_ZOOM));
+    assertEquals(Arrays.asList(1, 2, 4), index.query(bbox, null));
+  }
+
+  @Test
+  public void testNearest() {
+    assertEquals(Arrays.asList(1, 4, 2, 3), index.nearest(42.35, -71.06, 10, null));
+    assertEquals(Arrays.asList(2, 4), index.nearest(42.359, -71.051, 2, null));
+    assertEquals(Collections.singletonList(3), index.nearest(42.41, -71.11, 1, null));
+  }
+
+  @Test
+  public void testNearestWithinRadius() {
+    // Sites 1 and 4 are about a meter apart, and site 2 is about 1.4km away
+    assertEquals(Arrays.asList(1, 4), index.nearest(42.35, -71.06, 10, 100.0));
+    assertEquals(Collections.singletonList(1), index.nearest(42.35, -71.06, 10, 0.5));
+    assertEquals(Arrays.asList(1, 4, 2), index.nearest(42.35, -71.06, 10, 2000.0));
+    assertEquals(Collections.emptyList(), index.nearest(10, 10, 10, 1000.0));
+  }
+
+  @Test
+  public void testNearestTiesOrderedById() {
+    SiteGridIndex grid = new SiteGridIndex();
+    grid.add(site(9, "42.3500", "-71.0600"));
+    grid.add(site(3, "42.3500", "-71.0600"));
+    grid.add(site(6, "42.3500", "-71.0600"));
+    assertEquals(Arrays.asList(3, 6, 9), grid.nearest(42.35, -71.06, 3, null));
+    assertEquals(Arrays.asList(3, 6), grid.nearest(42.35, -71.06, 2, null));
+  }
+
+  @Test
+  public void testNearestAcrossCellEdge() {
+    // The point is at the edge of its cell, and the nearest site is just over it
+    SiteGridIndex grid = new SiteGridIndex();
+    double edge = 8471 * SiteGridIndex.CELL_SIZE_DEGREES;
+    grid.add(site(1, String.valueOf(edge + 0.0001), "-71.06"));
+    grid.add(site(2, String.valueOf(edge - 0.0003), "-71.06"));
+    assertEquals(Arrays.asList(1, 2), grid.nearest(edge, -71.06, 2, null));
+    assertEquals(Collections.singletonList(1), grid.nearest(edge, -71.06, 1, null));
+  }
+
+  @Test
+  public void testNearestRemoved() {
+    index.remove(site(1, "42.3500", "-71.0600"));
+    assertEquals(Arrays.asList(4, 2), index.nearest(42.35, -71.06, 2, null));
+  }
+
+  @Test
+  public void testNearestEmpty() {
+    SiteGridIndex grid = new SiteGridIndex();
+    assertEquals(Collections.emptyList(), grid.nearest(42.35, -71.06, 10, null));
+    assertEquals(Collections.emptyList(), grid.nearest(42.35, -71.06, 10, 100.0));
+  }
+
+  @Test
+  public void testNearestBadArguments() {
+    assertEquals(Collections.emptyList(), index.nearest(42.35, -71.06, 0, null));
+    assertEquals(Collections.emptyList(), index.nearest(42.35, -71.06, -1, null));
+    assertEquals(Collections.emptyList(), index.nearest(Double.NaN, -71.06, 10, null));
+    assertEquals(Collections.emptyList(), index.nearest(42.35, Double.POSITIVE_INFINITY, 10, null));
+    assertEquals(Collections.emptyList(), index.nearest(42.35, -71.06, 10, -1.0));
+  }
+
+  @Test
+  public void testNearestMatchesBruteForce() {
+    // Sparse enough that the search has to spread over several rings of cells
+    Random random = new Random(16);
+    SiteGridIndex grid = new SiteGridIndex();
+    double[][] locations = new double[500][];
+    for (int id = 0; id < locations.length; id++) {
+      double lat = 42.2 + random.nextDouble() * 0.3;
+      double lng = -71.2 + random.nextDouble() * 0.3;
+      locations[id] = new double[] {lat, lng};
+      grid.add(site(id, String.valueOf(lat), String.valueOf(lng)));
+    }
+
+    for (int query = 0; query < 200; query++) {
+      double lat = 42.15 + random.nextDouble() * 0.4;
+      double lng = -71.25 + random.nextDouble() * 0.4;
+      int limit = 1 + random.nextInt(30);
+      Double radius = query % 2 == 0 ? null : 500 + random.nextDouble() * 3000;
+
+      double metersPerDegreeLng = 111_320 * Math.cos(Math.toRadians(lat));
+      List<double[]> expected = new ArrayList<>();
+      for (int id = 0; id < locations.length; id++) {
+        double dx = (locations[id][1] - lng) * metersPerDegreeLng;
+        double dy = (locations[id][0] - lat) * 111_320;
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if (radius == null || distance <= radius) {
+          expected.add(new double[] {distance, id});
+        }
+      }
+      expected.sort(
+          Comparator.<double[]>comparingDouble(neighbor -> neighbor[0])
+              .thenComparingDouble(neighbor -> neighbor[1]));
+
+      List<Integer> expectedIds = new ArrayList<>();
+      for (int i = 0; i < Math.min(limit, expected.size()); i++) {
+        expectedIds.add((int) expected.get(i)[1]);
+      }
+      assertEquals(expectedIds, grid.nearest(lat, lng, limit, radius));
+    }
+  }
+}
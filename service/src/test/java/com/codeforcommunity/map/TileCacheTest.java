@@ -0,0 +1,71 @@
+package com.codeforcommunity.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.codeforcommunity.dto.map.MapLayerPayload;
+import io.vertx.core.buffer.Buffer;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TileCacheTest {
+  TileCache cache;
+  int built;
+
+  @BeforeEach
+  public void setup() {
+    cache = new TileCache(2);
+    built = 0;
+  }
+
+  private Supplier<MapLayerPayload> builder(long version) {
+    return () -> {
+      built++;
+      return new MapLayerPayload(
+          version, Buffer.buffer(), Buffer.buffer(), "\"" + version + "\"", "\"" + version + "\"");
+    };
+  }
+
+  @Test
+  public void testHitsAndMisses() {
+    MapLayerPayload tile = cache.get("sites", 1, 0, 0, 1, builder(1));
+    assertSame(tile, cache.get("sites", 1, 0, 0, 1, builder(1)));
+    cache.get("sites", 1, 1, 0, 1, builder(1));
+    cache.get("blocks", 1, 0, 0, 1, builder(1));
+
+    assertEquals(3, built);
+    assertEquals(1, cache.getHits());
+    assertEquals(3, cache.getMisses());
+    // Three tiles were built for a cache of two
+    assertEquals(1, cache.getEvictions());
+  }
+
+  @Test
+  public void testNewVersionMisses() {
+    cache.get("sites", 1, 0, 0, 1, builder(1));
+    MapLayerPayload tile = cache.get("sites", 1, 0, 0, 2, builder(2));
+
+    assertEquals(2, built);
+    assertEquals(2, tile.getVersion());
+    assertEquals(0, cache.getHits());
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() {
+    cache.get("sites", 1, 0, 0, 1, builder(1));
+    cache.get("sites", 1, 1, 0, 1, builder(1));
+    // Using the first tile makes the second the least recently used
+    cache.get("sites", 1, 0, 0, 1, builder(1));
+    cache.get("sites", 1, 0, 1, 1, builder(1));
+    assertEquals(2, cache.size());
+    assertEquals(3, built);
+    assertEquals(1, cache.getEvictions());
+
+    cache.get("sites", 1, 0, 0, 1, builder(1));
+    assertEquals(3, built);
+    cache.get("sites", 1, 1, 0, 1, builder(1));
+    assertEquals(4, built);
+    assertEquals(2, cache.getEvictions());
+  }
+}
@@ -0,0 +1,267 @@
+package com.codeforcommunity.map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codeforcommunity.dto.map.BoundingBox;
+import io.vertx.core.json.JsonObject;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class VectorTileEncoderTest {
+  private static final int MOVE_TO = 1;
+  private static final int CLOSE_PATH = 7;
+
+  /** The fields of a protobuf message, varints as Longs and length-delimited fields as bytes. */
+  private static Map<Integer, List<Object>> decode(byte[] message) {
+    Map<Integer, List<Object>> fields = new HashMap<>();
+    int[] position = {0};
+    while (position[0] < message.length) {
+      long tag = readVarint(message, position);
+      int field = (int) (tag >>> 3);
+      int wireType = (int) (tag & 0x7);
+      Object value;
+      if (wireType == 0) {
+        value = readVarint(message, position);
+      } else if (wireType == 2) {
+        int length = (int) readVarint(message, position);
+        value = Arrays.copyOfRange(message, position[0], position[0] + length);
+        position[0] += length;
+      } else {
+        throw new IllegalStateException("Unexpected wire type " + wireType);
+      }
+      fields.computeIfAbsent(field, f -> new ArrayList<>()).add(value);
+    }
+    return fields;
+  }
+
+  private static long readVarint(byte[] bytes, int[] position) {
+    long value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = bytes[position[0]++];
+      value |= (long) (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+  }
+
+  private static List<Long> packedVarints(byte[] bytes) {
+    List<Long> values = new ArrayList<>();
+    int[] position = {0};
+    while (position[0] < bytes.length) {
+      values.add(readVarint(bytes, position));
+    }
+    return values;
+  }
+
+  private static long unZigZag(long n) {
+    return (n >>> 1) ^ -(n & 1);
+  }
+
+  private static Map<Integer, List<Object>> layer(byte[] tile) {
+    return decode((byte[]) decode(tile).get(3).get(0));
+  }
+
+  private static List<Map<Integer, List<Object>>> features(byte[] tile) {
+    List<Map<Integer, List<Object>>> features = new ArrayList<>();
+    for (Object feature : layer(tile).getOrDefault(2, Collections.emptyList())) {
+      features.add(decode((byte[]) feature));
+    }
+    return features;
+  }
+
+  private static List<Long> geometry(Map<Integer, List<Object>> feature) {
+    return packedVarints((byte[]) feature.get(4).get(0));
+  }
+
+  /** Decodes the rings drawn by a polygon's geometry commands into absolute tile coordinates. */
+  private static List<List<long[]>> rings(List<Long> geometry) {
+    List<List<long[]>> rings = new ArrayList<>();
+    long x = 0;
+    long y = 0;
+    List<long[]> ring = null;
+    for (int i = 0; i < geometry.size(); ) {
+      long command = geometry.get(i++);
+      int id = (int) (command & 0x7);
+      int count = (int) (command >>> 3);
+      if (id == CLOSE_PATH) {
+        rings.add(ring);
+        continue;
+      }
+      if (id == MOVE_TO) {
+        ring = new ArrayList<>();
+      }
+      for (int point = 0; point < count; point++) {
+        x += unZigZag(geometry.get(i++));
+        y += unZigZag(geometry.get(i++));
+        ring.add(new long[] {x, y});
+      }
+    }
+    return rings;
+  }
+
+  private static long area(List<long[]> ring) {
+    long sum = 0;
+    for (int i = 0; i < ring.size(); i++) {
+      long[] a = ring.get(i);
+      long[] b = ring.get((i + 1) % ring.size());
+      sum += a[0] * b[1] - b[0] * a[1];
+    }
+    return sum;
+  }
+
+  /** A square ring of alternating longitudes and latitudes, counter-clockwise on the map. */
+  private static double[] square(double minLng, double minLat, double maxLng, double maxLat) {
+    return new double[] {
+      minLng, minLat, maxLng, minLat, maxLng, maxLat, minLng, maxLat, minLng, minLat
+    };
+  }
+
+  @Test
+  public void testEncodeLayer() {
+    VectorTileEncoder encoder = new VectorTileEncoder(0, 0, 0);
+    assertTrue(encoder.isEmpty());
+
+    Map<Integer, List<Object>> layer = layer(encoder.encode("sites"));
+    assertEquals(Collections.singletonList(2L), layer.get(15));
+    assertArrayEquals("sites".getBytes(StandardCharsets.UTF_8), (byte[]) layer.get(1).get(0));
+    assertEquals(Collections.singletonList((long) VectorTileEncoder.EXTENT), layer.get(5));
+    assertFalse(layer.containsKey(2));
+  }
+
+  @Test
+  public void testAddPoint() {
+    VectorTileEncoder encoder = new VectorTileEncoder(0, 0, 0);
+    encoder.addPoint(7, 0, 0, Collections.emptyMap());
+    assertFalse(encoder.isEmpty());
+
+    Map<Integer, List<Object>> feature = features(encoder.encode("sites")).get(0);
+    assertEquals(7L, feature.get(1).get(0));
+    assertEquals(1L, feature.get(3).get(0));
+    // The center of the only tile at zoom 0
+    assertEquals(Arrays.asList((long) (MOVE_TO | 1 << 3), 4096L, 4096L), geometry(feature));
+  }
+
+  @Test
+  public void testAddPointOutsideTile() {
+    // The north west quarter of the world at zoom 1
+    VectorTileEncoder encoder = new VectorTileEncoder(1, 0, 0);
+    encoder.addPoint(1, -45, 90, Collections.emptyMap());
+    assertTrue(encoder.isEmpty());
+  }
+
+  @Test
+  public void testPropertiesShareKeysAndValues() {
+    VectorTileEncoder encoder = new VectorTileEncoder(0, 0, 0);
+    Map<String, Object> first = new LinkedHashMap<>();
+    first.put("treePresent", true);
+    first.put("commonName", "Red Maple");
+    first.put("adopterId", null);
+    Map<String, Object> second = new LinkedHashMap<>();
+    second.put("treePresent", true);
+    second.put("commonName", "Pin Oak");
+    encoder.addPoint(1, 0, 0, first);
+    encoder.addPoint(2, 1, 1, second);
+
+    byte[] tile = encoder.encode("sites");
+    Map<Integer, List<Object>> layer = layer(tile);
+    // Null values are left out, and repeated keys and values are only written once
+    assertEquals(2, layer.get(3).size());
+    assertEquals(3, layer.get(4).size());
+
+    List<Map<Integer, List<Object>>> features = features(tile);
+    assertEquals(
+        Arrays.asList(0L, 0L, 1L, 1L), packedVarints((byte[]) features.get(0).get(2).get(0)));
+    assertEquals(
+        Arrays.asList(0L, 0L, 1L, 2L), packedVarints((byte[]) features.get(1).get(2).get(0)));
+  }
+
+  @Test
+  public void testAddPolygonWindsRings() {
+    VectorTileEncoder encoder = new VectorTileEncoder(0, 0, 0);
+    List<double[]> polygon = Arrays.asList(square(-90, -45, 90, 45), square(-10, -10, 10, 10));
+    encoder.addPolygons(1, Collections.singletonList(polygon), Collections.emptyMap());
+
+    Map<Integer, List<Object>> feature = features(encoder.encode("blocks")).get(0);
+    assertEquals(3L, feature.get(3).get(0));
+    List<List<long[]>> rings = rings(geometry(feature));
+    assertEquals(2, rings.size());
+    // Exterior rings have a positive area in tile coordinates and holes a negative one
+    assertTrue(area(rings.get(0)) > 0);
+    assertTrue(area(rings.get(1)) < 0);
+  }
+
+  @Test
+  public void testAddPolygonClipsToBuffer() {
+    // The north west quarter of the world at zoom 1, which the square only overlaps a corner of
+    VectorTileEncoder encoder = new VectorTileEncoder(1, 0, 0);
+    encoder.addPolygons(
+        1,
+        Collections.singletonList(Collections.singletonList(square(-90, -45, 90, 45))),
+        Collections.emptyMap());
+
+    List<List<long[]>> rings = rings(geometry(features(encoder.encode("blocks")).get(0)));
+    assertEquals(1, rings.size());
+    for (long[] point : rings.get(0)) {
+      assertTrue(point[0] >= -VectorTileEncoder.BUFFER);
+      assertTrue(point[0] <= VectorTileEncoder.EXTENT + VectorTileEncoder.BUFFER);
+      assertTrue(point[1] >= -VectorTileEncoder.BUFFER);
+      assertTrue(point[1] <= VectorTileEncoder.EXTENT + VectorTileEncoder.BUFFER);
+    }
+  }
+
+  @Test
+  public void testAddPolygonOutsideTile() {
+    VectorTileEncoder encoder = new VectorTileEncoder(1, 0, 0);
+    encoder.addPolygons(
+        1,
+        Collections.singletonList(Collections.singletonList(square(90, -80, 100, -70))),
+        Collections.emptyMap());
+    assertTrue(encoder.isEmpty());
+  }
+
+  @Test
+  public void testAddEmptyPolygons() {
+    VectorTileEncoder encoder = new VectorTileEncoder(0, 0, 0);
+    List<List<double[]>> polygons = new ArrayList<>();
+    polygons.add(Collections.emptyList());
+    encoder.addPolygons(1, polygons, Collections.emptyMap());
+    assertTrue(encoder.isEmpty());
+
+    polygons.add(Collections.singletonList(square(-10, -10, 10, 10)));
+    encoder.addPolygons(2, polygons, Collections.emptyMap());
+    assertEquals(1, rings(geometry(features(encoder.encode("blocks")).get(0))).size());
+  }
+
+  @Test
+  public void testPolygonFeatureSkipsEmptyPolygons() {
+    List<List<double[]>> polygons = new ArrayList<>();
+    polygons.add(Collections.emptyList());
+    polygons.add(Collections.singletonList(square(-10, -10, 10, 10)));
+
+    PolygonFeature feature = new PolygonFeature(1, Collections.emptyMap(), polygons);
+    assertEquals(1, feature.getPolygons().size());
+    assertTrue(feature.overlaps(new BoundingBox(0, 0, 20, 20)));
+  }
+
+  @Test
+  public void testParseGeometrySkipsEmptyPolygons() {
+    JsonObject geometry =
+        new JsonObject(
+            "{\"type\":\"MultiPolygon\",\"coordinates\":[[],[[[0,0],[1,0],[1,1],[0,0]]]]}");
+    assertEquals(1, PolygonLayer.parseGeometry(geometry).size());
+    assertTrue(
+        PolygonLayer.parseGeometry(new JsonObject("{\"type\":\"Polygon\",\"coordinates\":[]}"))
+            .isEmpty());
+  }
+}
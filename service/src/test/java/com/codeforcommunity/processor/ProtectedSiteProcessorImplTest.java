@@ -0,0 +1,222 @@
+package com.codeforcommunity.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codeforcommunity.auth.JWTData;
+import com.codeforcommunity.dataaccess.TreeSpeciesIndex;
+import com.codeforcommunity.dto.site.AddSiteRequest;
+import com.codeforcommunity.enums.PrivilegeLevel;
+import com.codeforcommunity.enums.SiteOwner;
+import com.codeforcommunity.map.PrivateStreetIndex;
+import com.codeforcommunity.map.SiteBenefitTotals;
+import com.codeforcommunity.map.SiteChangeLog;
+import com.codeforcommunity.map.SiteMapSnapshot;
+import com.codeforcommunity.map.SiteRegionLocator;
+import com.codeforcommunity.map.SiteResponseCache;
+import com.codeforcommunity.requester.TreeBenefitsCalculator;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record1;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockDataProvider;
+import org.jooq.tools.jdbc.MockExecuteContext;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProtectedSiteProcessorImplTest {
+  private static final JWTData ADMIN = new JWTData(1, PrivilegeLevel.ADMIN);
+
+  SequencedDatabase database;
+  ProtectedSiteProcessorImpl proc;
+
+  /**
+   * Answers statements as Postgres would for an empty database that every checked row exists in,
+   * giving each inserted row the next id of its table's sequence. Safe to use from many threads at
+   * once, unlike {@link com.codeforcommunity.JooqMock}.
+   */
+  static class SequencedDatabase implements MockDataProvider {
+    private static final Pattern INSERT = Pattern.compile("insert into \"(\\w+)\" \\(([^)]*)\\)");
+    private static final Field<Integer> ID = DSL.field(DSL.name("id"), Integer.class);
+    private static final Field<Integer> ONE = DSL.field(DSL.name("one"), Integer.class);
+
+    private final DSLContext context = DSL.using(new MockConnection(this), SQLDialect.POSTGRES);
+    private final Map<String, AtomicInteger> sequences = new ConcurrentHashMap<>();
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+    // The bindings of every insert into each table, keyed by column name
+    private final Map<String, List<Map<String, Object>>> inserts = new ConcurrentHashMap<>();
+    // The tables that rows were inserted into with an id chosen by the caller
+    private final Set<String> tablesGivenIds = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public MockResult[] execute(MockExecuteContext ctx) {
+      String sql = ctx.sql();
+      statements.add(sql);
+
+      Matcher insert = INSERT.matcher(sql);
+      if (insert.find()) {
+        String table = insert.group(1);
+        Map<String, Object> row = new ConcurrentHashMap<>();
+        String[] columns = insert.group(2).replace("\"", "").split(", ");
+        for (int i = 0; i < columns.length && i < ctx.bindings().length; i++) {
+          if (columns[i].equals("id")) {
+            tablesGivenIds.add(table);
+          }
+          if (ctx.bindings()[i] != null) {
+            row.put(columns[i], ctx.bindings()[i]);
+          }
+        }
+        if (sql.contains("returning")) {
+          int id = sequences.computeIfAbsent(table, name -> new AtomicInteger()).incrementAndGet();
+          row.put("id", id);
+          inserts.computeIfAbsent(table, name -> Collections.synchronizedList(new ArrayList<>()));
+          inserts.get(table).add(row);
+          return singleValue(ID, id);
+        }
+        inserts.computeIfAbsent(table, name -> Collections.synchronizedList(new ArrayList<>()));
+        inserts.get(table).add(row);
+        return new MockResult[] {new MockResult(1, context.newResult())};
+      }
+
+      if (sql.contains("exists")) {
+        return singleValue(ONE, 1);
+      }
+      return new MockResult[] {new MockResult(0, context.newResult())};
+    }
+
+    private MockResult[] singleValue(Field<Integer> field, int value) {
+      Result<Record1<Integer>> result = context.newResult(field);
+      Record1<Integer> record = context.newRecord(field);
+      record.value1(value);
+      result.add(record);
+      return new MockResult[] {new MockResult(1, result)};
+    }
+
+    List<Map<String, Object>> inserted(String table) {
+      return inserts.getOrDefault(table, Collections.emptyList());
+    }
+  }
+
+  @BeforeEach
+  public void setup() {
+    database = new SequencedDatabase();
+    DSLContext db = database.context;
+
+    TreeSpeciesIndex speciesIndex = new TreeSpeciesIndex(db);
+    PrivateStreetIndex privateStreets =
+        PrivateStreetIndex.load(
+            new ByteArrayInputStream(
+                "{\"type\":\"FeatureCollection\",\"features\":[]}"
+                    .getBytes(StandardCharsets.UTF_8)),
+            15);
+
+    proc =
+        new ProtectedSiteProcessorImpl(
+            db,
+            null,
+            new SiteMapSnapshot(db),
+            new SiteChangeLog(db),
+            privateStreets,
+            new SiteRegionLocator(db),
+            new SiteResponseCache(1 << 20),
+            new SiteBenefitTotals(db, new TreeBenefitsCalculator(db, speciesIndex)));
+  }
+
+  private static AddSiteRequest addSiteRequest() {
+    AddSiteRequest request = new AddSiteRequest();
+    request.setNeighborhoodId(1);
+    request.setOwner(SiteOwner.ROW);
+    request.setAddress("1 Tree St");
+    request.setTreePresent(true);
+    return request;
+  }
+
+  @Test
+  public void testConcurrentAddSitesGetDistinctIds() throws Exception {
+    int threads = 8;
+    int sitesPerThread = 10;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < threads; thread++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int i = 0; i < sitesPerThread; i++) {
+                    proc.addSite(ADMIN, addSiteRequest());
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int total = threads * sitesPerThread;
+    List<Map<String, Object>> sites = database.inserted("sites");
+    List<Map<String, Object>> entries = database.inserted("site_entries");
+    List<Map<String, Object>> currentEntries = database.inserted("site_current_entry");
+    assertEquals(total, sites.size());
+    assertEquals(total, entries.size());
+    assertEquals(total, currentEntries.size());
+
+    // No id is picked by the processor itself, every one comes from the table's sequence
+    assertEquals(Collections.emptySet(), database.tablesGivenIds);
+    assertEquals(total, distinct(sites, "id").size());
+    assertEquals(total, distinct(entries, "id").size());
+
+    // Each entry belongs to the site inserted with it, and is that site's current entry
+    Set<Integer> siteIds = distinct(sites, "id");
+    assertEquals(siteIds, distinct(entries, "site_id"));
+    Set<List<Integer>> entryPairs = new HashSet<>();
+    for (Map<String, Object> entry : entries) {
+      entryPairs.add(Arrays.asList((Integer) entry.get("site_id"), (Integer) entry.get("id")));
+    }
+    for (Map<String, Object> currentEntry : currentEntries) {
+      assertTrue(
+          entryPairs.contains(
+              Arrays.asList(
+                  (Integer) currentEntry.get("site_id"), (Integer) currentEntry.get("entry_id"))));
+    }
+
+    for (String sql : database.statements) {
+      assertFalse(sql.contains("max("), sql);
+    }
+  }
+
+  private static Set<Integer> distinct(List<Map<String, Object>> rows, String column) {
+    Set<Integer> values = new HashSet<>();
+    for (Map<String, Object> row : rows) {
+      values.add((Integer) row.get(column));
+    }
+    return values;
+  }
+}
@@ -14,6 +14,7 @@ import com.codeforcommunity.exceptions.IncorrectBlockStatusException;
 import com.codeforcommunity.exceptions.ResourceDoesNotExistException;
 import com.codeforcommunity.exceptions.UserDoesNotExistException;
 import com.codeforcommunity.exceptions.UserNotOnTeamException;
+import com.codeforcommunity.map.MapLayerVersions;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -30,7 +31,7 @@ public class ReservationProcessorImplTest {
   @BeforeEach
   public void setup() {
     mockDb = new JooqMock();
-    proc = new ReservationProcessorImpl(mockDb.getContext());
+    proc = new ReservationProcessorImpl(mockDb.getContext(), new MapLayerVersions());
   }
 
   @Test
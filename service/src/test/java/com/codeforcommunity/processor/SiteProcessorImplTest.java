@@ -0,0 +1,213 @@
+package com.codeforcommunity.processor;
+
+import static org.jooq.generated.Tables.ENTRY_USERNAMES;
+import static org.jooq.generated.Tables.SITES;
+import static org.jooq.generated.Tables.SITE_ENTRIES;
+import static org.jooq.generated.Tables.SITE_IMAGES;
+import static org.jooq.generated.Tables.USERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.codeforcommunity.JooqMock;
+import com.codeforcommunity.JooqMock.OperationType;
+import com.codeforcommunity.dataaccess.TreeSpeciesIndex;
+import com.codeforcommunity.dto.site.GetSiteResponse;
+import com.codeforcommunity.dto.site.SiteEntry;
+import com.codeforcommunity.dto.site.SiteEntryImage;
+import com.codeforcommunity.enums.ImageApprovalStatus;
+import com.codeforcommunity.enums.SiteOwner;
+import com.codeforcommunity.map.SiteBenefitTotals;
+import com.codeforcommunity.map.SiteMapSnapshot;
+import com.codeforcommunity.map.SiteResponseCache;
+import com.codeforcommunity.requester.TreeBenefitsCalculator;
+import com.codeforcommunity.requester.TreeFixtures;
+import io.vertx.core.buffer.Buffer;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.generated.tables.records.SitesRecord;
+import org.jooq.generated.tables.records.TreeSpeciesRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SiteProcessorImplTest {
+  private static final int SITE_ID = 1;
+
+  JooqMock mockDb;
+  SiteResponseCache siteResponses;
+  SiteProcessorImpl proc;
+
+  @BeforeEach
+  public void setup() {
+    mockDb = new JooqMock();
+    siteResponses = new SiteResponseCache(1 << 20);
+
+    JooqMock speciesDb = new JooqMock();
+    TreeSpeciesRecord honeyLocust =
+        TreeFixtures.species(speciesDb.getContext(), TreeFixtures.HONEYLOCUST);
+    honeyLocust.setDefaultImage("default");
+    speciesDb.addReturn(OperationType.SELECT, honeyLocust);
+    TreeSpeciesIndex speciesIndex = new TreeSpeciesIndex(speciesDb.getContext());
+    speciesIndex.load();
+
+    TreeBenefitsCalculator benefitsCalculator =
+        new TreeBenefitsCalculator(speciesDb.getContext(), speciesIndex);
+
+    proc =
+        new SiteProcessorImpl(
+            mockDb.getContext(),
+            new SiteMapSnapshot(mockDb.getContext()),
+            siteResponses,
+            speciesIndex,
+            benefitsCalculator,
+            new SiteBenefitTotals(mockDb.getContext(), benefitsCalculator));
+  }
+
+  private void primeSite() {
+    SitesRecord site = mockDb.getContext().newRecord(SITES);
+    site.setId(SITE_ID);
+    site.setBlockId(2);
+    site.setAddress("1 Tree St");
+    site.setOwner(SiteOwner.ROW.name());
+    mockDb.addReturn(OperationType.SELECT, site);
+  }
+
+  private Record entry(int entryId, Integer userId, String username, String commonName) {
+    List<Field<?>> fields = new ArrayList<>(Arrays.asList(SITE_ENTRIES.fields()));
+    fields.add(USERS.USERNAME);
+    fields.add(ENTRY_USERNAMES.USERNAME);
+
+    Record entry = mockDb.getContext().newRecord(fields.toArray(new Field<?>[0]));
+    entry.set(SITE_ENTRIES.ID, entryId);
+    entry.set(SITE_ENTRIES.SITE_ID, SITE_ID);
+    entry.set(SITE_ENTRIES.USER_ID, userId);
+    entry.set(SITE_ENTRIES.COMMON_NAME, commonName);
+    entry.set(SITE_ENTRIES.CREATED_AT, new Timestamp(entryId * 1000L));
+    if (userId == null) {
+      entry.set(ENTRY_USERNAMES.USERNAME, username);
+    } else {
+      entry.set(USERS.USERNAME, username);
+    }
+    return entry;
+  }
+
+  private Record image(int imageId, int entryId, boolean anonymous, String username) {
+    List<Field<?>> fields = new ArrayList<>(Arrays.asList(SITE_IMAGES.fields()));
+    fields.add(USERS.USERNAME);
+
+    Record image = mockDb.getContext().newRecord(fields.toArray(new Field<?>[0]));
+    image.set(SITE_IMAGES.ID, imageId);
+    image.set(SITE_IMAGES.SITE_ENTRY_ID, entryId);
+    image.set(SITE_IMAGES.UPLOADER_ID, 3);
+    image.set(SITE_IMAGES.IMAGE_URL, "image" + imageId);
+    image.set(SITE_IMAGES.ANONYMOUS, anonymous);
+    image.set(SITE_IMAGES.APPROVAL_STATUS, ImageApprovalStatus.APPROVED.getApprovalStatus());
+    image.set(USERS.USERNAME, username);
+    return image;
+  }
+
+  private Record username(String username) {
+    Record record = mockDb.getContext().newRecord(USERS.USERNAME);
+    record.set(USERS.USERNAME, username);
+    return record;
+  }
+
+  /** Prime a site whose entries each have the given number of images, besides one without any. */
+  private void primeSiteWithEntries(int entryCount, int imagesPerEntry) {
+    primeSite();
+
+    List<Record> entries = new ArrayList<>();
+    List<Record> images = new ArrayList<>();
+    for (int entryId = 1; entryId <= entryCount; entryId++) {
+      entries.add(entry(entryId, 3, "user", "Red Maple"));
+      for (int i = 0; i < imagesPerEntry; i++) {
+        images.add(image(entryId * 100 + i, entryId, false, "uploader"));
+      }
+    }
+    entries.add(entry(entryCount + 1, null, "guest", "Honey locust"));
+
+    mockDb.addReturn(OperationType.SELECT, entries);
+    mockDb.addReturn(OperationType.SELECT, username("adopter"));
+    mockDb.addReturn(OperationType.SELECT, images);
+  }
+
+  @Test
+  public void testGetSiteEntriesQueryCountIsConstant() {
+    primeSiteWithEntries(1, 1);
+    proc.getSite(SITE_ID);
+    int fewEntriesQueries = mockDb.timesCalled(OperationType.SELECT);
+
+    setup();
+    primeSiteWithEntries(30, 5);
+    GetSiteResponse response = proc.getSite(SITE_ID);
+
+    assertEquals(31, response.getEntries().size());
+    assertEquals(4, fewEntriesQueries);
+    assertEquals(fewEntriesQueries, mockDb.timesCalled(OperationType.SELECT));
+  }
+
+  @Test
+  public void testGetSiteEntriesDetails() {
+    primeSite();
+    mockDb.addReturn(
+        OperationType.SELECT,
+        Arrays.asList(
+            entry(2, 3, "user", "Red Maple"),
+            entry(1, null, "guest", "Honey locust"),
+            entry(3, 3, "user", null)));
+    mockDb.addReturn(OperationType.SELECT, username("adopter"));
+    mockDb.addReturn(
+        OperationType.SELECT,
+        Arrays.asList(image(10, 2, false, "uploader"), image(11, 2, true, "uploader")));
+
+    List<SiteEntry> entries = proc.getSite(SITE_ID).getEntries();
+
+    assertEquals(3, entries.size());
+    assertEquals("user", entries.get(0).getUsername());
+    assertEquals("guest", entries.get(1).getUsername());
+    entries.forEach(entry -> assertEquals("adopter", entry.getAdopter()));
+
+    List<SiteEntryImage> images = entries.get(0).getImages();
+    assertEquals(2, images.size());
+    assertEquals("uploader", images.get(0).getUploaderUsername());
+    assertEquals("Anonymous", images.get(1).getUploaderUsername());
+
+    assertEquals(1, entries.get(1).getImages().size());
+    assertEquals("default", entries.get(1).getImages().get(0).getImageUrl());
+    assertNull(entries.get(1).getImages().get(0).getImageId());
+
+    assertEquals(0, entries.get(2).getImages().size());
+    assertEquals(4, mockDb.timesCalled(OperationType.SELECT));
+  }
+
+  @Test
+  public void testGetSiteWithoutEntries() {
+    primeSite();
+    mockDb.addEmptyReturn(OperationType.SELECT);
+
+    assertEquals(0, proc.getSite(SITE_ID).getEntries().size());
+    assertEquals(2, mockDb.timesCalled(OperationType.SELECT));
+  }
+
+  @Test
+  public void testGetEncodedSiteCachesUntilInvalidated() {
+    primeSiteWithEntries(2, 1);
+
+    Buffer response = proc.getEncodedSite(SITE_ID);
+    assertSame(response, proc.getEncodedSite(SITE_ID));
+    assertEquals(4, mockDb.timesCalled(OperationType.SELECT));
+    assertEquals(1, siteResponses.getHits());
+    assertEquals(1, siteResponses.getMisses());
+
+    assertEquals(1, siteResponses.size());
+    assertEquals(response.length(), siteResponses.getBytes());
+
+    siteResponses.invalidate(SITE_ID);
+    assertEquals(0, siteResponses.size());
+    assertEquals(0, siteResponses.getBytes());
+  }
+}
@@ -0,0 +1,89 @@
+package com.codeforcommunity.requester;
+
+import static com.codeforcommunity.requester.TreeFixtures.PIN_OAK;
+import static com.codeforcommunity.requester.TreeFixtures.RED_MAPLE;
+import static com.codeforcommunity.requester.TreeFixtures.benefitCurve;
+import static com.codeforcommunity.requester.TreeFixtures.benefits;
+import static com.codeforcommunity.requester.TreeFixtures.calculator;
+import static com.codeforcommunity.requester.TreeFixtures.species;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codeforcommunity.JooqMock;
+import com.codeforcommunity.dto.site.TreeBenefitsResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jooq.DSLContext;
+import org.jooq.generated.tables.records.TreeBenefitsRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TreeBenefitsCalculatorTest {
+  private static final double DELTA = 1e-9;
+
+  TreeBenefitsCalculator calculator;
+
+  @BeforeEach
+  public void setup() {
+    DSLContext ctx = new JooqMock().getContext();
+    List<TreeBenefitsRecord> benefits = new ArrayList<>(benefitCurve(ctx, "ACRU"));
+    // Pin oaks are missing a diameter, so can't be calculated
+    benefits.add(benefits(ctx, "QUPA", TreeBenefitsCalculator.intervals[0]));
+
+    calculator =
+        calculator(Arrays.asList(species(ctx, RED_MAPLE), species(ctx, PIN_OAK)), benefits);
+  }
+
+  private void assertBenefitsOf(double diameterCM, TreeBenefitsResponse response) {
+    double co2Removed = 2 * diameterCM * TreeBenefitsCalculator.KG_TO_LB;
+    double co2Stored = diameterCM * TreeBenefitsCalculator.KG_TO_LB;
+
+    assertEquals(
+        diameterCM * TreeBenefitsCalculator.KBTU_TO_KWH + diameterCM, response.getEnergy(), DELTA);
+    assertEquals(diameterCM * TreeBenefitsCalculator.M3_TO_GAL, response.getStormwater(), DELTA);
+    assertEquals(8 * diameterCM * TreeBenefitsCalculator.KG_TO_LB, response.getAirQuality(), DELTA);
+    assertEquals(co2Removed, response.getCo2Removed(), DELTA);
+    assertEquals(
+        co2Removed * TreeBenefitsCalculator.CO2_LB_TO_CURRENCY,
+        response.getCo2RemovedMoney(),
+        DELTA);
+    assertEquals(co2Stored, response.getCo2Stored(), DELTA);
+  }
+
+  @Test
+  public void testCalculateBenefitsInterpolates() {
+    assertBenefitsOf(25.4, calculator.calculateBenefits("Red Maple", 10));
+    assertBenefitsOf(11.43, calculator.calculateBenefits("red maple", 4.5));
+  }
+
+  @Test
+  public void testCalculateBenefitsClampsDiameter() {
+    assertBenefitsOf(3.81, calculator.calculateBenefits("Red Maple", 0.5));
+    assertBenefitsOf(114.30, calculator.calculateBenefits("Red Maple", 100));
+  }
+
+  @Test
+  public void testCalculateBenefitsUnknownSpecies() {
+    assertNull(calculator.calculateBenefits("Norway Spruce", 10).getEnergy());
+    assertNull(calculator.calculateBenefits("Pin Oak", 10).getEnergy());
+  }
+
+  @Test
+  public void testAddBenefitsSums() {
+    double[] totals = new double[TreeBenefitsCalculator.BENEFIT_COUNT];
+    assertTrue(calculator.addBenefits("Red Maple", 10, totals));
+    assertTrue(calculator.addBenefits("Red Maple", 10, totals));
+    assertFalse(calculator.addBenefits("Pin Oak", 10, totals));
+
+    double[] single = new double[TreeBenefitsCalculator.BENEFIT_COUNT];
+    calculator.addBenefits("Red Maple", 10, single);
+    for (int i = 0; i < single.length; i++) {
+      single[i] *= 2;
+    }
+    assertArrayEquals(single, totals, DELTA);
+  }
+}
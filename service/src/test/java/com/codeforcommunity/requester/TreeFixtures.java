@@ -0,0 +1,106 @@
+package com.codeforcommunity.requester;
+
+import static org.jooq.generated.Tables.TREE_BENEFITS;
+import static org.jooq.generated.Tables.TREE_SPECIES;
+
+import com.codeforcommunity.JooqMock;
+import com.codeforcommunity.JooqMock.OperationType;
+import com.codeforcommunity.dataaccess.TreeSpeciesIndex;
+import java.util.ArrayList;
+import java.util.List;
+import org.jooq.DSLContext;
+import org.jooq.generated.tables.records.TreeBenefitsRecord;
+import org.jooq.generated.tables.records.TreeSpeciesRecord;
+
+/** Builds the tree species and benefits records that tests load species and benefits from. */
+public class TreeFixtures {
+  public static final TreeSpecies RED_MAPLE =
+      new TreeSpecies("Acer", "rubrum", "Red Maple", "ACRU");
+  public static final TreeSpecies SUGAR_MAPLE =
+      new TreeSpecies("Acer", "saccharum", "Sugar Maple", "ACSA2");
+  public static final TreeSpecies PIN_OAK =
+      new TreeSpecies("Quercus", "palustris", "Pin Oak", "QUPA");
+  public static final TreeSpecies HONEYLOCUST =
+      new TreeSpecies("Gleditsia", "triacanthos", "Honeylocust", "GLTR");
+
+  private TreeFixtures() {}
+
+  /** Returns the tree_species row of the given species. */
+  public static TreeSpeciesRecord species(DSLContext ctx, TreeSpecies species) {
+    TreeSpeciesRecord record = ctx.newRecord(TREE_SPECIES);
+    record.setGenus(species.genus);
+    record.setSpecies(species.species);
+    record.setCommonName(species.commonName);
+    record.setSpeciesCode(species.speciesCode);
+    return record;
+  }
+
+  /**
+   * Returns the tree_benefits row of a species at the given diameter, with every benefit equal to
+   * the diameter so that benefits interpolate to the diameter too.
+   */
+  public static TreeBenefitsRecord benefits(DSLContext ctx, String speciesCode, double diameter) {
+    TreeBenefitsRecord record = ctx.newRecord(TREE_BENEFITS);
+    record.setSpeciesCode(speciesCode);
+    record.setDiameter(diameter);
+    record.setAqNoxAvoided(diameter);
+    record.setAqNoxDep(diameter);
+    record.setAqOzoneDep(diameter);
+    record.setAqPm10Avoided(diameter);
+    record.setAqPm10Dep(diameter);
+    record.setAqSoxAvoided(diameter);
+    record.setAqSoxDep(diameter);
+    record.setAqVocAvoided(diameter);
+    record.setCo2Avoided(diameter);
+    record.setCo2Sequestered(diameter);
+    record.setCo2Storage(diameter);
+    record.setElectricity(diameter);
+    record.setHydroInterception(diameter);
+    record.setNaturalGas(diameter);
+    return record;
+  }
+
+  /**
+   * Returns the tree_benefits rows of a species at every diameter benefits are calculated from, as
+   * built by {@link #benefits}.
+   */
+  public static List<TreeBenefitsRecord> benefitCurve(DSLContext ctx, String speciesCode) {
+    List<TreeBenefitsRecord> curve = new ArrayList<>();
+    for (double diameter : TreeBenefitsCalculator.intervals) {
+      curve.add(benefits(ctx, speciesCode, diameter));
+    }
+    return curve;
+  }
+
+  /**
+   * Returns a calculator loaded from the given rows, through a mock database of its own so its
+   * queries don't use up the returns meant for another mock.
+   */
+  public static TreeBenefitsCalculator calculator(
+      List<TreeSpeciesRecord> species, List<TreeBenefitsRecord> benefits) {
+    JooqMock db = new JooqMock();
+    db.addReturn(OperationType.SELECT, species);
+    db.addReturn(OperationType.SELECT, benefits);
+
+    TreeSpeciesIndex speciesIndex = new TreeSpeciesIndex(db.getContext());
+    speciesIndex.load();
+    TreeBenefitsCalculator calculator = new TreeBenefitsCalculator(db.getContext(), speciesIndex);
+    calculator.load();
+    return calculator;
+  }
+
+  /** The names and code of a species. */
+  public static class TreeSpecies {
+    private final String genus;
+    private final String species;
+    private final String commonName;
+    private final String speciesCode;
+
+    private TreeSpecies(String genus, String species, String commonName, String speciesCode) {
+      this.genus = genus;
+      this.species = species;
+      this.commonName = commonName;
+      this.speciesCode = speciesCode;
+    }
+  }
+}